@@ -0,0 +1,29 @@
+package com.elibrary.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Access log inserts (log row, book counters and daily rollups)
+ * Runs a fixed number of inserts per iteration instead of a timed loop, so the
+ * log grows by a bounded amount; scores are milliseconds per 1000 inserts.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, batchSize = 1000)
+@Measurement(iterations = 10, batchSize = 1000)
+@Fork(1)
+public class AccessLogWriteBenchmark {
+
+    @Benchmark
+    public boolean logAccess(LibraryState state) {
+        return state.accessLogs.logAccess(state.randomStudentId(), state.randomBookId(), "VIEW");
+    }
+}
@@ -0,0 +1,148 @@
+package com.elibrary.benchmarks;
+
+import com.elibrary.database.ServiceRegistry;
+import com.elibrary.models.AccessLog;
+import com.elibrary.models.Book;
+import com.elibrary.models.Category;
+import com.elibrary.models.Student;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Generated dataset for the benchmarks
+ * Books, students and access logs are written through the registry's
+ * repositories, so the same data can be loaded into any backend. The data is
+ * deterministic (fixed seed) so runs on different releases see the same rows.
+ */
+public class BenchmarkData {
+    // Bump when the generated data changes, so kept datasets are not reused
+    static final int VERSION = 1;
+
+    static final int STUDENT_COUNT = 1000;
+    static final long FIRST_LRN = 200000000000L;
+
+    private static final int BATCH_SIZE = 1000;
+    private static final long LOG_SPAN_MILLIS = 365L * 24 * 60 * 60 * 1000;
+
+    // Title and description vocabulary; search terms are drawn from it
+    static final String[] WORDS = {
+        "algebra", "biology", "chemistry", "physics", "history", "geography", "economics", "literature",
+        "poetry", "grammar", "writing", "reading", "science", "nature", "ocean", "planet", "energy",
+        "machine", "computer", "network", "program", "design", "art", "music", "drawing", "painting",
+        "culture", "society", "government", "law", "health", "nutrition", "sports", "games", "stories",
+        "adventure", "mystery", "journey", "island", "mountain", "river", "forest", "animals", "plants",
+        "cells", "atoms", "numbers", "geometry", "calculus", "statistics", "language", "english", "filipino",
+        "philosophy", "ethics", "religion", "mythology", "heroes", "legends", "war", "peace", "empire",
+        "revolution", "freedom", "family", "friendship", "school", "teacher", "student", "guide", "handbook",
+        "introduction", "advanced", "basic", "modern", "ancient", "world", "asian", "global", "practical"
+    };
+    private static final String[] FIRST_NAMES = {
+        "Jose", "Maria", "Juan", "Ana", "Pedro", "Rosa", "Carlos", "Elena", "Miguel", "Sofia",
+        "Antonio", "Isabel", "Ramon", "Teresa", "Luis", "Carmen", "Andres", "Lucia", "Manuel", "Clara"
+    };
+    private static final String[] LAST_NAMES = {
+        "Santos", "Reyes", "Cruz", "Bautista", "Garcia", "Mendoza", "Torres", "Flores", "Ramos", "Aquino",
+        "Villanueva", "Castillo", "Rivera", "Gonzales", "Lopez", "Dela Cruz", "Navarro", "Domingo", "Salazar", "Pascual"
+    };
+
+    private final ServiceRegistry services;
+    private final Random random = new Random(42);
+
+    public BenchmarkData(ServiceRegistry services) {
+        this.services = services;
+    }
+
+    /**
+     * Add the generated books, students and access logs
+     * @param bookCount Number of books
+     * @param logCount Number of access logs, spread over the last year
+     * @throws IllegalStateException if a repository write fails
+     */
+    public void populate(int bookCount, int logCount) {
+        List<Category> categories = services.getCategoryRepository().getAllCategories();
+        if (categories.isEmpty()) {
+            throw new IllegalStateException("No categories to put books in");
+        }
+
+        List<Book> books = new ArrayList<>(BATCH_SIZE);
+        for (int i = 1; i <= bookCount; i++) {
+            Category category = categories.get(random.nextInt(categories.size()));
+            books.add(new Book(0, category.getCategoryId(), words(3) + " " + i, name(),
+                    1950 + random.nextInt(75), words(15), "library/books/generated_" + i + ".pdf", null));
+            if (books.size() == BATCH_SIZE || i == bookCount) {
+                check(services.getBookRepository().addBooks(books), "books");
+                books.clear();
+            }
+        }
+
+        List<Student> students = new ArrayList<>(STUDENT_COUNT);
+        for (int i = 0; i < STUDENT_COUNT; i++) {
+            students.add(new Student(0, String.valueOf(FIRST_LRN + i), FIRST_NAMES[random.nextInt(FIRST_NAMES.length)],
+                    LAST_NAMES[random.nextInt(LAST_NAMES.length)], 7 + random.nextInt(6), "S" + (1 + random.nextInt(8))));
+        }
+        check(services.getStudentRepository().upsertStudents(students) >= 0, "students");
+
+        int[] studentIds = studentIds();
+        int[] bookIds = bookIds();
+        long now = System.currentTimeMillis();
+        List<AccessLog> logs = new ArrayList<>(BATCH_SIZE);
+        for (int i = 1; i <= logCount; i++) {
+            AccessLog log = new AccessLog(studentIds[random.nextInt(studentIds.length)],
+                    bookIds[random.nextInt(bookIds.length)], random.nextInt(4) == 0 ? "DOWNLOAD" : "VIEW");
+            log.setAccessDate(new Timestamp(now - (long) (random.nextDouble() * LOG_SPAN_MILLIS)));
+            logs.add(log);
+            if (logs.size() == BATCH_SIZE || i == logCount) {
+                check(services.getAccessLogRepository().logAccessBatch(logs), "access logs");
+                logs.clear();
+            }
+        }
+    }
+
+    /**
+     * @return IDs of the generated students
+     */
+    public int[] studentIds() {
+        int[] ids = new int[STUDENT_COUNT];
+        for (int i = 0; i < STUDENT_COUNT; i++) {
+            Student student = services.getStudentRepository().authenticateStudent(String.valueOf(FIRST_LRN + i));
+            ids[i] = student.getStudentId();
+        }
+        return ids;
+    }
+
+    /**
+     * @return IDs of all books
+     */
+    public int[] bookIds() {
+        List<Book> books = services.getBookRepository().getAllBooks();
+        int[] ids = new int[books.size()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = books.get(i).getBookId();
+        }
+        return ids;
+    }
+
+    private String words(int count) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                text.append(' ');
+            }
+            text.append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        return text.toString();
+    }
+
+    private String name() {
+        return FIRST_NAMES[random.nextInt(FIRST_NAMES.length)] + " " + LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+    }
+
+    private static void check(boolean success, String what) {
+        if (!success) {
+            throw new IllegalStateException("Could not write generated " + what);
+        }
+    }
+}
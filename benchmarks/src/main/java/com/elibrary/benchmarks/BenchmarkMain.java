@@ -0,0 +1,45 @@
+package com.elibrary.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.File;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+
+/**
+ * Entry point of benchmarks.jar
+ * Takes the usual JMH command line (benchmark regex, -p, -f, -prof ...). Unless
+ * -rf/-rff are given, results are also written as JSON to
+ * results/elibrary-&lt;version&gt;-&lt;timestamp&gt;.json, so runs of different
+ * releases can be compared. Allocation rates (the gc profiler) are reported
+ * unless other profilers are chosen with -prof.
+ */
+public class BenchmarkMain {
+
+    public static void main(String[] args) throws Exception {
+        CommandLineOptions commandLine = new CommandLineOptions(args);
+        if (commandLine.shouldHelp() || commandLine.shouldList() || commandLine.shouldListProfilers()
+                || commandLine.shouldListResultFormats() || commandLine.shouldListWithParams()) {
+            org.openjdk.jmh.Main.main(args);
+            return;
+        }
+
+        ChainedOptionsBuilder options = new OptionsBuilder().parent(commandLine);
+        if (!commandLine.getResultFormat().hasValue() && !commandLine.getResult().hasValue()) {
+            String version = BenchmarkMain.class.getPackage().getImplementationVersion();
+            String stamp = new SimpleDateFormat("yyyyMMdd-HHmmss").format(new Date());
+            File results = new File("results", "elibrary-" + (version != null ? version : "dev") + "-" + stamp + ".json");
+            results.getParentFile().mkdirs();
+            options.resultFormat(ResultFormatType.JSON).result(results.getPath());
+        }
+        if (commandLine.getProfilers().isEmpty()) {
+            options.addProfiler(GCProfiler.class);
+        }
+        new Runner(options.build()).run();
+    }
+}
@@ -0,0 +1,85 @@
+package com.elibrary.benchmarks;
+
+import com.elibrary.database.CatalogCache;
+import com.elibrary.models.Book;
+import com.elibrary.models.Page;
+import com.elibrary.utils.CatalogSearchIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Catalog reads: full load, paging, search and category filter
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CatalogBenchmark {
+    private static final int PAGE_SIZE = 60;
+    private static final int SEARCH_LIMIT = 200;
+
+    /**
+     * Full catalog as the dashboards load it (served by the catalog cache on a database backend)
+     */
+    @Benchmark
+    public List<Book> catalogLoad(LibraryState state) {
+        return state.books.getAllBooks();
+    }
+
+    /**
+     * Full catalog read from the database, with the catalog cache emptied first
+     */
+    @Benchmark
+    public List<Book> catalogLoadUncached(LibraryState state) {
+        CatalogCache.getInstance().invalidate();
+        return state.books.getAllBooks();
+    }
+
+    @Benchmark
+    public Page<Book> firstPage(LibraryState state) {
+        return state.books.getBooksPage(null, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public Book bookById(LibraryState state) {
+        return state.books.getBookById(state.randomBookId());
+    }
+
+    /**
+     * Search box path: FULLTEXT on MySQL, substring match elsewhere
+     */
+    @Benchmark
+    public List<Book> searchRanked(LibraryState state) {
+        return state.books.searchBooksRanked(state.randomSearchTerm(), SEARCH_LIMIT);
+    }
+
+    /**
+     * LIKE '%term%' search (the fallback path)
+     */
+    @Benchmark
+    public List<Book> searchLike(LibraryState state) {
+        return state.books.searchBooksPage(state.randomSearchTerm(), null, SEARCH_LIMIT).getItems();
+    }
+
+    /**
+     * In-memory inverted index behind search-as-you-type
+     */
+    @Benchmark
+    public List<Book> searchIndex(LibraryState state) {
+        return CatalogSearchIndex.getInstance().search(state.randomSearchTerm(), SEARCH_LIMIT);
+    }
+
+    @Benchmark
+    public List<Book> categoryFilter(LibraryState state) {
+        return state.books.getBooksByCategory(state.randomCategoryId());
+    }
+}
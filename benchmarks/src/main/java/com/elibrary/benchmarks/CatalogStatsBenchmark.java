@@ -0,0 +1,174 @@
+package com.elibrary.benchmarks;
+
+import com.elibrary.database.BookStatsDAO;
+import com.elibrary.database.DatabaseConnection;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Full catalog query before and after BOOK_STATS, as the access log grows
+ * correlatedCounts is the query BookDAO ran before the counter table: two
+ * COUNT(*) subqueries against ACCESS_LOG per book. statsJoin is the current
+ * one. Both read every column of every row, bypassing the catalog cache.
+ * Database backends only. The access log is bulk-inserted without the daily
+ * rollups (neither query reads them); filling them row by row makes logs of
+ * millions of rows take hours to generate on H2. On H2 the access_date index,
+ * random inserts into which dominate the load, is also rebuilt after it.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+// Loading the log and the old query at 10M rows hold a connection for minutes
+@Fork(value = 1, jvmArgsAppend = {"-Xmx3g", "-Delibrary.db.pool.leakDetectionMs=0"})
+public class CatalogStatsBenchmark {
+    static final String CORRELATED_COUNTS = "SELECT b.*, c.category_name, " +
+            "(SELECT COUNT(*) FROM ACCESS_LOG WHERE book_id = b.book_id AND access_type = 'VIEW') as view_count, " +
+            "(SELECT COUNT(*) FROM ACCESS_LOG WHERE book_id = b.book_id AND access_type = 'DOWNLOAD') as download_count " +
+            "FROM BOOK b " +
+            "JOIN CATEGORY c ON b.category_id = c.category_id " +
+            "ORDER BY b.title";
+
+    static final String STATS_JOIN = "SELECT b.*, c.category_name, " +
+            "COALESCE(bs.view_count, 0) as view_count, " +
+            "COALESCE(bs.download_count, 0) as download_count " +
+            "FROM BOOK b " +
+            "JOIN CATEGORY c ON b.category_id = c.category_id " +
+            "LEFT JOIN BOOK_STATS bs ON bs.book_id = b.book_id " +
+            "ORDER BY b.title";
+
+    /**
+     * Library with a large access log; the sizes of LibraryState, minus the in-memory backend
+     */
+    @State(Scope.Benchmark)
+    public static class LogState {
+        private static final int BATCH_SIZE = 10_000;
+        private static final long LOG_SPAN_MILLIS = 365L * 24 * 60 * 60 * 1000;
+        // As in schema-embedded.sql
+        private static final String DATE_INDEX = "idx_access_date ON ACCESS_LOG (access_date)";
+
+        @Param({"h2"})
+        public String backend;
+
+        @Param({"1000"})
+        public int catalogSize;
+
+        @Param({"100000", "1000000", "10000000"})
+        public int logSize;
+
+        private final LibraryState library = new LibraryState();
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            // Books and students only; the log is added below
+            library.backend = backend;
+            library.catalogSize = catalogSize;
+            library.logSize = 0;
+            library.setUp();
+
+            long start = System.nanoTime();
+            try (Connection connection = DatabaseConnection.getInstance().getConnection()) {
+                if ("h2".equals(backend)) {
+                    // H2 hands back the previous result of an unchanged query on unchanged tables
+                    try (Statement stmt = connection.createStatement()) {
+                        stmt.execute("SET OPTIMIZE_REUSE_RESULTS FALSE");
+                        stmt.execute("DROP INDEX IF EXISTS idx_access_date");
+                    }
+                }
+                insertLogs(connection);
+                if ("h2".equals(backend)) {
+                    try (Statement stmt = connection.createStatement()) {
+                        stmt.execute("CREATE INDEX IF NOT EXISTS " + DATE_INDEX);
+                    }
+                }
+            } catch (SQLException e) {
+                throw new IllegalStateException("Could not generate the access log", e);
+            }
+            if (!new BookStatsDAO().rebuildStats()) {
+                throw new IllegalStateException("Could not rebuild BOOK_STATS");
+            }
+            System.out.printf("%n[%s] %d access logs ready in %.1f s%n", backend, logSize, (System.nanoTime() - start) / 1e9);
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            library.tearDown();
+        }
+
+        /**
+         * Add logSize access logs spread over the last year, distributed like BenchmarkData's
+         */
+        private void insertLogs(Connection connection) throws SQLException {
+            Random random = new Random(42);
+            long now = System.currentTimeMillis();
+            connection.setAutoCommit(false);
+            try (PreparedStatement stmt = connection.prepareStatement(
+                    "INSERT INTO ACCESS_LOG (student_id, book_id, access_type, access_date) VALUES (?, ?, ?, ?)")) {
+                for (int i = 1; i <= logSize; i++) {
+                    stmt.setInt(1, library.studentIds[random.nextInt(library.studentIds.length)]);
+                    stmt.setInt(2, library.bookIds[random.nextInt(library.bookIds.length)]);
+                    stmt.setString(3, random.nextInt(4) == 0 ? "DOWNLOAD" : "VIEW");
+                    stmt.setTimestamp(4, new Timestamp(now - (long) (random.nextDouble() * LOG_SPAN_MILLIS)));
+                    stmt.addBatch();
+                    if (i % BATCH_SIZE == 0 || i == logSize) {
+                        stmt.executeBatch();
+                        connection.commit();
+                    }
+                }
+            } finally {
+                connection.setAutoCommit(true);
+            }
+        }
+    }
+
+    @Benchmark
+    public int correlatedCounts(LogState state, Blackhole blackhole) throws SQLException {
+        return readAll(CORRELATED_COUNTS, blackhole);
+    }
+
+    @Benchmark
+    public int statsJoin(LogState state, Blackhole blackhole) throws SQLException {
+        return readAll(STATS_JOIN, blackhole);
+    }
+
+    /**
+     * Run a catalog query and read every column
+     * @return Number of rows
+     */
+    private static int readAll(String query, Blackhole blackhole) throws SQLException {
+        int rows = 0;
+        try (Connection connection = DatabaseConnection.getInstance().getConnection();
+             PreparedStatement stmt = connection.prepareStatement(query);
+             ResultSet rs = stmt.executeQuery()) {
+            int columns = rs.getMetaData().getColumnCount();
+            while (rs.next()) {
+                for (int i = 1; i <= columns; i++) {
+                    blackhole.consume(rs.getObject(i));
+                }
+                rows++;
+            }
+        }
+        return rows;
+    }
+}
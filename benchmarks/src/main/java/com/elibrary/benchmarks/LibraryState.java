@@ -0,0 +1,178 @@
+package com.elibrary.benchmarks;
+
+import com.elibrary.database.AccessLogRepository;
+import com.elibrary.database.BookRepository;
+import com.elibrary.database.CategoryRepository;
+import com.elibrary.database.DatabaseConnection;
+import com.elibrary.database.ServiceRegistry;
+import com.elibrary.database.StudentLoginIndex;
+import com.elibrary.database.StudentRepository;
+import com.elibrary.models.Category;
+import com.elibrary.utils.CatalogSearchIndex;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Generated library shared by the data access benchmarks
+ * backend selects the repositories:
+ * - memory: in-memory repositories
+ * - h2: the embedded backend, in a scratch database file per fork under
+ *   target/benchmark-data (removed afterwards). Each dataset size is generated
+ *   once and kept there as a compressed SQL script that later forks load.
+ * - mysql: the database configured with -Delibrary.db.url/user/password
+ *   (pass them with -jvmArgsAppend). Use a scratch database: the dataset is
+ *   generated into it when it has no books, and the write benchmarks add rows.
+ */
+@State(Scope.Benchmark)
+public class LibraryState {
+    @Param({"memory", "h2"})
+    public String backend;
+
+    @Param({"1000", "10000"})
+    public int catalogSize;
+
+    @Param({"10000", "100000"})
+    public int logSize;
+
+    BookRepository books;
+    StudentRepository students;
+    CategoryRepository categories;
+    AccessLogRepository accessLogs;
+
+    int[] bookIds;
+    int[] studentIds;
+    int[] categoryIds;
+
+    private File databaseFile;
+    private File scriptFile;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        if ("h2".equals(backend)) {
+            File dataDir = new File(System.getProperty("elibrary.benchmark.dataDir", "target/benchmark-data"));
+            dataDir.mkdirs();
+            String name = "elibrary-" + ProcessHandle.current().pid();
+            databaseFile = new File(dataDir, name + ".mv.db");
+            databaseFile.delete();
+            scriptFile = new File(dataDir, "elibrary-v" + BenchmarkData.VERSION + "-" + catalogSize + "-" + logSize + ".sql.gz");
+            System.setProperty("elibrary.db.backend", "h2");
+            System.setProperty("elibrary.db.url", "jdbc:h2:file:" + new File(dataDir, name).getAbsolutePath()
+                    + ";MODE=MySQL;IGNORECASE=TRUE;LOCK_TIMEOUT=10000");
+        }
+
+        ServiceRegistry services = ServiceRegistry.getInstance();
+        if ("memory".equals(backend)) {
+            services.useInMemory(0);
+        } else {
+            services.useDatabase();
+        }
+        books = services.getBookRepository();
+        students = services.getStudentRepository();
+        categories = services.getCategoryRepository();
+        accessLogs = services.getAccessLogRepository();
+
+        BenchmarkData data = new BenchmarkData(services);
+        long start = System.nanoTime();
+        boolean restored = scriptFile != null && scriptFile.exists() && runScript(scriptFile);
+        if (!restored && books.estimateBookCount() <= 0) {
+            data.populate(catalogSize, logSize);
+            if (scriptFile != null) {
+                // Reload it so this fork measures the same freshly loaded database as later ones
+                saveScript(scriptFile);
+                runScript(scriptFile);
+            }
+        }
+        System.out.printf("%n[%s] dataset ready in %.1f s%n", backend, (System.nanoTime() - start) / 1e9);
+
+        bookIds = data.bookIds();
+        studentIds = data.studentIds();
+        List<Category> all = categories.getAllCategories();
+        categoryIds = all.stream().mapToInt(Category::getCategoryId).toArray();
+
+        // Started as the application does at startup
+        CatalogSearchIndex index = CatalogSearchIndex.getInstance();
+        index.beginLoad();
+        index.load(books.getAllBooks());
+        if (!"memory".equals(backend)) {
+            StudentLoginIndex.getInstance().reload();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        if (!"memory".equals(backend)) {
+            DatabaseConnection.getInstance().closeConnection();
+        }
+        if (databaseFile != null) {
+            databaseFile.delete();
+        }
+    }
+
+    /**
+     * Keep the generated dataset for later forks as a compressed H2 script
+     */
+    private static void saveScript(File scriptFile) {
+        File partial = new File(scriptFile.getPath() + ".tmp");
+        try (Connection connection = DatabaseConnection.getInstance().getConnection();
+             Statement stmt = connection.createStatement()) {
+            stmt.execute("SCRIPT TO '" + sqlPath(partial) + "' COMPRESSION GZIP");
+            Files.move(partial.toPath(), scriptFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        } catch (SQLException | IOException e) {
+            System.err.println("Could not keep the generated dataset: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Replace the scratch database contents with a kept dataset
+     * @return true if restored, false if the dataset has to be generated
+     */
+    private static boolean runScript(File scriptFile) {
+        try (Connection connection = DatabaseConnection.getInstance().getConnection();
+             Statement stmt = connection.createStatement()) {
+            stmt.execute("DROP ALL OBJECTS");
+            stmt.execute("RUNSCRIPT FROM '" + sqlPath(scriptFile) + "' COMPRESSION GZIP");
+            return true;
+        } catch (SQLException e) {
+            System.err.println("Could not restore " + scriptFile + ", generating again: " + e.getMessage());
+            return false;
+        }
+    }
+
+    private static String sqlPath(File file) {
+        return file.getAbsolutePath().replace("'", "''");
+    }
+
+    int randomBookId() {
+        return bookIds[ThreadLocalRandom.current().nextInt(bookIds.length)];
+    }
+
+    int randomStudentId() {
+        return studentIds[ThreadLocalRandom.current().nextInt(studentIds.length)];
+    }
+
+    int randomCategoryId() {
+        return categoryIds[ThreadLocalRandom.current().nextInt(categoryIds.length)];
+    }
+
+    String randomLrn() {
+        return String.valueOf(BenchmarkData.FIRST_LRN + ThreadLocalRandom.current().nextInt(BenchmarkData.STUDENT_COUNT));
+    }
+
+    String randomSearchTerm() {
+        return BenchmarkData.WORDS[ThreadLocalRandom.current().nextInt(BenchmarkData.WORDS.length)];
+    }
+}
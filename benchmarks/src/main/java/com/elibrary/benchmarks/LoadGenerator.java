@@ -0,0 +1,380 @@
+package com.elibrary.benchmarks;
+
+import com.elibrary.database.AccessLogRepository;
+import com.elibrary.database.AccessLogWriter;
+import com.elibrary.database.BookRepository;
+import com.elibrary.database.CategoryRepository;
+import com.elibrary.database.DatabaseConnection;
+import com.elibrary.database.ServiceRegistry;
+import com.elibrary.database.StudentLoginIndex;
+import com.elibrary.database.StudentRepository;
+import com.elibrary.models.Book;
+import com.elibrary.models.Category;
+import com.elibrary.models.Page;
+import com.elibrary.models.Student;
+import com.elibrary.utils.CatalogSearchIndex;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Headless load driver: N students using the library at once
+ * Each simulated student logs in by LRN, loads the catalog, then performs
+ * a number of actions drawn from the mix, with random think time between
+ * them, before the next student takes the kiosk. Actions go through the
+ * same repositories and background access log writer as StudentDashboardController.
+ * Latency percentiles and throughput per action are printed at the end;
+ * the warm-up period is not counted.
+ *
+ * Run with: java -cp target/benchmarks.jar com.elibrary.benchmarks.LoadGenerator
+ * The backend is chosen as for the application (-Delibrary.repositories,
+ * -Delibrary.db.*). An empty catalog is first filled with generated data.
+ */
+public class LoadGenerator {
+    // Load settings, overridable with -Delibrary.load.* system properties
+    private static final int STUDENTS = Integer.getInteger("elibrary.load.students", 40);
+    private static final int DURATION_SECONDS = Integer.getInteger("elibrary.load.durationSeconds", 60);
+    private static final int WARMUP_SECONDS = Integer.getInteger("elibrary.load.warmupSeconds", 10);
+    // Mean think time between actions (exponentially distributed); 0 runs flat out
+    private static final long THINK_MS = Long.getLong("elibrary.load.thinkMs", 1000L);
+    private static final int SESSION_ACTIONS = Integer.getInteger("elibrary.load.sessionActions", 20);
+    private static final String MIX = System.getProperty("elibrary.load.mix",
+            "search=30,page=15,category=15,open=30,history=10");
+    // Dataset generated when the catalog is empty
+    private static final int BOOKS = Integer.getInteger("elibrary.load.books", 10_000);
+    private static final int LOGS = Integer.getInteger("elibrary.load.logs", 100_000);
+
+    // Same as StudentDashboardController
+    private static final int PAGE_SIZE = 60;
+    private static final int SEARCH_LIMIT = 200;
+    private static final long HISTORY_FLUSH_TIMEOUT_MS = 2000;
+
+    private static final String[] ACTIONS = { "login", "catalog", "search", "page", "category", "open", "history" };
+
+    private final BookRepository bookRepository;
+    private final StudentRepository studentRepository;
+    private final CategoryRepository categoryRepository;
+    private final AccessLogRepository accessLogRepository;
+
+    private final String[] mixActions;
+    private final int[] mixWeights;
+    private final int mixTotal;
+
+    private String[] lrns;
+    private int[] categoryIds;
+
+    private volatile long measureFrom;
+    private volatile long stopAt;
+
+    public LoadGenerator(ServiceRegistry services, String mix) {
+        bookRepository = services.getBookRepository();
+        studentRepository = services.getStudentRepository();
+        categoryRepository = services.getCategoryRepository();
+        accessLogRepository = services.getAccessLogRepository();
+
+        Map<String, Integer> weights = parseMix(mix);
+        mixActions = weights.keySet().toArray(new String[0]);
+        mixWeights = new int[mixActions.length];
+        int total = 0;
+        for (int i = 0; i < mixActions.length; i++) {
+            total += weights.get(mixActions[i]);
+            mixWeights[i] = total;
+        }
+        mixTotal = total;
+    }
+
+    /**
+     * Generate data if the catalog is empty and warm up the indexes as the application does at startup
+     */
+    public void prepare(ServiceRegistry services) {
+        if (bookRepository.estimateBookCount() <= 0) {
+            long start = System.nanoTime();
+            new BenchmarkData(services).populate(BOOKS, LOGS);
+            System.out.printf("Generated %d books and %d access logs in %.1f s%n", BOOKS, LOGS, (System.nanoTime() - start) / 1e9);
+        }
+
+        lrns = studentRepository.getAllStudents().stream().map(Student::getLrn).toArray(String[]::new);
+        categoryIds = categoryRepository.getAllCategories().stream().mapToInt(Category::getCategoryId).toArray();
+        if (lrns.length == 0) {
+            throw new IllegalStateException("No students to log in with");
+        }
+
+        CatalogSearchIndex index = CatalogSearchIndex.getInstance();
+        index.beginLoad();
+        index.load(bookRepository.getAllBooks());
+        if (!services.isInMemory()) {
+            StudentLoginIndex.getInstance().reload();
+        }
+    }
+
+    /**
+     * Run the students until the duration has passed
+     * @return Latencies of the measured period, by action
+     */
+    public Map<String, Latencies> run(int students, int warmupSeconds, int durationSeconds) throws InterruptedException {
+        long start = System.nanoTime();
+        measureFrom = start + TimeUnit.SECONDS.toNanos(warmupSeconds);
+        stopAt = measureFrom + TimeUnit.SECONDS.toNanos(durationSeconds);
+
+        List<Thread> threads = new ArrayList<>();
+        List<Map<String, Latencies>> results = new ArrayList<>();
+        for (int i = 0; i < students; i++) {
+            Map<String, Latencies> latencies = newLatencies();
+            results.add(latencies);
+            Thread thread = new Thread(() -> simulateStudent(latencies), "elibrary-load-" + i);
+            thread.setDaemon(true);
+            threads.add(thread);
+        }
+        threads.forEach(Thread::start);
+
+        while (System.nanoTime() < stopAt) {
+            Thread.sleep(Math.min(10_000, Math.max(1, TimeUnit.NANOSECONDS.toMillis(stopAt - System.nanoTime()))));
+            long elapsed = TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - start);
+            if (System.nanoTime() < stopAt) {
+                System.out.printf("  %3d s  %s%n", elapsed, System.nanoTime() < measureFrom ? "warming up" : "measuring");
+            }
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        Map<String, Latencies> merged = newLatencies();
+        for (Map<String, Latencies> latencies : results) {
+            latencies.forEach((action, values) -> merged.get(action).addAll(values));
+        }
+        return merged;
+    }
+
+    private void simulateStudent(Map<String, Latencies> latencies) {
+        Random random = ThreadLocalRandom.current();
+        think(random);
+        while (System.nanoTime() < stopAt) {
+            String lrn = lrns[random.nextInt(lrns.length)];
+            long started = System.nanoTime();
+            Student student = studentRepository.authenticateStudent(lrn);
+            started = recordSince(latencies, "login", started, student != null);
+            if (student == null) {
+                continue;
+            }
+
+            List<Category> categories = categoryRepository.getAllCategories();
+            Page<Book> page = bookRepository.getBooksPage(null, PAGE_SIZE);
+            bookRepository.estimateBookCount();
+            recordSince(latencies, "catalog", started, categories != null && page != null);
+
+            for (int i = 0; i < SESSION_ACTIONS && System.nanoTime() < stopAt; i++) {
+                think(random);
+                page = perform(nextAction(random), student, page, latencies, random);
+            }
+            think(random);
+        }
+    }
+
+    /**
+     * Perform one action from the mix
+     * @return Page the student is looking at afterwards
+     */
+    private Page<Book> perform(String action, Student student, Page<Book> page, Map<String, Latencies> latencies, Random random) {
+        long started = System.nanoTime();
+        boolean success;
+        switch (action) {
+            case "search":
+                String term = BenchmarkData.WORDS[random.nextInt(BenchmarkData.WORDS.length)];
+                success = bookRepository.searchBooksRanked(term, SEARCH_LIMIT) != null;
+                break;
+            case "page":
+                Page<Book> next = page != null && page.hasMore()
+                        ? bookRepository.getBooksPage(page.getLast(), PAGE_SIZE)
+                        : bookRepository.getBooksPage(null, PAGE_SIZE);
+                success = next != null;
+                page = next;
+                break;
+            case "category":
+                success = categoryIds.length == 0
+                        || bookRepository.getBooksByCategory(categoryIds[random.nextInt(categoryIds.length)]) != null;
+                break;
+            case "open":
+                // The dashboard already has the book; opening it only queues the view
+                List<Book> shown = page != null ? page.getItems() : null;
+                success = shown != null && !shown.isEmpty();
+                if (success) {
+                    AccessLogWriter.getInstance().logAccess(student.getStudentId(),
+                            shown.get(random.nextInt(shown.size())).getBookId(), "VIEW");
+                }
+                break;
+            case "history":
+                AccessLogWriter.getInstance().flush(HISTORY_FLUSH_TIMEOUT_MS);
+                success = accessLogRepository.getAccessLogsByStudent(student.getStudentId()) != null;
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown action " + action);
+        }
+        recordSince(latencies, action, started, success);
+        return page;
+    }
+
+    private String nextAction(Random random) {
+        int pick = random.nextInt(mixTotal);
+        for (int i = 0; i < mixWeights.length; i++) {
+            if (pick < mixWeights[i]) {
+                return mixActions[i];
+            }
+        }
+        return mixActions[mixActions.length - 1];
+    }
+
+    /**
+     * Record an action that started at started, if it finished inside the measured period
+     * @return Current time
+     */
+    private long recordSince(Map<String, Latencies> latencies, String action, long started, boolean success) {
+        long now = System.nanoTime();
+        if (now >= measureFrom && now < stopAt) {
+            latencies.get(action).add(now - started, success);
+        }
+        return now;
+    }
+
+    private void think(Random random) {
+        if (THINK_MS <= 0) {
+            return;
+        }
+        long millis = (long) (-Math.log(1 - random.nextDouble()) * THINK_MS);
+        long remaining = TimeUnit.NANOSECONDS.toMillis(stopAt - System.nanoTime());
+        try {
+            Thread.sleep(Math.max(0, Math.min(millis, remaining)));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static Map<String, Latencies> newLatencies() {
+        Map<String, Latencies> latencies = new LinkedHashMap<>();
+        for (String action : ACTIONS) {
+            latencies.put(action, new Latencies());
+        }
+        return latencies;
+    }
+
+    /**
+     * Parse "search=30,open=30,..." into action weights
+     */
+    static Map<String, Integer> parseMix(String mix) {
+        Map<String, Integer> weights = new LinkedHashMap<>();
+        for (String entry : mix.split(",")) {
+            String[] parts = entry.trim().split("=");
+            String action = parts[0].trim();
+            if (parts.length != 2 || !Arrays.asList(ACTIONS).subList(2, ACTIONS.length).contains(action)) {
+                throw new IllegalArgumentException("Invalid mix entry \"" + entry + "\"; actions are search, page, category, open, history");
+            }
+            int weight = Integer.parseInt(parts[1].trim());
+            if (weight > 0) {
+                weights.put(action, weight);
+            }
+        }
+        if (weights.isEmpty()) {
+            throw new IllegalArgumentException("Mix has no actions: " + mix);
+        }
+        return weights;
+    }
+
+    /**
+     * Print throughput and latency percentiles per action
+     */
+    static void report(Map<String, Latencies> latencies, int durationSeconds) {
+        System.out.printf("%n%-10s %9s %7s %9s %9s %9s %9s %9s %9s%n",
+                "action", "count", "errors", "ops/s", "mean ms", "p50 ms", "p95 ms", "p99 ms", "max ms");
+        long totalCount = 0;
+        for (Map.Entry<String, Latencies> entry : latencies.entrySet()) {
+            Latencies values = entry.getValue();
+            if (values.size() == 0) {
+                continue;
+            }
+            totalCount += values.size();
+            values.sort();
+            System.out.printf("%-10s %9d %7d %9.1f %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+                    entry.getKey(), values.size(), values.errors, (double) values.size() / durationSeconds,
+                    values.mean() / 1e6, values.percentile(50) / 1e6, values.percentile(95) / 1e6,
+                    values.percentile(99) / 1e6, values.percentile(100) / 1e6);
+        }
+        System.out.printf("%-10s %9d %7s %9.1f%n", "total", totalCount, "", (double) totalCount / durationSeconds);
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        ServiceRegistry services = ServiceRegistry.getInstance();
+        LoadGenerator generator = new LoadGenerator(services, MIX);
+        generator.prepare(services);
+
+        System.out.printf("%d students, think time %d ms, %d actions per session, mix %s%n",
+                STUDENTS, THINK_MS, SESSION_ACTIONS, MIX);
+        System.out.printf("Warm-up %d s, measuring %d s%n", WARMUP_SECONDS, DURATION_SECONDS);
+        Map<String, Latencies> latencies = generator.run(STUDENTS, WARMUP_SECONDS, DURATION_SECONDS);
+        report(latencies, DURATION_SECONDS);
+
+        AccessLogWriter.getInstance().shutdown();
+        System.out.println("Access log writer: " + AccessLogWriter.getInstance().getStats());
+        if (!services.isInMemory()) {
+            System.out.println("Connection pool: " + DatabaseConnection.getInstance().getPoolStats());
+            System.out.println("Login index: " + StudentLoginIndex.getInstance());
+            DatabaseConnection.getInstance().closeConnection();
+        }
+    }
+
+    /**
+     * Latency samples of one action in nanoseconds
+     */
+    static final class Latencies {
+        private long[] values = new long[1024];
+        private int size = 0;
+        private long errors = 0;
+
+        void add(long nanos, boolean success) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = nanos;
+            if (!success) {
+                errors++;
+            }
+        }
+
+        void addAll(Latencies other) {
+            if (size + other.size > values.length) {
+                values = Arrays.copyOf(values, Math.max(values.length * 2, size + other.size));
+            }
+            System.arraycopy(other.values, 0, values, size, other.size);
+            size += other.size;
+            errors += other.errors;
+        }
+
+        int size() {
+            return size;
+        }
+
+        void sort() {
+            Arrays.sort(values, 0, size);
+        }
+
+        double mean() {
+            long total = 0;
+            for (int i = 0; i < size; i++) {
+                total += values[i];
+            }
+            return (double) total / size;
+        }
+
+        /**
+         * @return Nearest-rank percentile of sorted samples
+         */
+        long percentile(double percent) {
+            int rank = (int) Math.ceil(percent / 100 * size);
+            return values[Math.max(0, Math.min(size - 1, rank - 1))];
+        }
+    }
+}
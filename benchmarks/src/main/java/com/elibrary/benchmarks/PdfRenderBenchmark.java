@@ -0,0 +1,101 @@
+package com.elibrary.benchmarks;
+
+import com.elibrary.utils.PageImage;
+import javafx.scene.image.Image;
+import javafx.scene.image.PixelFormat;
+import javafx.scene.image.WritableImage;
+import org.apache.pdfbox.rendering.ImageType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * PDF page pipeline of PDFViewerController.showPage, one stage at a time
+ * render -> PNG encode -> PNG decode into a JavaFX Image, plus the whole
+ * pipeline, a direct pixel copy into a WritableImage and the viewer's
+ * PageRenderer, which renders into recycled buffers backing the image.
+ * Uses the software JavaFX pipeline so it runs without a display; image
+ * decoding does not depend on the graphics pipeline.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Dprism.order=sw", "-Xmx2g"})
+public class PdfRenderBenchmark {
+
+    @Benchmark
+    public BufferedImage render(PdfState state) throws IOException {
+        return state.renderer.renderImageWithDPI(state.pages[state.nextIndex()], state.dpi);
+    }
+
+    @Benchmark
+    public BufferedImage renderArgb(PdfState state) throws IOException {
+        return state.renderer.renderImageWithDPI(state.pages[state.nextIndex()], state.dpi, ImageType.ARGB);
+    }
+
+    @Benchmark
+    public byte[] encodePng(PdfState state) throws IOException {
+        ByteArrayOutputStream png = new ByteArrayOutputStream();
+        ImageIO.write(state.rgbImages[state.nextIndex()], "png", png);
+        return png.toByteArray();
+    }
+
+    @Benchmark
+    public Image decodePng(PdfState state) {
+        return new Image(new ByteArrayInputStream(state.pngImages[state.nextIndex()]));
+    }
+
+    /**
+     * Conversion without the PNG round trip: copy the rendered ARGB pixels into a WritableImage
+     */
+    @Benchmark
+    public WritableImage convertDirect(PdfState state) {
+        return toWritableImage(state.argbImages[state.nextIndex()]);
+    }
+
+    /**
+     * What a page turn costs today
+     */
+    @Benchmark
+    public Image pngPipeline(PdfState state) throws IOException {
+        BufferedImage rendered = state.renderer.renderImageWithDPI(state.pages[state.nextIndex()], state.dpi);
+        ByteArrayOutputStream png = new ByteArrayOutputStream();
+        ImageIO.write(rendered, "png", png);
+        return new Image(new ByteArrayInputStream(png.toByteArray()));
+    }
+
+    @Benchmark
+    public WritableImage directPipeline(PdfState state) throws IOException {
+        return toWritableImage(state.renderer.renderImageWithDPI(state.pages[state.nextIndex()], state.dpi, ImageType.ARGB));
+    }
+
+    /**
+     * What a page turn costs with PageRenderer: no conversion, buffer of the previous page reused
+     */
+    @Benchmark
+    public PageImage pixelBufferPipeline(PdfState state) throws IOException {
+        return state.show(state.pageRenderer.render(state.pages[state.nextIndex()], state.dpi));
+    }
+
+    private static WritableImage toWritableImage(BufferedImage image) {
+        int width = image.getWidth();
+        int height = image.getHeight();
+        int[] pixels = ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+        WritableImage result = new WritableImage(width, height);
+        result.getPixelWriter().setPixels(0, 0, width, height, PixelFormat.getIntArgbInstance(), pixels, 0, width);
+        return result;
+    }
+}
@@ -0,0 +1,209 @@
+package com.elibrary.benchmarks;
+
+import com.elibrary.utils.PageImage;
+import com.elibrary.utils.PageRenderer;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.apache.pdfbox.pdmodel.graphics.image.JPEGFactory;
+import org.apache.pdfbox.pdmodel.graphics.image.PDImageXObject;
+import org.apache.pdfbox.rendering.ImageType;
+import org.apache.pdfbox.rendering.PDFRenderer;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.util.Random;
+
+/**
+ * Sample PDF and pre-computed inputs for each stage of the page pipeline
+ * document selects the sample:
+ * - text: the first PDF under ../library/books (or -Delibrary.benchmark.textPdf),
+ *   or a generated text-only book if there is none
+ * - image: a generated book of full-page photos, like a scanned book
+ *   (or -Delibrary.benchmark.imagePdf)
+ * A few pages from the middle of the document are rendered in turn.
+ */
+@State(Scope.Benchmark)
+public class PdfState {
+    private static final int PAGE_COUNT = 4;
+
+    @Param({"text", "image"})
+    public String document;
+
+    // 0.5x to 3x zoom of the viewer's 72 DPI base
+    @Param({"36", "72", "108", "144", "216"})
+    public int dpi;
+
+    PDDocument pdf;
+    PDFRenderer renderer;
+    PageRenderer pageRenderer;
+    PageImage shownPage;
+    int[] pages;
+
+    // Stage inputs per page, prepared once so each stage is measured alone
+    BufferedImage[] rgbImages;
+    BufferedImage[] argbImages;
+    byte[][] pngImages;
+
+    private int next = 0;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        pdf = PDDocument.load(sampleFile());
+        renderer = new PDFRenderer(pdf);
+        pageRenderer = new PageRenderer(pdf);
+
+        int count = Math.min(PAGE_COUNT, pdf.getNumberOfPages());
+        int first = Math.max(0, pdf.getNumberOfPages() / 2 - count / 2);
+        pages = new int[count];
+        rgbImages = new BufferedImage[count];
+        argbImages = new BufferedImage[count];
+        pngImages = new byte[count][];
+        for (int i = 0; i < count; i++) {
+            pages[i] = first + i;
+            rgbImages[i] = renderer.renderImageWithDPI(pages[i], dpi);
+            argbImages[i] = renderer.renderImageWithDPI(pages[i], dpi, ImageType.ARGB);
+            ByteArrayOutputStream png = new ByteArrayOutputStream();
+            ImageIO.write(rgbImages[i], "png", png);
+            pngImages[i] = png.toByteArray();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        System.out.println("\nPage buffers: " + pageRenderer);
+        pdf.close();
+    }
+
+    /**
+     * Show a page as the viewer does, releasing the one it replaces
+     */
+    PageImage show(PageImage image) {
+        if (shownPage != null) {
+            shownPage.release();
+        }
+        shownPage = image;
+        return image;
+    }
+
+    /**
+     * @return Index into pages and the stage inputs, cycling through the sample pages
+     */
+    int nextIndex() {
+        next = (next + 1) % pages.length;
+        return next;
+    }
+
+    private File sampleFile() throws IOException {
+        File dataDir = new File(System.getProperty("elibrary.benchmark.dataDir", "target/benchmark-data"));
+        dataDir.mkdirs();
+        if ("image".equals(document)) {
+            String configured = System.getProperty("elibrary.benchmark.imagePdf");
+            if (configured != null) {
+                return new File(configured);
+            }
+            File generated = new File(dataDir, "sample-image.pdf");
+            if (!generated.exists()) {
+                writeImageBook(generated);
+            }
+            return generated;
+        }
+
+        String configured = System.getProperty("elibrary.benchmark.textPdf");
+        if (configured != null) {
+            return new File(configured);
+        }
+        File[] library = new File("../library/books").listFiles((dir, name) -> name.toLowerCase().endsWith(".pdf"));
+        if (library != null && library.length > 0) {
+            java.util.Arrays.sort(library);
+            return library[0];
+        }
+        File generated = new File(dataDir, "sample-text.pdf");
+        if (!generated.exists()) {
+            writeTextBook(generated);
+        }
+        return generated;
+    }
+
+    private static void writeTextBook(File file) throws IOException {
+        Random random = new Random(7);
+        try (PDDocument book = new PDDocument()) {
+            for (int p = 0; p < 8; p++) {
+                PDPage page = new PDPage(PDRectangle.LETTER);
+                book.addPage(page);
+                try (PDPageContentStream content = new PDPageContentStream(book, page)) {
+                    content.beginText();
+                    content.setFont(PDType1Font.TIMES_ROMAN, 10);
+                    content.setLeading(12);
+                    content.newLineAtOffset(54, 740);
+                    for (int line = 0; line < 56; line++) {
+                        StringBuilder text = new StringBuilder();
+                        while (text.length() < 95) {
+                            text.append(BenchmarkData.WORDS[random.nextInt(BenchmarkData.WORDS.length)]).append(' ');
+                        }
+                        content.showText(text.toString().trim());
+                        content.newLine();
+                    }
+                    content.endText();
+                }
+            }
+            book.save(file);
+        }
+    }
+
+    private static void writeImageBook(File file) throws IOException {
+        Random random = new Random(7);
+        try (PDDocument book = new PDDocument()) {
+            for (int p = 0; p < 8; p++) {
+                PDPage page = new PDPage(PDRectangle.LETTER);
+                book.addPage(page);
+                PDImageXObject photo = JPEGFactory.createFromImage(book, photo(1650, 2100, random), 0.85f);
+                try (PDPageContentStream content = new PDPageContentStream(book, page)) {
+                    content.drawImage(photo, 36, 72, 540, 687);
+                    content.beginText();
+                    content.setFont(PDType1Font.HELVETICA, 9);
+                    content.newLineAtOffset(36, 50);
+                    content.showText("Figure " + (p + 1));
+                    content.endText();
+                }
+            }
+            book.save(file);
+        }
+    }
+
+    /**
+     * Smooth colour fields with grain, so JPEG and PNG compress it like a photo
+     */
+    private static BufferedImage photo(int width, int height, Random random) {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        double fx = 2 + random.nextDouble() * 6;
+        double fy = 2 + random.nextDouble() * 6;
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                double u = (double) x / width;
+                double v = (double) y / height;
+                int grain = random.nextInt(24) - 12;
+                int r = clamp(128 + (int) (90 * Math.sin(u * fx + v * 3)) + grain);
+                int g = clamp(128 + (int) (90 * Math.sin(v * fy + u * 2)) + grain);
+                int b = clamp(128 + (int) (90 * Math.cos((u + v) * 4)) + grain);
+                image.setRGB(x, y, (r << 16) | (g << 8) | b);
+            }
+        }
+        return image;
+    }
+
+    private static int clamp(int value) {
+        return Math.max(0, Math.min(255, value));
+    }
+}
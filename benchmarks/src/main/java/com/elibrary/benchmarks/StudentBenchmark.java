@@ -0,0 +1,48 @@
+package com.elibrary.benchmarks;
+
+import com.elibrary.models.AccessLog;
+import com.elibrary.models.Page;
+import com.elibrary.models.Student;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Student login and access history reads
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StudentBenchmark {
+    private static final int LOGS_PAGE_SIZE = 100;
+
+    @Benchmark
+    public Student loginLookup(LibraryState state) {
+        return state.students.authenticateStudent(state.randomLrn());
+    }
+
+    /**
+     * "My History" on the student dashboard
+     */
+    @Benchmark
+    public List<AccessLog> studentHistory(LibraryState state) {
+        return state.accessLogs.getAccessLogsByStudent(state.randomStudentId());
+    }
+
+    /**
+     * First page of the admin access log view
+     */
+    @Benchmark
+    public Page<AccessLog> latestLogsPage(LibraryState state) {
+        return state.accessLogs.getAccessLogsPage(null, LOGS_PAGE_SIZE);
+    }
+}
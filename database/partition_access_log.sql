@@ -0,0 +1,47 @@
+-- Convert ACCESS_LOG to monthly RANGE partitions on access_date
+-- Run once on an existing database (after schema.sql):
+--   mysql -u elibrary_user -p elibrary_db < database/partition_access_log.sql
+-- The table starts with a single catch-all partition. AccessLogPartitionManager
+-- (started by the application, or run on its own) splits it into monthly
+-- partitions and archives or drops months older than the retention period.
+
+USE elibrary_db;
+
+-- Partitioned InnoDB tables cannot have foreign keys. Check the constraint
+-- names with SHOW CREATE TABLE ACCESS_LOG if these differ. Deleting a book or
+-- student removes its access logs in BookDAO/StudentDAO instead of by cascade.
+ALTER TABLE ACCESS_LOG
+    DROP FOREIGN KEY ACCESS_LOG_ibfk_1,
+    DROP FOREIGN KEY ACCESS_LOG_ibfk_2;
+
+-- Every unique key must include the partitioning column.
+-- idx_access_type is dropped: no query filters on the type alone.
+ALTER TABLE ACCESS_LOG
+    MODIFY access_date TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    DROP PRIMARY KEY,
+    ADD PRIMARY KEY (access_id, access_date),
+    DROP INDEX idx_access_type;
+
+-- UNIX_TIMESTAMP is the only partitioning function allowed on TIMESTAMP columns
+ALTER TABLE ACCESS_LOG
+    PARTITION BY RANGE (UNIX_TIMESTAMP(access_date)) (
+        PARTITION p_future VALUES LESS THAN MAXVALUE
+    );
+
+-- Expired months are copied here before their partition is dropped
+-- (elibrary.accesslog.retentionMode=archive, the default)
+CREATE TABLE IF NOT EXISTS ACCESS_LOG_ARCHIVE (
+    access_id INT NOT NULL,
+    student_id INT NOT NULL,
+    book_id INT NOT NULL,
+    access_type ENUM('VIEW', 'DOWNLOAD') NOT NULL,
+    access_date TIMESTAMP NOT NULL,
+    PRIMARY KEY (access_id, access_date),
+    INDEX idx_archive_date (access_date)
+);
+
+-- Verify the partitions
+SELECT PARTITION_NAME, PARTITION_DESCRIPTION, TABLE_ROWS
+FROM INFORMATION_SCHEMA.PARTITIONS
+WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'ACCESS_LOG'
+ORDER BY PARTITION_ORDINAL_POSITION;
@@ -36,4 +36,28 @@ INSERT INTO ACCESS_LOG (student_id, book_id, access_type) VALUES
 (3, 6, 'VIEW'),
 (3, 6, 'DOWNLOAD');
 
+-- Rebuild view/download counters from the access logs above
+-- (same statement as BookStatsDAO.rebuildStats)
+DELETE FROM BOOK_STATS;
+INSERT INTO BOOK_STATS (book_id, view_count, download_count)
+SELECT book_id,
+       SUM(CASE WHEN access_type = 'VIEW' THEN 1 ELSE 0 END),
+       SUM(CASE WHEN access_type = 'DOWNLOAD' THEN 1 ELSE 0 END)
+FROM ACCESS_LOG
+GROUP BY book_id;
+
+-- Rebuild daily usage rollups (same result as UsageRollupDAO.backfill)
+DELETE FROM BOOK_USAGE_DAILY;
+INSERT INTO BOOK_USAGE_DAILY (usage_date, book_id, access_type, access_count)
+SELECT DATE(access_date), book_id, access_type, COUNT(*)
+FROM ACCESS_LOG
+GROUP BY DATE(access_date), book_id, access_type;
+
+DELETE FROM SECTION_USAGE_DAILY;
+INSERT INTO SECTION_USAGE_DAILY (usage_date, grade_level, section, access_type, access_count)
+SELECT DATE(al.access_date), s.grade_level, s.section, al.access_type, COUNT(*)
+FROM ACCESS_LOG al
+JOIN STUDENT s ON al.student_id = s.student_id
+GROUP BY DATE(al.access_date), s.grade_level, s.section, al.access_type;
+
 SELECT 'Sample data inserted successfully!' as Status;
@@ -34,14 +34,24 @@ CREATE TABLE IF NOT EXISTS BOOK (
     file_path VARCHAR(500) NOT NULL,
     cover_image_path VARCHAR(500),
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
-    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    -- Millisecond precision for the catalog cache version probe; existing databases:
+    -- ALTER TABLE BOOK MODIFY updated_at TIMESTAMP(3) DEFAULT CURRENT_TIMESTAMP(3) ON UPDATE CURRENT_TIMESTAMP(3);
+    updated_at TIMESTAMP(3) DEFAULT CURRENT_TIMESTAMP(3) ON UPDATE CURRENT_TIMESTAMP(3),
     FOREIGN KEY (category_id) REFERENCES CATEGORY(category_id) ON DELETE RESTRICT,
     INDEX idx_title (title),
     INDEX idx_author (author),
-    INDEX idx_category (category_id)
+    INDEX idx_category (category_id),
+    -- Catalog cache version probe (BookDAO.readCatalogVersion); existing databases:
+    -- ALTER TABLE BOOK ADD INDEX idx_updated_at (updated_at);
+    INDEX idx_updated_at (updated_at),
+    -- Catalog search (BookDAO.searchBooksRanked); existing databases:
+    -- ALTER TABLE BOOK ADD FULLTEXT INDEX ft_book_search (title, author, description);
+    FULLTEXT INDEX ft_book_search (title, author, description)
 );
 
 -- ACCESS_LOG Table
+-- For large installations, database/partition_access_log.sql converts it to
+-- monthly partitions with a retention period (AccessLogPartitionManager)
 CREATE TABLE IF NOT EXISTS ACCESS_LOG (
     access_id INT AUTO_INCREMENT PRIMARY KEY,
     student_id INT NOT NULL,
@@ -56,6 +66,40 @@ CREATE TABLE IF NOT EXISTS ACCESS_LOG (
     INDEX idx_access_date (access_date)
 );
 
+-- BOOK_STATS Table
+-- Per-book view/download counters, maintained by AccessLogDAO.logAccessBatch
+-- in the same transaction as the ACCESS_LOG insert
+CREATE TABLE IF NOT EXISTS BOOK_STATS (
+    book_id INT PRIMARY KEY,
+    view_count INT NOT NULL DEFAULT 0,
+    download_count INT NOT NULL DEFAULT 0,
+    FOREIGN KEY (book_id) REFERENCES BOOK(book_id) ON DELETE CASCADE
+);
+
+-- BOOK_USAGE_DAILY Table
+-- Accesses per day, book and type, maintained with BOOK_STATS. Rebuild a range
+-- from ACCESS_LOG with UsageRollupDAO (admin "Rebuild Stats" or its main method)
+CREATE TABLE IF NOT EXISTS BOOK_USAGE_DAILY (
+    usage_date DATE NOT NULL,
+    book_id INT NOT NULL,
+    access_type ENUM('VIEW', 'DOWNLOAD') NOT NULL,
+    access_count INT NOT NULL DEFAULT 0,
+    PRIMARY KEY (usage_date, book_id, access_type),
+    FOREIGN KEY (book_id) REFERENCES BOOK(book_id) ON DELETE CASCADE,
+    INDEX idx_usage_book (book_id)
+);
+
+-- SECTION_USAGE_DAILY Table
+-- Accesses per day, grade level, section and type (student's section at access time)
+CREATE TABLE IF NOT EXISTS SECTION_USAGE_DAILY (
+    usage_date DATE NOT NULL,
+    grade_level INT NOT NULL,
+    section VARCHAR(20) NOT NULL,
+    access_type ENUM('VIEW', 'DOWNLOAD') NOT NULL,
+    access_count INT NOT NULL DEFAULT 0,
+    PRIMARY KEY (usage_date, grade_level, section, access_type)
+);
+
 -- ADMIN Table
 CREATE TABLE IF NOT EXISTS ADMIN (
     admin_id INT AUTO_INCREMENT PRIMARY KEY,
@@ -1,5 +1,13 @@
 package com.elibrary;
 
+import com.elibrary.database.AccessLogPartitionManager;
+import com.elibrary.database.AccessLogWriter;
+import com.elibrary.database.BookDAO;
+import com.elibrary.database.CatalogCache;
+import com.elibrary.database.DatabaseConnection;
+import com.elibrary.database.ServiceRegistry;
+import com.elibrary.database.StudentLoginIndex;
+import com.elibrary.utils.CatalogSearchIndex;
 import javafx.application.Application;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Parent;
@@ -32,6 +40,12 @@ public class MainApp extends Application {
             primaryStage.setMaximized(true);  // Maximize window by default
             primaryStage.show();
             
+            loadSearchIndex();
+            if (!ServiceRegistry.getInstance().isInMemory()) {
+                AccessLogPartitionManager.getInstance().start();
+                StudentLoginIndex.getInstance().start();
+            }
+            
         } catch (Exception e) {
             e.printStackTrace();
             System.err.println("Error starting application: " + e.getMessage());
@@ -39,6 +53,40 @@ public class MainApp extends Application {
         }
     }
     
+    @Override
+    public void stop() {
+        System.out.println("Catalog cache: " + CatalogCache.getInstance().getStats());
+        System.out.println("Student login index: " + StudentLoginIndex.getInstance());
+        
+        // Write queued access logs, then release pooled database connections
+        AccessLogPartitionManager.getInstance().shutdown();
+        StudentLoginIndex.getInstance().shutdown();
+        CatalogSearchIndex.getInstance().shutdown();
+        AccessLogWriter.getInstance().shutdown();
+        if (!ServiceRegistry.getInstance().isInMemory()) {
+            DatabaseConnection.getInstance().closeConnection();
+        }
+    }
+
+    /**
+     * Build the in-memory catalog search index in the background
+     * With a database it is kept up to date with books written from other kiosks.
+     */
+    private void loadSearchIndex() {
+        CatalogSearchIndex index = CatalogSearchIndex.getInstance();
+        if (!ServiceRegistry.getInstance().isInMemory()) {
+            index.start(new BookDAO());
+            return;
+        }
+        // Every write goes through this process, so one load is enough
+        Thread loader = new Thread(() -> {
+            index.beginLoad();
+            index.load(ServiceRegistry.getInstance().getBookRepository().getAllBooks());
+        }, "elibrary-search-index");
+        loader.setDaemon(true);
+        loader.start();
+    }
+    
     /**
      * Get the primary stage
      * @return Primary stage
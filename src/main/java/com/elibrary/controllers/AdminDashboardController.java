@@ -1,15 +1,26 @@
 package com.elibrary.controllers;
 
 import com.elibrary.MainApp;
-import com.elibrary.database.AccessLogDAO;
-import com.elibrary.database.BookDAO;
-import com.elibrary.database.CategoryDAO;
-import com.elibrary.database.StudentDAO;
+import com.elibrary.database.AccessLogRepository;
+import com.elibrary.database.AccessLogExporter;
+import com.elibrary.database.BookRepository;
+import com.elibrary.database.BookStatsDAO;
+import com.elibrary.database.CatalogCache;
+import com.elibrary.database.CategoryRepository;
+import com.elibrary.database.DashboardStatsService;
+import com.elibrary.database.ServiceRegistry;
+import com.elibrary.database.UsageRollupDAO;
 import com.elibrary.models.Admin;
 import com.elibrary.models.Book;
+import com.elibrary.models.AccessLog;
 import com.elibrary.models.Category;
+import com.elibrary.models.DashboardStats;
+import com.elibrary.models.Page;
+import com.elibrary.utils.BookImporter;
+import com.elibrary.utils.RosterImporter;
 import com.elibrary.utils.SessionManager;
 import javafx.beans.property.SimpleStringProperty;
+import javafx.concurrent.Task;
 import javafx.fxml.FXML;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
@@ -19,12 +30,14 @@ import javafx.scene.image.ImageView;
 import javafx.scene.layout.GridPane;
 import javafx.scene.layout.HBox;
 import javafx.scene.layout.VBox;
+import javafx.stage.DirectoryChooser;
 import javafx.stage.FileChooser;
 
 import java.io.File;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
 
@@ -33,6 +46,10 @@ import java.util.Optional;
  */
 public class AdminDashboardController {
     
+    private static final int BOOKS_PAGE_SIZE = 100;
+    private static final int LOGS_PAGE_SIZE = 100;
+    private static final int SEARCH_LIMIT = 500;
+    
     @FXML private Label welcomeLabel;
     @FXML private Label totalBooksLabel;
     @FXML private Label totalStudentsLabel;
@@ -50,25 +67,32 @@ public class AdminDashboardController {
     @FXML private TableColumn<Book, Void> actionsColumn;
     @FXML private Label selectionLabel;
     @FXML private Label statusLabel;
+    @FXML private Button loadMoreButton;
     
-    private BookDAO bookDAO;
-    private CategoryDAO categoryDAO;
-    private StudentDAO studentDAO;
-    private AccessLogDAO accessLogDAO;
+    private BookRepository bookRepository;
+    private CategoryRepository categoryRepository;
+    private AccessLogRepository accessLogRepository;
+    private BookStatsDAO bookStatsDAO;
+    private UsageRollupDAO usageRollupDAO;
     private Admin currentAdmin;
+    private Task<Long> exportTask;      // running or last access log export
+    private Task<BookImporter.Result> importTask;   // running or last bulk import
+    private Page<Book> lastBooksPage;   // last page loaded, null when showing search results
     
     @FXML
     public void initialize() {
         try {
             System.out.println("AdminDashboardController initializing...");
             
-            bookDAO = new BookDAO();
-            categoryDAO = new CategoryDAO();
-            studentDAO = new StudentDAO();
-            accessLogDAO = new AccessLogDAO();
+            ServiceRegistry services = ServiceRegistry.getInstance();
+            bookRepository = services.getBookRepository();
+            categoryRepository = services.getCategoryRepository();
+            accessLogRepository = services.getAccessLogRepository();
+            bookStatsDAO = new BookStatsDAO();
+            usageRollupDAO = new UsageRollupDAO();
             currentAdmin = SessionManager.getInstance().getCurrentAdmin();
             
-            System.out.println("DAOs initialized successfully");
+            System.out.println("Repositories initialized successfully");
             
             // Set welcome message
             if (currentAdmin != null) {
@@ -83,8 +107,8 @@ public class AdminDashboardController {
             System.out.println("Table columns set up");
             
             // Load data
-            loadStatistics();
-            System.out.println("Statistics loaded");
+            loadStatistics(false);
+            System.out.println("Statistics loading");
             
             loadBooks();
             System.out.println("Books loaded");
@@ -151,33 +175,73 @@ public class AdminDashboardController {
     
     /**
      * Load statistics
+     * Shows the cached figures right away and reads fresh ones in the background
+     * @param force true to re-read even if the cached figures have not expired
      */
-    private void loadStatistics() {
-        int totalBooks = bookDAO.getAllBooks().size();
-        int totalStudents = studentDAO.getAllStudents().size();
-        
-        // Calculate total views and downloads
-        int totalViews = 0;
-        int totalDownloads = 0;
-        for (Book book : bookDAO.getAllBooks()) {
-            totalViews += book.getViewCount();
-            totalDownloads += book.getDownloadCount();
-        }
+    private void loadStatistics(boolean force) {
+        DashboardStatsService statsService = DashboardStatsService.getInstance();
+        showStatistics(statsService.getCachedStats());
         
-        totalBooksLabel.setText(String.valueOf(totalBooks));
-        totalStudentsLabel.setText(String.valueOf(totalStudents));
-        totalViewsLabel.setText(String.valueOf(totalViews));
-        totalDownloadsLabel.setText(String.valueOf(totalDownloads));
+        Task<DashboardStats> task = new Task<>() {
+            @Override
+            protected DashboardStats call() {
+                return force ? statsService.refresh() : statsService.getStats();
+            }
+        };
+        task.setOnSucceeded(e -> showStatistics(task.getValue()));
+        
+        Thread thread = new Thread(task, "elibrary-dashboard-stats");
+        thread.setDaemon(true);
+        thread.start();
     }
     
     /**
-     * Load books into table
+     * Show dashboard figures in the statistics labels
+     */
+    private void showStatistics(DashboardStats stats) {
+        if (stats == null) {
+            return;
+        }
+        totalBooksLabel.setText(String.valueOf(stats.getTotalBooks()));
+        totalStudentsLabel.setText(String.valueOf(stats.getTotalStudents()));
+        totalViewsLabel.setText(String.valueOf(stats.getTotalViews()));
+        totalDownloadsLabel.setText(String.valueOf(stats.getTotalDownloads()));
+    }
+    
+    /**
+     * Load the first page of books into table
      */
     private void loadBooks() {
-        List<Book> books = bookDAO.getAllBooks();
+        showFirstBooksPage(bookRepository.getBooksPage(null, BOOKS_PAGE_SIZE));
+        long totalBooks = bookRepository.estimateBookCount();
+        statusLabel.setText("Loaded " + booksTable.getItems().size() + " books" +
+                           (totalBooks >= 0 ? " of ~" + totalBooks : ""));
+    }
+    
+    /**
+     * Replace the table contents with the first page of a paged view
+     */
+    private void showFirstBooksPage(Page<Book> page) {
+        lastBooksPage = page;
         booksTable.getItems().clear();
-        booksTable.getItems().addAll(books);
-        statusLabel.setText("Loaded " + books.size() + " books");
+        booksTable.getItems().addAll(page.getItems());
+        loadMoreButton.setDisable(!page.hasMore());
+    }
+    
+    /**
+     * Handle load more: append the page after the last book in the table
+     */
+    @FXML
+    private void handleLoadMore() {
+        if (lastBooksPage == null || !lastBooksPage.hasMore()) {
+            return;
+        }
+        
+        lastBooksPage = bookRepository.getBooksPage(lastBooksPage.getLast(), BOOKS_PAGE_SIZE);
+        
+        booksTable.getItems().addAll(lastBooksPage.getItems());
+        loadMoreButton.setDisable(!lastBooksPage.hasMore());
+        statusLabel.setText("Loaded " + booksTable.getItems().size() + " books");
     }
     
     /**
@@ -190,7 +254,10 @@ public class AdminDashboardController {
         if (searchTerm.isEmpty()) {
             loadBooks();
         } else {
-            List<Book> results = bookDAO.searchBooks(searchTerm);
+            // Best matches first; relevance-ranked results are not paged
+            List<Book> results = bookRepository.searchBooksRanked(searchTerm, SEARCH_LIMIT);
+            lastBooksPage = null;
+            loadMoreButton.setDisable(true);
             booksTable.getItems().clear();
             booksTable.getItems().addAll(results);
             statusLabel.setText("Found " + results.size() + " book(s)");
@@ -226,7 +293,7 @@ public class AdminDashboardController {
         descriptionArea.setPrefRowCount(3);
         
         ComboBox<Category> categoryCombo = new ComboBox<>();
-        categoryCombo.getItems().addAll(categoryDAO.getAllCategories());
+        categoryCombo.getItems().addAll(categoryRepository.getAllCategories());
         categoryCombo.setPromptText("Select Category");
         
         // PDF File Selection
@@ -351,7 +418,7 @@ public class AdminDashboardController {
         
         Optional<Book> result = dialog.showAndWait();
         result.ifPresent(book -> {
-            if (bookDAO.addBook(book)) {
+            if (bookRepository.addBook(book)) {
                 showAlert(Alert.AlertType.INFORMATION, "Success", "Book added successfully!");
                 handleRefresh();
             } else {
@@ -360,6 +427,150 @@ public class AdminDashboardController {
         });
     }
     
+    /**
+     * Handle bulk import
+     * Imports every PDF in a folder, or the books listed in a CSV manifest, in the background
+     */
+    @FXML
+    private void handleImportBooks() {
+        if (importTask != null && importTask.isRunning()) {
+            showAlert(Alert.AlertType.WARNING, "Import Running", "A book import is already running.");
+            return;
+        }
+        
+        ButtonType folderButton = new ButtonType("Folder...");
+        ButtonType manifestButton = new ButtonType("CSV Manifest...");
+        Alert choice = new Alert(Alert.AlertType.CONFIRMATION, 
+                "Import every PDF in a folder, or the books listed in a CSV manifest " +
+                "(columns: file, title, author, year, category, description)?",
+                folderButton, manifestButton, ButtonType.CANCEL);
+        choice.setTitle("Import Books");
+        choice.setHeaderText("Bulk Import");
+        Optional<ButtonType> answer = choice.showAndWait();
+        if (!answer.isPresent() || answer.get() == ButtonType.CANCEL) {
+            return;
+        }
+        
+        File source;
+        if (answer.get() == folderButton) {
+            DirectoryChooser directoryChooser = new DirectoryChooser();
+            directoryChooser.setTitle("Select Folder of PDF Books");
+            source = directoryChooser.showDialog(statusLabel.getScene().getWindow());
+        } else {
+            FileChooser fileChooser = new FileChooser();
+            fileChooser.setTitle("Select Book Manifest");
+            fileChooser.getExtensionFilters().add(new FileChooser.ExtensionFilter("CSV Files", "*.csv"));
+            source = fileChooser.showOpenDialog(statusLabel.getScene().getWindow());
+        }
+        if (source == null) {
+            return;
+        }
+        
+        // Books without a category in the manifest go into this one
+        List<Category> categories = categoryRepository.getAllCategories();
+        if (categories.isEmpty()) {
+            showAlert(Alert.AlertType.ERROR, "No Categories", "Please add a category before importing books.");
+            return;
+        }
+        ChoiceDialog<Category> categoryDialog = new ChoiceDialog<>(categories.get(0), categories);
+        categoryDialog.setTitle("Import Books");
+        categoryDialog.setHeaderText("Default Category");
+        categoryDialog.setContentText("Category for books without one:");
+        Optional<Category> defaultCategory = categoryDialog.showAndWait();
+        if (!defaultCategory.isPresent()) {
+            return;
+        }
+        
+        BookImporter importer = new BookImporter(bookRepository, categoryRepository);
+        Task<BookImporter.Result> task = new Task<>() {
+            @Override
+            protected BookImporter.Result call() throws Exception {
+                return importer.importBooks(source.toPath(), defaultCategory.get().getCategoryId(),
+                        (processed, total, imported, failed) -> {
+                            updateProgress(processed, total);
+                            updateMessage(String.format("Importing books... %d of %d (%d imported, %d failed)",
+                                    processed, total, imported, failed));
+                        }, this::isCancelled);
+            }
+        };
+        
+        task.messageProperty().addListener((obs, oldMessage, newMessage) -> statusLabel.setText(newMessage));
+        task.setOnSucceeded(e -> {
+            BookImporter.Result result = task.getValue();
+            handleRefresh();
+            statusLabel.setText("Book import: " + result.getImported() + " imported, " + 
+                               result.getSkipped() + " skipped, " + result.getFailed() + " failed");
+            StringBuilder summary = new StringBuilder(String.format(
+                    "Imported: %d%nSkipped (already imported): %d%nFailed: %d%n%nReport: %s",
+                    result.getImported(), result.getSkipped(), result.getFailed(), result.getReportFile().toAbsolutePath()));
+            if (!result.getErrors().isEmpty()) {
+                summary.append("\n\nFailures:\n").append(String.join("\n", result.getErrors()));
+            }
+            showAlert(result.getFailed() > 0 ? Alert.AlertType.WARNING : Alert.AlertType.INFORMATION,
+                     "Import Finished", summary.toString());
+        });
+        task.setOnFailed(e -> {
+            statusLabel.setText("Book import failed");
+            showAlert(Alert.AlertType.ERROR, "Import Failed", 
+                     "Could not import books: " + task.getException().getMessage());
+        });
+        
+        importTask = task;
+        statusLabel.setText("Importing books...");
+        Thread thread = new Thread(task, "elibrary-book-import-task");
+        thread.setDaemon(true);
+        thread.start();
+    }
+    
+    /**
+     * Handle student roster import
+     * Inserts new students and updates existing ones (by LRN) from a CSV roster in the background
+     */
+    @FXML
+    private void handleImportStudents() {
+        FileChooser fileChooser = new FileChooser();
+        fileChooser.setTitle("Select Student Roster (lrn, first_name, last_name, grade_level, section)");
+        fileChooser.getExtensionFilters().add(new FileChooser.ExtensionFilter("CSV Files", "*.csv"));
+        File roster = fileChooser.showOpenDialog(statusLabel.getScene().getWindow());
+        if (roster == null) {
+            return;
+        }
+        
+        RosterImporter importer = new RosterImporter(ServiceRegistry.getInstance().getStudentRepository());
+        Task<RosterImporter.Result> task = new Task<>() {
+            @Override
+            protected RosterImporter.Result call() throws Exception {
+                return importer.importRoster(roster.toPath(), (rowsRead, inserted, updated, rejected) ->
+                        updateMessage(String.format("Importing students... %d rows read (%d inserted, %d updated, %d rejected)",
+                                rowsRead, inserted, updated, rejected)), this::isCancelled);
+            }
+        };
+        
+        task.messageProperty().addListener((obs, oldMessage, newMessage) -> statusLabel.setText(newMessage));
+        task.setOnSucceeded(e -> {
+            RosterImporter.Result result = task.getValue();
+            loadStatistics(true);
+            statusLabel.setText("Student import: " + result);
+            StringBuilder summary = new StringBuilder(String.format("Inserted: %d%nUpdated: %d%nRejected: %d",
+                    result.getInserted(), result.getUpdated(), result.getRejected()));
+            if (!result.getRejections().isEmpty()) {
+                summary.append("\n\nRejected rows:\n").append(String.join("\n", result.getRejections()));
+            }
+            showAlert(result.getRejected() > 0 ? Alert.AlertType.WARNING : Alert.AlertType.INFORMATION,
+                     "Import Finished", summary.toString());
+        });
+        task.setOnFailed(e -> {
+            statusLabel.setText("Student import failed");
+            showAlert(Alert.AlertType.ERROR, "Import Failed", 
+                     "Could not import students: " + task.getException().getMessage());
+        });
+        
+        statusLabel.setText("Importing students...");
+        Thread thread = new Thread(task, "elibrary-roster-import");
+        thread.setDaemon(true);
+        thread.start();
+    }
+    
     /**
      * Handle edit book
      */
@@ -375,8 +586,11 @@ public class AdminDashboardController {
     
     /**
      * Edit book dialog
+     * Works on a copy: the selected book may be shared with the catalog cache,
+     * which must keep the saved values if the update fails.
      */
-    private void editBook(Book book) {
+    private void editBook(Book selectedBook) {
+        Book book = new Book(selectedBook);
         Dialog<Book> dialog = new Dialog<>();
         dialog.setTitle("Edit Book");
         dialog.setHeaderText("Edit book details");
@@ -396,7 +610,7 @@ public class AdminDashboardController {
         descriptionArea.setPrefRowCount(3);
         
         ComboBox<Category> categoryCombo = new ComboBox<>();
-        categoryCombo.getItems().addAll(categoryDAO.getAllCategories());
+        categoryCombo.getItems().addAll(categoryRepository.getAllCategories());
         categoryCombo.getItems().stream()
             .filter(c -> c.getCategoryId() == book.getCategoryId())
             .findFirst()
@@ -528,7 +742,7 @@ public class AdminDashboardController {
         
         Optional<Book> result = dialog.showAndWait();
         result.ifPresent(updatedBook -> {
-            if (bookDAO.updateBook(updatedBook)) {
+            if (bookRepository.updateBook(updatedBook)) {
                 showAlert(Alert.AlertType.INFORMATION, "Success", "Book updated successfully!");
                 handleRefresh();
             } else {
@@ -561,7 +775,7 @@ public class AdminDashboardController {
         
         confirm.showAndWait().ifPresent(response -> {
             if (response == ButtonType.OK) {
-                if (bookDAO.deleteBook(book.getBookId())) {
+                if (bookRepository.deleteBook(book.getBookId())) {
                     showAlert(Alert.AlertType.INFORMATION, "Success", "Book deleted successfully!");
                     handleRefresh();
                     
@@ -591,7 +805,7 @@ public class AdminDashboardController {
         content.setPrefHeight(400);
         
         ListView<Category> categoryList = new ListView<>();
-        categoryList.getItems().addAll(categoryDAO.getAllCategories());
+        categoryList.getItems().addAll(categoryRepository.getAllCategories());
         categoryList.setPrefHeight(300);
         
         HBox buttonBox = new HBox(10);
@@ -606,9 +820,9 @@ public class AdminDashboardController {
                 if (!name.trim().isEmpty()) {
                     Category category = new Category();
                     category.setCategoryName(name.trim());
-                    if (categoryDAO.addCategory(category)) {
+                    if (categoryRepository.addCategory(category)) {
                         categoryList.getItems().clear();
-                        categoryList.getItems().addAll(categoryDAO.getAllCategories());
+                        categoryList.getItems().addAll(categoryRepository.getAllCategories());
                         showAlert(Alert.AlertType.INFORMATION, "Success", "Category added!");
                     }
                 }
@@ -622,7 +836,7 @@ public class AdminDashboardController {
                 confirm.setContentText("Delete category \"" + selected.getCategoryName() + "\"?");
                 confirm.showAndWait().ifPresent(response -> {
                     if (response == ButtonType.OK) {
-                        if (categoryDAO.deleteCategory(selected.getCategoryId())) {
+                        if (categoryRepository.deleteCategory(selected.getCategoryId())) {
                             categoryList.getItems().remove(selected);
                             showAlert(Alert.AlertType.INFORMATION, "Success", "Category deleted!");
                         } else {
@@ -654,41 +868,168 @@ public class AdminDashboardController {
         content.setPrefWidth(700);
         content.setPrefHeight(500);
         
-        TableView<com.elibrary.models.AccessLog> table = new TableView<>();
+        TableView<AccessLog> table = new TableView<>();
         
-        TableColumn<com.elibrary.models.AccessLog, String> studentCol = new TableColumn<>("Student");
+        TableColumn<AccessLog, String> studentCol = new TableColumn<>("Student");
         studentCol.setCellValueFactory(data -> new SimpleStringProperty(data.getValue().getStudentName()));
         studentCol.setPrefWidth(150);
         
-        TableColumn<com.elibrary.models.AccessLog, String> bookCol = new TableColumn<>("Book");
+        TableColumn<AccessLog, String> bookCol = new TableColumn<>("Book");
         bookCol.setCellValueFactory(data -> new SimpleStringProperty(data.getValue().getBookTitle()));
         bookCol.setPrefWidth(250);
         
-        TableColumn<com.elibrary.models.AccessLog, String> actionCol = new TableColumn<>("Action");
+        TableColumn<AccessLog, String> actionCol = new TableColumn<>("Action");
         actionCol.setCellValueFactory(data -> new SimpleStringProperty(data.getValue().getAccessType()));
         actionCol.setPrefWidth(100);
         
-        TableColumn<com.elibrary.models.AccessLog, String> dateCol = new TableColumn<>("Date");
+        TableColumn<AccessLog, String> dateCol = new TableColumn<>("Date");
         dateCol.setCellValueFactory(data -> new SimpleStringProperty(data.getValue().getAccessDate().toString()));
         dateCol.setPrefWidth(180);
         
         table.getColumns().addAll(studentCol, bookCol, actionCol, dateCol);
-        table.getItems().addAll(accessLogDAO.getAllAccessLogs());
+        VBox.setVgrow(table, javafx.scene.layout.Priority.ALWAYS);
+        
+        // Logs are fetched a page at a time, newest first
+        long totalLogs = accessLogRepository.estimateAccessLogCount();
+        Label countLabel = new Label();
+        Button moreBtn = new Button("Load More");
+        @SuppressWarnings("unchecked")
+        final Page<AccessLog>[] lastLogsPage = new Page[1];
         
-        content.getChildren().add(table);
+        Runnable loadNextPage = () -> {
+            AccessLog after = lastLogsPage[0] != null ? lastLogsPage[0].getLast() : null;
+            lastLogsPage[0] = accessLogRepository.getAccessLogsPage(after, LOGS_PAGE_SIZE);
+            table.getItems().addAll(lastLogsPage[0].getItems());
+            moreBtn.setDisable(!lastLogsPage[0].hasMore());
+            countLabel.setText("Showing " + table.getItems().size() +
+                              (totalLogs >= 0 ? " of ~" + totalLogs : "") + " log(s)");
+        };
+        moreBtn.setOnAction(e -> loadNextPage.run());
+        loadNextPage.run();
+        
+        HBox footer = new HBox(10, moreBtn, countLabel);
+        footer.setAlignment(Pos.CENTER_LEFT);
+        
+        content.getChildren().addAll(table, footer);
         alert.getDialogPane().setContent(content);
         alert.showAndWait();
     }
     
+    /**
+     * Handle export access logs
+     * Streams the full access history to a CSV or JSON file (optionally gzipped) in the background.
+     * Clicking again while an export runs offers to cancel it.
+     */
+    @FXML
+    private void handleExportLogs() {
+        if (exportTask != null && exportTask.isRunning()) {
+            Alert confirm = new Alert(Alert.AlertType.CONFIRMATION);
+            confirm.setTitle("Export Running");
+            confirm.setHeaderText("Cancel Export");
+            confirm.setContentText("An access log export is still running. Cancel it?");
+            confirm.showAndWait().ifPresent(response -> {
+                if (response == ButtonType.OK) {
+                    exportTask.cancel();
+                }
+            });
+            return;
+        }
+        
+        FileChooser fileChooser = new FileChooser();
+        fileChooser.setTitle("Export Access Logs");
+        fileChooser.setInitialFileName(new AccessLogExporter(AccessLogExporter.Format.CSV, false)
+                .fileNameFor("access_logs_" + LocalDate.now()));
+        fileChooser.getExtensionFilters().addAll(
+            new FileChooser.ExtensionFilter("CSV Files", "*.csv"),
+            new FileChooser.ExtensionFilter("Gzipped CSV Files", "*.csv.gz"),
+            new FileChooser.ExtensionFilter("JSON Files", "*.json"),
+            new FileChooser.ExtensionFilter("Gzipped JSON Files", "*.json.gz")
+        );
+        File chosen = fileChooser.showSaveDialog(statusLabel.getScene().getWindow());
+        if (chosen == null) {
+            return;
+        }
+        
+        // Format follows the chosen file name, or the selected filter if the name has no extension
+        String name = chosen.getName().toLowerCase();
+        boolean named = name.endsWith(".csv") || name.endsWith(".json") || name.endsWith(".gz");
+        String pattern = named || fileChooser.getSelectedExtensionFilter() == null
+                ? "*" + name : fileChooser.getSelectedExtensionFilter().getExtensions().get(0);
+        boolean gzip = pattern.endsWith(".gz");
+        AccessLogExporter.Format format = pattern.endsWith(".json") || pattern.endsWith(".json.gz")
+                ? AccessLogExporter.Format.JSON : AccessLogExporter.Format.CSV;
+        AccessLogExporter exporter = new AccessLogExporter(format, gzip);
+        File file = named ? chosen : new File(chosen.getParentFile(), exporter.fileNameFor(chosen.getName()));
+        
+        Task<Long> task = new Task<>() {
+            @Override
+            protected Long call() throws Exception {
+                return exporter.export(file.toPath(), null, null, (rows, total) -> {
+                    updateProgress(rows, total > 0 ? Math.max(total, rows) : -1);
+                    updateMessage(total > 0
+                            ? String.format("Exporting access logs... %,d of ~%,d", rows, Math.max(total, rows))
+                            : String.format("Exporting access logs... %,d", rows));
+                }, this::isCancelled);
+            }
+        };
+        
+        task.messageProperty().addListener((obs, oldMessage, newMessage) -> statusLabel.setText(newMessage));
+        task.setOnSucceeded(e -> statusLabel.setText(
+                String.format("Exported %,d access log(s) to %s", task.getValue(), file.getName())));
+        task.setOnCancelled(e -> statusLabel.setText("Access log export cancelled"));
+        task.setOnFailed(e -> {
+            statusLabel.setText("Access log export failed");
+            showAlert(Alert.AlertType.ERROR, "Export Failed",
+                     "Could not export access logs: " + task.getException().getMessage());
+        });
+        
+        exportTask = task;
+        statusLabel.setText("Exporting access logs...");
+        Thread thread = new Thread(task, "elibrary-log-export");
+        thread.setDaemon(true);
+        thread.start();
+    }
+    
     /**
      * Handle refresh
      */
     @FXML
     private void handleRefresh() {
-        loadStatistics();
+        loadStatistics(true);
         loadBooks();
         searchField.clear();
-        statusLabel.setText("Data refreshed");
+        
+        CatalogCache.Stats cacheStats = CatalogCache.getInstance().getStats();
+        statusLabel.setText(String.format("Data refreshed (catalog cache: %.0f%% hits, last reload %.0f ms)",
+                cacheStats.getHitRatio() * 100, cacheStats.getLastRefreshMillis()));
+    }
+    
+    /**
+     * Handle recount statistics
+     * Rebuilds the view/download counters from the access logs in the background
+     */
+    @FXML
+    private void handleRebuildStats() {
+        Task<Boolean> task = new Task<>() {
+            @Override
+            protected Boolean call() {
+                return bookStatsDAO.rebuildStats() && usageRollupDAO.backfill(null, null);
+            }
+        };
+        
+        task.setOnSucceeded(e -> {
+            if (task.getValue()) {
+                handleRefresh();
+                statusLabel.setText("Statistics recounted");
+            } else {
+                statusLabel.setText("Failed to recount statistics");
+            }
+        });
+        
+        statusLabel.setText("Recounting statistics...");
+        Thread thread = new Thread(task, "elibrary-stats-rebuild");
+        thread.setDaemon(true);
+        thread.start();
     }
     
     /**
@@ -1,7 +1,8 @@
 package com.elibrary.controllers;
 
 import com.elibrary.MainApp;
-import com.elibrary.database.AdminDAO;
+import com.elibrary.database.AdminRepository;
+import com.elibrary.database.ServiceRegistry;
 import com.elibrary.models.Admin;
 import com.elibrary.utils.SessionManager;
 import javafx.fxml.FXML;
@@ -24,10 +25,10 @@ public class AdminLoginController {
     @FXML
     private Label errorLabel;
     
-    private AdminDAO adminDAO;
+    private AdminRepository adminRepository;
     
     public AdminLoginController() {
-        this.adminDAO = new AdminDAO();
+        this.adminRepository = ServiceRegistry.getInstance().getAdminRepository();
     }
     
     /**
@@ -45,7 +46,7 @@ public class AdminLoginController {
         }
         
         // Authenticate admin
-        Admin admin = adminDAO.authenticateAdmin(username, password);
+        Admin admin = adminRepository.authenticateAdmin(username, password);
         
         if (admin != null) {
             // Login successful
@@ -1,39 +1,97 @@
 package com.elibrary.controllers;
 
+import com.elibrary.utils.PageCache;
+import com.elibrary.utils.PageImage;
+import com.elibrary.utils.PageRenderer;
+import javafx.animation.PauseTransition;
+import javafx.application.Platform;
+import javafx.concurrent.Task;
 import javafx.fxml.FXML;
+import javafx.geometry.Bounds;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
+import javafx.scene.Scene;
 import javafx.scene.control.*;
-import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
 import javafx.scene.layout.*;
 import javafx.stage.Stage;
+import javafx.util.Duration;
 import org.apache.pdfbox.pdmodel.PDDocument;
-import org.apache.pdfbox.rendering.PDFRenderer;
 
-import java.awt.image.BufferedImage;
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
+import java.awt.Dimension;
 import java.io.File;
-import javax.imageio.ImageIO;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Controller for embedded PDF viewer
+ * The document is loaded and pages are rendered on a render thread of its own
+ * (PDFBox documents are not thread-safe), so the window stays responsive.
+ * Only the latest requested page and zoom is shown; renders requested before
+ * it are cancelled or discarded. Rendered pages are kept in a PageCache, and
+ * once the reader stays on a page its neighbours are rendered ahead while the
+ * render thread is idle. From the tile zoom up, only the tiles around the
+ * visible part of the page are rendered, and more stream in while scrolling.
+ * While zooming, the shown bitmap is rescaled at once, a low resolution
+ * preview follows, and the full resolution page once the zoom settles.
  */
 public class PDFViewerController {
+    // Prefetch settings, overridable with -Delibrary.pdf.prefetch.* system properties
+    private static final int PREFETCH_PAGES = Integer.getInteger("elibrary.pdf.prefetch.pages", 1);
+    private static final long PREFETCH_DELAY_MS = Long.getLong("elibrary.pdf.prefetch.delayMs", 300L);
+    // Zoom from which pages are rendered in tiles, overridable with -Delibrary.pdf.tile.minZoom
+    private static final float TILE_MIN_ZOOM = Float.parseFloat(System.getProperty("elibrary.pdf.tile.minZoom", "2.0"));
+    // Tiles this many pixels outside the viewport are rendered too, so scrolling finds them ready
+    private static final int TILE_MARGIN = PageRenderer.TILE_SIZE / 2;
+    // Progressive zoom settings, overridable with -Delibrary.pdf.zoom.* system properties
+    private static final long ZOOM_SETTLE_MS = Long.getLong("elibrary.pdf.zoom.settleMs", 250L);
+    private static final float PREVIEW_SCALE = Float.parseFloat(System.getProperty("elibrary.pdf.zoom.previewScale", "0.5"));
     
     @FXML private Label titleLabel;
     @FXML private Label authorLabel;
     @FXML private Label pageLabel;
     @FXML private ImageView pdfImageView;
+    @FXML private Pane tileLayer;
+    @FXML private ProgressIndicator renderProgress;
     @FXML private Button prevButton;
     @FXML private Button nextButton;
     @FXML private Button closeButton;
     @FXML private Slider zoomSlider;
     @FXML private ScrollPane scrollPane;
     
-    private PDDocument document;
-    private PDFRenderer pdfRenderer;
+    private final ScheduledExecutorService renderExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "elibrary-pdf-render");
+        thread.setDaemon(true);
+        return thread;
+    });
+    
+    private volatile PDDocument document;   // opened and closed on the render thread
+    private PageRenderer pageRenderer;
+    private final PageCache pageCache = new PageCache();
+    private Task<PageImage> renderTask;   // latest page render; earlier ones are cancelled
+    private Task<PageImage> previewTask;   // low resolution render while zooming
+    private int previewPage = -1;
+    private PauseTransition zoomSettle;   // full resolution render once the zoom stops changing
+    private final List<Future<?>> prefetches = new ArrayList<>();   // pending neighbour renders
+    private PageImage shownPage;
+    private PageImage retiredPage;   // released one page later, so no frame still draws it
+    
+    // Tiled mode: page and DPI laid out in tileLayer, or -1 when showing whole pages
+    private int tilePage = -1;
+    private int tileDpi = -1;
+    private Task<Void> tileTask;   // renders the missing visible tiles; replaced on every scroll
+    private final Map<Integer, ImageView> tileViews = new HashMap<>();   // by tile index
+    private final List<PageImage> retiredTiles = new ArrayList<>();   // released on the next update, or after the next frame
+    private boolean closed = false;
     private int currentPage = 0;
     private int totalPages = 0;
     private float currentZoom = 1.5f;
@@ -41,76 +99,502 @@ public class PDFViewerController {
     private String bookAuthor;
     
     /**
-     * Load PDF file
+     * Load PDF file in the background; the first page is shown once it is rendered
      */
     public void loadPDF(File pdfFile, String title, String author) {
-        try {
-            this.bookTitle = title;
-            this.bookAuthor = author;
-            
-            // Load PDF document
-            document = PDDocument.load(pdfFile);
-            pdfRenderer = new PDFRenderer(document);
-            totalPages = document.getNumberOfPages();
-            
-            // Update UI
-            titleLabel.setText(title);
-            authorLabel.setText("by " + author);
+        this.bookTitle = title;
+        this.bookAuthor = author;
+        
+        // Update UI
+        titleLabel.setText(title);
+        authorLabel.setText("by " + author);
+        pageLabel.setText("Loading...");
+        prevButton.setDisable(true);
+        nextButton.setDisable(true);
+        renderProgress.setVisible(true);
+        
+        // Setup zoom slider
+        zoomSlider.setMin(0.5);
+        zoomSlider.setMax(3.0);
+        zoomSlider.setValue(1.5);
+        zoomSlider.valueProperty().addListener((obs, oldVal, newVal) -> zoomTo(newVal.floatValue()));
+        zoomSettle = new PauseTransition(Duration.millis(ZOOM_SETTLE_MS));
+        zoomSettle.setOnFinished(e -> showPage(currentPage));
+        
+        // In tiled mode the whole page image stays underneath, scaled up, until the tiles cover it
+        tileLayer.managedProperty().bind(tileLayer.visibleProperty());
+        scrollPane.hvalueProperty().addListener((obs, oldVal, newVal) -> updateTiles());
+        scrollPane.vvalueProperty().addListener((obs, oldVal, newVal) -> updateTiles());
+        scrollPane.viewportBoundsProperty().addListener((obs, oldVal, newVal) -> updateTiles());
+        
+        // Load PDF document
+        Task<PageRenderer> loadTask = new Task<>() {
+            @Override
+            protected PageRenderer call() throws IOException {
+                document = PDDocument.load(pdfFile);
+                return new PageRenderer(document);
+            }
+        };
+        loadTask.setOnSucceeded(e -> {
+            if (closed) {
+                return;
+            }
+            pageRenderer = loadTask.getValue();
+            totalPages = pageRenderer.getPageCount();
             
             // Show first page
             showPage(0);
-            
-            // Setup zoom slider
-            zoomSlider.setMin(0.5);
-            zoomSlider.setMax(3.0);
-            zoomSlider.setValue(1.5);
-            zoomSlider.valueProperty().addListener((obs, oldVal, newVal) -> {
-                currentZoom = newVal.floatValue();
-                showPage(currentPage);
-            });
-            
-        } catch (Exception e) {
-            e.printStackTrace();
-            showError("Failed to load PDF: " + e.getMessage());
-        }
+        });
+        loadTask.setOnFailed(e -> {
+            if (closed) {
+                return;
+            }
+            renderProgress.setVisible(false);
+            pageLabel.setText("");
+            loadTask.getException().printStackTrace();
+            showError("Failed to load PDF: " + loadTask.getException().getMessage());
+        });
+        renderExecutor.execute(loadTask);
     }
     
     /**
      * Show specific page
+     * The page label and buttons change at once. A cached page is shown at once
+     * too; otherwise the image follows when the render finishes, unless another
+     * page or zoom was requested meanwhile.
      */
     private void showPage(int pageIndex) {
-        try {
-            if (pageIndex < 0 || pageIndex >= totalPages) {
+        if (closed || pageRenderer == null || pageIndex < 0 || pageIndex >= totalPages) {
+            return;
+        }
+        
+        currentPage = pageIndex;
+        
+        // Update page label
+        pageLabel.setText("Page " + (currentPage + 1) + " of " + totalPages);
+        
+        // Update button states
+        prevButton.setDisable(currentPage == 0);
+        nextButton.setDisable(currentPage == totalPages - 1);
+        
+        // A queued render never runs once cancelled; a running one finishes but is not shown
+        if (renderTask != null) {
+            renderTask.cancel(false);
+            renderTask = null;
+        }
+        cancelPrefetches();
+        zoomSettle.stop();
+        if (previewPage != pageIndex) {
+            cancelPreview();
+        }
+        
+        int page = currentPage;
+        int dpi = dpiFor(currentZoom);
+        if (currentZoom >= TILE_MIN_ZOOM) {
+            // The preview is queued first, so it fills the page while the tiles render
+            requestPreview(page, dpi);
+            showTiles(page, dpi);
+            return;
+        }
+        hideTiles();
+        
+        PageImage cached = pageCache.get(page, dpi);
+        if (cached != null) {
+            showImage(cached);
+            renderProgress.setVisible(false);
+            schedulePrefetch(page, dpi);
+            return;
+        }
+        
+        // Render page as image with current zoom, straight into a recycled pixel buffer
+        Task<PageImage> task = renderPageTask(page, dpi);
+        task.setOnSucceeded(e -> {
+            if (task != renderTask) {
+                task.getValue().release();
                 return;
             }
+            showImage(task.getValue());
+            renderProgress.setVisible(false);
+            schedulePrefetch(page, dpi);
+        });
+        task.setOnFailed(e -> {
+            if (task != renderTask) {
+                return;
+            }
+            renderProgress.setVisible(false);
+            task.getException().printStackTrace();
+            showError("Failed to render page: " + task.getException().getMessage());
+        });
+        renderTask = task;
+        renderProgress.setVisible(true);
+        renderExecutor.execute(task);
+    }
+    
+    /**
+     * Task that renders a whole page on the render thread, through the cache
+     * Its value holds a reference for whoever takes it.
+     */
+    private Task<PageImage> renderPageTask(int page, int dpi) {
+        PageRenderer renderer = pageRenderer;
+        return new Task<>() {
+            @Override
+            protected PageImage call() throws IOException {
+                // A prefetch may have rendered it since the request
+                PageImage image = pageCache.peek(page, dpi, PageImage.WHOLE_PAGE);
+                if (image == null) {
+                    image = renderer.render(page, dpi);
+                    pageCache.put(image);
+                }
+                if (isCancelled()) {
+                    image.release();
+                    return null;
+                }
+                return image;
+            }
+        };
+    }
+    
+    /**
+     * Handle a zoom change: rescale the shown bitmap now, render a low
+     * resolution preview, and render at full resolution once the zoom has not
+     * changed for the settle interval
+     */
+    private void zoomTo(float zoom) {
+        currentZoom = zoom;
+        if (closed || pageRenderer == null) {
+            return;
+        }
+        if (renderTask != null) {
+            renderTask.cancel(false);
+            renderTask = null;
+        }
+        cancelPrefetches();
+        
+        // Tiles only fit the zoom they were rendered for
+        hideTiles();
+        fitImageToZoom();
+        
+        renderProgress.setVisible(true);
+        requestPreview(currentPage, dpiFor(zoom));
+        zoomSettle.playFromStart();
+    }
+    
+    /**
+     * Render the page at a fraction of the DPI, unless what is shown is already that sharp
+     */
+    private void requestPreview(int page, int dpi) {
+        cancelPreview();
+        int previewDpi = Math.max(1, (int) (dpi * PREVIEW_SCALE));
+        if (previewDpi >= dpi || isShown(page, previewDpi)) {
+            return;
+        }
+        
+        Task<PageImage> task = renderPageTask(page, previewDpi);
+        task.setOnSucceeded(e -> {
+            // Dropped if the full resolution page got there first
+            if (task != previewTask || page != currentPage || isShown(page, previewDpi)) {
+                task.getValue().release();
+                return;
+            }
+            showImage(task.getValue());
+        });
+        task.setOnFailed(e -> {
+            // The full resolution render reports the error
+            System.err.println("Could not render preview of page " + (page + 1) + ": " + task.getException().getMessage());
+        });
+        previewTask = task;
+        previewPage = page;
+        renderExecutor.execute(task);
+    }
+    
+    private void cancelPreview() {
+        if (previewTask != null) {
+            previewTask.cancel(false);
+            previewTask = null;
+            previewPage = -1;
+        }
+    }
+    
+    /**
+     * @return true if the shown image is of this page at this DPI or higher
+     */
+    private boolean isShown(int page, int dpi) {
+        return shownPage != null && shownPage.getPage() == page && shownPage.getDpi() >= dpi;
+    }
+    
+    /**
+     * Scale the whole page image to the size of the page at the current zoom,
+     * whatever resolution it was rendered at
+     */
+    private void fitImageToZoom() {
+        Dimension size = pageRenderer.getPageSize(currentPage, dpiFor(currentZoom));
+        pdfImageView.setFitWidth(size.width);
+        pdfImageView.setFitHeight(size.height);
+    }
+    
+    private static int dpiFor(float zoom) {
+        return (int)(72 * zoom);
+    }
+    
+    /**
+     * Switch to tiles for a page: lay out an empty page of the full pixel size
+     * and render the tiles that are visible
+     */
+    private void showTiles(int page, int dpi) {
+        if (page != tilePage || dpi != tileDpi) {
+            clearTiles();
+            tilePage = page;
+            tileDpi = dpi;
+            Dimension size = pageRenderer.getPageSize(page, dpi);
+            tileLayer.setMinSize(size.width, size.height);
+            tileLayer.setPrefSize(size.width, size.height);
+            tileLayer.setMaxSize(size.width, size.height);
+        }
+        tileLayer.setVisible(true);
+        fitImageToZoom();
+        
+        // Lay out first so the visible part is known
+        scrollPane.layout();
+        updateTiles();
+    }
+    
+    /**
+     * Back to whole pages
+     */
+    private void hideTiles() {
+        if (tilePage < 0) {
+            return;
+        }
+        clearTiles();
+        tilePage = -1;
+        tileDpi = -1;
+        tileLayer.setVisible(false);
+        
+        // No update comes while whole pages are shown, so nothing else would release them
+        releaseAfterNextFrame(new ArrayList<>(retiredTiles));
+        retiredTiles.clear();
+    }
+    
+    /**
+     * Release images once no frame can still draw them: the next pulse hands the
+     * removed views to the render thread, and the pulse after it only starts once
+     * that frame has been drawn
+     */
+    private void releaseAfterNextFrame(List<PageImage> images) {
+        Scene scene = tileLayer.getScene();
+        if (scene == null || images.isEmpty()) {
+            images.forEach(PageImage::release);
+            return;
+        }
+        Runnable listener = new Runnable() {
+            private int pulses = 0;
             
-            currentPage = pageIndex;
-            
-            // Render page as image with current zoom
-            int dpi = (int)(72 * currentZoom);
-            BufferedImage bufferedImage = pdfRenderer.renderImageWithDPI(currentPage, dpi);
-            
-            // Convert BufferedImage to JavaFX Image
-            ByteArrayOutputStream baos = new ByteArrayOutputStream();
-            ImageIO.write(bufferedImage, "png", baos);
-            ByteArrayInputStream bais = new ByteArrayInputStream(baos.toByteArray());
-            Image image = new Image(bais);
-            
-            // Display image
-            pdfImageView.setImage(image);
-            pdfImageView.setPreserveRatio(true);
-            
-            // Update page label
-            pageLabel.setText("Page " + (currentPage + 1) + " of " + totalPages);
-            
-            // Update button states
-            prevButton.setDisable(currentPage == 0);
-            nextButton.setDisable(currentPage == totalPages - 1);
-            
-        } catch (Exception e) {
-            e.printStackTrace();
-            showError("Failed to render page: " + e.getMessage());
+            @Override
+            public void run() {
+                pulses++;
+                if (pulses == 1) {
+                    Platform.requestNextPulse();
+                } else if (pulses == 2) {
+                    // Not removed while the scene runs its listeners
+                    Runnable self = this;
+                    Platform.runLater(() -> scene.removePostLayoutPulseListener(self));
+                    images.forEach(PageImage::release);
+                }
+            }
+        };
+        scene.addPostLayoutPulseListener(listener);
+        Platform.requestNextPulse();
+    }
+    
+    private void clearTiles() {
+        if (tileTask != null) {
+            tileTask.cancel(false);
+            tileTask = null;
+        }
+        for (ImageView view : tileViews.values()) {
+            retiredTiles.add((PageImage) view.getUserData());
+        }
+        tileViews.clear();
+        tileLayer.getChildren().clear();
+    }
+    
+    /**
+     * Show the tiles around the viewport: drop tiles far out of view, show
+     * cached ones and render the rest, nearest to the middle of the view first
+     */
+    private void updateTiles() {
+        if (closed || tilePage < 0) {
+            return;
+        }
+        for (PageImage image : retiredTiles) {
+            image.release();
+        }
+        retiredTiles.clear();
+        
+        // Visible part of the page, in page pixels, plus the margin
+        Dimension size = pageRenderer.getPageSize(tilePage, tileDpi);
+        Bounds view = tileLayer.sceneToLocal(scrollPane.localToScene(scrollPane.getLayoutBounds()));
+        int minX = Math.max(0, (int) view.getMinX() - TILE_MARGIN);
+        int minY = Math.max(0, (int) view.getMinY() - TILE_MARGIN);
+        int maxX = Math.min(size.width - 1, (int) view.getMaxX() + TILE_MARGIN);
+        int maxY = Math.min(size.height - 1, (int) view.getMaxY() + TILE_MARGIN);
+        int columns = pageRenderer.getTileColumns(tilePage, tileDpi);
+        
+        List<Integer> wanted = new ArrayList<>();
+        for (int row = minY / PageRenderer.TILE_SIZE; row <= maxY / PageRenderer.TILE_SIZE; row++) {
+            for (int column = minX / PageRenderer.TILE_SIZE; column <= maxX / PageRenderer.TILE_SIZE; column++) {
+                wanted.add(row * columns + column);
+            }
         }
+        double middleX = view.getMinX() + view.getWidth() / 2;
+        double middleY = view.getMinY() + view.getHeight() / 2;
+        wanted.sort(Comparator.comparingDouble(tile -> {
+            double dx = (tile % columns + 0.5) * PageRenderer.TILE_SIZE - middleX;
+            double dy = (tile / columns + 0.5) * PageRenderer.TILE_SIZE - middleY;
+            return dx * dx + dy * dy;
+        }));
+        
+        Iterator<Map.Entry<Integer, ImageView>> shown = tileViews.entrySet().iterator();
+        while (shown.hasNext()) {
+            Map.Entry<Integer, ImageView> entry = shown.next();
+            if (!wanted.contains(entry.getKey())) {
+                tileLayer.getChildren().remove(entry.getValue());
+                retiredTiles.add((PageImage) entry.getValue().getUserData());
+                shown.remove();
+            }
+        }
+        
+        List<Integer> missing = new ArrayList<>();
+        for (int tile : wanted) {
+            if (tileViews.containsKey(tile)) {
+                continue;
+            }
+            PageImage cached = pageCache.peek(tilePage, tileDpi, tile);
+            if (cached != null) {
+                showTile(cached);
+            } else {
+                missing.add(tile);
+            }
+        }
+        
+        if (tileTask != null) {
+            tileTask.cancel(false);
+            tileTask = null;
+        }
+        renderProgress.setVisible(!missing.isEmpty());
+        if (missing.isEmpty()) {
+            return;
+        }
+        
+        // Render the missing tiles; each one is shown as soon as it is ready
+        PageRenderer renderer = pageRenderer;
+        int page = tilePage;
+        int dpi = tileDpi;
+        Task<Void> task = new Task<>() {
+            @Override
+            protected Void call() throws IOException {
+                for (int tile : missing) {
+                    if (isCancelled()) {
+                        break;
+                    }
+                    PageImage image = pageCache.peek(page, dpi, tile);
+                    if (image == null) {
+                        image = renderer.renderTile(page, dpi, tile);
+                        pageCache.put(image);
+                    }
+                    PageImage rendered = image;
+                    Platform.runLater(() -> showTile(rendered));
+                }
+                return null;
+            }
+        };
+        task.setOnSucceeded(e -> {
+            if (task == tileTask) {
+                renderProgress.setVisible(false);
+            }
+        });
+        task.setOnFailed(e -> {
+            if (task != tileTask) {
+                return;
+            }
+            renderProgress.setVisible(false);
+            task.getException().printStackTrace();
+            showError("Failed to render page: " + task.getException().getMessage());
+        });
+        tileTask = task;
+        renderExecutor.execute(task);
+    }
+    
+    /**
+     * Place a rendered tile on the page; takes over the caller's reference
+     */
+    private void showTile(PageImage image) {
+        if (closed || image.getPage() != tilePage || image.getDpi() != tileDpi || tileViews.containsKey(image.getTile())) {
+            image.release();
+            return;
+        }
+        ImageView view = new ImageView(image.getImage());
+        view.setUserData(image);
+        view.relocate(image.getX(), image.getY());
+        tileLayer.getChildren().add(view);
+        tileViews.put(image.getTile(), view);
+    }
+    
+    /**
+     * Render the pages around the shown one into the cache, after a short delay
+     * so pages flipped through quickly are not prefetched. Prefetches run on the
+     * render thread (PDFBox documents are not thread-safe) and are cancelled by
+     * the next page or zoom request.
+     */
+    private void schedulePrefetch(int page, int dpi) {
+        PageRenderer renderer = pageRenderer;
+        for (int distance = 1; distance <= PREFETCH_PAGES; distance++) {
+            // Next pages first, since readers mostly page forward
+            for (int neighbour : new int[] { page + distance, page - distance }) {
+                if (neighbour < 0 || neighbour >= totalPages || pageCache.contains(neighbour, dpi)) {
+                    continue;
+                }
+                prefetches.add(renderExecutor.schedule(() -> prefetch(renderer, neighbour, dpi),
+                        PREFETCH_DELAY_MS, TimeUnit.MILLISECONDS));
+            }
+        }
+    }
+    
+    private void prefetch(PageRenderer renderer, int page, int dpi) {
+        if (pageCache.contains(page, dpi)) {
+            return;
+        }
+        try {
+            PageImage image = renderer.render(page, dpi);
+            pageCache.put(image);
+            image.release();
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Could not prefetch page " + (page + 1) + ": " + e.getMessage());
+        }
+    }
+    
+    private void cancelPrefetches() {
+        for (Future<?> prefetch : prefetches) {
+            prefetch.cancel(false);
+        }
+        prefetches.clear();
+    }
+    
+    /**
+     * Display a rendered page and recycle the one shown before the previous page
+     * Takes over the caller's reference to the page.
+     */
+    private void showImage(PageImage image) {
+        if (retiredPage != null) {
+            retiredPage.release();
+        }
+        retiredPage = shownPage;
+        shownPage = image;
+        
+        // Display image
+        pdfImageView.setImage(image.getImage());
+        pdfImageView.setPreserveRatio(true);
+        fitImageToZoom();
     }
     
     /**
@@ -150,26 +634,22 @@ public class PDFViewerController {
     }
     
     /**
-     * Handle zoom in
+     * Handle zoom in (the slider listener renders the page)
      */
     @FXML
     private void handleZoomIn() {
         if (currentZoom < 3.0f) {
-            currentZoom += 0.25f;
-            zoomSlider.setValue(currentZoom);
-            showPage(currentPage);
+            zoomSlider.setValue(currentZoom + 0.25f);
         }
     }
     
     /**
-     * Handle zoom out
+     * Handle zoom out (the slider listener renders the page)
      */
     @FXML
     private void handleZoomOut() {
         if (currentZoom > 0.5f) {
-            currentZoom -= 0.25f;
-            zoomSlider.setValue(currentZoom);
-            showPage(currentPage);
+            zoomSlider.setValue(currentZoom - 0.25f);
         }
     }
     
@@ -178,15 +658,9 @@ public class PDFViewerController {
      */
     @FXML
     private void handleClose() {
-        try {
-            if (document != null) {
-                document.close();
-            }
-            Stage stage = (Stage) closeButton.getScene().getWindow();
-            stage.close();
-        } catch (Exception e) {
-            e.printStackTrace();
-        }
+        cleanup();
+        Stage stage = (Stage) closeButton.getScene().getWindow();
+        stage.close();
     }
     
     /**
@@ -200,16 +674,62 @@ public class PDFViewerController {
         alert.showAndWait();
     }
     
+    /**
+     * Get the cache of rendered pages and tiles of the open document
+     * @return Page cache, with its hit, miss and eviction counts
+     */
+    public PageCache getPageCache() {
+        return pageCache;
+    }
+    
     /**
      * Cleanup when closing
+     * Pending renders are dropped and the document is closed on the render
+     * thread after the load or render in progress, if any, has finished.
      */
     public void cleanup() {
-        try {
-            if (document != null) {
-                document.close();
-            }
-        } catch (Exception e) {
-            e.printStackTrace();
+        if (closed) {
+            return;
+        }
+        closed = true;
+        if (renderTask != null) {
+            renderTask.cancel(false);
+        }
+        cancelPrefetches();
+        cancelPreview();
+        if (zoomSettle != null) {
+            zoomSettle.stop();
         }
+        if (tileTask != null) {
+            tileTask.cancel(false);
+        }
+        
+        // The window is closing, so nothing draws these any more
+        clearTiles();
+        retiredTiles.forEach(PageImage::release);
+        retiredTiles.clear();
+        pdfImageView.setImage(null);
+        if (shownPage != null) {
+            shownPage.release();
+            shownPage = null;
+        }
+        if (retiredPage != null) {
+            retiredPage.release();
+            retiredPage = null;
+        }
+        renderExecutor.execute(() -> {
+            try {
+                if (pageRenderer != null) {
+                    System.out.println("Page cache closed. " + pageCache + ", buffers: " + pageRenderer);
+                }
+                pageCache.clear();
+                if (document != null) {
+                    document.close();
+                }
+            } catch (Exception e) {
+                e.printStackTrace();
+            }
+        });
+        renderExecutor.shutdown();
     }
 }
@@ -1,13 +1,19 @@
 package com.elibrary.controllers;
 
 import com.elibrary.MainApp;
-import com.elibrary.database.AccessLogDAO;
-import com.elibrary.database.BookDAO;
-import com.elibrary.database.CategoryDAO;
+import com.elibrary.database.AccessLogRepository;
+import com.elibrary.database.AccessLogWriter;
+import com.elibrary.database.BookRepository;
+import com.elibrary.database.CategoryRepository;
+import com.elibrary.database.ServiceRegistry;
+import com.elibrary.models.AccessLog;
 import com.elibrary.models.Book;
 import com.elibrary.models.Category;
+import com.elibrary.models.Page;
 import com.elibrary.models.Student;
+import com.elibrary.utils.CatalogSearchIndex;
 import com.elibrary.utils.SessionManager;
+import javafx.concurrent.Task;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
 import javafx.geometry.Pos;
@@ -20,6 +26,7 @@ import javafx.scene.text.Text;
 import javafx.stage.Stage;
 
 import java.io.File;
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -27,6 +34,10 @@ import java.util.List;
  */
 public class StudentDashboardController {
     
+    private static final long HISTORY_FLUSH_TIMEOUT_MS = 2000;
+    private static final int PAGE_SIZE = 60;
+    private static final int SEARCH_LIMIT = 200;
+    
     @FXML private Label welcomeLabel;
     @FXML private TextField searchField;
     @FXML private ComboBox<Category> categoryComboBox;
@@ -35,24 +46,27 @@ public class StudentDashboardController {
     @FXML private VBox noResultsPane;
     @FXML private Label statusLabel;
     @FXML private Label bookCountLabel;
+    @FXML private Button loadMoreButton;
     
-    private BookDAO bookDAO;
-    private CategoryDAO categoryDAO;
-    private AccessLogDAO accessLogDAO;
+    private BookRepository bookRepository;
+    private CategoryRepository categoryRepository;
+    private AccessLogRepository accessLogRepository;
     private Student currentStudent;
     private List<Book> currentBooks;
+    private Page<Book> lastPage;        // last page loaded, null when the view is not paged
     
     @FXML
     public void initialize() {
         try {
             System.out.println("StudentDashboardController initializing...");
             
-            bookDAO = new BookDAO();
-            categoryDAO = new CategoryDAO();
-            accessLogDAO = new AccessLogDAO();
+            ServiceRegistry services = ServiceRegistry.getInstance();
+            bookRepository = services.getBookRepository();
+            categoryRepository = services.getCategoryRepository();
+            accessLogRepository = services.getAccessLogRepository();
             currentStudent = SessionManager.getInstance().getCurrentStudent();
             
-            System.out.println("DAOs initialized successfully");
+            System.out.println("Repositories initialized successfully");
             
             // Set welcome message
             if (currentStudent != null) {
@@ -73,6 +87,9 @@ public class StudentDashboardController {
             // Setup search on Enter key
             searchField.setOnAction(e -> handleSearch());
             
+            // Filter from the in-memory index as the student types
+            searchField.textProperty().addListener((obs, oldText, newText) -> handleSearchAsYouType(oldText, newText));
+            
             System.out.println("StudentDashboardController initialization complete");
         } catch (Exception e) {
             System.err.println("ERROR in StudentDashboardController.initialize(): " + e.getMessage());
@@ -84,7 +101,7 @@ public class StudentDashboardController {
      * Load categories into ComboBox
      */
     private void loadCategories() {
-        List<Category> categories = categoryDAO.getAllCategories();
+        List<Category> categories = categoryRepository.getAllCategories();
         categoryComboBox.getItems().clear();
         
         // Add "All Categories" option
@@ -99,14 +116,49 @@ public class StudentDashboardController {
     }
     
     /**
-     * Load all books
+     * Load the first page of all books
      */
     private void loadAllBooks() {
-        currentBooks = bookDAO.getAllBooks();
-        displayBooks(currentBooks);
+        showFirstPage(bookRepository.getBooksPage(null, PAGE_SIZE));
         updateStatusBar();
     }
     
+    /**
+     * Display the first page of a paged view
+     */
+    private void showFirstPage(Page<Book> page) {
+        lastPage = page;
+        currentBooks = new ArrayList<>(page.getItems());
+        displayBooks(currentBooks);
+        updateLoadMoreButton();
+    }
+    
+    /**
+     * Handle load more: fetch the page after the last book shown
+     */
+    @FXML
+    private void handleLoadMore() {
+        if (lastPage == null || !lastPage.hasMore()) {
+            return;
+        }
+        
+        lastPage = bookRepository.getBooksPage(lastPage.getLast(), PAGE_SIZE);
+        
+        currentBooks.addAll(lastPage.getItems());
+        addBookCards(lastPage.getItems());
+        resultsLabel.setText("Showing " + currentBooks.size() + " book(s)");
+        updateLoadMoreButton();
+    }
+    
+    /**
+     * Show the load more button only while another page is available
+     */
+    private void updateLoadMoreButton() {
+        boolean hasMore = lastPage != null && lastPage.hasMore();
+        loadMoreButton.setVisible(hasMore);
+        loadMoreButton.setManaged(hasMore);
+    }
+    
     /**
      * Display books in responsive grid
      */
@@ -126,15 +178,7 @@ public class StudentDashboardController {
                 booksGrid.setVisible(true);
                 resultsLabel.setText("Showing " + books.size() + " book(s)");
                 
-                for (Book book : books) {
-                    try {
-                        VBox bookCard = createBookCard(book);
-                        booksGrid.getChildren().add(bookCard);
-                    } catch (Exception e) {
-                        System.err.println("Error creating card for book: " + book.getTitle());
-                        e.printStackTrace();
-                    }
-                }
+                addBookCards(books);
                 System.out.println("Books displayed successfully in responsive grid");
             }
         } catch (Exception e) {
@@ -143,6 +187,21 @@ public class StudentDashboardController {
         }
     }
     
+    /**
+     * Append book cards to the grid
+     */
+    private void addBookCards(List<Book> books) {
+        for (Book book : books) {
+            try {
+                VBox bookCard = createBookCard(book);
+                booksGrid.getChildren().add(bookCard);
+            } catch (Exception e) {
+                System.err.println("Error creating card for book: " + book.getTitle());
+                e.printStackTrace();
+            }
+        }
+    }
+    
     /**
      * Create a responsive book card UI component
      */
@@ -339,12 +398,41 @@ public class StudentDashboardController {
         if (searchTerm.isEmpty()) {
             loadAllBooks();
         } else {
-            currentBooks = bookDAO.searchBooks(searchTerm);
+            // Best matches first; relevance-ranked results are not paged
+            currentBooks = bookRepository.searchBooksRanked(searchTerm, SEARCH_LIMIT);
+            lastPage = null;
             displayBooks(currentBooks);
+            updateLoadMoreButton();
             statusLabel.setText("Search results for: " + searchTerm);
         }
     }
     
+    /**
+     * Show index matches for the current search text without querying the database.
+     * Does nothing until the index has loaded; Enter still runs the ranked search.
+     */
+    private void handleSearchAsYouType(String oldText, String newText) {
+        CatalogSearchIndex index = CatalogSearchIndex.getInstance();
+        if (!index.isReady()) {
+            return;
+        }
+        
+        String searchTerm = newText.trim();
+        if (searchTerm.isEmpty()) {
+            if (!oldText.trim().isEmpty()) {
+                loadAllBooks();
+                statusLabel.setText("Ready");
+            }
+            return;
+        }
+        
+        currentBooks = index.search(searchTerm, PAGE_SIZE);
+        lastPage = null;
+        displayBooks(currentBooks);
+        updateLoadMoreButton();
+        statusLabel.setText("Matching: " + searchTerm + " (press Enter for best matches)");
+    }
+    
     /**
      * Handle clear search
      */
@@ -368,8 +456,10 @@ public class StudentDashboardController {
                 // All categories
                 loadAllBooks();
             } else {
-                currentBooks = bookDAO.getBooksByCategory(selectedCategory.getCategoryId());
+                currentBooks = bookRepository.getBooksByCategory(selectedCategory.getCategoryId());
+                lastPage = null;
                 displayBooks(currentBooks);
+                updateLoadMoreButton();
                 statusLabel.setText("Filtered by: " + selectedCategory.getCategoryName());
             }
         }
@@ -393,8 +483,8 @@ public class StudentDashboardController {
      */
     private void handleOpenBook(Book book) {
         try {
-            // Log the view
-            accessLogDAO.logAccess(currentStudent.getStudentId(), book.getBookId(), "VIEW");
+            // Log the view (written in the background)
+            AccessLogWriter.getInstance().logAccess(currentStudent.getStudentId(), book.getBookId(), "VIEW");
             
             // Check if book file exists
             File bookFile = new File(book.getFilePath());
@@ -429,9 +519,6 @@ public class StudentDashboardController {
             
             statusLabel.setText("Book opened successfully");
             
-            // Refresh book statistics
-            loadAllBooks();
-            
         } catch (Exception e) {
             e.printStackTrace();
             statusLabel.setText("Failed to open book");
@@ -442,9 +529,38 @@ public class StudentDashboardController {
     
     /**
      * Handle view history
+     * Reads the history in the background, after the views logged in this session are written
      */
     @FXML
     private void handleViewHistory() {
+        int studentId = currentStudent.getStudentId();
+        Task<List<AccessLog>> task = new Task<>() {
+            @Override
+            protected List<AccessLog> call() {
+                AccessLogWriter.getInstance().flush(HISTORY_FLUSH_TIMEOUT_MS);
+                return accessLogRepository.getAccessLogsByStudent(studentId);
+            }
+        };
+        
+        task.setOnSucceeded(e -> {
+            statusLabel.setText("Ready");
+            showHistory(task.getValue());
+        });
+        task.setOnFailed(e -> {
+            statusLabel.setText("Failed to load history");
+            task.getException().printStackTrace();
+        });
+        
+        statusLabel.setText("Loading history...");
+        Thread thread = new Thread(task, "elibrary-history");
+        thread.setDaemon(true);
+        thread.start();
+    }
+    
+    /**
+     * Show the reading history dialog
+     */
+    private void showHistory(List<AccessLog> logs) {
         Alert alert = new Alert(Alert.AlertType.INFORMATION);
         alert.setTitle("My History");
         alert.setHeaderText("Your Reading History");
@@ -452,19 +568,17 @@ public class StudentDashboardController {
         VBox content = new VBox(10);
         content.setPrefWidth(600);
         
-        var logs = accessLogDAO.getAccessLogsByStudent(currentStudent.getStudentId());
-        
         if (logs.isEmpty()) {
             content.getChildren().add(new Label("No history yet. Start reading books!"));
         } else {
-            TableView<com.elibrary.models.AccessLog> table = new TableView<>();
+            TableView<AccessLog> table = new TableView<>();
             table.setPrefHeight(400);
             
-            TableColumn<com.elibrary.models.AccessLog, String> bookCol = new TableColumn<>("Book Title");
+            TableColumn<AccessLog, String> bookCol = new TableColumn<>("Book Title");
             bookCol.setCellValueFactory(data -> new javafx.beans.property.SimpleStringProperty(data.getValue().getBookTitle()));
             bookCol.setPrefWidth(350);
             
-            TableColumn<com.elibrary.models.AccessLog, String> dateCol = new TableColumn<>("Date Viewed");
+            TableColumn<AccessLog, String> dateCol = new TableColumn<>("Date Viewed");
             dateCol.setCellValueFactory(data -> new javafx.beans.property.SimpleStringProperty(
                 data.getValue().getAccessDate().toString()));
             dateCol.setPrefWidth(200);
@@ -498,11 +612,11 @@ public class StudentDashboardController {
     }
     
     /**
-     * Update status bar with book count
+     * Update status bar with the estimated book count
      */
     private void updateStatusBar() {
-        int totalBooks = bookDAO.getAllBooks().size();
-        bookCountLabel.setText(totalBooks + " book(s) available");
+        long totalBooks = bookRepository.estimateBookCount();
+        bookCountLabel.setText(totalBooks >= 0 ? "~" + totalBooks + " book(s) available" : "");
     }
     
     /**
@@ -1,7 +1,8 @@
 package com.elibrary.controllers;
 
 import com.elibrary.MainApp;
-import com.elibrary.database.StudentDAO;
+import com.elibrary.database.ServiceRegistry;
+import com.elibrary.database.StudentRepository;
 import com.elibrary.models.Student;
 import com.elibrary.utils.SessionManager;
 import javafx.fxml.FXML;
@@ -20,10 +21,10 @@ public class StudentLoginController {
     @FXML
     private Label errorLabel;
     
-    private StudentDAO studentDAO;
+    private StudentRepository studentRepository;
     
     public StudentLoginController() {
-        this.studentDAO = new StudentDAO();
+        this.studentRepository = ServiceRegistry.getInstance().getStudentRepository();
     }
     
     /**
@@ -40,7 +41,7 @@ public class StudentLoginController {
         }
         
         // Authenticate student
-        Student student = studentDAO.authenticateStudent(lrn);
+        Student student = studentRepository.authenticateStudent(lrn);
         
         if (student != null) {
             // Login successful
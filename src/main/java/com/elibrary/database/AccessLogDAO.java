@@ -1,21 +1,17 @@
 package com.elibrary.database;
 
 import com.elibrary.models.AccessLog;
+import com.elibrary.models.Page;
 
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 /**
  * Data Access Object for AccessLog operations
  */
-public class AccessLogDAO {
-    private Connection connection;
-    
-    public AccessLogDAO() {
-        this.connection = DatabaseConnection.getInstance().getConnection();
-    }
-    
+public class AccessLogDAO implements AccessLogRepository {
     /**
      * Log a book access (view or download)
      * @param studentId Student ID
@@ -23,37 +19,100 @@ public class AccessLogDAO {
      * @param accessType "VIEW" or "DOWNLOAD"
      * @return true if successful, false otherwise
      */
+    @Override
     public boolean logAccess(int studentId, int bookId, String accessType) {
-        String query = "INSERT INTO ACCESS_LOG (student_id, book_id, access_type) VALUES (?, ?, ?)";
-        
-        try (PreparedStatement stmt = connection.prepareStatement(query)) {
-            stmt.setInt(1, studentId);
-            stmt.setInt(2, bookId);
-            stmt.setString(3, accessType);
-            
-            return stmt.executeUpdate() > 0;
+        // Stamp the access here so the log row and its daily rollup agree on the day
+        AccessLog log = new AccessLog(studentId, bookId, accessType);
+        log.setAccessDate(new Timestamp(System.currentTimeMillis()));
+        return logAccessBatch(Collections.singletonList(log));
+    }
+    
+    /**
+     * Write a batch of access logs with a single JDBC batch insert.
+     * Each log's access date is kept, so queued events record when they happened.
+     * @param logs Access logs to write (studentId, bookId, accessType, accessDate)
+     * @return true if successful, false otherwise
+     */
+    @Override
+    public boolean logAccessBatch(List<AccessLog> logs) {
+        try {
+            writeAccessBatch(logs);
+            return true;
         } catch (SQLException e) {
-            System.err.println("Error logging access: " + e.getMessage());
+            System.err.println("Error logging access batch: " + e.getMessage());
             return false;
         }
     }
     
+    /**
+     * Write a batch of access logs in one transaction, with their BOOK_STATS counters and daily rollups
+     * @param logs Access logs to write
+     * @throws SQLException if the batch was not written; the transaction is rolled back
+     */
+    @Override
+    public void writeAccessBatch(List<AccessLog> logs) throws SQLException {
+        if (logs.isEmpty()) {
+            return;
+        }
+        
+        String query = "INSERT INTO ACCESS_LOG (student_id, book_id, access_type, access_date) VALUES (?, ?, ?, ?)";
+        
+        try (Connection connection = DatabaseConnection.getInstance().getConnection();
+             PreparedStatement stmt = connection.prepareStatement(query)) {
+            for (AccessLog log : logs) {
+                stmt.setInt(1, log.getStudentId());
+                stmt.setInt(2, log.getBookId());
+                stmt.setString(3, log.getAccessType());
+                stmt.setTimestamp(4, log.getAccessDate());
+                stmt.addBatch();
+            }
+            
+            // Log rows, BOOK_STATS counters and daily rollups are written in one transaction
+            connection.setAutoCommit(false);
+            try {
+                stmt.executeBatch();
+                BookStatsDAO.incrementCounts(connection, logs);
+                UsageRollupDAO.incrementRollups(connection, logs);
+                connection.commit();
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            }
+        }
+    }
+    
     /**
      * Get all access logs for a specific book
      * @param bookId Book ID
      * @return List of access logs
      */
+    @Override
     public List<AccessLog> getAccessLogsByBook(int bookId) {
+        return getAccessLogsByBook(bookId, null, null);
+    }
+    
+    /**
+     * Get access logs for a specific book within a date range.
+     * On a partitioned ACCESS_LOG only the partitions covering the range are read.
+     * @param bookId Book ID
+     * @param from Start of the range (inclusive), or null for no lower bound
+     * @param to End of the range (exclusive), or null for no upper bound
+     * @return List of access logs, newest first
+     */
+    @Override
+    public List<AccessLog> getAccessLogsByBook(int bookId, Timestamp from, Timestamp to) {
         List<AccessLog> logs = new ArrayList<>();
         String query = "SELECT al.*, CONCAT(s.first_name, ' ', s.last_name) as student_name, b.title as book_title " +
                       "FROM ACCESS_LOG al " +
                       "JOIN STUDENT s ON al.student_id = s.student_id " +
                       "JOIN BOOK b ON al.book_id = b.book_id " +
-                      "WHERE al.book_id = ? " +
+                      "WHERE al.book_id = ? " + dateRange(from, to) +
                       "ORDER BY al.access_date DESC";
         
-        try (PreparedStatement stmt = connection.prepareStatement(query)) {
+        try (Connection connection = DatabaseConnection.getInstance().getConnection();
+             PreparedStatement stmt = connection.prepareStatement(query)) {
             stmt.setInt(1, bookId);
+            setDateRange(stmt, 2, from, to);
             ResultSet rs = stmt.executeQuery();
             
             while (rs.next()) {
@@ -71,17 +130,33 @@ public class AccessLogDAO {
      * @param studentId Student ID
      * @return List of access logs
      */
+    @Override
     public List<AccessLog> getAccessLogsByStudent(int studentId) {
+        return getAccessLogsByStudent(studentId, null, null);
+    }
+    
+    /**
+     * Get access logs for a specific student within a date range.
+     * On a partitioned ACCESS_LOG only the partitions covering the range are read.
+     * @param studentId Student ID
+     * @param from Start of the range (inclusive), or null for no lower bound
+     * @param to End of the range (exclusive), or null for no upper bound
+     * @return List of access logs, newest first
+     */
+    @Override
+    public List<AccessLog> getAccessLogsByStudent(int studentId, Timestamp from, Timestamp to) {
         List<AccessLog> logs = new ArrayList<>();
         String query = "SELECT al.*, CONCAT(s.first_name, ' ', s.last_name) as student_name, b.title as book_title " +
                       "FROM ACCESS_LOG al " +
                       "JOIN STUDENT s ON al.student_id = s.student_id " +
                       "JOIN BOOK b ON al.book_id = b.book_id " +
-                      "WHERE al.student_id = ? " +
+                      "WHERE al.student_id = ? " + dateRange(from, to) +
                       "ORDER BY al.access_date DESC";
         
-        try (PreparedStatement stmt = connection.prepareStatement(query)) {
+        try (Connection connection = DatabaseConnection.getInstance().getConnection();
+             PreparedStatement stmt = connection.prepareStatement(query)) {
             stmt.setInt(1, studentId);
+            setDateRange(stmt, 2, from, to);
             ResultSet rs = stmt.executeQuery();
             
             while (rs.next()) {
@@ -99,10 +174,12 @@ public class AccessLogDAO {
      * @param bookId Book ID
      * @return Number of views
      */
+    @Override
     public int getViewCount(int bookId) {
-        String query = "SELECT COUNT(*) as count FROM ACCESS_LOG WHERE book_id = ? AND access_type = 'VIEW'";
+        String query = "SELECT view_count as count FROM BOOK_STATS WHERE book_id = ?";
         
-        try (PreparedStatement stmt = connection.prepareStatement(query)) {
+        try (Connection connection = DatabaseConnection.getInstance().getConnection();
+             PreparedStatement stmt = connection.prepareStatement(query)) {
             stmt.setInt(1, bookId);
             ResultSet rs = stmt.executeQuery();
             
@@ -121,10 +198,12 @@ public class AccessLogDAO {
      * @param bookId Book ID
      * @return Number of downloads
      */
+    @Override
     public int getDownloadCount(int bookId) {
-        String query = "SELECT COUNT(*) as count FROM ACCESS_LOG WHERE book_id = ? AND access_type = 'DOWNLOAD'";
+        String query = "SELECT download_count as count FROM BOOK_STATS WHERE book_id = ?";
         
-        try (PreparedStatement stmt = connection.prepareStatement(query)) {
+        try (Connection connection = DatabaseConnection.getInstance().getConnection();
+             PreparedStatement stmt = connection.prepareStatement(query)) {
             stmt.setInt(1, bookId);
             ResultSet rs = stmt.executeQuery();
             
@@ -142,6 +221,7 @@ public class AccessLogDAO {
      * Get all access logs (for admin statistics)
      * @return List of all access logs
      */
+    @Override
     public List<AccessLog> getAllAccessLogs() {
         List<AccessLog> logs = new ArrayList<>();
         String query = "SELECT al.*, CONCAT(s.first_name, ' ', s.last_name) as student_name, b.title as book_title " +
@@ -151,7 +231,8 @@ public class AccessLogDAO {
                       "ORDER BY al.access_date DESC " +
                       "LIMIT 100";
         
-        try (Statement stmt = connection.createStatement();
+        try (Connection connection = DatabaseConnection.getInstance().getConnection();
+             Statement stmt = connection.createStatement();
              ResultSet rs = stmt.executeQuery(query)) {
             
             while (rs.next()) {
@@ -164,6 +245,102 @@ public class AccessLogDAO {
         return logs;
     }
     
+    /**
+     * Get one page of access logs, newest first
+     * @param after Last log of the previous page, or null for the first page
+     * @param pageSize Maximum number of logs to return
+     * @return Page of access logs
+     */
+    @Override
+    public Page<AccessLog> getAccessLogsPage(AccessLog after, int pageSize) {
+        return getAccessLogsPage(after, pageSize, null, null);
+    }
+    
+    /**
+     * Get one page of access logs within a date range, newest first.
+     * On a partitioned ACCESS_LOG only the partitions covering the range are read.
+     * @param after Last log of the previous page, or null for the first page
+     * @param pageSize Maximum number of logs to return
+     * @param from Start of the range (inclusive), or null for no lower bound
+     * @param to End of the range (exclusive), or null for no upper bound
+     * @return Page of access logs
+     */
+    @Override
+    public Page<AccessLog> getAccessLogsPage(AccessLog after, int pageSize, Timestamp from, Timestamp to) {
+        // Seek on (access_date, access_id); idx_access_date carries access_id as the primary key suffix.
+        // The plain access_date bound lets the optimizer prune partitions; the OR alone would not.
+        String query = "SELECT al.*, CONCAT(s.first_name, ' ', s.last_name) as student_name, b.title as book_title " +
+                      "FROM ACCESS_LOG al " +
+                      "JOIN STUDENT s ON al.student_id = s.student_id " +
+                      "JOIN BOOK b ON al.book_id = b.book_id " +
+                      "WHERE 1 = 1 " + dateRange(from, to) +
+                      (after != null ? "AND al.access_date <= ? " +
+                                       "AND (al.access_date < ? OR (al.access_date = ? AND al.access_id < ?)) " : "") +
+                      "ORDER BY al.access_date DESC, al.access_id DESC " +
+                      "LIMIT ?";
+        
+        List<AccessLog> logs = new ArrayList<>();
+        boolean hasMore = false;
+        
+        try (Connection connection = DatabaseConnection.getInstance().getConnection();
+             PreparedStatement stmt = connection.prepareStatement(query)) {
+            int index = setDateRange(stmt, 1, from, to);
+            if (after != null) {
+                stmt.setTimestamp(index++, after.getAccessDate());
+                stmt.setTimestamp(index++, after.getAccessDate());
+                stmt.setTimestamp(index++, after.getAccessDate());
+                stmt.setInt(index++, after.getAccessId());
+            }
+            stmt.setInt(index, pageSize + 1);
+            
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    if (logs.size() == pageSize) {
+                        hasMore = true;
+                        break;
+                    }
+                    logs.add(extractAccessLogFromResultSet(rs));
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Error getting access logs page: " + e.getMessage());
+        }
+        
+        return new Page<>(logs, hasMore);
+    }
+    
+    /**
+     * Estimate the number of access logs without a full COUNT(*)
+     * @return Estimated access log count, or -1 if unavailable
+     */
+    @Override
+    public long estimateAccessLogCount() {
+        return TableStatistics.estimateRowCount("ACCESS_LOG");
+    }
+    
+    /**
+     * Date range predicate on al.access_date (usable for partition pruning)
+     * @return SQL fragment starting with AND, or an empty string
+     */
+    private String dateRange(Timestamp from, Timestamp to) {
+        return (from != null ? "AND al.access_date >= ? " : "") +
+               (to != null ? "AND al.access_date < ? " : "");
+    }
+    
+    /**
+     * Bind the parameters of {@link #dateRange(Timestamp, Timestamp)}
+     * @return Next parameter index
+     */
+    private int setDateRange(PreparedStatement stmt, int index, Timestamp from, Timestamp to) throws SQLException {
+        if (from != null) {
+            stmt.setTimestamp(index++, from);
+        }
+        if (to != null) {
+            stmt.setTimestamp(index++, to);
+        }
+        return index;
+    }
+    
     /**
      * Extract AccessLog object from ResultSet
      * @param rs ResultSet containing access log data
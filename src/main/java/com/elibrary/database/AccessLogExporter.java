@@ -0,0 +1,257 @@
+package com.elibrary.database;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.format.DateTimeFormatter;
+import java.util.function.BooleanSupplier;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Exports the access history to a CSV or JSON file for audits.
+ * Rows are streamed from the database straight into the file, so memory use
+ * does not depend on the number of logs. The file is written under a
+ * temporary name and only renamed into place once the export completes.
+ */
+public class AccessLogExporter {
+    private static final int PROGRESS_INTERVAL = 10000;
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss");
+    private static final String CSV_HEADER = "access_id,access_date,access_type,student_id,student_name,book_id,book_title";
+
+    /**
+     * Output file format
+     */
+    public enum Format {
+        /** RFC 4180 CSV with a header row */
+        CSV,
+        /** JSON array with one object per line */
+        JSON
+    }
+
+    /**
+     * Receives progress while an export runs
+     */
+    public interface ProgressListener {
+        /**
+         * @param rowsWritten Rows written so far
+         * @param estimatedTotal Estimated total rows, or -1 if unknown
+         */
+        void onProgress(long rowsWritten, long estimatedTotal);
+    }
+
+    private final Format format;
+    private final boolean gzip;
+
+    /**
+     * @param format Output format
+     * @param gzip true to gzip the output file
+     */
+    public AccessLogExporter(Format format, boolean gzip) {
+        this.format = format;
+        this.gzip = gzip;
+    }
+
+    /**
+     * Suggested file name for an export, e.g. access_logs.csv.gz
+     * @param baseName File name without extension
+     * @return File name with the format (and gzip) extension
+     */
+    public String fileNameFor(String baseName) {
+        return baseName + (format == Format.CSV ? ".csv" : ".json") + (gzip ? ".gz" : "");
+    }
+
+    /**
+     * Export access logs in access ID order
+     * @param target File to write; replaced only if the export succeeds
+     * @param from Earliest access date (inclusive), or null for no lower bound
+     * @param to Latest access date (exclusive), or null for no upper bound
+     * @param listener Progress listener, or null
+     * @param cancelled Checked between rows; the export stops and the target is left untouched when it returns true
+     * @return Number of rows written, or -1 if cancelled
+     * @throws SQLException if reading the logs fails
+     * @throws IOException if writing the file fails
+     */
+    public long export(Path target, Timestamp from, Timestamp to, ProgressListener listener,
+                       BooleanSupplier cancelled) throws SQLException, IOException {
+        // The estimate comes from table statistics; a range has no cheap estimate
+        long estimatedTotal = from == null && to == null ? new AccessLogDAO().estimateAccessLogCount() : -1;
+        Path parent = target.toAbsolutePath().getParent();
+        Path temp = Files.createTempFile(parent, target.getFileName().toString(), ".part");
+        boolean complete = false;
+
+        StringBuilder query = new StringBuilder(
+                "SELECT al.access_id, al.access_date, al.access_type, al.student_id, al.book_id, " +
+                "CONCAT(s.first_name, ' ', s.last_name) as student_name, b.title as book_title " +
+                "FROM ACCESS_LOG al " +
+                "JOIN STUDENT s ON al.student_id = s.student_id " +
+                "JOIN BOOK b ON al.book_id = b.book_id WHERE 1 = 1");
+        if (from != null) {
+            query.append(" AND al.access_date >= ?");
+        }
+        if (to != null) {
+            query.append(" AND al.access_date < ?");
+        }
+        // Primary key order needs no sort, so the first rows arrive immediately
+        query.append(" ORDER BY al.access_id");
+
+        try (Connection connection = DatabaseConnection.getInstance().getConnection();
+             PreparedStatement stmt = connection.prepareStatement(query.toString(),
+                     ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+            stmt.setFetchSize(DatabaseConnection.getInstance().getDialect().streamingFetchSize()); // stream, don't buffer
+            int index = 1;
+            if (from != null) {
+                stmt.setTimestamp(index++, from);
+            }
+            if (to != null) {
+                stmt.setTimestamp(index, to);
+            }
+
+            long rows = 0;
+            try (ResultSet rs = stmt.executeQuery();
+                 Writer out = openWriter(temp)) {
+                writeHeader(out);
+                while (rs.next()) {
+                    if (cancelled != null && cancelled.getAsBoolean()) {
+                        // Closing a streaming result set reads the remaining rows; stop the query first
+                        stmt.cancel();
+                        return -1;
+                    }
+                    writeRow(out, rs, rows == 0);
+                    rows++;
+                    if (listener != null && rows % PROGRESS_INTERVAL == 0) {
+                        listener.onProgress(rows, estimatedTotal);
+                    }
+                }
+                writeFooter(out);
+            }
+            if (listener != null) {
+                listener.onProgress(rows, rows);
+            }
+
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+            complete = true;
+            return rows;
+        } finally {
+            if (!complete) {
+                Files.deleteIfExists(temp);
+            }
+        }
+    }
+
+    private Writer openWriter(Path path) throws IOException {
+        OutputStream stream = Files.newOutputStream(path);
+        if (gzip) {
+            stream = new GZIPOutputStream(stream, BUFFER_SIZE);
+        }
+        return new BufferedWriter(new OutputStreamWriter(stream, StandardCharsets.UTF_8), BUFFER_SIZE);
+    }
+
+    private void writeHeader(Writer out) throws IOException {
+        out.write(format == Format.CSV ? CSV_HEADER + "\r\n" : "[\n");
+    }
+
+    private void writeFooter(Writer out) throws IOException {
+        if (format == Format.JSON) {
+            out.write("\n]\n");
+        }
+    }
+
+    private void writeRow(Writer out, ResultSet rs, boolean first) throws SQLException, IOException {
+        String accessId = String.valueOf(rs.getInt("access_id"));
+        String accessDate = DATE_FORMAT.format(rs.getTimestamp("access_date").toLocalDateTime());
+        String accessType = rs.getString("access_type");
+        String studentId = String.valueOf(rs.getInt("student_id"));
+        String studentName = rs.getString("student_name");
+        String bookId = String.valueOf(rs.getInt("book_id"));
+        String bookTitle = rs.getString("book_title");
+
+        if (format == Format.CSV) {
+            out.write(accessId);
+            out.write(',');
+            out.write(accessDate);
+            out.write(',');
+            out.write(accessType);
+            out.write(',');
+            out.write(studentId);
+            out.write(',');
+            writeCsvField(out, studentName);
+            out.write(',');
+            out.write(bookId);
+            out.write(',');
+            writeCsvField(out, bookTitle);
+            out.write("\r\n");
+        } else {
+            out.write(first ? "{\"access_id\":" : ",\n{\"access_id\":");
+            out.write(accessId);
+            out.write(",\"access_date\":\"");
+            out.write(accessDate);
+            out.write("\",\"access_type\":\"");
+            out.write(accessType);
+            out.write("\",\"student_id\":");
+            out.write(studentId);
+            out.write(",\"student_name\":");
+            writeJsonString(out, studentName);
+            out.write(",\"book_id\":");
+            out.write(bookId);
+            out.write(",\"book_title\":");
+            writeJsonString(out, bookTitle);
+            out.write('}');
+        }
+    }
+
+    private static void writeCsvField(Writer out, String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            out.write(value);
+            return;
+        }
+        out.write('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                out.write('"');
+            }
+            out.write(c);
+        }
+        out.write('"');
+    }
+
+    private static void writeJsonString(Writer out, String value) throws IOException {
+        if (value == null) {
+            out.write("null");
+            return;
+        }
+        out.write('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                out.write('\\');
+                out.write(c);
+            } else if (c < 0x20) {
+                out.write(String.format("\\u%04x", (int) c));
+            } else {
+                out.write(c);
+            }
+        }
+        out.write('"');
+    }
+}
@@ -0,0 +1,344 @@
+package com.elibrary.database;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Partition maintenance for a monthly RANGE-partitioned ACCESS_LOG
+ * (see database/partition_access_log.sql). Splits the catch-all partition
+ * so months ahead have their own partition, and archives or drops months
+ * older than the retention period. Does nothing if the table is not
+ * partitioned. Uses singleton pattern; can also be run on its own from cron.
+ */
+public class AccessLogPartitionManager {
+    // Maintenance settings, overridable with -Delibrary.accesslog.* system properties
+    private static final int RETENTION_MONTHS = Integer.getInteger("elibrary.accesslog.retentionMonths", 24);
+    private static final String RETENTION_MODE = System.getProperty("elibrary.accesslog.retentionMode", "archive");
+    private static final int MONTHS_AHEAD = Integer.getInteger("elibrary.accesslog.partitionMonthsAhead", 3);
+    private static final long INTERVAL_HOURS = Long.getLong("elibrary.accesslog.maintenanceIntervalHours", 24L);
+
+    private static final String FUTURE_PARTITION = "p_future";
+    private static final String HISTORY_PARTITION = "p_history";
+    // Only one kiosk maintains the partitions at a time
+    private static final String LOCK_NAME = "elibrary_access_log_maintenance";
+
+    private static final String ARCHIVE_TABLE_DDL =
+            "CREATE TABLE IF NOT EXISTS ACCESS_LOG_ARCHIVE (" +
+            "access_id INT NOT NULL, " +
+            "student_id INT NOT NULL, " +
+            "book_id INT NOT NULL, " +
+            "access_type ENUM('VIEW', 'DOWNLOAD') NOT NULL, " +
+            "access_date TIMESTAMP NOT NULL, " +
+            "PRIMARY KEY (access_id, access_date), " +
+            "INDEX idx_archive_date (access_date))";
+
+    private static volatile AccessLogPartitionManager instance;
+
+    private final ZoneId zone = ZoneId.systemDefault();
+    private ScheduledExecutorService scheduler;
+
+    /**
+     * Private constructor to prevent instantiation
+     */
+    private AccessLogPartitionManager() {}
+
+    /**
+     * Get singleton instance of AccessLogPartitionManager
+     * @return AccessLogPartitionManager instance
+     */
+    public static AccessLogPartitionManager getInstance() {
+        if (instance == null) {
+            synchronized (AccessLogPartitionManager.class) {
+                if (instance == null) {
+                    instance = new AccessLogPartitionManager();
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Run maintenance now and then every maintenance interval in the background
+     */
+    public synchronized void start() {
+        if (scheduler != null || !DatabaseConnection.getInstance().getDialect().supportsPartitioning()) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "elibrary-accesslog-partitions");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(() -> {
+            Result result = runMaintenance();
+            if (result.hasChanges() || result.getError() != null) {
+                System.out.println("Access log partition maintenance: " + result);
+            }
+        }, 0, INTERVAL_HOURS, TimeUnit.HOURS);
+    }
+
+    /**
+     * Stop scheduled maintenance
+     */
+    public synchronized void shutdown() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+
+    /**
+     * Create upcoming monthly partitions and expire old ones
+     * @return What was changed
+     */
+    public synchronized Result runMaintenance() {
+        Result result = new Result();
+        if (!DatabaseConnection.getInstance().getDialect().supportsPartitioning()) {
+            result.skipped = "partitioning needs the MySQL backend";
+            return result;
+        }
+
+        try (Connection connection = DatabaseConnection.getInstance().getConnection()) {
+            if (!acquireLock(connection)) {
+                result.skipped = "another instance is running maintenance";
+                return result;
+            }
+            try {
+                List<Partition> partitions = readPartitions(connection);
+                if (partitions.isEmpty()) {
+                    result.skipped = "ACCESS_LOG is not partitioned";
+                    return result;
+                }
+                result.partitioned = true;
+                createPartitions(connection, partitions, result);
+                expirePartitions(connection, readPartitions(connection), result);
+            } finally {
+                releaseLock(connection);
+            }
+        } catch (SQLException e) {
+            System.err.println("Error maintaining access log partitions: " + e.getMessage());
+            result.error = e.getMessage();
+        }
+
+        return result;
+    }
+
+    /**
+     * Split the catch-all partition so every month up to MONTHS_AHEAD has its own
+     */
+    private void createPartitions(Connection connection, List<Partition> partitions, Result result) throws SQLException {
+        Long highestBound = null;
+        boolean hasFuture = false;
+        for (Partition partition : partitions) {
+            if (partition.upperBound == null) {
+                hasFuture = partition.name.equals(FUTURE_PARTITION);
+            } else if (highestBound == null || partition.upperBound > highestBound) {
+                highestBound = partition.upperBound;
+            }
+        }
+        if (!hasFuture) {
+            System.err.println("ACCESS_LOG has no " + FUTURE_PARTITION + " partition; not adding partitions");
+            return;
+        }
+
+        YearMonth current = YearMonth.now(zone);
+        YearMonth next;
+        List<String> definitions = new ArrayList<>();
+        List<String> names = new ArrayList<>();
+        if (highestBound == null) {
+            // First run after partition_access_log.sql: everything before this month is history
+            definitions.add(definition(HISTORY_PARTITION, startOf(current)));
+            names.add(HISTORY_PARTITION);
+            next = current;
+        } else {
+            next = YearMonth.from(Instant.ofEpochSecond(highestBound).atZone(zone));
+        }
+        for (YearMonth last = current.plusMonths(MONTHS_AHEAD); !next.isAfter(last); next = next.plusMonths(1)) {
+            definitions.add(definition(nameOf(next), startOf(next.plusMonths(1))));
+            names.add(nameOf(next));
+        }
+        if (definitions.isEmpty()) {
+            return;
+        }
+        definitions.add("PARTITION " + FUTURE_PARTITION + " VALUES LESS THAN MAXVALUE");
+
+        String ddl = "ALTER TABLE ACCESS_LOG REORGANIZE PARTITION " + FUTURE_PARTITION +
+                     " INTO (" + String.join(", ", definitions) + ")";
+        try (Statement stmt = connection.createStatement()) {
+            stmt.executeUpdate(ddl);
+        }
+        result.created.addAll(names);
+    }
+
+    /**
+     * Archive (or drop) every partition that ends before the retention cutoff
+     */
+    private void expirePartitions(Connection connection, List<Partition> partitions, Result result) throws SQLException {
+        if (RETENTION_MONTHS <= 0) {
+            return;
+        }
+        boolean archive = !"drop".equalsIgnoreCase(RETENTION_MODE);
+        long cutoff = startOf(YearMonth.now(zone).minusMonths(RETENTION_MONTHS));
+
+        for (Partition partition : partitions) {
+            if (partition.upperBound == null || partition.upperBound > cutoff) {
+                continue;
+            }
+            try (Statement stmt = connection.createStatement()) {
+                if (archive) {
+                    stmt.executeUpdate(ARCHIVE_TABLE_DDL);
+                    result.archivedRows += stmt.executeUpdate(
+                            "INSERT IGNORE INTO ACCESS_LOG_ARCHIVE (access_id, student_id, book_id, access_type, access_date) " +
+                            "SELECT access_id, student_id, book_id, access_type, access_date " +
+                            "FROM ACCESS_LOG PARTITION (`" + partition.name + "`)");
+                }
+                stmt.executeUpdate("ALTER TABLE ACCESS_LOG DROP PARTITION `" + partition.name + "`");
+            }
+            (archive ? result.archived : result.dropped).add(partition.name);
+        }
+    }
+
+    /**
+     * Read ACCESS_LOG partitions in order
+     * @return Partitions, or an empty list if the table is not partitioned
+     */
+    private List<Partition> readPartitions(Connection connection) throws SQLException {
+        String query = "SELECT PARTITION_NAME, PARTITION_DESCRIPTION FROM INFORMATION_SCHEMA.PARTITIONS " +
+                      "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'ACCESS_LOG' " +
+                      "ORDER BY PARTITION_ORDINAL_POSITION";
+        List<Partition> partitions = new ArrayList<>();
+
+        try (Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery(query)) {
+            while (rs.next()) {
+                String name = rs.getString("PARTITION_NAME");
+                if (name == null) {
+                    return new ArrayList<>();
+                }
+                String description = rs.getString("PARTITION_DESCRIPTION");
+                Long upperBound = description == null || description.equalsIgnoreCase("MAXVALUE")
+                        ? null : Long.parseLong(description.trim());
+                partitions.add(new Partition(name, upperBound));
+            }
+        }
+        return partitions;
+    }
+
+    private boolean acquireLock(Connection connection) throws SQLException {
+        try (PreparedStatement stmt = connection.prepareStatement("SELECT GET_LOCK(?, 0)")) {
+            stmt.setString(1, LOCK_NAME);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() && rs.getInt(1) == 1;
+            }
+        }
+    }
+
+    private void releaseLock(Connection connection) throws SQLException {
+        try (PreparedStatement stmt = connection.prepareStatement("SELECT RELEASE_LOCK(?)")) {
+            stmt.setString(1, LOCK_NAME);
+            stmt.executeQuery().close();
+        }
+    }
+
+    private long startOf(YearMonth month) {
+        return month.atDay(1).atStartOfDay(zone).toEpochSecond();
+    }
+
+    private static String nameOf(YearMonth month) {
+        return String.format("p%04d%02d", month.getYear(), month.getMonthValue());
+    }
+
+    private static String definition(String name, long upperBound) {
+        // Bounds are epoch seconds, matching UNIX_TIMESTAMP(access_date)
+        return "PARTITION " + name + " VALUES LESS THAN (" + upperBound + ")";
+    }
+
+    /**
+     * Run maintenance once and exit (for cron or manual use)
+     */
+    public static void main(String[] args) {
+        Result result = getInstance().runMaintenance();
+        System.out.println("Access log partition maintenance: " + result);
+        DatabaseConnection.getInstance().closeConnection();
+        if (result.getError() != null) {
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Partition name and exclusive upper bound (epoch seconds, null for MAXVALUE)
+     */
+    private static final class Partition {
+        private final String name;
+        private final Long upperBound;
+
+        private Partition(String name, Long upperBound) {
+            this.name = name;
+            this.upperBound = upperBound;
+        }
+    }
+
+    /**
+     * Outcome of one maintenance run
+     */
+    public static final class Result {
+        private boolean partitioned = false;
+        private String skipped;
+        private String error;
+        private final List<String> created = new ArrayList<>();
+        private final List<String> archived = new ArrayList<>();
+        private final List<String> dropped = new ArrayList<>();
+        private long archivedRows = 0;
+
+        public boolean isPartitioned() {
+            return partitioned;
+        }
+
+        public String getError() {
+            return error;
+        }
+
+        public List<String> getCreated() {
+            return created;
+        }
+
+        public List<String> getArchived() {
+            return archived;
+        }
+
+        public List<String> getDropped() {
+            return dropped;
+        }
+
+        public long getArchivedRows() {
+            return archivedRows;
+        }
+
+        public boolean hasChanges() {
+            return !created.isEmpty() || !archived.isEmpty() || !dropped.isEmpty();
+        }
+
+        @Override
+        public String toString() {
+            if (error != null) {
+                return "failed: " + error;
+            }
+            if (skipped != null) {
+                return "skipped (" + skipped + ")";
+            }
+            return String.format("created=%s, archived=%s (%d rows), dropped=%s",
+                    created, archived, archivedRows, dropped);
+        }
+    }
+}
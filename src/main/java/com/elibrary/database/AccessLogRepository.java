@@ -0,0 +1,113 @@
+package com.elibrary.database;
+
+import com.elibrary.models.AccessLog;
+import com.elibrary.models.Page;
+
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.List;
+
+/**
+ * Repository for AccessLog operations
+ * Implemented by AccessLogDAO (database) and InMemoryAccessLogRepository.
+ */
+public interface AccessLogRepository {
+    /**
+     * Log a book access (view or download)
+     * @param studentId Student ID
+     * @param bookId Book ID
+     * @param accessType "VIEW" or "DOWNLOAD"
+     * @return true if successful, false otherwise
+     */
+    boolean logAccess(int studentId, int bookId, String accessType);
+
+    /**
+     * Write a batch of access logs, keeping each log's access date
+     * @param logs Access logs to write (studentId, bookId, accessType, accessDate)
+     * @return true if successful, false otherwise
+     */
+    boolean logAccessBatch(List<AccessLog> logs);
+
+    /**
+     * Write a batch of access logs like logAccessBatch, but report why a batch failed
+     * @param logs Access logs to write (studentId, bookId, accessType, accessDate)
+     * @throws SQLException if the batch was not written; none of its logs are kept
+     */
+    void writeAccessBatch(List<AccessLog> logs) throws SQLException;
+
+    /**
+     * Get all access logs for a specific book
+     * @param bookId Book ID
+     * @return List of access logs, newest first
+     */
+    List<AccessLog> getAccessLogsByBook(int bookId);
+
+    /**
+     * Get access logs for a specific book within a date range
+     * @param bookId Book ID
+     * @param from Start of the range (inclusive), or null for no lower bound
+     * @param to End of the range (exclusive), or null for no upper bound
+     * @return List of access logs, newest first
+     */
+    List<AccessLog> getAccessLogsByBook(int bookId, Timestamp from, Timestamp to);
+
+    /**
+     * Get all access logs for a specific student
+     * @param studentId Student ID
+     * @return List of access logs, newest first
+     */
+    List<AccessLog> getAccessLogsByStudent(int studentId);
+
+    /**
+     * Get access logs for a specific student within a date range
+     * @param studentId Student ID
+     * @param from Start of the range (inclusive), or null for no lower bound
+     * @param to End of the range (exclusive), or null for no upper bound
+     * @return List of access logs, newest first
+     */
+    List<AccessLog> getAccessLogsByStudent(int studentId, Timestamp from, Timestamp to);
+
+    /**
+     * Get view count for a specific book
+     * @param bookId Book ID
+     * @return Number of views
+     */
+    int getViewCount(int bookId);
+
+    /**
+     * Get download count for a specific book
+     * @param bookId Book ID
+     * @return Number of downloads
+     */
+    int getDownloadCount(int bookId);
+
+    /**
+     * Get the latest access logs (for admin statistics)
+     * @return Up to 100 access logs, newest first
+     */
+    List<AccessLog> getAllAccessLogs();
+
+    /**
+     * Get one page of access logs, newest first
+     * @param after Last log of the previous page, or null for the first page
+     * @param pageSize Maximum number of logs to return
+     * @return Page of access logs
+     */
+    Page<AccessLog> getAccessLogsPage(AccessLog after, int pageSize);
+
+    /**
+     * Get one page of access logs within a date range, newest first
+     * @param after Last log of the previous page, or null for the first page
+     * @param pageSize Maximum number of logs to return
+     * @param from Start of the range (inclusive), or null for no lower bound
+     * @param to End of the range (exclusive), or null for no upper bound
+     * @return Page of access logs
+     */
+    Page<AccessLog> getAccessLogsPage(AccessLog after, int pageSize, Timestamp from, Timestamp to);
+
+    /**
+     * Estimate the number of access logs without a full count
+     * @return Estimated access log count, or -1 if unavailable
+     */
+    long estimateAccessLogCount();
+}
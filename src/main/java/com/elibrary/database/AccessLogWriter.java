@@ -0,0 +1,351 @@
+package com.elibrary.database;
+
+import com.elibrary.models.AccessLog;
+
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Background writer for access logs
+ * Queues view/download events and writes them with JDBC batch inserts
+ * when the batch size or flush interval is reached, so the UI thread
+ * never waits on the database. Events that do not fit in the queue, or
+ * arrive after shutdown, are dropped and counted. While the database is
+ * unreachable a failed batch goes back to the head of the queue and the
+ * writer backs off before retrying it. Uses singleton pattern.
+ */
+public class AccessLogWriter {
+    // Writer settings, overridable with -Delibrary.accesslog.* system properties
+    private static final int BATCH_SIZE = Integer.getInteger("elibrary.accesslog.batchSize", 100);
+    private static final long FLUSH_INTERVAL_MS = Long.getLong("elibrary.accesslog.flushIntervalMs", 1_000L);
+    private static final int QUEUE_CAPACITY = Integer.getInteger("elibrary.accesslog.queueCapacity", 10_000);
+    private static final long MAX_RETRY_DELAY_MS = Long.getLong("elibrary.accesslog.maxRetryDelayMs", 30_000L);
+    private static final long SHUTDOWN_TIMEOUT_MS = 10_000;
+
+    // Queued to wake the writer early; never written
+    private static final AccessLog WAKE_UP = new AccessLog();
+
+    private static volatile AccessLogWriter instance;
+
+    private final BlockingDeque<AccessLog> queue = new LinkedBlockingDeque<>(QUEUE_CAPACITY);
+    private final Thread writerThread;
+    private volatile boolean running = true;
+    // Writer thread only: wait before retrying after the database was unreachable, 0 when it is up
+    private long retryDelayMs = 0;
+
+    // Sequence numbers let flush() wait for events queued before the call
+    private final AtomicLong enqueuedCount = new AtomicLong();
+    private final Object writtenLock = new Object();
+    private long processedCount = 0;
+
+    // Statistics
+    private final AtomicLong writtenCount = new AtomicLong();
+    private final AtomicLong failedCount = new AtomicLong();
+    private final AtomicLong droppedCount = new AtomicLong();
+    private final AtomicLong flushCount = new AtomicLong();
+    private final AtomicLong totalFlushNanos = new AtomicLong();
+    private final AtomicLong maxFlushNanos = new AtomicLong();
+    private volatile long lastFlushNanos = 0;
+
+    /**
+     * Private constructor to prevent instantiation
+     */
+    private AccessLogWriter() {
+        writerThread = new Thread(this::run, "elibrary-accesslog-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+    }
+
+    /**
+     * Get singleton instance of AccessLogWriter
+     * @return AccessLogWriter instance
+     */
+    public static AccessLogWriter getInstance() {
+        if (instance == null) {
+            synchronized (AccessLogWriter.class) {
+                if (instance == null) {
+                    instance = new AccessLogWriter();
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Queue a book access (view or download) for writing.
+     * Never touches the database on the caller's thread: if the queue is full
+     * or the writer is stopped, the event is dropped and counted.
+     * @param studentId Student ID
+     * @param bookId Book ID
+     * @param accessType "VIEW" or "DOWNLOAD"
+     */
+    public void logAccess(int studentId, int bookId, String accessType) {
+        AccessLog log = new AccessLog(studentId, bookId, accessType);
+        log.setAccessDate(new Timestamp(System.currentTimeMillis()));
+
+        // Counted once queued, so flush() only ever waits for events the writer will process
+        if (running && queue.offer(log)) {
+            enqueuedCount.incrementAndGet();
+        } else if (droppedCount.incrementAndGet() == 1) {
+            System.err.println("Access log queue full or writer stopped; dropping events (see writer statistics)");
+        }
+    }
+
+    /**
+     * Wait until every event queued before this call has been written
+     * @param timeoutMs Maximum time to wait
+     * @return true if all earlier events were written, false on timeout
+     */
+    public boolean flush(long timeoutMs) {
+        long target = enqueuedCount.get();
+        long deadline = System.currentTimeMillis() + timeoutMs;
+        queue.offer(WAKE_UP); // write now instead of waiting for the interval
+
+        synchronized (writtenLock) {
+            while (processedCount < target) {
+                long remaining = deadline - System.currentTimeMillis();
+                if (remaining <= 0) {
+                    return false;
+                }
+                try {
+                    writtenLock.wait(remaining);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Stop accepting events and write everything still queued
+     */
+    public void shutdown() {
+        running = false;
+        queue.offer(WAKE_UP);
+        try {
+            writerThread.join(SHUTDOWN_TIMEOUT_MS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (!queue.isEmpty()) {
+            System.err.println("Access log writer stopped with " + queue.size() + " unwritten event(s)");
+        }
+        if (droppedCount.get() > 0) {
+            System.err.println("Access log writer dropped " + droppedCount.get() + " event(s)");
+        }
+    }
+
+    /**
+     * Get current writer statistics (queue depth, flush latency)
+     * @return Writer statistics snapshot
+     */
+    public Stats getStats() {
+        long flushes = flushCount.get();
+        return new Stats(queue.size(), writtenCount.get(), failedCount.get(), droppedCount.get(),
+                flushes, lastFlushNanos, flushes == 0 ? 0 : totalFlushNanos.get() / flushes, maxFlushNanos.get());
+    }
+
+    /**
+     * Writer loop: collect up to BATCH_SIZE events or wait FLUSH_INTERVAL_MS, then flush
+     */
+    private void run() {
+        List<AccessLog> batch = new ArrayList<>(BATCH_SIZE);
+
+        while (running || !queue.isEmpty()) {
+            try {
+                AccessLog first = queue.poll(FLUSH_INTERVAL_MS, TimeUnit.MILLISECONDS);
+                if (first != null && first != WAKE_UP) {
+                    batch.add(first);
+                    long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(FLUSH_INTERVAL_MS);
+                    while (batch.size() < BATCH_SIZE) {
+                        long remaining = deadline - System.nanoTime();
+                        AccessLog next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : queue.poll();
+                        if (next == null || next == WAKE_UP) {
+                            break;
+                        }
+                        batch.add(next);
+                    }
+                }
+            } catch (InterruptedException e) {
+                // Not used for signalling; keep running until shutdown() drains the queue
+            }
+
+            if (!batch.isEmpty()) {
+                int processed = writeBatch(batch);
+                if (processed < batch.size()) {
+                    requeue(batch.subList(processed, batch.size()));
+                    backOff();
+                } else {
+                    retryDelayMs = 0;
+                }
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * Write through the current access log repository (database, or in-memory when configured)
+     */
+    private void write(List<AccessLog> logs) throws SQLException {
+        ServiceRegistry.getInstance().getAccessLogRepository().writeAccessBatch(logs);
+    }
+
+    /**
+     * Write one batch. If the database rejects it, retry row by row so one bad event
+     * does not lose the whole batch; bad events are counted as failed.
+     * @return Number of events processed, from the start of the batch; events after
+     *         that were not written because the database could not be reached
+     */
+    private int writeBatch(List<AccessLog> batch) {
+        long start = System.nanoTime();
+        int processed = 0;
+        try {
+            write(batch);
+            writtenCount.addAndGet(batch.size());
+            processed = batch.size();
+        } catch (SQLException e) {
+            if (!DatabaseConnection.isConnectionFailure(e)) {
+                processed = writeRows(batch);
+            } else if (retryDelayMs == 0) {
+                System.err.println("Database unreachable; access logs stay queued: " + e.getMessage());
+            }
+        }
+
+        long elapsed = System.nanoTime() - start;
+        flushCount.incrementAndGet();
+        totalFlushNanos.addAndGet(elapsed);
+        maxFlushNanos.accumulateAndGet(elapsed, Math::max);
+        lastFlushNanos = elapsed;
+
+        markProcessed(processed);
+        return processed;
+    }
+
+    private int writeRows(List<AccessLog> batch) {
+        for (int i = 0; i < batch.size(); i++) {
+            List<AccessLog> single = new ArrayList<>(1);
+            single.add(batch.get(i));
+            try {
+                write(single);
+                writtenCount.incrementAndGet();
+            } catch (SQLException e) {
+                if (DatabaseConnection.isConnectionFailure(e)) {
+                    // Lost the database part way through; the rest is retried with the next attempt
+                    return i;
+                }
+                failedCount.incrementAndGet();
+            }
+        }
+        return batch.size();
+    }
+
+    /**
+     * Put unwritten events back at the head of the queue, in their original order.
+     * Events that no longer fit because newer ones filled the queue are dropped.
+     */
+    private void requeue(List<AccessLog> logs) {
+        int dropped = 0;
+        for (int i = logs.size() - 1; i >= 0; i--) {
+            if (!queue.offerFirst(logs.get(i))) {
+                dropped++;
+            }
+        }
+        if (dropped > 0) {
+            droppedCount.addAndGet(dropped);
+            markProcessed(dropped);
+        }
+    }
+
+    /**
+     * Wait before the next attempt, doubling the wait on each failure up to MAX_RETRY_DELAY_MS
+     */
+    private void backOff() {
+        retryDelayMs = retryDelayMs == 0 ? FLUSH_INTERVAL_MS : Math.min(retryDelayMs * 2, MAX_RETRY_DELAY_MS);
+        try {
+            Thread.sleep(retryDelayMs);
+        } catch (InterruptedException e) {
+            // Not used for signalling; the batch is retried now
+        }
+    }
+
+    private void markProcessed(int count) {
+        synchronized (writtenLock) {
+            processedCount += count;
+            writtenLock.notifyAll();
+        }
+    }
+
+    /**
+     * Immutable snapshot of writer statistics
+     */
+    public static final class Stats {
+        private final int queueDepth;
+        private final long writtenCount;
+        private final long failedCount;
+        private final long droppedCount;
+        private final long flushCount;
+        private final long lastFlushNanos;
+        private final long averageFlushNanos;
+        private final long maxFlushNanos;
+
+        private Stats(int queueDepth, long writtenCount, long failedCount, long droppedCount,
+                      long flushCount, long lastFlushNanos, long averageFlushNanos, long maxFlushNanos) {
+            this.queueDepth = queueDepth;
+            this.writtenCount = writtenCount;
+            this.failedCount = failedCount;
+            this.droppedCount = droppedCount;
+            this.flushCount = flushCount;
+            this.lastFlushNanos = lastFlushNanos;
+            this.averageFlushNanos = averageFlushNanos;
+            this.maxFlushNanos = maxFlushNanos;
+        }
+
+        public int getQueueDepth() {
+            return queueDepth;
+        }
+
+        public long getWrittenCount() {
+            return writtenCount;
+        }
+
+        public long getFailedCount() {
+            return failedCount;
+        }
+
+        public long getDroppedCount() {
+            return droppedCount;
+        }
+
+        public long getFlushCount() {
+            return flushCount;
+        }
+
+        public double getLastFlushMillis() {
+            return lastFlushNanos / 1_000_000.0;
+        }
+
+        public double getAverageFlushMillis() {
+            return averageFlushNanos / 1_000_000.0;
+        }
+
+        public double getMaxFlushMillis() {
+            return maxFlushNanos / 1_000_000.0;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("queued=%d, written=%d, failed=%d, dropped=%d, flushes=%d, " +
+                            "lastFlush=%.2fms, avgFlush=%.2fms, maxFlush=%.2fms",
+                    queueDepth, writtenCount, failedCount, droppedCount, flushCount,
+                    getLastFlushMillis(), getAverageFlushMillis(), getMaxFlushMillis());
+        }
+    }
+}
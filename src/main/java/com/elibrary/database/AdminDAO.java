@@ -8,23 +8,19 @@ import java.sql.*;
 /**
  * Data Access Object for Admin operations
  */
-public class AdminDAO {
-    private Connection connection;
-    
-    public AdminDAO() {
-        this.connection = DatabaseConnection.getInstance().getConnection();
-    }
-    
+public class AdminDAO implements AdminRepository {
     /**
      * Authenticate admin by username and password
      * @param username Admin username
      * @param password Admin password (plain text)
      * @return Admin object if authenticated, null otherwise
      */
+    @Override
     public Admin authenticateAdmin(String username, String password) {
         String query = "SELECT * FROM ADMIN WHERE username = ?";
         
-        try (PreparedStatement stmt = connection.prepareStatement(query)) {
+        try (Connection connection = DatabaseConnection.getInstance().getConnection();
+             PreparedStatement stmt = connection.prepareStatement(query)) {
             stmt.setString(1, username);
             ResultSet rs = stmt.executeQuery();
             
@@ -49,10 +45,12 @@ public class AdminDAO {
      * @param adminId Admin ID
      * @return Admin object if found, null otherwise
      */
+    @Override
     public Admin getAdminById(int adminId) {
         String query = "SELECT * FROM ADMIN WHERE admin_id = ?";
         
-        try (PreparedStatement stmt = connection.prepareStatement(query)) {
+        try (Connection connection = DatabaseConnection.getInstance().getConnection();
+             PreparedStatement stmt = connection.prepareStatement(query)) {
             stmt.setInt(1, adminId);
             ResultSet rs = stmt.executeQuery();
             
@@ -72,10 +70,12 @@ public class AdminDAO {
      * @param plainPassword Plain text password
      * @return true if successful, false otherwise
      */
+    @Override
     public boolean addAdmin(Admin admin, String plainPassword) {
         String query = "INSERT INTO ADMIN (first_name, last_name, username, password) VALUES (?, ?, ?, ?)";
         
-        try (PreparedStatement stmt = connection.prepareStatement(query)) {
+        try (Connection connection = DatabaseConnection.getInstance().getConnection();
+             PreparedStatement stmt = connection.prepareStatement(query)) {
             stmt.setString(1, admin.getFirstName());
             stmt.setString(2, admin.getLastName());
             stmt.setString(3, admin.getUsername());
@@ -94,10 +94,12 @@ public class AdminDAO {
      * @param newPassword New plain text password
      * @return true if successful, false otherwise
      */
+    @Override
     public boolean updateAdminPassword(int adminId, String newPassword) {
         String query = "UPDATE ADMIN SET password = ? WHERE admin_id = ?";
         
-        try (PreparedStatement stmt = connection.prepareStatement(query)) {
+        try (Connection connection = DatabaseConnection.getInstance().getConnection();
+             PreparedStatement stmt = connection.prepareStatement(query)) {
             stmt.setString(1, PasswordUtil.hashPassword(newPassword));
             stmt.setInt(2, adminId);
             
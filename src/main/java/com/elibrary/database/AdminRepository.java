@@ -0,0 +1,40 @@
+package com.elibrary.database;
+
+import com.elibrary.models.Admin;
+
+/**
+ * Repository for Admin operations
+ * Implemented by AdminDAO (database) and InMemoryAdminRepository.
+ */
+public interface AdminRepository {
+    /**
+     * Authenticate admin by username and password
+     * @param username Admin username
+     * @param password Admin password (plain text)
+     * @return Admin object if authenticated, null otherwise
+     */
+    Admin authenticateAdmin(String username, String password);
+
+    /**
+     * Get admin by ID
+     * @param adminId Admin ID
+     * @return Admin object if found, null otherwise
+     */
+    Admin getAdminById(int adminId);
+
+    /**
+     * Add new admin
+     * @param admin Admin object to add
+     * @param plainPassword Plain text password
+     * @return true if successful, false otherwise
+     */
+    boolean addAdmin(Admin admin, String plainPassword);
+
+    /**
+     * Update admin password
+     * @param adminId Admin ID
+     * @param newPassword New plain text password
+     * @return true if successful, false otherwise
+     */
+    boolean updateAdminPassword(int adminId, String newPassword);
+}
@@ -1,6 +1,8 @@
 package com.elibrary.database;
 
 import com.elibrary.models.Book;
+import com.elibrary.models.Page;
+import com.elibrary.utils.CatalogSearchIndex;
 
 import java.sql.*;
 import java.util.ArrayList;
@@ -9,27 +11,51 @@ import java.util.List;
 /**
  * Data Access Object for Book operations
  */
-public class BookDAO {
-    private Connection connection;
+public class BookDAO implements BookRepository, CatalogSearchIndex.Source {
+    private static final String BOOK_COLUMNS =
+            "SELECT b.*, c.category_name, " +
+            "COALESCE(bs.view_count, 0) as view_count, " +
+            "COALESCE(bs.download_count, 0) as download_count ";
+    private static final String BOOK_FROM =
+            "FROM BOOK b " +
+            "JOIN CATEGORY c ON b.category_id = c.category_id " +
+            "LEFT JOIN BOOK_STATS bs ON bs.book_id = b.book_id ";
+    private static final String BOOK_SELECT = BOOK_COLUMNS + BOOK_FROM;
     
-    public BookDAO() {
-        this.connection = DatabaseConnection.getInstance().getConnection();
-    }
+    private static final String FULLTEXT_MATCH = "MATCH(b.title, b.author, b.description) AGAINST (? IN BOOLEAN MODE)";
+    
+    private static final int FULLTEXT_MIN_WORD_LENGTH = 3;
+    
+    // Seek predicate for (title, book_id) order; idx_title carries book_id as the primary key suffix
+    private static final String AFTER_BOOK = "(b.title > ? OR (b.title = ? AND b.book_id > ?)) ";
     
     /**
      * Get all books with category names and statistics
+     * Books served from the catalog cache are copies, so callers may change them.
      * @return List of all books
      */
+    @Override
     public List<Book> getAllBooks() {
+        CatalogCache.Snapshot catalog = CatalogCache.getInstance().get(this);
+        if (catalog != null) {
+            return copies(catalog.getBooks());
+        }
+        
+        List<Book> books = loadCatalog();
+        return books != null ? books : new ArrayList<>();
+    }
+    
+    /**
+     * Read the whole catalog from the database (cache and search index loader)
+     * @return List of all books in (title, book_id) order, or null on error
+     */
+    @Override
+    public List<Book> loadCatalog() {
         List<Book> books = new ArrayList<>();
-        String query = "SELECT b.*, c.category_name, " +
-                      "(SELECT COUNT(*) FROM ACCESS_LOG WHERE book_id = b.book_id AND access_type = 'VIEW') as view_count, " +
-                      "(SELECT COUNT(*) FROM ACCESS_LOG WHERE book_id = b.book_id AND access_type = 'DOWNLOAD') as download_count " +
-                      "FROM BOOK b " +
-                      "JOIN CATEGORY c ON b.category_id = c.category_id " +
-                      "ORDER BY b.title";
+        String query = BOOK_SELECT + "ORDER BY b.title, b.book_id";
         
-        try (Statement stmt = connection.createStatement();
+        try (Connection connection = DatabaseConnection.getInstance().getConnection();
+             Statement stmt = connection.createStatement();
              ResultSet rs = stmt.executeQuery(query)) {
             
             while (rs.next()) {
@@ -37,25 +63,64 @@ public class BookDAO {
             }
         } catch (SQLException e) {
             System.err.println("Error getting all books: " + e.getMessage());
+            return null;
         }
         
         return books;
     }
     
+    /**
+     * Read the catalog version: book count, highest book ID and latest update time
+     * (cache probe, and search index refresh)
+     * @return Catalog version, or null on error
+     */
+    @Override
+    public CatalogCache.Version readCatalogVersion() {
+        String query = "SELECT COUNT(*) as book_count, MAX(book_id) as last_book_id, MAX(updated_at) as last_updated FROM BOOK";
+        
+        try (Connection connection = DatabaseConnection.getInstance().getConnection();
+             Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery(query)) {
+            
+            if (rs.next()) {
+                return new CatalogCache.Version(rs.getLong("book_count"), rs.getInt("last_book_id"),
+                        rs.getTimestamp("last_updated"));
+            }
+        } catch (SQLException e) {
+            System.err.println("Error reading catalog version: " + e.getMessage());
+        }
+        
+        return null;
+    }
+    
     /**
      * Get book by ID
      * @param bookId Book ID
      * @return Book object if found, null otherwise
      */
+    @Override
     public Book getBookById(int bookId) {
-        String query = "SELECT b.*, c.category_name, " +
-                      "(SELECT COUNT(*) FROM ACCESS_LOG WHERE book_id = b.book_id AND access_type = 'VIEW') as view_count, " +
-                      "(SELECT COUNT(*) FROM ACCESS_LOG WHERE book_id = b.book_id AND access_type = 'DOWNLOAD') as download_count " +
-                      "FROM BOOK b " +
-                      "JOIN CATEGORY c ON b.category_id = c.category_id " +
+        CatalogCache.Snapshot catalog = CatalogCache.getInstance().get(this);
+        Book cached = catalog != null ? catalog.getBook(bookId) : null;
+        if (cached != null) {
+            return new Book(cached);
+        }
+        
+        // Not cached yet (e.g. added from another kiosk since the last probe)
+        return queryBookById(bookId);
+    }
+    
+    /**
+     * Read one book from the database, bypassing the catalog cache
+     * @param bookId Book ID
+     * @return Book object if found, null otherwise
+     */
+    private Book queryBookById(int bookId) {
+        String query = BOOK_SELECT +
                       "WHERE b.book_id = ?";
         
-        try (PreparedStatement stmt = connection.prepareStatement(query)) {
+        try (Connection connection = DatabaseConnection.getInstance().getConnection();
+             PreparedStatement stmt = connection.prepareStatement(query)) {
             stmt.setInt(1, bookId);
             ResultSet rs = stmt.executeQuery();
             
@@ -74,17 +139,15 @@ public class BookDAO {
      * @param searchTerm Search term
      * @return List of matching books
      */
+    @Override
     public List<Book> searchBooks(String searchTerm) {
         List<Book> books = new ArrayList<>();
-        String query = "SELECT b.*, c.category_name, " +
-                      "(SELECT COUNT(*) FROM ACCESS_LOG WHERE book_id = b.book_id AND access_type = 'VIEW') as view_count, " +
-                      "(SELECT COUNT(*) FROM ACCESS_LOG WHERE book_id = b.book_id AND access_type = 'DOWNLOAD') as download_count " +
-                      "FROM BOOK b " +
-                      "JOIN CATEGORY c ON b.category_id = c.category_id " +
+        String query = BOOK_SELECT +
                       "WHERE b.title LIKE ? OR b.author LIKE ? OR b.description LIKE ? " +
                       "ORDER BY b.title";
         
-        try (PreparedStatement stmt = connection.prepareStatement(query)) {
+        try (Connection connection = DatabaseConnection.getInstance().getConnection();
+             PreparedStatement stmt = connection.prepareStatement(query)) {
             String searchPattern = "%" + searchTerm + "%";
             stmt.setString(1, searchPattern);
             stmt.setString(2, searchPattern);
@@ -101,22 +164,164 @@ public class BookDAO {
         return books;
     }
     
+    /**
+     * Get one page of books ordered by title
+     * @param after Last book of the previous page, or null for the first page
+     * @param pageSize Maximum number of books to return
+     * @return Page of books
+     */
+    @Override
+    public Page<Book> getBooksPage(Book after, int pageSize) {
+        CatalogCache.Snapshot catalog = CatalogCache.getInstance().get(this);
+        if (catalog != null) {
+            // Continue after the previous page's last book; seek in the database if it is no longer cached
+            int start = after == null ? 0 : catalog.indexOf(after.getBookId()) + 1;
+            if (after == null || start > 0) {
+                List<Book> books = catalog.getBooks();
+                int end = Math.min(start + pageSize, books.size());
+                return new Page<>(copies(books.subList(start, end)), end < books.size());
+            }
+        }
+        
+        String query = BOOK_SELECT +
+                      (after != null ? "WHERE " + AFTER_BOOK : "") +
+                      "ORDER BY b.title, b.book_id LIMIT ?";
+        
+        try (Connection connection = DatabaseConnection.getInstance().getConnection();
+             PreparedStatement stmt = connection.prepareStatement(query)) {
+            int index = 1;
+            if (after != null) {
+                index = setAfterBook(stmt, index, after);
+            }
+            stmt.setInt(index, pageSize + 1);
+            
+            return readPage(stmt.executeQuery(), pageSize);
+        } catch (SQLException e) {
+            System.err.println("Error getting books page: " + e.getMessage());
+        }
+        
+        return new Page<>(new ArrayList<>(), false);
+    }
+    
+    /**
+     * Get one page of books matching a title, author, or keyword search
+     * @param searchTerm Search term
+     * @param after Last book of the previous page, or null for the first page
+     * @param pageSize Maximum number of books to return
+     * @return Page of matching books
+     */
+    @Override
+    public Page<Book> searchBooksPage(String searchTerm, Book after, int pageSize) {
+        String query = BOOK_SELECT +
+                      "WHERE (b.title LIKE ? OR b.author LIKE ? OR b.description LIKE ?) " +
+                      (after != null ? "AND " + AFTER_BOOK : "") +
+                      "ORDER BY b.title, b.book_id LIMIT ?";
+        
+        try (Connection connection = DatabaseConnection.getInstance().getConnection();
+             PreparedStatement stmt = connection.prepareStatement(query)) {
+            String searchPattern = "%" + searchTerm + "%";
+            stmt.setString(1, searchPattern);
+            stmt.setString(2, searchPattern);
+            stmt.setString(3, searchPattern);
+            
+            int index = 4;
+            if (after != null) {
+                index = setAfterBook(stmt, index, after);
+            }
+            stmt.setInt(index, pageSize + 1);
+            
+            return readPage(stmt.executeQuery(), pageSize);
+        } catch (SQLException e) {
+            System.err.println("Error searching books page: " + e.getMessage());
+        }
+        
+        return new Page<>(new ArrayList<>(), false);
+    }
+    
+    /**
+     * Search books using the FULLTEXT index, best matches first.
+     * Plain input requires every word and matches word prefixes ("calc phys" finds
+     * "Calculus for Physics"); input containing boolean operators (+ - " * ~ < > ( ))
+     * is passed to MATCH ... AGAINST unchanged. Falls back to the LIKE search when
+     * the index is unavailable (or the backend has none), no word is long enough
+     * to be indexed, or nothing matches.
+     * @param searchTerm Search term
+     * @param limit Maximum number of books to return
+     * @return List of matching books ordered by relevance
+     */
+    @Override
+    public List<Book> searchBooksRanked(String searchTerm, int limit) {
+        String booleanQuery = toBooleanQuery(searchTerm);
+        if (booleanQuery == null || !DatabaseConnection.getInstance().getDialect().supportsFullTextSearch()) {
+            return searchBooksPage(searchTerm, null, limit).getItems();
+        }
+        
+        String query = BOOK_COLUMNS + ", " + FULLTEXT_MATCH + " as relevance " + BOOK_FROM +
+                      "WHERE " + FULLTEXT_MATCH + " " +
+                      "ORDER BY relevance DESC, b.title, b.book_id LIMIT ?";
+        List<Book> books = new ArrayList<>();
+        
+        try (Connection connection = DatabaseConnection.getInstance().getConnection();
+             PreparedStatement stmt = connection.prepareStatement(query)) {
+            stmt.setString(1, booleanQuery);
+            stmt.setString(2, booleanQuery);
+            stmt.setInt(3, limit);
+            
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    books.add(extractBookFromResultSet(rs));
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Full-text search unavailable, using LIKE search: " + e.getMessage());
+            return searchBooksPage(searchTerm, null, limit).getItems();
+        }
+        
+        // Full-text matches whole words and prefixes only; LIKE also finds substrings
+        if (books.isEmpty()) {
+            return searchBooksPage(searchTerm, null, limit).getItems();
+        }
+        
+        return books;
+    }
+    
+    /**
+     * Estimate the number of books without a full COUNT(*)
+     * @return Estimated book count, or -1 if unavailable
+     */
+    @Override
+    public long estimateBookCount() {
+        CatalogCache.Snapshot catalog = CatalogCache.getInstance().get(this);
+        if (catalog != null) {
+            return catalog.getBooks().size();
+        }
+        return TableStatistics.estimateRowCount("BOOK");
+    }
+    
     /**
      * Get books by category
      * @param categoryId Category ID
      * @return List of books in the category
      */
+    @Override
     public List<Book> getBooksByCategory(int categoryId) {
         List<Book> books = new ArrayList<>();
-        String query = "SELECT b.*, c.category_name, " +
-                      "(SELECT COUNT(*) FROM ACCESS_LOG WHERE book_id = b.book_id AND access_type = 'VIEW') as view_count, " +
-                      "(SELECT COUNT(*) FROM ACCESS_LOG WHERE book_id = b.book_id AND access_type = 'DOWNLOAD') as download_count " +
-                      "FROM BOOK b " +
-                      "JOIN CATEGORY c ON b.category_id = c.category_id " +
+        CatalogCache.Snapshot catalog = CatalogCache.getInstance().get(this);
+        if (catalog != null) {
+            for (Book book : catalog.getBooks()) {
+                if (book.getCategoryId() == categoryId) {
+                    books.add(new Book(book));
+                }
+            }
+            return books;
+        }
+        
+        String query = BOOK_SELECT +
                       "WHERE b.category_id = ? " +
                       "ORDER BY b.title";
         
-        try (PreparedStatement stmt = connection.prepareStatement(query)) {
+        try (Connection connection = DatabaseConnection.getInstance().getConnection();
+             PreparedStatement stmt = connection.prepareStatement(query)) {
             stmt.setInt(1, categoryId);
             ResultSet rs = stmt.executeQuery();
             
@@ -135,11 +340,13 @@ public class BookDAO {
      * @param book Book object to add
      * @return true if successful, false otherwise
      */
+    @Override
     public boolean addBook(Book book) {
         String query = "INSERT INTO BOOK (category_id, title, author, year_published, description, file_path, cover_image_path) " +
                       "VALUES (?, ?, ?, ?, ?, ?, ?)";
         
-        try (PreparedStatement stmt = connection.prepareStatement(query)) {
+        try (Connection connection = DatabaseConnection.getInstance().getConnection();
+             PreparedStatement stmt = connection.prepareStatement(query, Statement.RETURN_GENERATED_KEYS)) {
             stmt.setInt(1, book.getCategoryId());
             stmt.setString(2, book.getTitle());
             stmt.setString(3, book.getAuthor());
@@ -148,11 +355,87 @@ public class BookDAO {
             stmt.setString(6, book.getFilePath());
             stmt.setString(7, book.getCoverImagePath());
             
-            return stmt.executeUpdate() > 0;
+            if (stmt.executeUpdate() == 0) {
+                return false;
+            }
+            try (ResultSet keys = stmt.getGeneratedKeys()) {
+                if (keys.next()) {
+                    book.setBookId(keys.getInt(1));
+                }
+            }
         } catch (SQLException e) {
             System.err.println("Error adding book: " + e.getMessage());
             return false;
+        } finally {
+            CatalogCache.getInstance().invalidate();
+            DashboardStatsService.getInstance().invalidate();
+        }
+        
+        refreshSearchIndex(book.getBookId());
+        return true;
+    }
+    
+    /**
+     * Add many books with JDBC batch inserts in a single transaction.
+     * Either every book is added or none is.
+     * @param books Books to add; each gets its generated book ID on success
+     * @return true if successful, false otherwise
+     */
+    @Override
+    public boolean addBooks(List<Book> books) {
+        if (books.isEmpty()) {
+            return true;
+        }
+        
+        String query = "INSERT INTO BOOK (category_id, title, author, year_published, description, file_path, cover_image_path) " +
+                      "VALUES (?, ?, ?, ?, ?, ?, ?)";
+        
+        try (Connection connection = DatabaseConnection.getInstance().getConnection();
+             PreparedStatement stmt = connection.prepareStatement(query, Statement.RETURN_GENERATED_KEYS)) {
+            for (Book book : books) {
+                stmt.setInt(1, book.getCategoryId());
+                stmt.setString(2, book.getTitle());
+                stmt.setString(3, book.getAuthor());
+                stmt.setInt(4, book.getYearPublished());
+                stmt.setString(5, book.getDescription());
+                stmt.setString(6, book.getFilePath());
+                stmt.setString(7, book.getCoverImagePath());
+                stmt.addBatch();
+            }
+            
+            connection.setAutoCommit(false);
+            try {
+                stmt.executeBatch();
+                // Keys come back in batch order
+                try (ResultSet keys = stmt.getGeneratedKeys()) {
+                    for (Book book : books) {
+                        if (!keys.next()) {
+                            throw new SQLException("Missing generated key for \"" + book.getTitle() + "\"");
+                        }
+                        book.setBookId(keys.getInt(1));
+                    }
+                }
+                connection.commit();
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            System.err.println("Error adding books: " + e.getMessage());
+            return false;
+        } finally {
+            CatalogCache.getInstance().invalidate();
+            DashboardStatsService.getInstance().invalidate();
         }
+        
+        // One catalog reload serves the whole batch
+        for (Book book : books) {
+            Book saved = getBookById(book.getBookId());
+            if (saved != null) {
+                CatalogSearchIndex.getInstance().put(saved);
+            }
+        }
+        return true;
     }
     
     /**
@@ -160,11 +443,13 @@ public class BookDAO {
      * @param book Book object with updated information
      * @return true if successful, false otherwise
      */
+    @Override
     public boolean updateBook(Book book) {
         String query = "UPDATE BOOK SET category_id = ?, title = ?, author = ?, year_published = ?, " +
                       "description = ?, file_path = ?, cover_image_path = ? WHERE book_id = ?";
         
-        try (PreparedStatement stmt = connection.prepareStatement(query)) {
+        try (Connection connection = DatabaseConnection.getInstance().getConnection();
+             PreparedStatement stmt = connection.prepareStatement(query)) {
             stmt.setInt(1, book.getCategoryId());
             stmt.setString(2, book.getTitle());
             stmt.setString(3, book.getAuthor());
@@ -174,28 +459,133 @@ public class BookDAO {
             stmt.setString(7, book.getCoverImagePath());
             stmt.setInt(8, book.getBookId());
             
-            return stmt.executeUpdate() > 0;
+            if (stmt.executeUpdate() == 0) {
+                return false;
+            }
         } catch (SQLException e) {
             System.err.println("Error updating book: " + e.getMessage());
             return false;
+        } finally {
+            CatalogCache.getInstance().invalidate();
+            DashboardStatsService.getInstance().invalidate();
         }
+        
+        refreshSearchIndex(book.getBookId());
+        return true;
     }
     
     /**
      * Delete book
+     * Its access logs are deleted too and taken out of the daily usage rollups.
      * @param bookId Book ID to delete
      * @return true if successful, false otherwise
      */
+    @Override
     public boolean deleteBook(int bookId) {
+        // A partitioned ACCESS_LOG has no foreign keys, so the book's logs are removed here
+        String logsQuery = "DELETE FROM ACCESS_LOG WHERE book_id = ?";
         String query = "DELETE FROM BOOK WHERE book_id = ?";
         
-        try (PreparedStatement stmt = connection.prepareStatement(query)) {
+        try (Connection connection = DatabaseConnection.getInstance().getConnection();
+             PreparedStatement logsStmt = connection.prepareStatement(logsQuery);
+             PreparedStatement stmt = connection.prepareStatement(query)) {
+            logsStmt.setInt(1, bookId);
             stmt.setInt(1, bookId);
-            return stmt.executeUpdate() > 0;
+            
+            connection.setAutoCommit(false);
+            try {
+                UsageRollupDAO.decrementRollups(connection, "book_id", bookId);
+                logsStmt.executeUpdate();
+                if (stmt.executeUpdate() == 0) {
+                    connection.rollback();
+                    return false;
+                }
+                connection.commit();
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            }
         } catch (SQLException e) {
             System.err.println("Error deleting book: " + e.getMessage());
             return false;
+        } finally {
+            CatalogCache.getInstance().invalidate();
+        }
+        
+        CatalogSearchIndex.getInstance().remove(bookId);
+        DashboardStatsService.getInstance().invalidate();
+        return true;
+    }
+    
+    /**
+     * Re-read a saved book (with its category name) into the search index
+     * @param bookId Book ID
+     */
+    private void refreshSearchIndex(int bookId) {
+        Book saved = queryBookById(bookId);
+        if (saved != null) {
+            CatalogSearchIndex.getInstance().put(saved);
+        }
+    }
+    
+    /**
+     * Convert search box input into a boolean-mode full-text query
+     * @return Boolean query, or null if no word can be matched by the index
+     */
+    private String toBooleanQuery(String searchTerm) {
+        String trimmed = searchTerm.trim();
+        if (trimmed.matches(".*(^|\\s)[+\\-~<>(].*|.*[\"*)].*")) {
+            return trimmed;
+        }
+        
+        StringBuilder query = new StringBuilder();
+        for (String word : trimmed.split("[^\\p{L}\\p{N}]+")) {
+            // Shorter words are not indexed (innodb_ft_min_token_size)
+            if (word.length() >= FULLTEXT_MIN_WORD_LENGTH) {
+                query.append('+').append(word).append("* ");
+            }
+        }
+        return query.length() == 0 ? null : query.toString().trim();
+    }
+    
+    /**
+     * Bind the (title, book_id) seek cursor
+     * @return Next parameter index
+     */
+    private int setAfterBook(PreparedStatement stmt, int index, Book after) throws SQLException {
+        stmt.setString(index++, after.getTitle());
+        stmt.setString(index++, after.getTitle());
+        stmt.setInt(index++, after.getBookId());
+        return index;
+    }
+    
+    /**
+     * Read up to pageSize books; one extra row signals that more follow
+     */
+    private Page<Book> readPage(ResultSet rs, int pageSize) throws SQLException {
+        List<Book> books = new ArrayList<>();
+        boolean hasMore = false;
+        try (rs) {
+            while (rs.next()) {
+                if (books.size() == pageSize) {
+                    hasMore = true;
+                    break;
+                }
+                books.add(extractBookFromResultSet(rs));
+            }
         }
+        return new Page<>(books, hasMore);
+    }
+    
+    /**
+     * Copy cached books for a caller, so changes to them cannot reach the shared snapshot
+     */
+    private static List<Book> copies(List<Book> cached) {
+        List<Book> books = new ArrayList<>(cached.size());
+        for (Book book : cached) {
+            books.add(new Book(book));
+        }
+        return books;
     }
     
     /**
@@ -0,0 +1,98 @@
+package com.elibrary.database;
+
+import com.elibrary.models.Book;
+import com.elibrary.models.Page;
+
+import java.util.List;
+
+/**
+ * Repository for Book operations
+ * Implemented by BookDAO (database) and InMemoryBookRepository.
+ */
+public interface BookRepository {
+    /**
+     * Get all books with category names and statistics
+     * @return List of all books ordered by title
+     */
+    List<Book> getAllBooks();
+
+    /**
+     * Get book by ID
+     * @param bookId Book ID
+     * @return Book object if found, null otherwise
+     */
+    Book getBookById(int bookId);
+
+    /**
+     * Search books by title, author, or keyword
+     * @param searchTerm Search term
+     * @return List of matching books
+     */
+    List<Book> searchBooks(String searchTerm);
+
+    /**
+     * Get one page of books ordered by title
+     * @param after Last book of the previous page, or null for the first page
+     * @param pageSize Maximum number of books to return
+     * @return Page of books
+     */
+    Page<Book> getBooksPage(Book after, int pageSize);
+
+    /**
+     * Get one page of books matching a title, author, or keyword search
+     * @param searchTerm Search term
+     * @param after Last book of the previous page, or null for the first page
+     * @param pageSize Maximum number of books to return
+     * @return Page of matching books
+     */
+    Page<Book> searchBooksPage(String searchTerm, Book after, int pageSize);
+
+    /**
+     * Search books, best matches first
+     * @param searchTerm Search term
+     * @param limit Maximum number of books to return
+     * @return List of matching books ordered by relevance
+     */
+    List<Book> searchBooksRanked(String searchTerm, int limit);
+
+    /**
+     * Estimate the number of books without a full count
+     * @return Estimated book count, or -1 if unavailable
+     */
+    long estimateBookCount();
+
+    /**
+     * Get books by category
+     * @param categoryId Category ID
+     * @return List of books in the category
+     */
+    List<Book> getBooksByCategory(int categoryId);
+
+    /**
+     * Add new book
+     * @param book Book object to add; gets its generated book ID on success
+     * @return true if successful, false otherwise
+     */
+    boolean addBook(Book book);
+
+    /**
+     * Add many books at once. Either every book is added or none is.
+     * @param books Books to add; each gets its generated book ID on success
+     * @return true if successful, false otherwise
+     */
+    boolean addBooks(List<Book> books);
+
+    /**
+     * Update book information
+     * @param book Book object with updated information
+     * @return true if successful, false otherwise
+     */
+    boolean updateBook(Book book);
+
+    /**
+     * Delete book together with its access logs
+     * @param bookId Book ID to delete
+     * @return true if successful, false otherwise
+     */
+    boolean deleteBook(int bookId);
+}
@@ -0,0 +1,85 @@
+package com.elibrary.database;
+
+import com.elibrary.models.AccessLog;
+
+import java.sql.*;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Data Access Object for the BOOK_STATS counter table.
+ * Keeps per-book view/download totals so catalog queries do not have to
+ * count ACCESS_LOG rows.
+ */
+public class BookStatsDAO {
+    private static final String INCREMENT_QUERY =
+            "INSERT INTO BOOK_STATS (book_id, view_count, download_count) VALUES (?, ?, ?) " +
+            "ON DUPLICATE KEY UPDATE view_count = view_count + VALUES(view_count), " +
+            "download_count = download_count + VALUES(download_count)";
+
+    /**
+     * Increment counters for a batch of access logs, one statement per book.
+     * Runs on the caller's connection so it commits together with the access log rows.
+     * @param connection Connection the access log rows were written on
+     * @param logs Access logs that were written
+     * @throws SQLException if error occurs
+     */
+    static void incrementCounts(Connection connection, List<AccessLog> logs) throws SQLException {
+        // book_id -> {views, downloads}; ascending book_id, so concurrent batches lock rows in the same order
+        Map<Integer, int[]> counts = new TreeMap<>();
+        for (AccessLog log : logs) {
+            int[] bookCounts = counts.computeIfAbsent(log.getBookId(), id -> new int[2]);
+            if ("VIEW".equals(log.getAccessType())) {
+                bookCounts[0]++;
+            } else if ("DOWNLOAD".equals(log.getAccessType())) {
+                bookCounts[1]++;
+            }
+        }
+
+        try (PreparedStatement stmt = connection.prepareStatement(INCREMENT_QUERY)) {
+            for (Map.Entry<Integer, int[]> entry : counts.entrySet()) {
+                stmt.setInt(1, entry.getKey());
+                stmt.setInt(2, entry.getValue()[0]);
+                stmt.setInt(3, entry.getValue()[1]);
+                stmt.addBatch();
+            }
+            stmt.executeBatch();
+        }
+    }
+
+    /**
+     * Rebuild all counters from ACCESS_LOG.
+     * Use after bulk loads or direct SQL edits to reconcile the counters with the log.
+     * @return true if successful, false otherwise
+     */
+    public boolean rebuildStats() {
+        String deleteQuery = "DELETE FROM BOOK_STATS";
+        String rebuildQuery = "INSERT INTO BOOK_STATS (book_id, view_count, download_count) " +
+                             "SELECT book_id, " +
+                             "SUM(CASE WHEN access_type = 'VIEW' THEN 1 ELSE 0 END), " +
+                             "SUM(CASE WHEN access_type = 'DOWNLOAD' THEN 1 ELSE 0 END) " +
+                             "FROM ACCESS_LOG GROUP BY book_id";
+
+        try (Connection connection = DatabaseConnection.getInstance().getConnection();
+             Statement stmt = connection.createStatement()) {
+            connection.setAutoCommit(false);
+            try {
+                stmt.executeUpdate(deleteQuery);
+                stmt.executeUpdate(rebuildQuery);
+                connection.commit();
+                DashboardStatsService.getInstance().invalidate();
+                return true;
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            System.err.println("Error rebuilding book statistics: " + e.getMessage());
+            return false;
+        } finally {
+            // Cached books carry view/download counts
+            CatalogCache.getInstance().invalidate();
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.elibrary.database;
+
+import com.elibrary.models.Category;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Caching decorator for a CategoryRepository
+ * The category list fills every category combo box and filter, but changes
+ * rarely, so it is read once and served from memory for a time-to-live.
+ * Local writes invalidate it; categories changed from other kiosks show up
+ * once the TTL expires.
+ */
+public class CachingCategoryRepository implements CategoryRepository {
+    // How long the list is served before it is re-read, overridable with -Delibrary.category.cache.ttlMs
+    private static final long TTL_MILLIS = Long.getLong("elibrary.category.cache.ttlMs", 60000L);
+
+    private final CategoryRepository delegate;
+
+    private List<Category> categories;  // null when not loaded or invalidated
+    private long loadedAtMillis;
+    private long hitCount = 0;
+    private long missCount = 0;
+
+    public CachingCategoryRepository(CategoryRepository delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public List<Category> getAllCategories() {
+        return new ArrayList<>(categories());
+    }
+
+    @Override
+    public Category getCategoryById(int categoryId) {
+        for (Category category : categories()) {
+            if (category.getCategoryId() == categoryId) {
+                return category;
+            }
+        }
+        // Possibly added elsewhere since the list was read
+        return delegate.getCategoryById(categoryId);
+    }
+
+    @Override
+    public boolean addCategory(Category category) {
+        try {
+            return delegate.addCategory(category);
+        } finally {
+            invalidate();
+        }
+    }
+
+    @Override
+    public boolean updateCategory(Category category) {
+        try {
+            return delegate.updateCategory(category);
+        } finally {
+            invalidate();
+        }
+    }
+
+    @Override
+    public boolean deleteCategory(int categoryId) {
+        try {
+            return delegate.deleteCategory(categoryId);
+        } finally {
+            invalidate();
+        }
+    }
+
+    /**
+     * Drop the cached list so the next read goes to the delegate
+     */
+    public synchronized void invalidate() {
+        categories = null;
+    }
+
+    private synchronized List<Category> categories() {
+        if (categories != null && System.currentTimeMillis() - loadedAtMillis < TTL_MILLIS) {
+            hitCount++;
+            return categories;
+        }
+        missCount++;
+        List<Category> loaded = delegate.getAllCategories();
+        // CategoryDAO also returns an empty list on error, so an empty list is not kept
+        if (!loaded.isEmpty()) {
+            categories = loaded;
+            loadedAtMillis = System.currentTimeMillis();
+        }
+        return loaded;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format("categories=%s, hits=%d, misses=%d",
+                categories != null ? categories.size() : "-", hitCount, missCount);
+    }
+}
@@ -0,0 +1,297 @@
+package com.elibrary.database;
+
+import com.elibrary.models.Book;
+
+import java.sql.Timestamp;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Read-through cache of the full book catalog behind BookDAO
+ * Serves catalog reads from memory. Local writes invalidate it; changes
+ * made from other kiosks are found by a cheap version probe
+ * (book count, MAX(book_id) and MAX(updated_at)) run at most once per probe
+ * interval. MAX(book_id) catches a delete plus an insert that leave the count
+ * unchanged, and updated_at has millisecond precision so that two edits in
+ * the same second still change the version.
+ * View/download counters are not part of the version, so the snapshot is
+ * also reloaded once it reaches its maximum age. The cached books are shared:
+ * BookDAO hands out copies of them. Uses singleton pattern.
+ */
+public class CatalogCache {
+    // Cache settings, overridable with -Delibrary.catalog.cache.* system properties
+    private static final boolean ENABLED = !Boolean.getBoolean("elibrary.catalog.cache.disabled");
+    private static final long PROBE_INTERVAL_MS = Long.getLong("elibrary.catalog.cache.probeIntervalMs", 2_000L);
+    private static final long MAX_AGE_MS = Long.getLong("elibrary.catalog.cache.maxAgeMs", 60_000L);
+
+    private static volatile CatalogCache instance;
+
+    private volatile Snapshot snapshot;
+    private final AtomicLong generation = new AtomicLong();   // bumped by invalidate() so in-flight loads are not kept
+
+    // Statistics
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+    private final AtomicLong probeCount = new AtomicLong();
+    private final AtomicLong staleCount = new AtomicLong();
+    private final AtomicLong invalidationCount = new AtomicLong();
+    private final AtomicLong refreshCount = new AtomicLong();
+    private final AtomicLong totalRefreshNanos = new AtomicLong();
+    private final AtomicLong maxRefreshNanos = new AtomicLong();
+    private volatile long lastRefreshNanos = 0;
+
+    /**
+     * Private constructor to prevent instantiation
+     */
+    private CatalogCache() {}
+
+    /**
+     * Get singleton instance of CatalogCache
+     * @return CatalogCache instance
+     */
+    public static CatalogCache getInstance() {
+        if (instance == null) {
+            synchronized (CatalogCache.class) {
+                if (instance == null) {
+                    instance = new CatalogCache();
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Get the current catalog, reloading it if it changed or expired
+     * @param bookDAO DAO used to probe and load the catalog
+     * @return Catalog snapshot, or null if caching is disabled or the catalog could not be read
+     */
+    Snapshot get(BookDAO bookDAO) {
+        if (!ENABLED) {
+            return null;
+        }
+
+        Snapshot current = snapshot;
+        long now = System.currentTimeMillis();
+        if (current != null && now - current.probedAt < PROBE_INTERVAL_MS) {
+            hitCount.incrementAndGet();
+            return current;
+        }
+
+        synchronized (this) {
+            // Another thread may have refreshed while this one waited
+            current = snapshot;
+            now = System.currentTimeMillis();
+            if (current != null && now - current.probedAt < PROBE_INTERVAL_MS) {
+                hitCount.incrementAndGet();
+                return current;
+            }
+
+            long loadGeneration = generation.get();
+            if (current != null && now - current.loadedAt < MAX_AGE_MS) {
+                probeCount.incrementAndGet();
+                Version version = bookDAO.readCatalogVersion();
+                if (version != null && version.equals(current.version)) {
+                    current.probedAt = now;
+                    hitCount.incrementAndGet();
+                    return current;
+                }
+                staleCount.incrementAndGet();
+            }
+
+            missCount.incrementAndGet();
+            long start = System.nanoTime();
+            // Version first: a change landing during the load is caught by the next probe
+            Version version = bookDAO.readCatalogVersion();
+            List<Book> books = bookDAO.loadCatalog();
+            recordRefresh(System.nanoTime() - start);
+            if (version == null || books == null) {
+                return null;
+            }
+
+            Snapshot loaded = new Snapshot(books, version, now);
+            if (loadGeneration == generation.get()) {
+                snapshot = loaded;
+            }
+            return loaded;
+        }
+    }
+
+    /**
+     * Drop the cached catalog after a local write
+     */
+    public void invalidate() {
+        generation.incrementAndGet();
+        snapshot = null;
+        invalidationCount.incrementAndGet();
+    }
+
+    /**
+     * Get current cache statistics (hit/miss counts, refresh latency)
+     * @return Cache statistics snapshot
+     */
+    public Stats getStats() {
+        Snapshot current = snapshot;
+        long refreshes = refreshCount.get();
+        return new Stats(current != null ? current.books.size() : 0, hitCount.get(), missCount.get(),
+                probeCount.get(), staleCount.get(), invalidationCount.get(), lastRefreshNanos,
+                refreshes == 0 ? 0 : totalRefreshNanos.get() / refreshes, maxRefreshNanos.get());
+    }
+
+    private void recordRefresh(long elapsed) {
+        refreshCount.incrementAndGet();
+        totalRefreshNanos.addAndGet(elapsed);
+        maxRefreshNanos.accumulateAndGet(elapsed, Math::max);
+        lastRefreshNanos = elapsed;
+    }
+
+    /**
+     * Immutable catalog contents, in title order
+     * The books are shared by every reader and must not be changed; copy one before handing it out.
+     */
+    static final class Snapshot {
+        private final List<Book> books;
+        private final Map<Integer, Integer> positionById;
+        private final Version version;
+        private final long loadedAt;
+        private volatile long probedAt;
+
+        private Snapshot(List<Book> books, Version version, long loadedAt) {
+            this.books = Collections.unmodifiableList(books);
+            this.positionById = new HashMap<>(books.size() * 2);
+            for (int i = 0; i < books.size(); i++) {
+                positionById.put(books.get(i).getBookId(), i);
+            }
+            this.version = version;
+            this.loadedAt = loadedAt;
+            this.probedAt = loadedAt;
+        }
+
+        List<Book> getBooks() {
+            return books;
+        }
+
+        /**
+         * @return Position of the book in title order, or -1 if not cached
+         */
+        int indexOf(int bookId) {
+            Integer position = positionById.get(bookId);
+            return position != null ? position : -1;
+        }
+
+        Book getBook(int bookId) {
+            int position = indexOf(bookId);
+            return position >= 0 ? books.get(position) : null;
+        }
+    }
+
+    /**
+     * Catalog version read by the probe query; changes with every write to BOOK
+     * Compare versions with equals.
+     */
+    public static final class Version {
+        private final long bookCount;
+        private final int lastBookId;
+        private final Timestamp lastUpdated;
+
+        Version(long bookCount, int lastBookId, Timestamp lastUpdated) {
+            this.bookCount = bookCount;
+            this.lastBookId = lastBookId;
+            this.lastUpdated = lastUpdated;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Version)) return false;
+            Version other = (Version) o;
+            return bookCount == other.bookCount && lastBookId == other.lastBookId
+                    && Objects.equals(lastUpdated, other.lastUpdated);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(bookCount, lastBookId, lastUpdated);
+        }
+    }
+
+    /**
+     * Immutable snapshot of cache statistics
+     */
+    public static final class Stats {
+        private final int cachedBooks;
+        private final long hitCount;
+        private final long missCount;
+        private final long probeCount;
+        private final long staleCount;
+        private final long invalidationCount;
+        private final long lastRefreshNanos;
+        private final long averageRefreshNanos;
+        private final long maxRefreshNanos;
+
+        private Stats(int cachedBooks, long hitCount, long missCount, long probeCount, long staleCount,
+                      long invalidationCount, long lastRefreshNanos, long averageRefreshNanos, long maxRefreshNanos) {
+            this.cachedBooks = cachedBooks;
+            this.hitCount = hitCount;
+            this.missCount = missCount;
+            this.probeCount = probeCount;
+            this.staleCount = staleCount;
+            this.invalidationCount = invalidationCount;
+            this.lastRefreshNanos = lastRefreshNanos;
+            this.averageRefreshNanos = averageRefreshNanos;
+            this.maxRefreshNanos = maxRefreshNanos;
+        }
+
+        public int getCachedBooks() {
+            return cachedBooks;
+        }
+
+        public long getHitCount() {
+            return hitCount;
+        }
+
+        public long getMissCount() {
+            return missCount;
+        }
+
+        public double getHitRatio() {
+            long total = hitCount + missCount;
+            return total == 0 ? 0 : (double) hitCount / total;
+        }
+
+        public long getProbeCount() {
+            return probeCount;
+        }
+
+        public long getStaleCount() {
+            return staleCount;
+        }
+
+        public long getInvalidationCount() {
+            return invalidationCount;
+        }
+
+        public double getLastRefreshMillis() {
+            return lastRefreshNanos / 1_000_000.0;
+        }
+
+        public double getAverageRefreshMillis() {
+            return averageRefreshNanos / 1_000_000.0;
+        }
+
+        public double getMaxRefreshMillis() {
+            return maxRefreshNanos / 1_000_000.0;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("books=%d, hits=%d, misses=%d (%.1f%% hit), probes=%d, stale=%d, invalidations=%d, " +
+                            "lastRefresh=%.2fms, avgRefresh=%.2fms, maxRefresh=%.2fms",
+                    cachedBooks, hitCount, missCount, getHitRatio() * 100, probeCount, staleCount,
+                    invalidationCount, getLastRefreshMillis(), getAverageRefreshMillis(), getMaxRefreshMillis());
+        }
+    }
+}
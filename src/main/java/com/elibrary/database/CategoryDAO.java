@@ -9,22 +9,18 @@ import java.util.List;
 /**
  * Data Access Object for Category operations
  */
-public class CategoryDAO {
-    private Connection connection;
-    
-    public CategoryDAO() {
-        this.connection = DatabaseConnection.getInstance().getConnection();
-    }
-    
+public class CategoryDAO implements CategoryRepository {
     /**
      * Get all categories
      * @return List of all categories
      */
+    @Override
     public List<Category> getAllCategories() {
         List<Category> categories = new ArrayList<>();
         String query = "SELECT * FROM CATEGORY ORDER BY category_name";
         
-        try (Statement stmt = connection.createStatement();
+        try (Connection connection = DatabaseConnection.getInstance().getConnection();
+             Statement stmt = connection.createStatement();
              ResultSet rs = stmt.executeQuery(query)) {
             
             while (rs.next()) {
@@ -42,10 +38,12 @@ public class CategoryDAO {
      * @param categoryId Category ID
      * @return Category object if found, null otherwise
      */
+    @Override
     public Category getCategoryById(int categoryId) {
         String query = "SELECT * FROM CATEGORY WHERE category_id = ?";
         
-        try (PreparedStatement stmt = connection.prepareStatement(query)) {
+        try (Connection connection = DatabaseConnection.getInstance().getConnection();
+             PreparedStatement stmt = connection.prepareStatement(query)) {
             stmt.setInt(1, categoryId);
             ResultSet rs = stmt.executeQuery();
             
@@ -64,10 +62,12 @@ public class CategoryDAO {
      * @param category Category object to add
      * @return true if successful, false otherwise
      */
+    @Override
     public boolean addCategory(Category category) {
         String query = "INSERT INTO CATEGORY (category_name) VALUES (?)";
         
-        try (PreparedStatement stmt = connection.prepareStatement(query)) {
+        try (Connection connection = DatabaseConnection.getInstance().getConnection();
+             PreparedStatement stmt = connection.prepareStatement(query)) {
             stmt.setString(1, category.getCategoryName());
             return stmt.executeUpdate() > 0;
         } catch (SQLException e) {
@@ -81,16 +81,21 @@ public class CategoryDAO {
      * @param category Category object with updated information
      * @return true if successful, false otherwise
      */
+    @Override
     public boolean updateCategory(Category category) {
         String query = "UPDATE CATEGORY SET category_name = ? WHERE category_id = ?";
         
-        try (PreparedStatement stmt = connection.prepareStatement(query)) {
+        try (Connection connection = DatabaseConnection.getInstance().getConnection();
+             PreparedStatement stmt = connection.prepareStatement(query)) {
             stmt.setString(1, category.getCategoryName());
             stmt.setInt(2, category.getCategoryId());
             return stmt.executeUpdate() > 0;
         } catch (SQLException e) {
             System.err.println("Error updating category: " + e.getMessage());
             return false;
+        } finally {
+            // Cached books carry the category name
+            CatalogCache.getInstance().invalidate();
         }
     }
     
@@ -99,10 +104,12 @@ public class CategoryDAO {
      * @param categoryId Category ID to delete
      * @return true if successful, false otherwise
      */
+    @Override
     public boolean deleteCategory(int categoryId) {
         String query = "DELETE FROM CATEGORY WHERE category_id = ?";
         
-        try (PreparedStatement stmt = connection.prepareStatement(query)) {
+        try (Connection connection = DatabaseConnection.getInstance().getConnection();
+             PreparedStatement stmt = connection.prepareStatement(query)) {
             stmt.setInt(1, categoryId);
             return stmt.executeUpdate() > 0;
         } catch (SQLException e) {
@@ -0,0 +1,46 @@
+package com.elibrary.database;
+
+import com.elibrary.models.Category;
+
+import java.util.List;
+
+/**
+ * Repository for Category operations
+ * Implemented by CategoryDAO (database) and InMemoryCategoryRepository,
+ * optionally behind CachingCategoryRepository.
+ */
+public interface CategoryRepository {
+    /**
+     * Get all categories
+     * @return List of all categories ordered by name
+     */
+    List<Category> getAllCategories();
+
+    /**
+     * Get category by ID
+     * @param categoryId Category ID
+     * @return Category object if found, null otherwise
+     */
+    Category getCategoryById(int categoryId);
+
+    /**
+     * Add new category
+     * @param category Category object to add
+     * @return true if successful, false otherwise
+     */
+    boolean addCategory(Category category);
+
+    /**
+     * Update category
+     * @param category Category object with updated information
+     * @return true if successful, false otherwise
+     */
+    boolean updateCategory(Category category);
+
+    /**
+     * Delete category
+     * @param categoryId Category ID to delete
+     * @return true if successful, false otherwise
+     */
+    boolean deleteCategory(int categoryId);
+}
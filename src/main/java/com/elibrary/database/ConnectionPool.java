@@ -0,0 +1,442 @@
+package com.elibrary.database;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded JDBC connection pool
+ * Connections are validated on borrow, evicted when idle or too old,
+ * and reported when they are held longer than the leak threshold.
+ * Closing a borrowed connection returns it to the pool.
+ */
+public class ConnectionPool {
+    private static final long HOUSEKEEPING_INTERVAL_MS = 30_000;
+    private static final int VALIDATION_TIMEOUT_SECONDS = 2;
+
+    private final String url;
+    private final String username;
+    private final String password;
+    private final int maxSize;
+    private final int minIdle;
+    private final long connectionTimeoutMs;
+    private final long idleTimeoutMs;
+    private final long maxLifetimeMs;
+    private final long leakDetectionThresholdMs;
+
+    private final LinkedBlockingDeque<PooledConnection> idleConnections = new LinkedBlockingDeque<>();
+    private final Set<PooledConnection> borrowedConnections = ConcurrentHashMap.newKeySet();
+    private final Semaphore permits;
+    private final ScheduledExecutorService housekeeper;
+    private volatile boolean shutdown = false;
+
+    // Statistics
+    private final AtomicLong borrowCount = new AtomicLong();
+    private final AtomicLong totalWaitNanos = new AtomicLong();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+    private final AtomicLong timeoutCount = new AtomicLong();
+    private final AtomicLong createdCount = new AtomicLong();
+    private final AtomicLong evictedCount = new AtomicLong();
+    private final AtomicLong leakCount = new AtomicLong();
+
+    /**
+     * Create a new pool
+     * @param url JDBC URL
+     * @param username Database username
+     * @param password Database password
+     * @param maxSize Maximum number of open connections
+     * @param minIdle Number of idle connections kept open
+     * @param connectionTimeoutMs Maximum time to wait for a free connection
+     * @param idleTimeoutMs Idle time after which surplus connections are closed
+     * @param maxLifetimeMs Maximum age of a connection before it is retired
+     * @param leakDetectionThresholdMs Borrow time after which a leak is reported (0 disables)
+     */
+    public ConnectionPool(String url, String username, String password,
+                          int maxSize, int minIdle, long connectionTimeoutMs,
+                          long idleTimeoutMs, long maxLifetimeMs, long leakDetectionThresholdMs) {
+        this.url = url;
+        this.username = username;
+        this.password = password;
+        this.maxSize = maxSize;
+        this.minIdle = Math.min(minIdle, maxSize);
+        this.connectionTimeoutMs = connectionTimeoutMs;
+        this.idleTimeoutMs = idleTimeoutMs;
+        this.maxLifetimeMs = maxLifetimeMs;
+        this.leakDetectionThresholdMs = leakDetectionThresholdMs;
+        this.permits = new Semaphore(maxSize, true);
+
+        this.housekeeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "elibrary-pool-housekeeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.housekeeper.scheduleWithFixedDelay(this::housekeep,
+                HOUSEKEEPING_INTERVAL_MS, HOUSEKEEPING_INTERVAL_MS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Open connections until the minimum idle count is reached
+     * @throws SQLException if a connection cannot be opened
+     */
+    public void fillMinimumIdle() throws SQLException {
+        while (!shutdown && idleConnections.size() + borrowedConnections.size() < minIdle) {
+            idleConnections.offerLast(createConnection());
+        }
+    }
+
+    /**
+     * Borrow a connection, waiting up to the connection timeout
+     * @return Connection that returns itself to the pool on close()
+     * @throws SQLTransientConnectionException if no connection frees up within the timeout
+     * @throws SQLException if the pool is shut down or a connection cannot be opened
+     */
+    public Connection borrow() throws SQLException {
+        if (shutdown) {
+            throw new SQLException("Connection pool is shut down");
+        }
+
+        long start = System.nanoTime();
+        try {
+            if (!permits.tryAcquire(connectionTimeoutMs, TimeUnit.MILLISECONDS)) {
+                timeoutCount.incrementAndGet();
+                throw new SQLTransientConnectionException("Timed out after " + connectionTimeoutMs
+                        + "ms waiting for a database connection (" + getStats() + ")");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a database connection", e);
+        }
+
+        try {
+            PooledConnection pooled = takeValidConnection();
+            recordWait(System.nanoTime() - start);
+
+            pooled.borrowedAt = System.currentTimeMillis();
+            pooled.borrowSite = leakDetectionThresholdMs > 0 ? new Exception("Connection borrowed here") : null;
+            pooled.leakReported = false;
+            borrowedConnections.add(pooled);
+            return pooled.newHandle();
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Get a point-in-time snapshot of pool statistics
+     * @return Pool statistics
+     */
+    public Stats getStats() {
+        long borrows = borrowCount.get();
+        return new Stats(
+                borrowedConnections.size(),
+                idleConnections.size(),
+                maxSize,
+                permits.getQueueLength(),
+                borrows,
+                borrows == 0 ? 0 : totalWaitNanos.get() / borrows,
+                maxWaitNanos.get(),
+                timeoutCount.get(),
+                createdCount.get(),
+                evictedCount.get(),
+                leakCount.get());
+    }
+
+    /**
+     * Close all idle connections and stop handing out new ones.
+     * Borrowed connections are closed when they are returned.
+     */
+    public void shutdown() {
+        shutdown = true;
+        housekeeper.shutdownNow();
+        PooledConnection pooled;
+        while ((pooled = idleConnections.pollFirst()) != null) {
+            closeQuietly(pooled);
+        }
+    }
+
+    private PooledConnection takeValidConnection() throws SQLException {
+        PooledConnection pooled;
+        while ((pooled = idleConnections.pollFirst()) != null) {
+            if (isExpired(pooled, System.currentTimeMillis()) || !isValid(pooled)) {
+                evictedCount.incrementAndGet();
+                closeQuietly(pooled);
+                continue;
+            }
+            return pooled;
+        }
+        return createConnection();
+    }
+
+    private PooledConnection createConnection() throws SQLException {
+        Connection raw = DriverManager.getConnection(url, username, password);
+        createdCount.incrementAndGet();
+        return new PooledConnection(raw);
+    }
+
+    private boolean isValid(PooledConnection pooled) {
+        try {
+            return pooled.raw.isValid(VALIDATION_TIMEOUT_SECONDS);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private boolean isExpired(PooledConnection pooled, long now) {
+        return maxLifetimeMs > 0 && now - pooled.createdAt > maxLifetimeMs;
+    }
+
+    private void recordWait(long waitNanos) {
+        borrowCount.incrementAndGet();
+        totalWaitNanos.addAndGet(waitNanos);
+        maxWaitNanos.accumulateAndGet(waitNanos, Math::max);
+    }
+
+    /**
+     * Return a borrowed connection to the pool
+     */
+    private void release(PooledConnection pooled) {
+        if (!borrowedConnections.remove(pooled)) {
+            return;
+        }
+
+        try {
+            boolean reusable = !shutdown && !pooled.raw.isClosed() && !isExpired(pooled, System.currentTimeMillis());
+            if (reusable) {
+                resetState(pooled);
+                pooled.lastUsedAt = System.currentTimeMillis();
+                pooled.borrowSite = null;
+                // LIFO keeps the working set small so surplus connections age out
+                idleConnections.offerFirst(pooled);
+            } else {
+                evictedCount.incrementAndGet();
+                closeQuietly(pooled);
+            }
+        } catch (SQLException e) {
+            evictedCount.incrementAndGet();
+            closeQuietly(pooled);
+        } finally {
+            permits.release();
+        }
+    }
+
+    private void resetState(PooledConnection pooled) throws SQLException {
+        if (!pooled.raw.getAutoCommit()) {
+            pooled.raw.rollback();
+            pooled.raw.setAutoCommit(true);
+        }
+        if (pooled.raw.isReadOnly()) {
+            pooled.raw.setReadOnly(false);
+        }
+        pooled.raw.clearWarnings();
+    }
+
+    /**
+     * Evict idle and expired connections and report leaks
+     */
+    private void housekeep() {
+        try {
+            long now = System.currentTimeMillis();
+
+            for (PooledConnection pooled : idleConnections) {
+                boolean surplus = idleConnections.size() + borrowedConnections.size() > minIdle;
+                boolean idleTooLong = idleTimeoutMs > 0 && now - pooled.lastUsedAt > idleTimeoutMs;
+                if ((isExpired(pooled, now) || (surplus && idleTooLong)) && idleConnections.remove(pooled)) {
+                    evictedCount.incrementAndGet();
+                    closeQuietly(pooled);
+                }
+            }
+
+            if (leakDetectionThresholdMs > 0) {
+                for (PooledConnection pooled : borrowedConnections) {
+                    if (!pooled.leakReported && now - pooled.borrowedAt > leakDetectionThresholdMs) {
+                        pooled.leakReported = true;
+                        leakCount.incrementAndGet();
+                        System.err.println("Possible connection leak: connection held for "
+                                + (now - pooled.borrowedAt) + "ms");
+                        if (pooled.borrowSite != null) {
+                            pooled.borrowSite.printStackTrace();
+                        }
+                    }
+                }
+            }
+
+            fillMinimumIdle();
+        } catch (Exception e) {
+            System.err.println("Connection pool housekeeping error: " + e.getMessage());
+        }
+    }
+
+    private void closeQuietly(PooledConnection pooled) {
+        try {
+            pooled.raw.close();
+        } catch (SQLException e) {
+            System.err.println("Error closing pooled connection: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Physical connection tracked by the pool
+     */
+    private final class PooledConnection {
+        private final Connection raw;
+        private final long createdAt = System.currentTimeMillis();
+        private volatile long lastUsedAt = createdAt;
+        private volatile long borrowedAt;
+        private volatile Exception borrowSite;
+        private volatile boolean leakReported;
+
+        private PooledConnection(Connection raw) {
+            this.raw = raw;
+        }
+
+        private Connection newHandle() {
+            return (Connection) Proxy.newProxyInstance(
+                    ConnectionPool.class.getClassLoader(),
+                    new Class<?>[] { Connection.class },
+                    new Handle(this));
+        }
+    }
+
+    /**
+     * Logical connection handed to callers; close() returns the physical connection
+     */
+    private final class Handle implements InvocationHandler {
+        private final PooledConnection pooled;
+        private boolean closed = false;
+
+        private Handle(PooledConnection pooled) {
+            this.pooled = pooled;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!closed) {
+                        closed = true;
+                        release(pooled);
+                    }
+                    return null;
+                case "isClosed":
+                    return closed || pooled.raw.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "PooledConnection[" + pooled.raw + "]";
+                default:
+                    break;
+            }
+
+            if (closed) {
+                throw new SQLException("Connection has already been returned to the pool");
+            }
+
+            try {
+                return method.invoke(pooled.raw, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+
+    /**
+     * Immutable snapshot of pool statistics
+     */
+    public static final class Stats {
+        private final int active;
+        private final int idle;
+        private final int maxSize;
+        private final int waiting;
+        private final long borrowCount;
+        private final long averageWaitNanos;
+        private final long maxWaitNanos;
+        private final long timeoutCount;
+        private final long createdCount;
+        private final long evictedCount;
+        private final long leakCount;
+
+        private Stats(int active, int idle, int maxSize, int waiting, long borrowCount,
+                      long averageWaitNanos, long maxWaitNanos, long timeoutCount,
+                      long createdCount, long evictedCount, long leakCount) {
+            this.active = active;
+            this.idle = idle;
+            this.maxSize = maxSize;
+            this.waiting = waiting;
+            this.borrowCount = borrowCount;
+            this.averageWaitNanos = averageWaitNanos;
+            this.maxWaitNanos = maxWaitNanos;
+            this.timeoutCount = timeoutCount;
+            this.createdCount = createdCount;
+            this.evictedCount = evictedCount;
+            this.leakCount = leakCount;
+        }
+
+        public int getActive() {
+            return active;
+        }
+
+        public int getIdle() {
+            return idle;
+        }
+
+        public int getMaxSize() {
+            return maxSize;
+        }
+
+        public int getWaiting() {
+            return waiting;
+        }
+
+        public long getBorrowCount() {
+            return borrowCount;
+        }
+
+        public double getAverageWaitMillis() {
+            return averageWaitNanos / 1_000_000.0;
+        }
+
+        public double getMaxWaitMillis() {
+            return maxWaitNanos / 1_000_000.0;
+        }
+
+        public long getTimeoutCount() {
+            return timeoutCount;
+        }
+
+        public long getCreatedCount() {
+            return createdCount;
+        }
+
+        public long getEvictedCount() {
+            return evictedCount;
+        }
+
+        public long getLeakCount() {
+            return leakCount;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("active=%d, idle=%d, max=%d, waiting=%d, borrows=%d, avgWait=%.2fms, " +
+                            "maxWait=%.2fms, timeouts=%d, created=%d, evicted=%d, leaks=%d",
+                    active, idle, maxSize, waiting, borrowCount, getAverageWaitMillis(),
+                    getMaxWaitMillis(), timeoutCount, createdCount, evictedCount, leakCount);
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.elibrary.database;
+
+import com.elibrary.models.Book;
+import com.elibrary.models.DashboardStats;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+/**
+ * Admin dashboard figures (books, students, views, downloads) read with one
+ * aggregate query and cached for a short time-to-live. Calls may block on the
+ * database, so the dashboard calls them from a background task.
+ * Uses singleton pattern.
+ */
+public class DashboardStatsService {
+    // How long a snapshot is served before it is re-read, overridable with -Delibrary.dashboard.stats.ttlMs
+    private static final long TTL_MILLIS = Long.getLong("elibrary.dashboard.stats.ttlMs", 10000L);
+
+    // View/download totals come from the daily rollups; each subquery reads an index or a small table
+    private static final String STATS_QUERY =
+            "SELECT (SELECT COUNT(*) FROM BOOK) as total_books, " +
+            "(SELECT COUNT(*) FROM STUDENT) as total_students, " +
+            "(SELECT COALESCE(SUM(access_count), 0) FROM BOOK_USAGE_DAILY WHERE access_type = 'VIEW') as total_views, " +
+            "(SELECT COALESCE(SUM(access_count), 0) FROM BOOK_USAGE_DAILY WHERE access_type = 'DOWNLOAD') as total_downloads";
+
+    private static volatile DashboardStatsService instance;
+
+    private final Object loadLock = new Object();
+    private volatile DashboardStats snapshot;
+    private volatile boolean stale = true;
+
+    /**
+     * Private constructor to prevent instantiation
+     */
+    private DashboardStatsService() {}
+
+    /**
+     * Get singleton instance of DashboardStatsService
+     * @return DashboardStatsService instance
+     */
+    public static DashboardStatsService getInstance() {
+        if (instance == null) {
+            synchronized (DashboardStatsService.class) {
+                if (instance == null) {
+                    instance = new DashboardStatsService();
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Get the dashboard figures, re-reading them if the snapshot is older than the TTL.
+     * Concurrent callers share one query.
+     * @return Current figures, the last good snapshot if the query fails, or null if none was ever read
+     */
+    public DashboardStats getStats() {
+        DashboardStats current = snapshot;
+        if (isFresh(current)) {
+            return current;
+        }
+        synchronized (loadLock) {
+            current = snapshot;
+            return isFresh(current) ? current : load();
+        }
+    }
+
+    /**
+     * Re-read the dashboard figures regardless of the TTL (e.g. after the admin changed the catalog)
+     * @return Current figures, the last good snapshot if the query fails, or null if none was ever read
+     */
+    public DashboardStats refresh() {
+        synchronized (loadLock) {
+            return load();
+        }
+    }
+
+    /**
+     * Get the last snapshot without touching the database
+     * @return Last snapshot (possibly expired), or null if none was read yet
+     */
+    public DashboardStats getCachedStats() {
+        return snapshot;
+    }
+
+    /**
+     * Make the next getStats() call re-read the figures
+     */
+    public void invalidate() {
+        stale = true;
+    }
+
+    private boolean isFresh(DashboardStats stats) {
+        return stats != null && !stale
+                && System.currentTimeMillis() - stats.getLoadedAtMillis() < TTL_MILLIS;
+    }
+
+    private DashboardStats load() {
+        // Cleared before the query so an invalidate() during it forces another read
+        stale = false;
+        ServiceRegistry services = ServiceRegistry.getInstance();
+        if (services.isInMemory()) {
+            snapshot = countInMemory(services);
+            return snapshot;
+        }
+        try (Connection connection = DatabaseConnection.getInstance().getConnection();
+             Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery(STATS_QUERY)) {
+            if (rs.next()) {
+                snapshot = new DashboardStats(rs.getInt("total_books"), rs.getInt("total_students"),
+                        rs.getLong("total_views"), rs.getLong("total_downloads"), System.currentTimeMillis());
+            }
+        } catch (SQLException e) {
+            System.err.println("Error loading dashboard statistics: " + e.getMessage());
+            stale = true;
+        }
+        return snapshot;
+    }
+
+    /**
+     * Same figures from the in-memory repositories
+     */
+    private DashboardStats countInMemory(ServiceRegistry services) {
+        List<Book> books = services.getBookRepository().getAllBooks();
+        long views = 0;
+        long downloads = 0;
+        for (Book book : books) {
+            views += book.getViewCount();
+            downloads += book.getDownloadCount();
+        }
+        return new DashboardStats(books.size(), services.getStudentRepository().getAllStudents().size(),
+                views, downloads, System.currentTimeMillis());
+    }
+}
@@ -1,86 +1,195 @@
 package com.elibrary.database;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.sql.Connection;
-import java.sql.DriverManager;
+import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.sql.Statement;
 
 /**
  * Database connection manager for the E-Library application
- * Handles MySQL database connections using singleton pattern
+ * Hands out pooled connections to MySQL or, with -Delibrary.db.backend=h2,
+ * to an embedded H2 database file using singleton pattern.
+ * Callers borrow a connection per operation and return it by closing it.
  */
 public class DatabaseConnection {
-    private static final String URL ="jdbc:mysql://localhost:3306/elibrary_db?useSSL=false&serverTimezone=UTC&allowPublicKeyRetrieval=true";
-    private static final String USERNAME = "elibrary_user"; // Change as needed
-    private static final String PASSWORD = "elibrary_pass"; // Change as needed
-    
-    private static DatabaseConnection instance;
-    private Connection connection;
-    
+    // Backend settings, overridable with -Delibrary.db.* system properties
+    private static final SqlDialect DIALECT = SqlDialect.fromName(System.getProperty("elibrary.db.backend", "mysql"));
+    private static final String URL = System.getProperty("elibrary.db.url", DIALECT.getDefaultUrl());
+    private static final String USERNAME = System.getProperty("elibrary.db.user", DIALECT.getDefaultUsername());
+    private static final String PASSWORD = System.getProperty("elibrary.db.password", DIALECT.getDefaultPassword());
+    private static final String EMBEDDED_SCHEMA = "/db/schema-embedded.sql";
+
+    // Pool settings, overridable with -Delibrary.db.pool.* system properties
+    private static final int POOL_MAX_SIZE = Integer.getInteger("elibrary.db.pool.maxSize", 10);
+    private static final int POOL_MIN_IDLE = Integer.getInteger("elibrary.db.pool.minIdle", 2);
+    private static final long CONNECTION_TIMEOUT_MS = Long.getLong("elibrary.db.pool.connectionTimeoutMs", 10_000L);
+    private static final long IDLE_TIMEOUT_MS = Long.getLong("elibrary.db.pool.idleTimeoutMs", 300_000L);
+    private static final long MAX_LIFETIME_MS = Long.getLong("elibrary.db.pool.maxLifetimeMs", 1_800_000L);
+    private static final long LEAK_DETECTION_THRESHOLD_MS = Long.getLong("elibrary.db.pool.leakDetectionMs", 60_000L);
+
+    private static volatile DatabaseConnection instance;
+    private final ConnectionPool pool;
+
     /**
      * Private constructor to prevent instantiation
      */
     private DatabaseConnection() {
         try {
-            Class.forName("com.mysql.cj.jdbc.Driver");
-            this.connection = DriverManager.getConnection(URL, USERNAME, PASSWORD);
-            System.out.println("Database connection established successfully!");
-        } catch (ClassNotFoundException | SQLException e) {
+            Class.forName(DIALECT.getDriverClass());
+        } catch (ClassNotFoundException e) {
+            System.err.println("Database Connection Error: " + e.getMessage());
+            e.printStackTrace();
+        }
+
+        this.pool = new ConnectionPool(URL, USERNAME, PASSWORD, POOL_MAX_SIZE, POOL_MIN_IDLE,
+                CONNECTION_TIMEOUT_MS, IDLE_TIMEOUT_MS, MAX_LIFETIME_MS, LEAK_DETECTION_THRESHOLD_MS);
+
+        try {
+            if (DIALECT == SqlDialect.H2) {
+                createEmbeddedSchema();
+            }
+            pool.fillMinimumIdle();
+            System.out.println("Database connection pool established successfully!");
+        } catch (SQLException e) {
             System.err.println("Database Connection Error: " + e.getMessage());
             e.printStackTrace();
         }
     }
-    
+
     /**
      * Get singleton instance of DatabaseConnection
      * @return DatabaseConnection instance
      */
     public static DatabaseConnection getInstance() {
-        if (instance == null || instance.getConnection() == null) {
+        if (instance == null) {
             synchronized (DatabaseConnection.class) {
-                if (instance == null || instance.getConnection() == null) {
+                if (instance == null) {
                     instance = new DatabaseConnection();
                 }
             }
         }
         return instance;
     }
-    
+
     /**
-     * Get the active database connection
-     * @return Connection object
+     * Create the tables on first start of an embedded database
+     * @throws SQLException if the schema cannot be created
      */
-    public Connection getConnection() {
-        try {
-            if (connection == null || connection.isClosed()) {
-                connection = DriverManager.getConnection(URL, USERNAME, PASSWORD);
+    private void createEmbeddedSchema() throws SQLException {
+        try (Connection connection = pool.borrow()) {
+            try (ResultSet tables = connection.getMetaData().getTables(null, null, "ADMIN", null)) {
+                if (tables.next()) {
+                    return;
+                }
             }
-        } catch (SQLException e) {
-            System.err.println("Error getting connection: " + e.getMessage());
+            
+            String script;
+            try (InputStream in = DatabaseConnection.class.getResourceAsStream(EMBEDDED_SCHEMA)) {
+                if (in == null) {
+                    throw new SQLException("Missing " + EMBEDDED_SCHEMA);
+                }
+                script = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+            } catch (IOException e) {
+                throw new SQLException("Cannot read " + EMBEDDED_SCHEMA, e);
+            }
+            
+            connection.setAutoCommit(false);
+            try (Statement stmt = connection.createStatement()) {
+                for (String sql : script.split(";\\s*(\\r?\\n|$)")) {
+                    String statement = sql.replaceAll("(?m)^\\s*--.*$", "").trim();
+                    if (!statement.isEmpty()) {
+                        stmt.execute(statement);
+                    }
+                }
+                connection.commit();
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            }
+            System.out.println("Created embedded database schema at " + URL);
         }
-        return connection;
     }
-    
+
+    /**
+     * Borrow a connection from the pool.
+     * The caller must close it (preferably with try-with-resources) to return it.
+     * @return Connection object
+     * @throws SQLException if no connection is available within the pool timeout
+     */
+    public Connection getConnection() throws SQLException {
+        Connection connection = pool.borrow();
+        return QueryInstrumentation.ENABLED ? QueryInstrumentation.wrap(connection) : connection;
+    }
+
+    /**
+     * Get the SQL dialect of the configured backend
+     * @return MYSQL or H2
+     */
+    public SqlDialect getDialect() {
+        return DIALECT;
+    }
+
     /**
-     * Close the database connection
+     * Get current pool statistics (active, idle, wait times)
+     * @return Pool statistics snapshot
+     */
+    public ConnectionPool.Stats getPoolStats() {
+        return pool.getStats();
+    }
+
+    /**
+     * Get per-DAO-method query statistics
+     * Only collected when started with -Delibrary.jdbc.instrumentation=true.
+     * @return Query metrics registry
+     */
+    public QueryMetrics getQueryMetrics() {
+        return QueryMetrics.getInstance();
+    }
+
+    /**
+     * Close all pooled database connections
      */
     public void closeConnection() {
-        if (connection != null) {
-            try {
-                connection.close();
-                System.out.println("Database connection closed.");
-            } catch (SQLException e) {
-                System.err.println("Error closing connection: " + e.getMessage());
+        pool.shutdown();
+        System.out.println("Database connection pool closed. " + pool.getStats());
+        if (QueryInstrumentation.ENABLED) {
+            System.out.println("Query statistics:" + System.lineSeparator() + QueryMetrics.getInstance().report());
+        }
+    }
+
+    /**
+     * Check whether an error means the database could not be reached, as opposed to
+     * a statement it rejected: a pool timeout, a transient connection error, or an
+     * SQLState of class 08 (connection exception), anywhere in the cause chain
+     * @param e Error thrown by a database call
+     * @return true if retrying the same statements later may succeed
+     */
+    public static boolean isConnectionFailure(SQLException e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLTransientConnectionException) {
+                return true;
+            }
+            if (cause instanceof SQLException) {
+                String sqlState = ((SQLException) cause).getSQLState();
+                if (sqlState != null && sqlState.startsWith("08")) {
+                    return true;
+                }
             }
         }
+        return false;
     }
-    
+
     /**
      * Test database connection
-     * @return true if connection is active, false otherwise
+     * @return true if a valid connection can be borrowed, false otherwise
      */
     public boolean testConnection() {
-        try {
-            return connection != null && !connection.isClosed();
+        try (Connection connection = getConnection()) {
+            return connection.isValid(2);
         } catch (SQLException e) {
             return false;
         }
@@ -0,0 +1,314 @@
+package com.elibrary.database;
+
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * JDBC instrumentation for DAO calls
+ * Wraps borrowed connections so every statement is timed (execution plus
+ * fetching), attributed to the DAO method that created it and recorded in
+ * QueryMetrics. Statements slower than the threshold are written to the
+ * slow-query log as one JSON object per line.
+ * Disabled by default; when disabled connections are returned unwrapped.
+ */
+final class QueryInstrumentation {
+    // Settings, overridable with -Delibrary.jdbc.* system properties
+    static final boolean ENABLED = Boolean.getBoolean("elibrary.jdbc.instrumentation");
+    private static final long SLOW_QUERY_NANOS = Long.getLong("elibrary.jdbc.slowQueryMs", 200L) * 1_000_000L;
+    private static final String SLOW_QUERY_LOG = System.getProperty("elibrary.jdbc.slowQueryLog");
+
+    private static final int MAX_SQL_LENGTH = 1000;
+    private static final int MAX_CACHED_SHAPES = 1000;
+
+    private static final StackWalker STACK_WALKER = StackWalker.getInstance();
+    private static final Map<String, String> shapeCache = new ConcurrentHashMap<>();
+    private static PrintWriter slowQueryWriter;
+
+    private QueryInstrumentation() {}
+
+    /**
+     * Wrap a connection so its statements are measured
+     * @param connection Pooled connection
+     * @return Instrumented connection
+     */
+    static Connection wrap(Connection connection) {
+        return proxy(Connection.class, new ConnectionHandler(connection));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return (T) Proxy.newProxyInstance(QueryInstrumentation.class.getClassLoader(), new Class<?>[] { type }, handler);
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Label of the application method that created a statement, e.g. "BookDAO.getAllBooks"
+     */
+    private static String callerMethod() {
+        return STACK_WALKER.walk(frames -> frames
+                .filter(frame -> frame.getClassName().startsWith("com.elibrary.")
+                        && !frame.getClassName().startsWith(QueryInstrumentation.class.getName())
+                        && !frame.getClassName().startsWith(ConnectionPool.class.getName()))
+                .findFirst()
+                .map(frame -> {
+                    String className = frame.getClassName();
+                    return className.substring(className.lastIndexOf('.') + 1) + "." + frame.getMethodName();
+                })
+                .orElse("unknown"));
+    }
+
+    /**
+     * SQL with literals replaced by ? and whitespace collapsed, so equal queries group together
+     */
+    static String shapeOf(String sql) {
+        if (sql == null) {
+            return "";
+        }
+        String shape = shapeCache.get(sql);
+        if (shape != null) {
+            return shape;
+        }
+
+        shape = sql.replaceAll("'(?:[^'\\\\]|\\\\.|'')*'", "?")
+                .replaceAll("\\b\\d+(?:\\.\\d+)?\\b", "?")
+                .replaceAll("\\s+", " ")
+                .trim();
+        if (shape.length() > MAX_SQL_LENGTH) {
+            shape = shape.substring(0, MAX_SQL_LENGTH) + "...";
+        }
+        if (shapeCache.size() < MAX_CACHED_SHAPES) {
+            shapeCache.put(sql, shape);
+        }
+        return shape;
+    }
+
+    private static void logSlowQuery(Execution execution, long elapsedNanos, boolean failed) {
+        String line = String.format("{\"ts\":\"%s\",\"method\":\"%s\",\"elapsedMs\":%.3f,\"rows\":%d," +
+                        "\"binds\":%d,\"batch\":%d,\"error\":%b,\"sql\":\"%s\"}",
+                Instant.now(), execution.method, elapsedNanos / 1_000_000.0, execution.rows,
+                execution.binds, execution.batchSize, failed, escapeJson(execution.sql));
+
+        synchronized (QueryInstrumentation.class) {
+            if (SLOW_QUERY_LOG == null) {
+                System.err.println("Slow query: " + line);
+                return;
+            }
+            try {
+                if (slowQueryWriter == null) {
+                    slowQueryWriter = new PrintWriter(new FileWriter(SLOW_QUERY_LOG, true), true);
+                }
+                slowQueryWriter.println(line);
+            } catch (IOException e) {
+                System.err.println("Error writing slow query log: " + e.getMessage());
+                System.err.println("Slow query: " + line);
+            }
+        }
+    }
+
+    private static String escapeJson(String text) {
+        StringBuilder escaped = new StringBuilder(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '"' || c == '\\') {
+                escaped.append('\\').append(c);
+            } else if (c < 0x20) {
+                escaped.append(String.format("\\u%04x", (int) c));
+            } else {
+                escaped.append(c);
+            }
+        }
+        return escaped.toString();
+    }
+
+    /**
+     * One statement execution being measured; finished when its result set is
+     * exhausted or closed, or right away for updates and batches
+     */
+    private static final class Execution {
+        private final String method;
+        private final String sql;
+        private final int binds;
+        private final int batchSize;
+        private final long startNanos = System.nanoTime();
+        private long rows = 0;
+        private boolean finished = false;
+
+        private Execution(String method, String sql, int binds, int batchSize) {
+            this.method = method;
+            this.sql = sql;
+            this.binds = binds;
+            this.batchSize = batchSize;
+        }
+
+        private void finish(boolean failed) {
+            if (finished) {
+                return;
+            }
+            finished = true;
+            long elapsed = System.nanoTime() - startNanos;
+            QueryMetrics.getInstance().record(method, elapsed, rows, failed);
+            if (elapsed >= SLOW_QUERY_NANOS) {
+                logSlowQuery(this, elapsed, failed);
+            }
+        }
+    }
+
+    /**
+     * Wraps statements created from the connection
+     */
+    private static final class ConnectionHandler implements InvocationHandler {
+        private final Connection target;
+
+        private ConnectionHandler(Connection target) {
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Object result = QueryInstrumentation.invoke(target, method, args);
+            switch (method.getName()) {
+                case "createStatement":
+                    return proxy(Statement.class, new StatementHandler((Statement) result, null));
+                case "prepareStatement":
+                    return proxy(PreparedStatement.class, new StatementHandler((Statement) result, (String) args[0]));
+                case "prepareCall":
+                    return proxy(CallableStatement.class, new StatementHandler((Statement) result, (String) args[0]));
+                default:
+                    return result;
+            }
+        }
+    }
+
+    /**
+     * Times executions and counts bind parameters and batch rows
+     */
+    private static final class StatementHandler implements InvocationHandler {
+        private final Statement target;
+        private final String preparedSql;
+        private final String caller = callerMethod();
+        private int binds = 0;
+        private int batchSize = 0;
+        private Execution current;
+
+        private StatementHandler(Statement target, String preparedSql) {
+            this.target = target;
+            this.preparedSql = preparedSql;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+
+            // Parameter setters are declared on PreparedStatement (setFetchSize etc. are not)
+            if (name.startsWith("set") && method.getDeclaringClass() != Statement.class
+                    && args != null && args.length > 0 && args[0] instanceof Integer) {
+                binds = Math.max(binds, (Integer) args[0]);
+                return QueryInstrumentation.invoke(target, method, args);
+            }
+
+            switch (name) {
+                case "addBatch":
+                    batchSize++;
+                    return QueryInstrumentation.invoke(target, method, args);
+                case "clearBatch":
+                    batchSize = 0;
+                    return QueryInstrumentation.invoke(target, method, args);
+                case "close":
+                    finishCurrent(false);
+                    return QueryInstrumentation.invoke(target, method, args);
+                default:
+                    break;
+            }
+            if (!name.startsWith("execute")) {
+                return QueryInstrumentation.invoke(target, method, args);
+            }
+
+            finishCurrent(false);
+            String sql = args != null && args.length > 0 && args[0] instanceof String ? (String) args[0] : preparedSql;
+            Execution execution = new Execution(caller, shapeOf(sql), binds, batchSize);
+            Object result;
+            try {
+                result = QueryInstrumentation.invoke(target, method, args);
+            } catch (SQLException e) {
+                execution.finish(true);
+                throw e;
+            }
+
+            if (result instanceof ResultSet) {
+                // Finished when the rows have been read
+                current = execution;
+                return proxy(ResultSet.class, new ResultSetHandler((ResultSet) result, execution));
+            }
+            if (name.equals("executeBatch") || name.equals("executeLargeBatch")) {
+                batchSize = 0;
+            }
+            execution.finish(false);
+            return result;
+        }
+
+        private void finishCurrent(boolean failed) {
+            if (current != null) {
+                current.finish(failed);
+                current = null;
+            }
+        }
+    }
+
+    /**
+     * Counts fetched rows and finishes the execution once the rows are read
+     */
+    private static final class ResultSetHandler implements InvocationHandler {
+        private final ResultSet target;
+        private final Execution execution;
+
+        private ResultSetHandler(ResultSet target, Execution execution) {
+            this.target = target;
+            this.execution = execution;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (name.equals("next")) {
+                boolean hasRow;
+                try {
+                    hasRow = (Boolean) QueryInstrumentation.invoke(target, method, args);
+                } catch (SQLException e) {
+                    execution.finish(true);
+                    throw e;
+                }
+                if (hasRow) {
+                    execution.rows++;
+                } else {
+                    execution.finish(false);
+                }
+                return hasRow;
+            }
+            if (name.equals("close")) {
+                execution.finish(false);
+            }
+            return QueryInstrumentation.invoke(target, method, args);
+        }
+    }
+}
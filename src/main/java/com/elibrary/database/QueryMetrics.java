@@ -0,0 +1,202 @@
+package com.elibrary.database;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-DAO-method query statistics collected by QueryInstrumentation
+ * Keeps call, error and fetched-row counts and a latency histogram with
+ * power-of-two microsecond buckets for every DAO method that ran SQL.
+ * Uses singleton pattern.
+ */
+public class QueryMetrics {
+    // Bucket i counts latencies below 2^i microseconds; the last bucket is open-ended
+    private static final int BUCKETS = 32;
+
+    private static final QueryMetrics INSTANCE = new QueryMetrics();
+
+    private final Map<String, MethodMetrics> metricsByMethod = new ConcurrentHashMap<>();
+
+    /**
+     * Private constructor to prevent instantiation
+     */
+    private QueryMetrics() {}
+
+    /**
+     * Get singleton instance of QueryMetrics
+     * @return QueryMetrics instance
+     */
+    public static QueryMetrics getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Record one statement execution
+     * @param method DAO method label, e.g. "BookDAO.getAllBooks"
+     * @param elapsedNanos Execution plus fetch time
+     * @param rows Rows fetched from the result set
+     * @param failed true if the statement threw SQLException
+     */
+    void record(String method, long elapsedNanos, long rows, boolean failed) {
+        metricsByMethod.computeIfAbsent(method, k -> new MethodMetrics()).record(elapsedNanos, rows, failed);
+    }
+
+    /**
+     * Get statistics for every instrumented DAO method, slowest total time first
+     * @return Method statistics snapshots
+     */
+    public List<MethodStats> getStats() {
+        List<MethodStats> stats = new ArrayList<>();
+        for (Map.Entry<String, MethodMetrics> entry : metricsByMethod.entrySet()) {
+            stats.add(entry.getValue().snapshot(entry.getKey()));
+        }
+        stats.sort(Comparator.comparingDouble(MethodStats::getTotalMillis).reversed());
+        return stats;
+    }
+
+    /**
+     * Clear all collected statistics
+     */
+    public void reset() {
+        metricsByMethod.clear();
+    }
+
+    /**
+     * Format the statistics as a table, one line per DAO method
+     * @return Report text
+     */
+    public String report() {
+        StringBuilder report = new StringBuilder(String.format("%-45s %8s %6s %10s %9s %9s %9s %9s%n",
+                "method", "calls", "errors", "rows", "avg ms", "p50 ms", "p95 ms", "max ms"));
+        for (MethodStats stats : getStats()) {
+            report.append(stats).append(System.lineSeparator());
+        }
+        return report.toString();
+    }
+
+    private static int bucketOf(long elapsedNanos) {
+        long micros = elapsedNanos / 1_000;
+        return Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(micros));
+    }
+
+    /**
+     * Lock-free counters for one DAO method
+     */
+    private static final class MethodMetrics {
+        private final LongAdder calls = new LongAdder();
+        private final LongAdder errors = new LongAdder();
+        private final LongAdder rows = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+        private final AtomicLongArray histogram = new AtomicLongArray(BUCKETS);
+
+        private void record(long elapsedNanos, long fetched, boolean failed) {
+            calls.increment();
+            if (failed) {
+                errors.increment();
+            }
+            rows.add(fetched);
+            totalNanos.add(elapsedNanos);
+            maxNanos.accumulate(elapsedNanos);
+            histogram.incrementAndGet(bucketOf(elapsedNanos));
+        }
+
+        private MethodStats snapshot(String method) {
+            long[] counts = new long[BUCKETS];
+            for (int i = 0; i < BUCKETS; i++) {
+                counts[i] = histogram.get(i);
+            }
+            return new MethodStats(method, calls.sum(), errors.sum(), rows.sum(),
+                    totalNanos.sum(), maxNanos.get(), counts);
+        }
+    }
+
+    /**
+     * Immutable snapshot of one DAO method's statistics
+     */
+    public static final class MethodStats {
+        private final String method;
+        private final long callCount;
+        private final long errorCount;
+        private final long rowCount;
+        private final long totalNanos;
+        private final long maxNanos;
+        private final long[] histogram;
+
+        private MethodStats(String method, long callCount, long errorCount, long rowCount,
+                            long totalNanos, long maxNanos, long[] histogram) {
+            this.method = method;
+            this.callCount = callCount;
+            this.errorCount = errorCount;
+            this.rowCount = rowCount;
+            this.totalNanos = totalNanos;
+            this.maxNanos = maxNanos;
+            this.histogram = histogram;
+        }
+
+        public String getMethod() {
+            return method;
+        }
+
+        public long getCallCount() {
+            return callCount;
+        }
+
+        public long getErrorCount() {
+            return errorCount;
+        }
+
+        public long getRowCount() {
+            return rowCount;
+        }
+
+        public double getTotalMillis() {
+            return totalNanos / 1_000_000.0;
+        }
+
+        public double getAverageMillis() {
+            return callCount == 0 ? 0 : totalNanos / 1_000_000.0 / callCount;
+        }
+
+        public double getMaxMillis() {
+            return maxNanos / 1_000_000.0;
+        }
+
+        /**
+         * Upper bound of the histogram bucket holding the given percentile
+         * @param percentile Percentile between 0 and 100
+         * @return Latency in milliseconds (bucket resolution)
+         */
+        public double getPercentileMillis(double percentile) {
+            long target = (long) Math.ceil(callCount * percentile / 100.0);
+            long seen = 0;
+            for (int i = 0; i < histogram.length; i++) {
+                seen += histogram[i];
+                if (seen >= Math.max(1, target)) {
+                    return i == histogram.length - 1 ? getMaxMillis() : Math.min((1L << i) / 1_000.0, getMaxMillis());
+                }
+            }
+            return getMaxMillis();
+        }
+
+        /**
+         * @return Calls per histogram bucket; bucket i holds latencies below 2^i microseconds
+         */
+        public long[] getHistogram() {
+            return histogram.clone();
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%-45s %8d %6d %10d %9.2f %9.2f %9.2f %9.2f",
+                    method, callCount, errorCount, rowCount, getAverageMillis(),
+                    getPercentileMillis(50), getPercentileMillis(95), getMaxMillis());
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package com.elibrary.database;
+
+import com.elibrary.database.memory.InMemoryAccessLogRepository;
+import com.elibrary.database.memory.InMemoryAdminRepository;
+import com.elibrary.database.memory.InMemoryBookRepository;
+import com.elibrary.database.memory.InMemoryCategoryRepository;
+import com.elibrary.database.memory.InMemoryStore;
+import com.elibrary.database.memory.InMemoryStudentRepository;
+import com.elibrary.models.Admin;
+import com.elibrary.models.Book;
+import com.elibrary.models.Category;
+import com.elibrary.models.Student;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Repositories used by the controllers and background writers
+ * Backed by the database DAOs by default, or by in-memory repositories with
+ * -Delibrary.repositories=memory (for running or benchmarking the UI without
+ * a database). Reports, statistics rebuilds and log export always use the
+ * database. Uses singleton pattern.
+ */
+public class ServiceRegistry {
+    // Registry settings, overridable with -Delibrary.* system properties
+    private static final String REPOSITORIES = System.getProperty("elibrary.repositories", "database");
+    private static final boolean CATEGORY_CACHE = !Boolean.getBoolean("elibrary.category.cache.disabled");
+    private static final int SAMPLE_BOOKS = Integer.getInteger("elibrary.memory.books", 0);
+
+    private static final String[] SAMPLE_CATEGORIES = {
+        "Fiction", "Non-Fiction", "Science", "Mathematics", "History",
+        "Literature", "Technology", "Arts", "Biography", "Reference"
+    };
+
+    private static volatile ServiceRegistry instance;
+
+    private volatile BookRepository bookRepository;
+    private volatile StudentRepository studentRepository;
+    private volatile CategoryRepository categoryRepository;
+    private volatile AccessLogRepository accessLogRepository;
+    private volatile AdminRepository adminRepository;
+    private volatile boolean inMemory;
+
+    /**
+     * Private constructor to prevent instantiation
+     */
+    private ServiceRegistry() {
+        if ("memory".equalsIgnoreCase(REPOSITORIES)) {
+            useInMemory(SAMPLE_BOOKS);
+        } else {
+            useDatabase();
+        }
+    }
+
+    /**
+     * Get singleton instance of ServiceRegistry
+     * @return ServiceRegistry instance
+     */
+    public static ServiceRegistry getInstance() {
+        if (instance == null) {
+            synchronized (ServiceRegistry.class) {
+                if (instance == null) {
+                    instance = new ServiceRegistry();
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Use the database DAOs, with the category list cached
+     */
+    public synchronized void useDatabase() {
+        bookRepository = new BookDAO();
+        studentRepository = new StudentDAO();
+        categoryRepository = CATEGORY_CACHE ? new CachingCategoryRepository(new CategoryDAO()) : new CategoryDAO();
+        accessLogRepository = new AccessLogDAO();
+        adminRepository = new AdminDAO();
+        inMemory = false;
+    }
+
+    /**
+     * Use fresh in-memory repositories holding the sample admin (admin / admin123),
+     * categories and students of the embedded schema
+     * @param sampleBooks Number of generated books to add
+     */
+    public synchronized void useInMemory(int sampleBooks) {
+        InMemoryStore store = new InMemoryStore();
+        bookRepository = new InMemoryBookRepository(store);
+        studentRepository = new InMemoryStudentRepository(store);
+        categoryRepository = new InMemoryCategoryRepository(store);
+        accessLogRepository = new InMemoryAccessLogRepository(store);
+        adminRepository = new InMemoryAdminRepository(store);
+        inMemory = true;
+
+        adminRepository.addAdmin(new Admin(0, "Admin", "User", "admin"), "admin123");
+        for (String name : SAMPLE_CATEGORIES) {
+            categoryRepository.addCategory(new Category(0, name));
+        }
+        List<Student> students = new ArrayList<>();
+        students.add(new Student(0, "123456789012", "Juan", "Dela Cruz", 11, "A"));
+        students.add(new Student(0, "123456789013", "Maria", "Santos", 11, "B"));
+        students.add(new Student(0, "123456789014", "Pedro", "Reyes", 12, "A"));
+        studentRepository.upsertStudents(students);
+
+        List<Category> categories = categoryRepository.getAllCategories();
+        List<Book> books = new ArrayList<>(sampleBooks);
+        for (int i = 1; i <= sampleBooks; i++) {
+            Category category = categories.get(i % categories.size());
+            books.add(new Book(0, category.getCategoryId(), String.format("Sample Book %06d", i),
+                    "Author " + (i % 500), 1950 + i % 75, category.getCategoryName() + " sample " + i,
+                    "library/books/sample_" + i + ".pdf", null));
+        }
+        bookRepository.addBooks(books);
+    }
+
+    /**
+     * Check whether the in-memory repositories are in use
+     * @return true if no database is used for the repositories
+     */
+    public boolean isInMemory() {
+        return inMemory;
+    }
+
+    public BookRepository getBookRepository() {
+        return bookRepository;
+    }
+
+    public StudentRepository getStudentRepository() {
+        return studentRepository;
+    }
+
+    public CategoryRepository getCategoryRepository() {
+        return categoryRepository;
+    }
+
+    public AccessLogRepository getAccessLogRepository() {
+        return accessLogRepository;
+    }
+
+    public AdminRepository getAdminRepository() {
+        return adminRepository;
+    }
+
+    public void setBookRepository(BookRepository bookRepository) {
+        this.bookRepository = bookRepository;
+    }
+
+    public void setStudentRepository(StudentRepository studentRepository) {
+        this.studentRepository = studentRepository;
+    }
+
+    public void setCategoryRepository(CategoryRepository categoryRepository) {
+        this.categoryRepository = categoryRepository;
+    }
+
+    public void setAccessLogRepository(AccessLogRepository accessLogRepository) {
+        this.accessLogRepository = accessLogRepository;
+    }
+
+    public void setAdminRepository(AdminRepository adminRepository) {
+        this.adminRepository = adminRepository;
+    }
+}
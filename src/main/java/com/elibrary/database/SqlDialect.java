@@ -0,0 +1,83 @@
+package com.elibrary.database;
+
+/**
+ * Supported database backends and the SQL features that differ between them.
+ * DAO SQL is written to run on both; MySQL-only features (FULLTEXT search,
+ * ACCESS_LOG partitioning, streaming result sets) are checked here first.
+ */
+public enum SqlDialect {
+    /** MySQL server (default) */
+    MYSQL("com.mysql.cj.jdbc.Driver",
+          "jdbc:mysql://localhost:3306/elibrary_db?useSSL=false&serverTimezone=UTC&allowPublicKeyRetrieval=true",
+          "elibrary_user", "elibrary_pass"),
+    /** Embedded, file-based H2 in MySQL compatibility mode, with MySQL's case-insensitive string comparison */
+    H2("org.h2.Driver",
+       "jdbc:h2:file:./library/data/elibrary;MODE=MySQL;IGNORECASE=TRUE;LOCK_TIMEOUT=10000",
+       "sa", "");
+
+    private final String driverClass;
+    private final String defaultUrl;
+    private final String defaultUsername;
+    private final String defaultPassword;
+
+    SqlDialect(String driverClass, String defaultUrl, String defaultUsername, String defaultPassword) {
+        this.driverClass = driverClass;
+        this.defaultUrl = defaultUrl;
+        this.defaultUsername = defaultUsername;
+        this.defaultPassword = defaultPassword;
+    }
+
+    /**
+     * Look up a backend by its -Delibrary.db.backend name
+     * @param name "mysql" or "h2" (case-insensitive)
+     * @return Matching dialect
+     * @throws IllegalArgumentException if the name is unknown
+     */
+    public static SqlDialect fromName(String name) {
+        for (SqlDialect dialect : values()) {
+            if (dialect.name().equalsIgnoreCase(name.trim())) {
+                return dialect;
+            }
+        }
+        throw new IllegalArgumentException("Unknown database backend \"" + name + "\" (expected mysql or h2)");
+    }
+
+    String getDriverClass() {
+        return driverClass;
+    }
+
+    String getDefaultUrl() {
+        return defaultUrl;
+    }
+
+    String getDefaultUsername() {
+        return defaultUsername;
+    }
+
+    String getDefaultPassword() {
+        return defaultPassword;
+    }
+
+    /**
+     * @return true if MATCH ... AGAINST over the FULLTEXT index is available
+     */
+    public boolean supportsFullTextSearch() {
+        return this == MYSQL;
+    }
+
+    /**
+     * @return true if ACCESS_LOG can be range-partitioned by month
+     */
+    public boolean supportsPartitioning() {
+        return this == MYSQL;
+    }
+
+    /**
+     * Fetch size that makes a forward-only result set stream rows instead of buffering them.
+     * MySQL Connector/J streams row by row only with Integer.MIN_VALUE; H2 rejects negative sizes.
+     * @return Fetch size to pass to Statement.setFetchSize
+     */
+    int streamingFetchSize() {
+        return this == MYSQL ? Integer.MIN_VALUE : 1000;
+    }
+}
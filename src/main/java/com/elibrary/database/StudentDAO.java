@@ -4,27 +4,42 @@ import com.elibrary.models.Student;
 
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 /**
  * Data Access Object for Student operations
  */
-public class StudentDAO {
-    private Connection connection;
-    
-    public StudentDAO() {
-        this.connection = DatabaseConnection.getInstance().getConnection();
-    }
-    
+public class StudentDAO implements StudentRepository {
     /**
      * Authenticate student by LRN
+     * Served from the in-memory login index; the database is only queried on a miss.
      * @param lrn Student LRN
      * @return Student object if found, null otherwise
      */
+    @Override
     public Student authenticateStudent(String lrn) {
+        StudentLoginIndex index = StudentLoginIndex.getInstance();
+        Student indexed = index.get(lrn);
+        if (indexed != null) {
+            return indexed;
+        }
+        
+        Student student = queryStudentByLrn(lrn);
+        if (student != null) {
+            index.cache(student);
+        }
+        return student;
+    }
+    
+    /**
+     * Read a student by LRN from the database
+     */
+    private Student queryStudentByLrn(String lrn) {
         String query = "SELECT * FROM STUDENT WHERE lrn = ?";
         
-        try (PreparedStatement stmt = connection.prepareStatement(query)) {
+        try (Connection connection = DatabaseConnection.getInstance().getConnection();
+             PreparedStatement stmt = connection.prepareStatement(query)) {
             stmt.setString(1, lrn);
             ResultSet rs = stmt.executeQuery();
             
@@ -44,10 +59,12 @@ public class StudentDAO {
      * @param studentId Student ID
      * @return Student object if found, null otherwise
      */
+    @Override
     public Student getStudentById(int studentId) {
         String query = "SELECT * FROM STUDENT WHERE student_id = ?";
         
-        try (PreparedStatement stmt = connection.prepareStatement(query)) {
+        try (Connection connection = DatabaseConnection.getInstance().getConnection();
+             PreparedStatement stmt = connection.prepareStatement(query)) {
             stmt.setInt(1, studentId);
             ResultSet rs = stmt.executeQuery();
             
@@ -65,11 +82,22 @@ public class StudentDAO {
      * Get all students
      * @return List of all students
      */
+    @Override
     public List<Student> getAllStudents() {
+        List<Student> students = loadAllStudents();
+        return students != null ? students : new ArrayList<>();
+    }
+    
+    /**
+     * Read all students from the database (used by the login index)
+     * @return List of all students, or null if they could not be read
+     */
+    List<Student> loadAllStudents() {
         List<Student> students = new ArrayList<>();
         String query = "SELECT * FROM STUDENT ORDER BY last_name, first_name";
         
-        try (Statement stmt = connection.createStatement();
+        try (Connection connection = DatabaseConnection.getInstance().getConnection();
+             Statement stmt = connection.createStatement();
              ResultSet rs = stmt.executeQuery(query)) {
             
             while (rs.next()) {
@@ -77,6 +105,7 @@ public class StudentDAO {
             }
         } catch (SQLException e) {
             System.err.println("Error getting all students: " + e.getMessage());
+            return null;
         }
         
         return students;
@@ -87,32 +116,118 @@ public class StudentDAO {
      * @param student Student object to add
      * @return true if successful, false otherwise
      */
+    @Override
     public boolean addStudent(Student student) {
         String query = "INSERT INTO STUDENT (lrn, first_name, last_name, grade_level, section) VALUES (?, ?, ?, ?, ?)";
         
-        try (PreparedStatement stmt = connection.prepareStatement(query)) {
+        try (Connection connection = DatabaseConnection.getInstance().getConnection();
+             PreparedStatement stmt = connection.prepareStatement(query, Statement.RETURN_GENERATED_KEYS)) {
             stmt.setString(1, student.getLrn());
             stmt.setString(2, student.getFirstName());
             stmt.setString(3, student.getLastName());
             stmt.setInt(4, student.getGradeLevel());
             stmt.setString(5, student.getSection());
             
-            return stmt.executeUpdate() > 0;
+            if (stmt.executeUpdate() == 0) {
+                return false;
+            }
+            try (ResultSet keys = stmt.getGeneratedKeys()) {
+                if (keys.next()) {
+                    student.setStudentId(keys.getInt(1));
+                    StudentLoginIndex.getInstance().put(student);
+                }
+            }
+            DashboardStatsService.getInstance().invalidate();
+            return true;
         } catch (SQLException e) {
             System.err.println("Error adding student: " + e.getMessage());
             return false;
         }
     }
     
+    /**
+     * Insert or update many students by LRN with multi-row upserts in one transaction.
+     * Existing students get the given name, grade level and section.
+     * @param students Students to save (LRNs must be distinct)
+     * @return Number of students inserted (the rest were updated), or -1 on failure
+     */
+    @Override
+    public int upsertStudents(List<Student> students) {
+        if (students.isEmpty()) {
+            return 0;
+        }
+        
+        String lrnList = String.join(", ", Collections.nCopies(students.size(), "?"));
+        String lockQuery = "SELECT lrn FROM STUDENT WHERE lrn IN (" + lrnList + ") FOR UPDATE";
+        String readQuery = "SELECT * FROM STUDENT WHERE lrn IN (" + lrnList + ")";
+        String upsertQuery = "INSERT INTO STUDENT (lrn, first_name, last_name, grade_level, section) VALUES " +
+                            String.join(", ", Collections.nCopies(students.size(), "(?, ?, ?, ?, ?)")) +
+                            " ON DUPLICATE KEY UPDATE first_name = VALUES(first_name), last_name = VALUES(last_name), " +
+                            "grade_level = VALUES(grade_level), section = VALUES(section)";
+        
+        try (Connection connection = DatabaseConnection.getInstance().getConnection();
+             PreparedStatement lockStmt = connection.prepareStatement(lockQuery);
+             PreparedStatement readStmt = connection.prepareStatement(readQuery);
+             PreparedStatement upsertStmt = connection.prepareStatement(upsertQuery)) {
+            int index = 1;
+            for (Student student : students) {
+                lockStmt.setString(index, student.getLrn());
+                readStmt.setString(index, student.getLrn());
+                upsertStmt.setString(index * 5 - 4, student.getLrn());
+                upsertStmt.setString(index * 5 - 3, student.getFirstName());
+                upsertStmt.setString(index * 5 - 2, student.getLastName());
+                upsertStmt.setInt(index * 5 - 1, student.getGradeLevel());
+                upsertStmt.setString(index * 5, student.getSection());
+                index++;
+            }
+            
+            // Affected-row counts cannot tell an insert from an unchanged update,
+            // so the existing rows are counted (and locked) first
+            int existing = 0;
+            List<Student> saved = new ArrayList<>(students.size());
+            connection.setAutoCommit(false);
+            try {
+                try (ResultSet rs = lockStmt.executeQuery()) {
+                    while (rs.next()) {
+                        existing++;
+                    }
+                }
+                upsertStmt.executeUpdate();
+                // Read back with their IDs so the whole roster logs in from the index
+                try (ResultSet rs = readStmt.executeQuery()) {
+                    while (rs.next()) {
+                        saved.add(extractStudentFromResultSet(rs));
+                    }
+                }
+                connection.commit();
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            }
+            DashboardStatsService.getInstance().invalidate();
+            
+            StudentLoginIndex loginIndex = StudentLoginIndex.getInstance();
+            for (Student student : saved) {
+                loginIndex.put(student);
+            }
+            return students.size() - existing;
+        } catch (SQLException e) {
+            System.err.println("Error saving students: " + e.getMessage());
+            return -1;
+        }
+    }
+    
     /**
      * Update student information
      * @param student Student object with updated information
      * @return true if successful, false otherwise
      */
+    @Override
     public boolean updateStudent(Student student) {
         String query = "UPDATE STUDENT SET first_name = ?, last_name = ?, grade_level = ?, section = ? WHERE student_id = ?";
         
-        try (PreparedStatement stmt = connection.prepareStatement(query)) {
+        try (Connection connection = DatabaseConnection.getInstance().getConnection();
+             PreparedStatement stmt = connection.prepareStatement(query)) {
             stmt.setString(1, student.getFirstName());
             stmt.setString(2, student.getLastName());
             stmt.setInt(3, student.getGradeLevel());
@@ -123,20 +238,43 @@ public class StudentDAO {
         } catch (SQLException e) {
             System.err.println("Error updating student: " + e.getMessage());
             return false;
+        } finally {
+            // The next login reads the updated row
+            StudentLoginIndex.getInstance().removeById(student.getStudentId());
         }
     }
     
     /**
      * Delete student
+     * Its access logs are deleted too and taken out of the daily usage rollups.
      * @param studentId Student ID to delete
      * @return true if successful, false otherwise
      */
+    @Override
     public boolean deleteStudent(int studentId) {
+        // A partitioned ACCESS_LOG has no foreign keys, so the student's logs are removed here
+        String logsQuery = "DELETE FROM ACCESS_LOG WHERE student_id = ?";
         String query = "DELETE FROM STUDENT WHERE student_id = ?";
         
-        try (PreparedStatement stmt = connection.prepareStatement(query)) {
+        try (Connection connection = DatabaseConnection.getInstance().getConnection();
+             PreparedStatement logsStmt = connection.prepareStatement(logsQuery);
+             PreparedStatement stmt = connection.prepareStatement(query)) {
+            logsStmt.setInt(1, studentId);
             stmt.setInt(1, studentId);
-            return stmt.executeUpdate() > 0;
+            
+            connection.setAutoCommit(false);
+            try {
+                UsageRollupDAO.decrementRollups(connection, "student_id", studentId);
+                logsStmt.executeUpdate();
+                boolean deleted = stmt.executeUpdate() > 0;
+                connection.commit();
+                StudentLoginIndex.getInstance().removeById(studentId);
+                DashboardStatsService.getInstance().invalidate();
+                return deleted;
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            }
         } catch (SQLException e) {
             System.err.println("Error deleting student: " + e.getMessage());
             return false;
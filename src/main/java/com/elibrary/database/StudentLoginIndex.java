@@ -0,0 +1,329 @@
+package com.elibrary.database;
+
+import com.elibrary.models.Student;
+
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-memory roster index behind StudentDAO.authenticateStudent
+ * Maps numeric LRNs to students in an open-addressing table keyed by
+ * primitive longs, so a login is a hash probe instead of a database round
+ * trip. Local writes keep it in sync; students added or changed from other
+ * kiosks are found on a miss or by the periodic reload. Uses singleton pattern.
+ */
+public class StudentLoginIndex {
+    // Index settings, overridable with -Delibrary.student.index.* system properties
+    private static final boolean ENABLED = !Boolean.getBoolean("elibrary.student.index.disabled");
+    private static final long RELOAD_MINUTES = Long.getLong("elibrary.student.index.reloadMinutes", 10L);
+
+    private static final int MIN_CAPACITY = 1024;
+    // Keys are value * KEY_LENGTHS + digit count, so "0123" and "123" stay distinct
+    private static final int KEY_LENGTHS = 20;
+    private static final int MAX_DIGITS = 17;
+
+    private static volatile StudentLoginIndex instance;
+
+    // Open addressing with linear probing; key 0 marks an empty slot
+    private long[] keys = new long[MIN_CAPACITY];
+    private Student[] students = new Student[MIN_CAPACITY];
+    private int size = 0;
+    private boolean loaded = false;
+    private long generation = 0;   // bumped by every local write so a reload started earlier is not kept
+
+    private long hitCount = 0;
+    private long missCount = 0;
+
+    private final StudentDAO studentDAO = new StudentDAO();
+    private ScheduledExecutorService scheduler;
+
+    /**
+     * Package-private so tests can use an empty index; use getInstance()
+     */
+    StudentLoginIndex() {}
+
+    /**
+     * Get singleton instance of StudentLoginIndex
+     * @return StudentLoginIndex instance
+     */
+    public static StudentLoginIndex getInstance() {
+        if (instance == null) {
+            synchronized (StudentLoginIndex.class) {
+                if (instance == null) {
+                    instance = new StudentLoginIndex();
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Load the roster now and reload it every reload interval in the background
+     */
+    public synchronized void start() {
+        if (!ENABLED || scheduler != null) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "elibrary-student-index");
+            thread.setDaemon(true);
+            return thread;
+        });
+        if (RELOAD_MINUTES > 0) {
+            scheduler.scheduleWithFixedDelay(this::reload, 0, RELOAD_MINUTES, TimeUnit.MINUTES);
+        } else {
+            scheduler.execute(this::reload);
+        }
+    }
+
+    /**
+     * Stop background reloads
+     */
+    public synchronized void shutdown() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+
+    /**
+     * Replace the index with the full roster from the database
+     */
+    public void reload() {
+        long startGeneration;
+        synchronized (this) {
+            startGeneration = generation;
+        }
+        List<Student> roster = studentDAO.loadAllStudents();
+        if (roster == null) {
+            return;
+        }
+
+        // Build outside the lock so logins keep being served
+        int capacity = capacityFor(roster.size());
+        long[] newKeys = new long[capacity];
+        Student[] newStudents = new Student[capacity];
+        int newSize = 0;
+        for (Student student : roster) {
+            long key = keyOf(student.getLrn());
+            if (key != 0 && insert(newKeys, newStudents, key, student)) {
+                newSize++;
+            }
+        }
+
+        synchronized (this) {
+            if (generation != startGeneration) {
+                // A local write happened meanwhile; the next reload picks it up
+                return;
+            }
+            keys = newKeys;
+            students = newStudents;
+            size = newSize;
+            loaded = true;
+        }
+    }
+
+    /**
+     * Look up a student by LRN
+     * @param lrn Student LRN
+     * @return Student, or null if the LRN is not in the index
+     */
+    synchronized Student get(String lrn) {
+        long key = keyOf(lrn);
+        if (!ENABLED || key == 0) {
+            return null;
+        }
+        int mask = keys.length - 1;
+        for (int slot = hash(key) & mask; keys[slot] != 0; slot = (slot + 1) & mask) {
+            if (keys[slot] == key) {
+                hitCount++;
+                return students[slot];
+            }
+        }
+        missCount++;
+        return null;
+    }
+
+    /**
+     * Add or replace a student after a local write
+     * A reload running meanwhile is dropped, since its roster may predate the write.
+     * @param student Student written to the database
+     */
+    synchronized void put(Student student) {
+        if (add(student)) {
+            generation++;
+        }
+    }
+
+    /**
+     * Add a student read from the database on a login miss
+     * Unlike put, this does not drop a running reload: the row was not changed
+     * here, so the reloaded roster is no staler than the index. Otherwise every
+     * miss during a reload, such as a class logging in at once, would throw the
+     * reload away.
+     * @param student Student read from the database
+     */
+    synchronized void cache(Student student) {
+        add(student);
+    }
+
+    /**
+     * @return false if the LRN cannot be indexed
+     */
+    private boolean add(Student student) {
+        long key = keyOf(student.getLrn());
+        if (!ENABLED || key == 0) {
+            return false;
+        }
+        if ((size + 1) * 2 > keys.length) {
+            resize(keys.length * 2);
+        }
+        if (insert(keys, students, key, student)) {
+            size++;
+        }
+        return true;
+    }
+
+    /**
+     * Remove a student by LRN
+     * @param lrn Student LRN
+     */
+    synchronized void remove(String lrn) {
+        long key = keyOf(lrn);
+        if (!ENABLED || key == 0) {
+            return;
+        }
+        generation++;
+        int mask = keys.length - 1;
+        int slot = hash(key) & mask;
+        while (keys[slot] != key) {
+            if (keys[slot] == 0) {
+                return;
+            }
+            slot = (slot + 1) & mask;
+        }
+
+        // Backward-shift deletion: move later entries of the probe run into the gap
+        int gap = slot;
+        for (int next = (gap + 1) & mask; keys[next] != 0; next = (next + 1) & mask) {
+            int home = hash(keys[next]) & mask;
+            // Move the entry unless its home slot lies cyclically in (gap, next]
+            boolean homeBetween = gap <= next ? (home > gap && home <= next) : (home > gap || home <= next);
+            if (!homeBetween) {
+                keys[gap] = keys[next];
+                students[gap] = students[next];
+                gap = next;
+            }
+        }
+        keys[gap] = 0;
+        students[gap] = null;
+        size--;
+    }
+
+    /**
+     * Remove a student by ID (used when only the ID is known, e.g. on delete)
+     * @param studentId Student ID
+     */
+    synchronized void removeById(int studentId) {
+        for (int slot = 0; slot < keys.length; slot++) {
+            if (keys[slot] != 0 && students[slot].getStudentId() == studentId) {
+                remove(students[slot].getLrn());
+                return;
+            }
+        }
+    }
+
+    /**
+     * Check whether the roster has been loaded at least once
+     * @return true once a full load completed
+     */
+    public synchronized boolean isLoaded() {
+        return loaded;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    public synchronized long getHitCount() {
+        return hitCount;
+    }
+
+    public synchronized long getMissCount() {
+        return missCount;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format("students=%d, hits=%d, misses=%d", size, hitCount, missCount);
+    }
+
+    private void resize(int capacity) {
+        long[] newKeys = new long[capacity];
+        Student[] newStudents = new Student[capacity];
+        for (int slot = 0; slot < keys.length; slot++) {
+            if (keys[slot] != 0) {
+                insert(newKeys, newStudents, keys[slot], students[slot]);
+            }
+        }
+        keys = newKeys;
+        students = newStudents;
+    }
+
+    /**
+     * @return true if the key was new, false if an existing entry was replaced
+     */
+    private static boolean insert(long[] table, Student[] values, long key, Student student) {
+        int mask = table.length - 1;
+        int slot = hash(key) & mask;
+        while (table[slot] != 0) {
+            if (table[slot] == key) {
+                values[slot] = student;
+                return false;
+            }
+            slot = (slot + 1) & mask;
+        }
+        table[slot] = key;
+        values[slot] = student;
+        return true;
+    }
+
+    private static int capacityFor(int entries) {
+        int capacity = MIN_CAPACITY;
+        while (capacity < entries * 2) {
+            capacity <<= 1;
+        }
+        return capacity;
+    }
+
+    /**
+     * Numeric key for an LRN
+     * @return Key, or 0 if the LRN is not all digits (such LRNs are always looked up in the database)
+     */
+    static long keyOf(String lrn) {
+        if (lrn == null || lrn.isEmpty() || lrn.length() > MAX_DIGITS) {
+            return 0;
+        }
+        long value = 0;
+        for (int i = 0; i < lrn.length(); i++) {
+            char c = lrn.charAt(i);
+            if (c < '0' || c > '9') {
+                return 0;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value * KEY_LENGTHS + lrn.length();
+    }
+
+    static int hash(long key) {
+        // MurmurHash3 finalizer; consecutive LRNs would otherwise fill neighbouring slots
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        key *= 0xc4ceb9fe1a85ec53L;
+        key ^= key >>> 33;
+        return (int) key;
+    }
+}
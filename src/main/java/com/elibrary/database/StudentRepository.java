@@ -0,0 +1,60 @@
+package com.elibrary.database;
+
+import com.elibrary.models.Student;
+
+import java.util.List;
+
+/**
+ * Repository for Student operations
+ * Implemented by StudentDAO (database) and InMemoryStudentRepository.
+ */
+public interface StudentRepository {
+    /**
+     * Authenticate student by LRN
+     * @param lrn Student LRN
+     * @return Student object if found, null otherwise
+     */
+    Student authenticateStudent(String lrn);
+
+    /**
+     * Get student by ID
+     * @param studentId Student ID
+     * @return Student object if found, null otherwise
+     */
+    Student getStudentById(int studentId);
+
+    /**
+     * Get all students
+     * @return List of all students
+     */
+    List<Student> getAllStudents();
+
+    /**
+     * Add new student
+     * @param student Student object to add
+     * @return true if successful, false otherwise
+     */
+    boolean addStudent(Student student);
+
+    /**
+     * Insert or update many students by LRN.
+     * Existing students get the given name, grade level and section.
+     * @param students Students to save (LRNs must be distinct)
+     * @return Number of students inserted (the rest were updated), or -1 on failure
+     */
+    int upsertStudents(List<Student> students);
+
+    /**
+     * Update student information
+     * @param student Student object with updated information
+     * @return true if successful, false otherwise
+     */
+    boolean updateStudent(Student student);
+
+    /**
+     * Delete student together with their access logs
+     * @param studentId Student ID to delete
+     * @return true if successful, false otherwise
+     */
+    boolean deleteStudent(int studentId);
+}
@@ -0,0 +1,38 @@
+package com.elibrary.database;
+
+import java.sql.*;
+
+/**
+ * Cheap row-count estimates for large tables
+ * Reads the optimizer's estimate instead of running COUNT(*).
+ */
+final class TableStatistics {
+    
+    private TableStatistics() {}
+    
+    /**
+     * Estimate the number of rows in a table
+     * @param tableName Table name (must be a trusted constant, it is not parameterized)
+     * @return Estimated row count, or -1 if unavailable
+     */
+    static long estimateRowCount(String tableName) {
+        // EXPLAIN reports the optimizer's current estimate; information_schema.TABLES
+        // can be cached for up to a day on MySQL 8. H2 keeps an exact row count,
+        // so COUNT(*) without a condition is answered without a scan.
+        boolean mysql = DatabaseConnection.getInstance().getDialect() == SqlDialect.MYSQL;
+        String query = (mysql ? "EXPLAIN SELECT 1 FROM " : "SELECT COUNT(*) FROM ") + tableName;
+        
+        try (Connection connection = DatabaseConnection.getInstance().getConnection();
+             Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery(query)) {
+            
+            if (rs.next()) {
+                return mysql ? rs.getLong("rows") : rs.getLong(1);
+            }
+        } catch (SQLException e) {
+            System.err.println("Error estimating row count for " + tableName + ": " + e.getMessage());
+        }
+        
+        return -1;
+    }
+}
@@ -0,0 +1,460 @@
+package com.elibrary.database;
+
+import com.elibrary.models.AccessLog;
+import com.elibrary.models.SectionUsage;
+import com.elibrary.models.Student;
+
+import java.sql.*;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Data Access Object for the daily usage rollup tables.
+ * BOOK_USAGE_DAILY counts accesses per (day, book, access type) and
+ * SECTION_USAGE_DAILY per (day, grade level, section, access type), so
+ * totals and per-period reports never scan ACCESS_LOG. Days are local
+ * dates of this machine's time zone.
+ */
+public class UsageRollupDAO {
+    private static final String INCREMENT_BOOK_QUERY =
+            "INSERT INTO BOOK_USAGE_DAILY (usage_date, book_id, access_type, access_count) VALUES (?, ?, ?, ?) " +
+            "ON DUPLICATE KEY UPDATE access_count = access_count + VALUES(access_count)";
+    private static final String INCREMENT_SECTION_QUERY =
+            "INSERT INTO SECTION_USAGE_DAILY (usage_date, grade_level, section, access_type, access_count) " +
+            "VALUES (?, ?, ?, ?, ?) " +
+            "ON DUPLICATE KEY UPDATE access_count = access_count + VALUES(access_count)";
+    private static final String DECREMENT_BOOK_QUERY =
+            "UPDATE BOOK_USAGE_DAILY SET access_count = access_count - ? " +
+            "WHERE usage_date = ? AND book_id = ? AND access_type = ?";
+    private static final String DECREMENT_SECTION_QUERY =
+            "UPDATE SECTION_USAGE_DAILY SET access_count = access_count - ? " +
+            "WHERE usage_date = ? AND grade_level = ? AND section = ? AND access_type = ?";
+
+    /**
+     * Add a batch of access logs to the daily rollups.
+     * Runs on the caller's connection so it commits together with the access log rows.
+     * Rows are upserted in primary key order (sorted maps), so concurrent batches
+     * lock them in the same order and cannot deadlock each other.
+     * @param connection Connection the access log rows were written on
+     * @param logs Access logs that were written (access date must be set)
+     * @throws SQLException if error occurs
+     */
+    static void incrementRollups(Connection connection, List<AccessLog> logs) throws SQLException {
+        // Grade and section are taken from the student at the time of access
+        Map<Integer, Student> students = readStudents(connection, logs);
+        Map<UsageKey, int[]> bookCounts = new TreeMap<>();
+        Map<SectionKey, int[]> sectionCounts = new TreeMap<>();
+        for (AccessLog log : logs) {
+            LocalDate day = log.getAccessDate().toLocalDateTime().toLocalDate();
+            bookCounts.computeIfAbsent(new UsageKey(day, log.getBookId(), log.getAccessType()), k -> new int[1])[0]++;
+            Student student = students.get(log.getStudentId());
+            if (student != null) {
+                sectionCounts.computeIfAbsent(new SectionKey(day, student.getGradeLevel(), student.getSection(),
+                        log.getAccessType()), k -> new int[1])[0]++;
+            }
+        }
+
+        insertBookCounts(connection, bookCounts);
+        insertSectionCounts(connection, sectionCounts);
+    }
+
+    /**
+     * Take a book's or a student's access logs out of the daily rollups before they are deleted.
+     * Runs on the caller's connection so it commits together with the delete. Section rollups
+     * are matched by each student's current grade and section, as in backfill; days whose logs
+     * were already archived out of ACCESS_LOG keep their counts.
+     * @param connection Connection the access logs are deleted on
+     * @param column "book_id" or "student_id"
+     * @param id Book or student ID
+     * @throws SQLException if error occurs
+     */
+    static void decrementRollups(Connection connection, String column, int id) throws SQLException {
+        Map<UsageKey, int[]> bookCounts = new TreeMap<>();
+        Map<SectionKey, int[]> sectionCounts = new TreeMap<>();
+        String query = "SELECT al.book_id, al.access_type, al.access_date, s.grade_level, s.section " +
+                      "FROM ACCESS_LOG al JOIN STUDENT s ON al.student_id = s.student_id " +
+                      "WHERE al." + column + " = ?";
+        try (PreparedStatement stmt = connection.prepareStatement(query)) {
+            stmt.setInt(1, id);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    addRow(rs, bookCounts, sectionCounts);
+                }
+            }
+        }
+
+        try (PreparedStatement stmt = connection.prepareStatement(DECREMENT_BOOK_QUERY)) {
+            for (Map.Entry<UsageKey, int[]> entry : bookCounts.entrySet()) {
+                UsageKey key = entry.getKey();
+                stmt.setInt(1, entry.getValue()[0]);
+                stmt.setDate(2, Date.valueOf(key.day));
+                stmt.setInt(3, key.id);
+                stmt.setString(4, key.accessType);
+                stmt.addBatch();
+            }
+            stmt.executeBatch();
+        }
+        try (PreparedStatement stmt = connection.prepareStatement(DECREMENT_SECTION_QUERY)) {
+            for (Map.Entry<SectionKey, int[]> entry : sectionCounts.entrySet()) {
+                SectionKey key = entry.getKey();
+                stmt.setInt(1, entry.getValue()[0]);
+                stmt.setDate(2, Date.valueOf(key.day));
+                stmt.setInt(3, key.gradeLevel);
+                stmt.setString(4, key.section);
+                stmt.setString(5, key.accessType);
+                stmt.addBatch();
+            }
+            stmt.executeBatch();
+        }
+    }
+
+    /**
+     * Look up the grade and section of the students in a batch
+     * @return Students by ID, with only grade level and section set
+     */
+    private static Map<Integer, Student> readStudents(Connection connection, List<AccessLog> logs) throws SQLException {
+        Set<Integer> studentIds = new TreeSet<>();
+        for (AccessLog log : logs) {
+            studentIds.add(log.getStudentId());
+        }
+        String query = "SELECT student_id, grade_level, section FROM STUDENT WHERE student_id IN (" +
+                      String.join(", ", Collections.nCopies(studentIds.size(), "?")) + ")";
+
+        Map<Integer, Student> students = new HashMap<>();
+        try (PreparedStatement stmt = connection.prepareStatement(query)) {
+            int index = 1;
+            for (int studentId : studentIds) {
+                stmt.setInt(index++, studentId);
+            }
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    Student student = new Student();
+                    student.setGradeLevel(rs.getInt("grade_level"));
+                    student.setSection(rs.getString("section"));
+                    students.put(rs.getInt("student_id"), student);
+                }
+            }
+        }
+        return students;
+    }
+
+    /**
+     * Count one ACCESS_LOG row (book_id, access_type, access_date, grade_level, section) into both rollups
+     */
+    private static void addRow(ResultSet rs, Map<UsageKey, int[]> bookCounts,
+                               Map<SectionKey, int[]> sectionCounts) throws SQLException {
+        LocalDate day = rs.getTimestamp("access_date").toLocalDateTime().toLocalDate();
+        String accessType = rs.getString("access_type");
+        bookCounts.computeIfAbsent(new UsageKey(day, rs.getInt("book_id"), accessType),
+                k -> new int[1])[0]++;
+        sectionCounts.computeIfAbsent(new SectionKey(day, rs.getInt("grade_level"),
+                rs.getString("section"), accessType), k -> new int[1])[0]++;
+    }
+
+    /**
+     * Recompute the rollups for a range of days from ACCESS_LOG.
+     * Days outside the range are left alone, so rollups for months that were
+     * archived out of ACCESS_LOG survive. Section rollups use each student's
+     * current grade and section.
+     * @param from First day to rebuild, or null for the earliest logged day
+     * @param to Day after the last day to rebuild, or null for tomorrow
+     * @return true if successful, false otherwise
+     */
+    public boolean backfill(LocalDate from, LocalDate to) {
+        try (Connection connection = DatabaseConnection.getInstance().getConnection()) {
+            if (from == null) {
+                from = earliestLoggedDay(connection);
+                if (from == null) {
+                    return true;
+                }
+            }
+            if (to == null) {
+                to = LocalDate.now().plusDays(1);
+            }
+            Timestamp start = Timestamp.valueOf(from.atStartOfDay());
+            Timestamp end = Timestamp.valueOf(to.atStartOfDay());
+
+            connection.setAutoCommit(false);
+            try {
+                // Delete first: writers that log into the range now wait on these row locks,
+                // and the scan below reads a snapshot taken after the delete
+                deleteRange(connection, "BOOK_USAGE_DAILY", from, to);
+                deleteRange(connection, "SECTION_USAGE_DAILY", from, to);
+
+                Map<UsageKey, int[]> bookCounts = new TreeMap<>();
+                Map<SectionKey, int[]> sectionCounts = new TreeMap<>();
+                String query = "SELECT al.book_id, al.access_type, al.access_date, s.grade_level, s.section " +
+                              "FROM ACCESS_LOG al JOIN STUDENT s ON al.student_id = s.student_id " +
+                              "WHERE al.access_date >= ? AND al.access_date < ?";
+                try (PreparedStatement stmt = connection.prepareStatement(query,
+                        ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+                    stmt.setFetchSize(DatabaseConnection.getInstance().getDialect().streamingFetchSize()); // stream, don't buffer
+                    stmt.setTimestamp(1, start);
+                    stmt.setTimestamp(2, end);
+                    try (ResultSet rs = stmt.executeQuery()) {
+                        while (rs.next()) {
+                            addRow(rs, bookCounts, sectionCounts);
+                        }
+                    }
+                }
+
+                insertBookCounts(connection, bookCounts);
+                insertSectionCounts(connection, sectionCounts);
+                connection.commit();
+                // Dashboard totals are read from the rollups
+                DashboardStatsService.getInstance().invalidate();
+                return true;
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            System.err.println("Error backfilling usage rollups: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Get all-time access totals from the rollups
+     * @return Count per access type ("VIEW", "DOWNLOAD"); missing types count 0
+     */
+    public Map<String, Long> getTotalsByType() {
+        Map<String, Long> totals = new HashMap<>();
+        totals.put("VIEW", 0L);
+        totals.put("DOWNLOAD", 0L);
+        String query = "SELECT access_type, SUM(access_count) as total FROM BOOK_USAGE_DAILY GROUP BY access_type";
+
+        try (Connection connection = DatabaseConnection.getInstance().getConnection();
+             Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery(query)) {
+            while (rs.next()) {
+                totals.put(rs.getString("access_type"), rs.getLong("total"));
+            }
+        } catch (SQLException e) {
+            System.err.println("Error getting usage totals: " + e.getMessage());
+        }
+
+        return totals;
+    }
+
+    /**
+     * Get daily access counts for charts
+     * @param from First day (inclusive)
+     * @param to Last day (exclusive)
+     * @param accessType "VIEW" or "DOWNLOAD"
+     * @return Count per day in date order; days without accesses are omitted
+     */
+    public Map<LocalDate, Long> getDailyCounts(LocalDate from, LocalDate to, String accessType) {
+        Map<LocalDate, Long> counts = new LinkedHashMap<>();
+        String query = "SELECT usage_date, SUM(access_count) as total FROM BOOK_USAGE_DAILY " +
+                      "WHERE usage_date >= ? AND usage_date < ? AND access_type = ? " +
+                      "GROUP BY usage_date ORDER BY usage_date";
+
+        try (Connection connection = DatabaseConnection.getInstance().getConnection();
+             PreparedStatement stmt = connection.prepareStatement(query)) {
+            stmt.setDate(1, Date.valueOf(from));
+            stmt.setDate(2, Date.valueOf(to));
+            stmt.setString(3, accessType);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    counts.put(rs.getDate("usage_date").toLocalDate(), rs.getLong("total"));
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Error getting daily usage: " + e.getMessage());
+        }
+
+        return counts;
+    }
+
+    /**
+     * Get per-section view/download totals for a range of days
+     * @param from First day (inclusive)
+     * @param to Last day (exclusive)
+     * @return Usage per grade level and section, ordered by grade then section
+     */
+    public List<SectionUsage> getSectionUsage(LocalDate from, LocalDate to) {
+        List<SectionUsage> usage = new ArrayList<>();
+        String query = "SELECT grade_level, section, " +
+                      "SUM(CASE WHEN access_type = 'VIEW' THEN access_count ELSE 0 END) as view_count, " +
+                      "SUM(CASE WHEN access_type = 'DOWNLOAD' THEN access_count ELSE 0 END) as download_count " +
+                      "FROM SECTION_USAGE_DAILY WHERE usage_date >= ? AND usage_date < ? " +
+                      "GROUP BY grade_level, section ORDER BY grade_level, section";
+
+        try (Connection connection = DatabaseConnection.getInstance().getConnection();
+             PreparedStatement stmt = connection.prepareStatement(query)) {
+            stmt.setDate(1, Date.valueOf(from));
+            stmt.setDate(2, Date.valueOf(to));
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    usage.add(new SectionUsage(rs.getInt("grade_level"), rs.getString("section"),
+                            rs.getLong("view_count"), rs.getLong("download_count")));
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Error getting section usage: " + e.getMessage());
+        }
+
+        return usage;
+    }
+
+    private LocalDate earliestLoggedDay(Connection connection) throws SQLException {
+        try (Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT MIN(access_date) as first_access FROM ACCESS_LOG")) {
+            if (rs.next() && rs.getTimestamp("first_access") != null) {
+                return rs.getTimestamp("first_access").toLocalDateTime().toLocalDate();
+            }
+        }
+        return null;
+    }
+
+    private void deleteRange(Connection connection, String table, LocalDate from, LocalDate to) throws SQLException {
+        try (PreparedStatement stmt = connection.prepareStatement(
+                "DELETE FROM " + table + " WHERE usage_date >= ? AND usage_date < ?")) {
+            stmt.setDate(1, Date.valueOf(from));
+            stmt.setDate(2, Date.valueOf(to));
+            stmt.executeUpdate();
+        }
+    }
+
+    private static void insertBookCounts(Connection connection, Map<UsageKey, int[]> counts) throws SQLException {
+        try (PreparedStatement stmt = connection.prepareStatement(INCREMENT_BOOK_QUERY)) {
+            int pending = 0;
+            for (Map.Entry<UsageKey, int[]> entry : counts.entrySet()) {
+                UsageKey key = entry.getKey();
+                stmt.setDate(1, Date.valueOf(key.day));
+                stmt.setInt(2, key.id);
+                stmt.setString(3, key.accessType);
+                stmt.setInt(4, entry.getValue()[0]);
+                stmt.addBatch();
+                if (++pending % 1000 == 0) {
+                    stmt.executeBatch();
+                }
+            }
+            stmt.executeBatch();
+        }
+    }
+
+    private static void insertSectionCounts(Connection connection, Map<SectionKey, int[]> counts) throws SQLException {
+        try (PreparedStatement stmt = connection.prepareStatement(INCREMENT_SECTION_QUERY)) {
+            int pending = 0;
+            for (Map.Entry<SectionKey, int[]> entry : counts.entrySet()) {
+                SectionKey key = entry.getKey();
+                stmt.setDate(1, Date.valueOf(key.day));
+                stmt.setInt(2, key.gradeLevel);
+                stmt.setString(3, key.section);
+                stmt.setString(4, key.accessType);
+                stmt.setInt(5, entry.getValue()[0]);
+                stmt.addBatch();
+                if (++pending % 1000 == 0) {
+                    stmt.executeBatch();
+                }
+            }
+            stmt.executeBatch();
+        }
+    }
+
+    /**
+     * Rebuild the rollups from ACCESS_LOG from the command line.
+     * Usage: UsageRollupDAO [from-date [to-date]] with ISO dates (to is exclusive)
+     */
+    public static void main(String[] args) {
+        LocalDate from = args.length > 0 ? LocalDate.parse(args[0]) : null;
+        LocalDate to = args.length > 1 ? LocalDate.parse(args[1]) : null;
+        boolean success = new UsageRollupDAO().backfill(from, to);
+        System.out.println(success ? "Usage rollups rebuilt" : "Usage rollup backfill failed");
+        DatabaseConnection.getInstance().closeConnection();
+        if (!success) {
+            System.exit(1);
+        }
+    }
+
+    /**
+     * (day, book ID, access type), ordered like the BOOK_USAGE_DAILY primary key
+     */
+    private static final class UsageKey implements Comparable<UsageKey> {
+        private final LocalDate day;
+        private final int id;
+        private final String accessType;
+
+        private UsageKey(LocalDate day, int id, String accessType) {
+            this.day = day;
+            this.id = id;
+            this.accessType = accessType;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof UsageKey)) return false;
+            UsageKey other = (UsageKey) o;
+            return id == other.id && day.equals(other.day) && accessType.equals(other.accessType);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(day, id, accessType);
+        }
+
+        @Override
+        public int compareTo(UsageKey other) {
+            int byDay = day.compareTo(other.day);
+            if (byDay != 0) return byDay;
+            if (id != other.id) return Integer.compare(id, other.id);
+            return accessType.compareTo(other.accessType);
+        }
+    }
+
+    /**
+     * (day, grade level, section, access type), ordered like the SECTION_USAGE_DAILY primary key
+     */
+    private static final class SectionKey implements Comparable<SectionKey> {
+        private final LocalDate day;
+        private final int gradeLevel;
+        private final String section;
+        private final String accessType;
+
+        private SectionKey(LocalDate day, int gradeLevel, String section, String accessType) {
+            this.day = day;
+            this.gradeLevel = gradeLevel;
+            this.section = section;
+            this.accessType = accessType;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof SectionKey)) return false;
+            SectionKey other = (SectionKey) o;
+            return gradeLevel == other.gradeLevel && day.equals(other.day)
+                    && section.equals(other.section) && accessType.equals(other.accessType);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(day, gradeLevel, section, accessType);
+        }
+
+        @Override
+        public int compareTo(SectionKey other) {
+            int byDay = day.compareTo(other.day);
+            if (byDay != 0) return byDay;
+            if (gradeLevel != other.gradeLevel) return Integer.compare(gradeLevel, other.gradeLevel);
+            // Sections differing only in case are the same row under a case-insensitive collation
+            int bySection = String.CASE_INSENSITIVE_ORDER.compare(section, other.section);
+            if (bySection != 0) return bySection;
+            bySection = section.compareTo(other.section);
+            if (bySection != 0) return bySection;
+            return accessType.compareTo(other.accessType);
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package com.elibrary.database.memory;
+
+import com.elibrary.database.AccessLogRepository;
+import com.elibrary.models.AccessLog;
+import com.elibrary.models.Book;
+import com.elibrary.models.Page;
+import com.elibrary.models.Student;
+
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+
+/**
+ * In-memory AccessLog repository (no database)
+ * Logs are kept newest first overall and per book and student, and each write
+ * bumps the book's view or download count as BOOK_STATS does.
+ */
+public class InMemoryAccessLogRepository implements AccessLogRepository {
+    private static final int RECENT_LOGS = 100;
+
+    private final InMemoryStore store;
+
+    public InMemoryAccessLogRepository(InMemoryStore store) {
+        this.store = store;
+    }
+
+    @Override
+    public boolean logAccess(int studentId, int bookId, String accessType) {
+        AccessLog log = new AccessLog(studentId, bookId, accessType);
+        log.setAccessDate(new Timestamp(System.currentTimeMillis()));
+        return logAccessBatch(Collections.singletonList(log));
+    }
+
+    @Override
+    public boolean logAccessBatch(List<AccessLog> logs) {
+        try {
+            writeAccessBatch(logs);
+            return true;
+        } catch (SQLException e) {
+            System.err.println("Error logging access batch: " + e.getMessage());
+            return false;
+        }
+    }
+
+    @Override
+    public void writeAccessBatch(List<AccessLog> logs) throws SQLException {
+        synchronized (store) {
+            // All or nothing, like the DAO's transaction; a missing row fails like the foreign key
+            for (AccessLog log : logs) {
+                if (!store.students.containsKey(log.getStudentId()) || !store.books.containsKey(log.getBookId())) {
+                    throw new SQLException("unknown student " + log.getStudentId() + " or book " + log.getBookId(),
+                            "23000");
+                }
+            }
+            for (AccessLog log : logs) {
+                Student student = store.students.get(log.getStudentId());
+                Book book = store.books.get(log.getBookId());
+
+                AccessLog saved = new AccessLog(log.getStudentId(), log.getBookId(), log.getAccessType());
+                saved.setAccessId(store.nextAccessId++);
+                saved.setAccessDate(log.getAccessDate() != null ? log.getAccessDate() : new Timestamp(System.currentTimeMillis()));
+                saved.setStudentName(student.getFirstName() + " " + student.getLastName());
+                saved.setBookTitle(book.getTitle());
+
+                store.logs.add(saved);
+                store.logsByBook.computeIfAbsent(saved.getBookId(), id -> new TreeSet<>(InMemoryStore.LOG_ORDER)).add(saved);
+                store.logsByStudent.computeIfAbsent(saved.getStudentId(), id -> new TreeSet<>(InMemoryStore.LOG_ORDER)).add(saved);
+
+                if ("VIEW".equals(saved.getAccessType())) {
+                    book.setViewCount(book.getViewCount() + 1);
+                } else if ("DOWNLOAD".equals(saved.getAccessType())) {
+                    book.setDownloadCount(book.getDownloadCount() + 1);
+                }
+            }
+        }
+    }
+
+    @Override
+    public List<AccessLog> getAccessLogsByBook(int bookId) {
+        return getAccessLogsByBook(bookId, null, null);
+    }
+
+    @Override
+    public List<AccessLog> getAccessLogsByBook(int bookId, Timestamp from, Timestamp to) {
+        synchronized (store) {
+            return inRange(store.logsByBook.get(bookId), from, to);
+        }
+    }
+
+    @Override
+    public List<AccessLog> getAccessLogsByStudent(int studentId) {
+        return getAccessLogsByStudent(studentId, null, null);
+    }
+
+    @Override
+    public List<AccessLog> getAccessLogsByStudent(int studentId, Timestamp from, Timestamp to) {
+        synchronized (store) {
+            return inRange(store.logsByStudent.get(studentId), from, to);
+        }
+    }
+
+    @Override
+    public int getViewCount(int bookId) {
+        synchronized (store) {
+            Book book = store.books.get(bookId);
+            return book != null ? book.getViewCount() : 0;
+        }
+    }
+
+    @Override
+    public int getDownloadCount(int bookId) {
+        synchronized (store) {
+            Book book = store.books.get(bookId);
+            return book != null ? book.getDownloadCount() : 0;
+        }
+    }
+
+    @Override
+    public List<AccessLog> getAllAccessLogs() {
+        return getAccessLogsPage(null, RECENT_LOGS).getItems();
+    }
+
+    @Override
+    public Page<AccessLog> getAccessLogsPage(AccessLog after, int pageSize) {
+        return getAccessLogsPage(after, pageSize, null, null);
+    }
+
+    @Override
+    public Page<AccessLog> getAccessLogsPage(AccessLog after, int pageSize, Timestamp from, Timestamp to) {
+        List<AccessLog> logs = new ArrayList<>();
+        synchronized (store) {
+            NavigableSet<AccessLog> candidates = after != null ? store.logs.tailSet(after, false) : store.logs;
+            for (AccessLog log : candidates) {
+                if (to != null && !log.getAccessDate().before(to)) {
+                    continue;
+                }
+                if (from != null && log.getAccessDate().before(from)) {
+                    break;
+                }
+                if (logs.size() == pageSize) {
+                    return new Page<>(logs, true);
+                }
+                logs.add(log);
+            }
+        }
+        return new Page<>(logs, false);
+    }
+
+    @Override
+    public long estimateAccessLogCount() {
+        synchronized (store) {
+            return store.logs.size();
+        }
+    }
+
+    /**
+     * Logs of a newest-first set within [from, to)
+     */
+    private static List<AccessLog> inRange(NavigableSet<AccessLog> logs, Timestamp from, Timestamp to) {
+        List<AccessLog> result = new ArrayList<>();
+        if (logs == null) {
+            return result;
+        }
+        for (AccessLog log : logs) {
+            if (to != null && !log.getAccessDate().before(to)) {
+                continue;
+            }
+            if (from != null && log.getAccessDate().before(from)) {
+                break;
+            }
+            result.add(log);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,66 @@
+package com.elibrary.database.memory;
+
+import com.elibrary.database.AdminRepository;
+import com.elibrary.models.Admin;
+import com.elibrary.utils.PasswordUtil;
+
+import java.sql.Timestamp;
+
+/**
+ * In-memory Admin repository (no database)
+ */
+public class InMemoryAdminRepository implements AdminRepository {
+    private final InMemoryStore store;
+
+    public InMemoryAdminRepository(InMemoryStore store) {
+        this.store = store;
+    }
+
+    @Override
+    public Admin authenticateAdmin(String username, String password) {
+        synchronized (store) {
+            for (Admin admin : store.admins.values()) {
+                if (admin.getUsername().equals(username)) {
+                    String storedPassword = store.adminPasswords.get(admin.getAdminId());
+                    return PasswordUtil.verifyPassword(password, storedPassword) ? admin : null;
+                }
+            }
+            return null;
+        }
+    }
+
+    @Override
+    public Admin getAdminById(int adminId) {
+        synchronized (store) {
+            return store.admins.get(adminId);
+        }
+    }
+
+    @Override
+    public boolean addAdmin(Admin admin, String plainPassword) {
+        synchronized (store) {
+            for (Admin existing : store.admins.values()) {
+                if (existing.getUsername().equals(admin.getUsername())) {
+                    System.err.println("Error adding admin: duplicate username " + admin.getUsername());
+                    return false;
+                }
+            }
+            Admin saved = new Admin(store.nextAdminId++, admin.getFirstName(), admin.getLastName(), admin.getUsername());
+            saved.setCreatedAt(new Timestamp(System.currentTimeMillis()));
+            store.admins.put(saved.getAdminId(), saved);
+            store.adminPasswords.put(saved.getAdminId(), PasswordUtil.hashPassword(plainPassword));
+            return true;
+        }
+    }
+
+    @Override
+    public boolean updateAdminPassword(int adminId, String newPassword) {
+        synchronized (store) {
+            if (!store.admins.containsKey(adminId)) {
+                return false;
+            }
+            store.adminPasswords.put(adminId, PasswordUtil.hashPassword(newPassword));
+            return true;
+        }
+    }
+}
@@ -0,0 +1,196 @@
+package com.elibrary.database.memory;
+
+import com.elibrary.database.BookRepository;
+import com.elibrary.database.DashboardStatsService;
+import com.elibrary.models.Book;
+import com.elibrary.models.Category;
+import com.elibrary.models.Page;
+import com.elibrary.utils.CatalogSearchIndex;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * In-memory Book repository (no database)
+ * Books are kept in (title, book_id) order, so pages are tail-map seeks.
+ * Returned books are shared with the store, as with BookDAO's catalog cache;
+ * copy one before changing it and save the copy with updateBook.
+ */
+public class InMemoryBookRepository implements BookRepository {
+    private final InMemoryStore store;
+
+    public InMemoryBookRepository(InMemoryStore store) {
+        this.store = store;
+    }
+
+    @Override
+    public List<Book> getAllBooks() {
+        synchronized (store) {
+            return new ArrayList<>(store.booksByTitle.values());
+        }
+    }
+
+    @Override
+    public Book getBookById(int bookId) {
+        synchronized (store) {
+            return store.books.get(bookId);
+        }
+    }
+
+    @Override
+    public List<Book> searchBooks(String searchTerm) {
+        return searchBooksPage(searchTerm, null, Integer.MAX_VALUE).getItems();
+    }
+
+    @Override
+    public Page<Book> getBooksPage(Book after, int pageSize) {
+        return searchBooksPage(null, after, pageSize);
+    }
+
+    @Override
+    public Page<Book> searchBooksPage(String searchTerm, Book after, int pageSize) {
+        String needle = searchTerm != null ? searchTerm.toLowerCase(Locale.ROOT) : null;
+        List<Book> books = new ArrayList<>();
+        synchronized (store) {
+            Iterable<Book> candidates = after != null
+                    ? store.booksByTitle.tailMap(new InMemoryStore.BookKey(after.getTitle(), after.getBookId()), false).values()
+                    : store.booksByTitle.values();
+            for (Book book : candidates) {
+                if (needle != null && !matches(book, needle)) {
+                    continue;
+                }
+                if (books.size() == pageSize) {
+                    return new Page<>(books, true);
+                }
+                books.add(book);
+            }
+        }
+        return new Page<>(books, false);
+    }
+
+    /**
+     * Substring search in title order, like BookDAO on a backend without full-text search
+     */
+    @Override
+    public List<Book> searchBooksRanked(String searchTerm, int limit) {
+        return searchBooksPage(searchTerm, null, limit).getItems();
+    }
+
+    @Override
+    public long estimateBookCount() {
+        synchronized (store) {
+            return store.books.size();
+        }
+    }
+
+    @Override
+    public List<Book> getBooksByCategory(int categoryId) {
+        List<Book> books = new ArrayList<>();
+        synchronized (store) {
+            for (Book book : store.booksByTitle.values()) {
+                if (book.getCategoryId() == categoryId) {
+                    books.add(book);
+                }
+            }
+        }
+        return books;
+    }
+
+    @Override
+    public boolean addBook(Book book) {
+        List<Book> books = new ArrayList<>(1);
+        books.add(book);
+        return addBooks(books);
+    }
+
+    @Override
+    public boolean addBooks(List<Book> books) {
+        List<Book> saved = new ArrayList<>(books.size());
+        synchronized (store) {
+            // Check every book first so a bad one adds none
+            for (Book book : books) {
+                if (!store.categories.containsKey(book.getCategoryId())) {
+                    System.err.println("Error adding books: unknown category " + book.getCategoryId());
+                    return false;
+                }
+            }
+            Timestamp now = new Timestamp(System.currentTimeMillis());
+            for (Book book : books) {
+                book.setBookId(store.nextBookId++);
+                Book copy = copyOf(book);
+                copy.setCreatedAt(now);
+                copy.setUpdatedAt(now);
+                store.putBook(copy);
+                saved.add(copy);
+            }
+        }
+
+        for (Book book : saved) {
+            CatalogSearchIndex.getInstance().put(book);
+        }
+        DashboardStatsService.getInstance().invalidate();
+        return true;
+    }
+
+    @Override
+    public boolean updateBook(Book book) {
+        Book copy;
+        synchronized (store) {
+            Book existing = store.books.get(book.getBookId());
+            if (existing == null) {
+                return false;
+            }
+            if (!store.categories.containsKey(book.getCategoryId())) {
+                System.err.println("Error updating book: unknown category " + book.getCategoryId());
+                return false;
+            }
+            copy = copyOf(book);
+            copy.setCreatedAt(existing.getCreatedAt());
+            copy.setUpdatedAt(new Timestamp(System.currentTimeMillis()));
+            copy.setViewCount(existing.getViewCount());
+            copy.setDownloadCount(existing.getDownloadCount());
+            // Replaced by ID: the caller may have changed the stored book's title already
+            store.putBook(copy);
+        }
+
+        CatalogSearchIndex.getInstance().put(copy);
+        DashboardStatsService.getInstance().invalidate();
+        return true;
+    }
+
+    @Override
+    public boolean deleteBook(int bookId) {
+        synchronized (store) {
+            if (store.removeBook(bookId) == null) {
+                return false;
+            }
+            store.removeLogs(store.logsByBook, bookId);
+        }
+
+        CatalogSearchIndex.getInstance().remove(bookId);
+        DashboardStatsService.getInstance().invalidate();
+        return true;
+    }
+
+    /**
+     * Copy the stored columns of a book and look up its category name
+     */
+    private Book copyOf(Book book) {
+        Book copy = new Book(book.getBookId(), book.getCategoryId(), book.getTitle(), book.getAuthor(),
+                book.getYearPublished(), book.getDescription(), book.getFilePath(), book.getCoverImagePath());
+        Category category = store.categories.get(book.getCategoryId());
+        copy.setCategoryName(category != null ? category.getCategoryName() : null);
+        return copy;
+    }
+
+    private static boolean matches(Book book, String needle) {
+        return contains(book.getTitle(), needle) || contains(book.getAuthor(), needle)
+                || contains(book.getDescription(), needle);
+    }
+
+    private static boolean contains(String value, String needle) {
+        return value != null && value.toLowerCase(Locale.ROOT).contains(needle);
+    }
+}
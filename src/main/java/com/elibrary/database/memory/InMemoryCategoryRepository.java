@@ -0,0 +1,98 @@
+package com.elibrary.database.memory;
+
+import com.elibrary.database.CategoryRepository;
+import com.elibrary.models.Book;
+import com.elibrary.models.Category;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * In-memory Category repository (no database)
+ */
+public class InMemoryCategoryRepository implements CategoryRepository {
+    private final InMemoryStore store;
+
+    public InMemoryCategoryRepository(InMemoryStore store) {
+        this.store = store;
+    }
+
+    @Override
+    public List<Category> getAllCategories() {
+        synchronized (store) {
+            List<Category> categories = new ArrayList<>(store.categories.values());
+            categories.sort((a, b) -> a.getCategoryName().compareToIgnoreCase(b.getCategoryName()));
+            return categories;
+        }
+    }
+
+    @Override
+    public Category getCategoryById(int categoryId) {
+        synchronized (store) {
+            return store.categories.get(categoryId);
+        }
+    }
+
+    @Override
+    public boolean addCategory(Category category) {
+        synchronized (store) {
+            if (isNameTaken(category.getCategoryName(), 0)) {
+                System.err.println("Error adding category: duplicate name " + category.getCategoryName());
+                return false;
+            }
+            Category saved = new Category(store.nextCategoryId++, category.getCategoryName());
+            saved.setCreatedAt(new Timestamp(System.currentTimeMillis()));
+            store.categories.put(saved.getCategoryId(), saved);
+            category.setCategoryId(saved.getCategoryId());
+            return true;
+        }
+    }
+
+    @Override
+    public boolean updateCategory(Category category) {
+        synchronized (store) {
+            Category existing = store.categories.get(category.getCategoryId());
+            if (existing == null) {
+                return false;
+            }
+            if (isNameTaken(category.getCategoryName(), category.getCategoryId())) {
+                System.err.println("Error updating category: duplicate name " + category.getCategoryName());
+                return false;
+            }
+            Category saved = new Category(existing.getCategoryId(), category.getCategoryName());
+            saved.setCreatedAt(existing.getCreatedAt());
+            store.categories.put(saved.getCategoryId(), saved);
+
+            // Books carry the category name
+            for (Book book : store.books.values()) {
+                if (book.getCategoryId() == saved.getCategoryId()) {
+                    book.setCategoryName(saved.getCategoryName());
+                }
+            }
+            return true;
+        }
+    }
+
+    @Override
+    public boolean deleteCategory(int categoryId) {
+        synchronized (store) {
+            for (Book book : store.books.values()) {
+                if (book.getCategoryId() == categoryId) {
+                    System.err.println("Error deleting category: it still has books");
+                    return false;
+                }
+            }
+            return store.categories.remove(categoryId) != null;
+        }
+    }
+
+    private boolean isNameTaken(String name, int exceptCategoryId) {
+        for (Category category : store.categories.values()) {
+            if (category.getCategoryId() != exceptCategoryId && category.getCategoryName().equalsIgnoreCase(name)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
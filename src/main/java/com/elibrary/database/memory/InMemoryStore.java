@@ -0,0 +1,114 @@
+package com.elibrary.database.memory;
+
+import com.elibrary.models.AccessLog;
+import com.elibrary.models.Admin;
+import com.elibrary.models.Book;
+import com.elibrary.models.Category;
+import com.elibrary.models.Student;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NavigableSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Shared tables behind the in-memory repositories
+ * One store plays the role of the database: the repositories built on it see
+ * each other's writes and keep the same constraints (unique names and LRNs,
+ * a category in use cannot be deleted, logs go with their book or student).
+ * Every access synchronizes on the store.
+ */
+public class InMemoryStore {
+    // Same orders as the DAO queries: books by (title, book_id), logs newest first by (access_date, access_id)
+    static final Comparator<AccessLog> LOG_ORDER =
+            Comparator.comparing(AccessLog::getAccessDate).thenComparingInt(AccessLog::getAccessId).reversed();
+
+    // Stored books are handed out, so the title order is keyed by a snapshot taken when storing
+    final Map<Integer, Book> books = new HashMap<>();
+    final Map<Integer, BookKey> bookKeys = new HashMap<>();
+    final NavigableMap<BookKey, Book> booksByTitle = new TreeMap<>();
+
+    final Map<Integer, Category> categories = new HashMap<>();
+
+    final Map<Integer, Student> students = new HashMap<>();
+    final Map<String, Student> studentsByLrn = new HashMap<>();
+
+    final Map<Integer, Admin> admins = new HashMap<>();
+    final Map<Integer, String> adminPasswords = new HashMap<>();
+
+    final NavigableSet<AccessLog> logs = new TreeSet<>(LOG_ORDER);
+    final Map<Integer, NavigableSet<AccessLog>> logsByBook = new HashMap<>();
+    final Map<Integer, NavigableSet<AccessLog>> logsByStudent = new HashMap<>();
+
+    int nextBookId = 1;
+    int nextCategoryId = 1;
+    int nextStudentId = 1;
+    int nextAdminId = 1;
+    int nextAccessId = 1;
+
+    /**
+     * Store a book, replacing the stored one with the same ID
+     */
+    void putBook(Book book) {
+        removeBook(book.getBookId());
+        BookKey key = new BookKey(book.getTitle(), book.getBookId());
+        books.put(book.getBookId(), book);
+        bookKeys.put(book.getBookId(), key);
+        booksByTitle.put(key, book);
+    }
+
+    /**
+     * Remove a stored book by ID, whatever its title has been changed to since
+     * @return Removed book, or null if there was none
+     */
+    Book removeBook(int bookId) {
+        BookKey key = bookKeys.remove(bookId);
+        if (key != null) {
+            booksByTitle.remove(key);
+        }
+        return books.remove(bookId);
+    }
+
+    /**
+     * Remove the access logs of one book or student (the foreign key cascade)
+     * @param index logsByBook or logsByStudent
+     * @param id Book or student ID
+     */
+    void removeLogs(Map<Integer, NavigableSet<AccessLog>> index, int id) {
+        NavigableSet<AccessLog> removed = index.remove(id);
+        if (removed == null) {
+            return;
+        }
+        for (AccessLog log : removed) {
+            logs.remove(log);
+            NavigableSet<AccessLog> other = index == logsByBook
+                    ? logsByStudent.get(log.getStudentId())
+                    : logsByBook.get(log.getBookId());
+            if (other != null) {
+                other.remove(log);
+            }
+        }
+    }
+
+    /**
+     * Position of a book in title order: its title and ID when it was stored
+     */
+    static final class BookKey implements Comparable<BookKey> {
+        private final String title;
+        private final int bookId;
+
+        BookKey(String title, int bookId) {
+            this.title = title;
+            this.bookId = bookId;
+        }
+
+        @Override
+        public int compareTo(BookKey other) {
+            int cmp = title.compareTo(other.title);
+            return cmp != 0 ? cmp : Integer.compare(bookId, other.bookId);
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.elibrary.database.memory;
+
+import com.elibrary.database.DashboardStatsService;
+import com.elibrary.database.StudentRepository;
+import com.elibrary.models.Student;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * In-memory Student repository (no database)
+ */
+public class InMemoryStudentRepository implements StudentRepository {
+    private final InMemoryStore store;
+
+    public InMemoryStudentRepository(InMemoryStore store) {
+        this.store = store;
+    }
+
+    @Override
+    public Student authenticateStudent(String lrn) {
+        synchronized (store) {
+            return store.studentsByLrn.get(lrn);
+        }
+    }
+
+    @Override
+    public Student getStudentById(int studentId) {
+        synchronized (store) {
+            return store.students.get(studentId);
+        }
+    }
+
+    @Override
+    public List<Student> getAllStudents() {
+        synchronized (store) {
+            // Same order as StudentDAO: last name, then first name
+            List<Student> students = new ArrayList<>(store.students.values());
+            students.sort(Comparator.comparing(Student::getLastName).thenComparing(Student::getFirstName));
+            return students;
+        }
+    }
+
+    @Override
+    public boolean addStudent(Student student) {
+        synchronized (store) {
+            if (store.studentsByLrn.containsKey(student.getLrn())) {
+                System.err.println("Error adding student: duplicate LRN " + student.getLrn());
+                return false;
+            }
+            Student saved = copyOf(student, store.nextStudentId++);
+            saved.setCreatedAt(new Timestamp(System.currentTimeMillis()));
+            store.students.put(saved.getStudentId(), saved);
+            store.studentsByLrn.put(saved.getLrn(), saved);
+            student.setStudentId(saved.getStudentId());
+        }
+        DashboardStatsService.getInstance().invalidate();
+        return true;
+    }
+
+    @Override
+    public int upsertStudents(List<Student> students) {
+        synchronized (store) {
+            int inserted = 0;
+            for (Student student : students) {
+                Student existing = store.studentsByLrn.get(student.getLrn());
+                if (existing == null) {
+                    addStudent(student);
+                    inserted++;
+                } else {
+                    student.setStudentId(existing.getStudentId());
+                    updateStudent(student);
+                }
+            }
+            return inserted;
+        }
+    }
+
+    @Override
+    public boolean updateStudent(Student student) {
+        synchronized (store) {
+            Student existing = store.students.get(student.getStudentId());
+            if (existing == null) {
+                return false;
+            }
+            // The LRN is not changed by an update
+            Student saved = copyOf(student, existing.getStudentId());
+            saved.setLrn(existing.getLrn());
+            saved.setCreatedAt(existing.getCreatedAt());
+            store.students.put(saved.getStudentId(), saved);
+            store.studentsByLrn.put(saved.getLrn(), saved);
+            return true;
+        }
+    }
+
+    @Override
+    public boolean deleteStudent(int studentId) {
+        synchronized (store) {
+            Student removed = store.students.remove(studentId);
+            if (removed == null) {
+                return false;
+            }
+            store.studentsByLrn.remove(removed.getLrn());
+            store.removeLogs(store.logsByStudent, studentId);
+        }
+        DashboardStatsService.getInstance().invalidate();
+        return true;
+    }
+
+    private static Student copyOf(Student student, int studentId) {
+        return new Student(studentId, student.getLrn(), student.getFirstName(), student.getLastName(),
+                student.getGradeLevel(), student.getSection());
+    }
+}
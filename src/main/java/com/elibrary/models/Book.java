@@ -37,6 +37,19 @@ public class Book {
         this.coverImagePath = coverImagePath;
     }
     
+    /**
+     * Copy constructor, including the display fields
+     */
+    public Book(Book other) {
+        this(other.bookId, other.categoryId, other.title, other.author,
+             other.yearPublished, other.description, other.filePath, other.coverImagePath);
+        this.createdAt = other.createdAt;
+        this.updatedAt = other.updatedAt;
+        this.categoryName = other.categoryName;
+        this.viewCount = other.viewCount;
+        this.downloadCount = other.downloadCount;
+    }
+    
     // Getters and Setters
     public int getBookId() {
         return bookId;
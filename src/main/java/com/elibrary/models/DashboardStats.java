@@ -0,0 +1,52 @@
+package com.elibrary.models;
+
+/**
+ * DashboardStats model class holding one snapshot of the admin dashboard figures
+ */
+public class DashboardStats {
+    private final int totalBooks;
+    private final int totalStudents;
+    private final long totalViews;
+    private final long totalDownloads;
+    private final long loadedAtMillis;
+    
+    // Constructors
+    public DashboardStats(int totalBooks, int totalStudents, long totalViews, long totalDownloads, long loadedAtMillis) {
+        this.totalBooks = totalBooks;
+        this.totalStudents = totalStudents;
+        this.totalViews = totalViews;
+        this.totalDownloads = totalDownloads;
+        this.loadedAtMillis = loadedAtMillis;
+    }
+    
+    // Getters
+    public int getTotalBooks() {
+        return totalBooks;
+    }
+    
+    public int getTotalStudents() {
+        return totalStudents;
+    }
+    
+    public long getTotalViews() {
+        return totalViews;
+    }
+    
+    public long getTotalDownloads() {
+        return totalDownloads;
+    }
+    
+    /**
+     * Get when this snapshot was read from the database
+     * @return System.currentTimeMillis() at load time
+     */
+    public long getLoadedAtMillis() {
+        return loadedAtMillis;
+    }
+    
+    @Override
+    public String toString() {
+        return String.format("books=%d, students=%d, views=%d, downloads=%d",
+                totalBooks, totalStudents, totalViews, totalDownloads);
+    }
+}
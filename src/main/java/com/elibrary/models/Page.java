@@ -0,0 +1,39 @@
+package com.elibrary.models;
+
+import java.util.List;
+
+/**
+ * Page model class holding one page of a keyset-paginated query
+ * The last item is the cursor for requesting the next page.
+ */
+public class Page<T> {
+    private final List<T> items;
+    private final boolean hasMore;
+    
+    // Constructors
+    public Page(List<T> items, boolean hasMore) {
+        this.items = items;
+        this.hasMore = hasMore;
+    }
+    
+    // Getters
+    public List<T> getItems() {
+        return items;
+    }
+    
+    /**
+     * Check if more rows follow this page
+     * @return true if another page is available
+     */
+    public boolean hasMore() {
+        return hasMore;
+    }
+    
+    /**
+     * Get the cursor for the next page
+     * @return Last item on this page, or null if the page is empty
+     */
+    public T getLast() {
+        return items.isEmpty() ? null : items.get(items.size() - 1);
+    }
+}
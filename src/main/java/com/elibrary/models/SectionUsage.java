@@ -0,0 +1,41 @@
+package com.elibrary.models;
+
+/**
+ * SectionUsage model class holding view/download totals for one grade level and section
+ */
+public class SectionUsage {
+    private final int gradeLevel;
+    private final String section;
+    private final long viewCount;
+    private final long downloadCount;
+
+    // Constructors
+    public SectionUsage(int gradeLevel, String section, long viewCount, long downloadCount) {
+        this.gradeLevel = gradeLevel;
+        this.section = section;
+        this.viewCount = viewCount;
+        this.downloadCount = downloadCount;
+    }
+
+    // Getters
+    public int getGradeLevel() {
+        return gradeLevel;
+    }
+
+    public String getSection() {
+        return section;
+    }
+
+    public long getViewCount() {
+        return viewCount;
+    }
+
+    public long getDownloadCount() {
+        return downloadCount;
+    }
+
+    @Override
+    public String toString() {
+        return "Grade " + gradeLevel + " - " + section;
+    }
+}
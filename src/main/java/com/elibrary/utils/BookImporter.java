@@ -0,0 +1,649 @@
+package com.elibrary.utils;
+
+import com.elibrary.database.BookRepository;
+import com.elibrary.database.CategoryRepository;
+import com.elibrary.database.DatabaseConnection;
+import com.elibrary.database.ServiceRegistry;
+import com.elibrary.models.Book;
+import com.elibrary.models.Category;
+import org.apache.pdfbox.io.MemoryUsageSetting;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDDocumentInformation;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Bulk import of PDF books from a folder or a CSV manifest.
+ * PDFs are validated and copied into the library by a pool of worker threads;
+ * title, author and year are read from the PDF metadata when the manifest does
+ * not give them. Books are inserted in JDBC batches, one transaction per batch.
+ *
+ * Every outcome is appended to a report under library/imports as soon as its
+ * batch commits. Running the same import again skips files the report lists as
+ * imported, so an interrupted import can simply be restarted.
+ *
+ * Manifest columns (header row required, any order): file, title, author,
+ * year, category, description. Only file is required; relative paths are
+ * resolved against the manifest's folder. Unknown categories are created.
+ */
+public class BookImporter {
+    // Import settings, overridable with -Delibrary.import.* system properties
+    private static final int THREADS = Integer.getInteger("elibrary.import.threads",
+            Math.max(2, Runtime.getRuntime().availableProcessors()));
+    private static final int BATCH_SIZE = Integer.getInteger("elibrary.import.batchSize", 200);
+
+    private static final Path BOOKS_DIR = Paths.get("library", "books");
+    private static final Path REPORTS_DIR = Paths.get("library", "imports");
+    private static final String UNKNOWN_AUTHOR = "Unknown";
+
+    // Column sizes in the BOOK table; longer metadata is cut so one book cannot fail its batch
+    private static final int MAX_TITLE_LENGTH = 255;
+    private static final int MAX_AUTHOR_LENGTH = 255;
+    // TEXT holds 65535 bytes, up to 4 bytes per character
+    private static final int MAX_DESCRIPTION_LENGTH = 16383;
+    // Keeps library/books/<hash>_<name> well inside file_path's 500 characters
+    private static final int MAX_FILE_NAME_LENGTH = 200;
+
+    // One lock per content hash, so workers storing the same PDF under different names take turns
+    private static final ConcurrentHashMap<String, Object> HASH_LOCKS = new ConcurrentHashMap<>();
+
+    /**
+     * Receives progress while an import runs
+     */
+    public interface ProgressListener {
+        void onProgress(int processed, int total, int imported, int failed);
+    }
+
+    private final BookRepository bookRepository;
+    private final CategoryRepository categoryRepository;
+
+    public BookImporter(BookRepository bookRepository, CategoryRepository categoryRepository) {
+        this.bookRepository = bookRepository;
+        this.categoryRepository = categoryRepository;
+    }
+
+    /**
+     * Import every PDF in a folder (including subfolders) or every row of a CSV manifest
+     * @param source Folder or .csv manifest
+     * @param defaultCategoryId Category for books without one in the manifest
+     * @param listener Progress listener, or null
+     * @param cancelled Checked between files; books already validated are still saved before returning
+     * @return Import summary
+     * @throws IOException if the source or the report cannot be read or written
+     */
+    public Result importBooks(Path source, int defaultCategoryId, ProgressListener listener,
+                              BooleanSupplier cancelled) throws IOException {
+        Path reportFile = reportFileFor(source);
+        Result result = new Result(reportFile);
+        List<Entry> entries = Files.isDirectory(source) ? scanFolder(source) : readManifest(source, result);
+
+        // Resume: skip files an earlier run already imported
+        Set<String> done = readImportedSources(reportFile);
+        Set<String> libraryFiles = bookRepository.getAllBooks().stream()
+                .map(Book::getFilePath)
+                .collect(Collectors.toCollection(HashSet::new));
+        List<Entry> pending = new ArrayList<>();
+        for (Entry entry : entries) {
+            if (done.contains(entry.key())) {
+                result.skipped++;
+            } else {
+                pending.add(entry);
+            }
+        }
+        result.total = entries.size() + result.failed;
+
+        Map<String, Integer> categoryIds = loadCategoryIds();
+        ExecutorService workers = Executors.newFixedThreadPool(THREADS, runnable -> {
+            Thread thread = new Thread(runnable, "elibrary-book-import");
+            thread.setDaemon(true);
+            return thread;
+        });
+        Files.createDirectories(BOOKS_DIR);
+        Files.createDirectories(REPORTS_DIR);
+
+        try (BufferedWriter report = Files.newBufferedWriter(reportFile, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            CompletionService<Prepared> completion = new ExecutorCompletionService<>(workers);
+            for (Entry entry : pending) {
+                completion.submit(() -> prepare(entry));
+            }
+
+            List<Prepared> batch = new ArrayList<>();
+            int processed = result.skipped + result.failed;
+            for (int i = 0; i < pending.size(); i++) {
+                if (cancelled != null && cancelled.getAsBoolean()) {
+                    result.cancelled = true;
+                    break;
+                }
+                Prepared prepared = take(completion);
+                processed++;
+                if (prepared.error != null) {
+                    writeReport(report, "FAILED", prepared.entry, 0, prepared.error);
+                    result.fail(prepared.entry, prepared.error);
+                } else if (!libraryFiles.add(prepared.book.getFilePath())) {
+                    // Same content as a book already in the library or earlier in this import
+                    writeReport(report, "DUPLICATE", prepared.entry, 0, "already in the library as " + prepared.book.getFilePath());
+                    result.skipped++;
+                } else {
+                    Integer categoryId = resolveCategory(prepared.entry.category, defaultCategoryId, categoryIds);
+                    if (categoryId == null) {
+                        String error = "could not create category \"" + prepared.entry.category + "\"";
+                        deleteCopy(prepared);
+                        writeReport(report, "FAILED", prepared.entry, 0, error);
+                        result.fail(prepared.entry, error);
+                    } else {
+                        prepared.book.setCategoryId(categoryId);
+                        batch.add(prepared);
+                        if (batch.size() >= BATCH_SIZE) {
+                            saveBatch(batch, report, result);
+                        }
+                    }
+                }
+                if (listener != null) {
+                    listener.onProgress(processed, result.total, result.imported, result.failed);
+                }
+            }
+            saveBatch(batch, report, result);
+        } finally {
+            workers.shutdownNow();
+        }
+        return result;
+    }
+
+    /**
+     * Insert one batch in a single transaction and record the outcome in the report.
+     * If the database rejects the batch, its books are inserted one at a time so
+     * only the book that caused the error fails.
+     */
+    private void saveBatch(List<Prepared> batch, BufferedWriter report, Result result) throws IOException {
+        if (batch.isEmpty()) {
+            return;
+        }
+        List<Book> books = batch.stream().map(prepared -> prepared.book).collect(Collectors.toList());
+        if (bookRepository.addBooks(books)) {
+            for (Prepared prepared : batch) {
+                imported(prepared, report, result);
+            }
+        } else if (databaseReachable()) {
+            for (Prepared prepared : batch) {
+                if (bookRepository.addBook(prepared.book)) {
+                    imported(prepared, report, result);
+                } else {
+                    insertFailed(prepared, report, result);
+                }
+            }
+        } else {
+            for (Prepared prepared : batch) {
+                insertFailed(prepared, report, result);
+            }
+        }
+        // Flushed per batch so the report matches what is committed if the import is interrupted
+        report.flush();
+        batch.clear();
+    }
+
+    private static void imported(Prepared prepared, BufferedWriter report, Result result) throws IOException {
+        writeReport(report, "IMPORTED", prepared.entry, prepared.book.getBookId(), prepared.pageCount + " pages");
+        result.imported++;
+    }
+
+    private void insertFailed(Prepared prepared, BufferedWriter report, Result result) throws IOException {
+        deleteCopy(prepared);
+        writeReport(report, "FAILED", prepared.entry, 0, "database insert failed");
+        result.fail(prepared.entry, "database insert failed");
+    }
+
+    /**
+     * A batch also fails when the database is down; retrying it book by book would only fail again
+     */
+    private static boolean databaseReachable() {
+        return ServiceRegistry.getInstance().isInMemory() || DatabaseConnection.getInstance().testConnection();
+    }
+
+    /**
+     * Validate, read metadata and copy one PDF (runs on a worker thread)
+     */
+    private Prepared prepare(Entry entry) {
+        Prepared prepared = new Prepared(entry);
+        try {
+            if (!Files.isRegularFile(entry.file)) {
+                prepared.error = "file not found";
+                return prepared;
+            }
+
+            Book book = new Book();
+            try (PDDocument document = PDDocument.load(entry.file.toFile(), MemoryUsageSetting.setupTempFileOnly())) {
+                prepared.pageCount = document.getNumberOfPages();
+                if (prepared.pageCount == 0) {
+                    prepared.error = "PDF has no pages";
+                    return prepared;
+                }
+                PDDocumentInformation info = document.getDocumentInformation();
+                book.setTitle(truncate(firstNonBlank(entry.title, info.getTitle(), titleFromFileName(entry.file)),
+                        MAX_TITLE_LENGTH));
+                book.setAuthor(truncate(firstNonBlank(entry.author, info.getAuthor(), UNKNOWN_AUTHOR), MAX_AUTHOR_LENGTH));
+                if (entry.year != null) {
+                    book.setYearPublished(entry.year);
+                } else if (info.getCreationDate() != null) {
+                    book.setYearPublished(info.getCreationDate().get(Calendar.YEAR));
+                }
+            }
+            book.setDescription(truncate(entry.description, MAX_DESCRIPTION_LENGTH));
+
+            copyIntoLibrary(entry.file, prepared);
+            book.setFilePath(prepared.copy.toString());
+            prepared.book = book;
+        } catch (IOException e) {
+            prepared.error = "invalid or unreadable PDF: " + e.getMessage();
+            deleteCopy(prepared);
+        }
+        return prepared;
+    }
+
+    /**
+     * Copy a PDF into library/books under a name derived from its content hash,
+     * so the same PDF is never stored twice and a restarted import reuses its copies
+     */
+    private void copyIntoLibrary(Path file, Prepared prepared) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+
+        Path temp = Files.createTempFile(BOOKS_DIR, "import_", ".part");
+        try {
+            try (InputStream in = new DigestInputStream(Files.newInputStream(file), digest)) {
+                Files.copy(in, temp, StandardCopyOption.REPLACE_EXISTING);
+            }
+            StringBuilder hash = new StringBuilder();
+            byte[] bytes = digest.digest();
+            for (int i = 0; i < 8; i++) {
+                hash.append(String.format("%02x", bytes[i]));
+            }
+
+            // Same content under another file name counts as the same book. The check and
+            // the move happen under the hash's lock, or two workers could both store it.
+            synchronized (HASH_LOCKS.computeIfAbsent(hash.toString(), key -> new Object())) {
+                try (DirectoryStream<Path> existing = Files.newDirectoryStream(BOOKS_DIR, hash + "_*")) {
+                    for (Path path : existing) {
+                        if (!path.getFileName().toString().endsWith(".part")) {
+                            prepared.copy = path;
+                            return;
+                        }
+                    }
+                }
+                Path target = BOOKS_DIR.resolve(hash + "_" + libraryFileName(file));
+                prepared.copy = target;
+                try {
+                    Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+                } catch (AtomicMoveNotSupportedException e) {
+                    Files.move(temp, target);
+                }
+                prepared.copied = true;
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private void deleteCopy(Prepared prepared) {
+        if (prepared.copied) {
+            try {
+                Files.deleteIfExists(prepared.copy);
+            } catch (IOException e) {
+                System.err.println("Error deleting imported copy " + prepared.copy + ": " + e.getMessage());
+            }
+            prepared.copied = false;
+        }
+    }
+
+    private List<Entry> scanFolder(Path folder) throws IOException {
+        try (Stream<Path> files = Files.walk(folder)) {
+            return files.filter(Files::isRegularFile)
+                    .filter(file -> file.getFileName().toString().toLowerCase(Locale.ROOT).endsWith(".pdf"))
+                    .sorted()
+                    .map(file -> new Entry(file.toAbsolutePath().normalize()))
+                    .collect(Collectors.toList());
+        }
+    }
+
+    /**
+     * Read manifest rows; rows that cannot be parsed are counted as failed
+     */
+    private List<Entry> readManifest(Path manifest, Result result) throws IOException {
+        List<Entry> entries = new ArrayList<>();
+        Path baseDir = manifest.toAbsolutePath().getParent();
+
+        try (BufferedReader reader = Files.newBufferedReader(manifest, StandardCharsets.UTF_8)) {
+            String headerLine = reader.readLine();
+            if (headerLine == null) {
+                return entries;
+            }
+            Map<String, Integer> columns = new HashMap<>();
+            List<String> header = CsvUtil.parseLine(CsvUtil.stripBom(headerLine));
+            for (int i = 0; i < header.size(); i++) {
+                columns.put(header.get(i).trim().toLowerCase(Locale.ROOT), i);
+            }
+            if (!columns.containsKey("file")) {
+                throw new IOException("Manifest has no \"file\" column");
+            }
+
+            String line;
+            int lineNumber = 1;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.trim().isEmpty()) {
+                    continue;
+                }
+                List<String> fields = CsvUtil.parseLine(line);
+                String file = field(fields, columns, "file");
+                if (file == null) {
+                    result.fail("line " + lineNumber, "no file given");
+                    continue;
+                }
+                Entry entry = new Entry(baseDir.resolve(file).normalize());
+                entry.title = field(fields, columns, "title");
+                entry.author = field(fields, columns, "author");
+                entry.category = field(fields, columns, "category");
+                entry.description = field(fields, columns, "description");
+                String year = field(fields, columns, "year");
+                if (year != null) {
+                    try {
+                        entry.year = Integer.parseInt(year);
+                    } catch (NumberFormatException e) {
+                        result.fail("line " + lineNumber, "invalid year \"" + year + "\"");
+                        continue;
+                    }
+                }
+                entries.add(entry);
+            }
+        }
+        return entries;
+    }
+
+    private static String field(List<String> fields, Map<String, Integer> columns, String name) {
+        Integer index = columns.get(name);
+        if (index == null || index >= fields.size()) {
+            return null;
+        }
+        String value = fields.get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    private Map<String, Integer> loadCategoryIds() {
+        Map<String, Integer> ids = new HashMap<>();
+        for (Category category : categoryRepository.getAllCategories()) {
+            ids.put(category.getCategoryName().toLowerCase(Locale.ROOT), category.getCategoryId());
+        }
+        return ids;
+    }
+
+    /**
+     * Look up a manifest category by name, creating it if needed
+     * @return Category ID, or null if the category could not be created
+     */
+    private Integer resolveCategory(String name, int defaultCategoryId, Map<String, Integer> categoryIds) {
+        if (name == null) {
+            return defaultCategoryId;
+        }
+        String key = name.toLowerCase(Locale.ROOT);
+        if (!categoryIds.containsKey(key)) {
+            Category category = new Category();
+            category.setCategoryName(name);
+            categoryRepository.addCategory(category);
+            categoryIds.putAll(loadCategoryIds());
+        }
+        return categoryIds.get(key);
+    }
+
+    private static Prepared take(CompletionService<Prepared> completion) throws IOException {
+        try {
+            return completion.take().get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Import interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IOException("Import worker failed", e.getCause());
+        }
+    }
+
+    private static Path reportFileFor(Path source) {
+        Path absolute = source.toAbsolutePath().normalize();
+        String name = safeFileName(String.valueOf(absolute.getFileName()));
+        return REPORTS_DIR.resolve(name + "_" + Integer.toHexString(absolute.toString().hashCode()) + ".tsv");
+    }
+
+    /**
+     * Read the sources an earlier run of the same import already imported
+     */
+    private static Set<String> readImportedSources(Path reportFile) throws IOException {
+        Set<String> sources = new HashSet<>();
+        if (!Files.exists(reportFile)) {
+            return sources;
+        }
+        try (BufferedReader reader = Files.newBufferedReader(reportFile, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] columns = line.split("\t", 4);
+                if (columns.length >= 3 && (columns[0].equals("IMPORTED") || columns[0].equals("DUPLICATE"))) {
+                    sources.add(columns[2]);
+                }
+            }
+        }
+        return sources;
+    }
+
+    /**
+     * Append one report line: status, book ID, source file, detail (tab separated)
+     */
+    private static void writeReport(BufferedWriter report, String status, Entry entry, int bookId,
+                                    String detail) throws IOException {
+        report.write(status + "\t" + (bookId > 0 ? bookId : "-") + "\t" + entry.key() + "\t" +
+                detail.replace('\t', ' ').replace('\n', ' '));
+        report.newLine();
+    }
+
+    private static String firstNonBlank(String... values) {
+        for (String value : values) {
+            if (value != null && !value.trim().isEmpty()) {
+                return value.trim();
+            }
+        }
+        return null;
+    }
+
+    private static String titleFromFileName(Path file) {
+        String name = file.getFileName().toString();
+        return name.substring(0, name.length() - 4).replace('_', ' ').trim();
+    }
+
+    /**
+     * Cut a value to a column's size without splitting a surrogate pair
+     */
+    private static String truncate(String value, int maxLength) {
+        if (value == null || value.length() <= maxLength) {
+            return value;
+        }
+        int end = Character.isHighSurrogate(value.charAt(maxLength - 1)) ? maxLength - 1 : maxLength;
+        return value.substring(0, end).trim();
+    }
+
+    /**
+     * Safe name for a PDF's copy, shortened to MAX_FILE_NAME_LENGTH but keeping its extension
+     */
+    private static String libraryFileName(Path file) {
+        String name = safeFileName(file.getFileName().toString());
+        if (name.length() <= MAX_FILE_NAME_LENGTH) {
+            return name;
+        }
+        String extension = name.substring(name.length() - 4);
+        return name.substring(0, MAX_FILE_NAME_LENGTH - extension.length()) + extension;
+    }
+
+    private static String safeFileName(String name) {
+        return name.replaceAll("[^A-Za-z0-9._-]", "_");
+    }
+
+    /**
+     * Import from the command line.
+     * Usage: BookImporter folder-or-manifest.csv default-category-id
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: BookImporter <folder|manifest.csv> <default-category-id>");
+            System.exit(2);
+        }
+        BookImporter importer = new BookImporter(ServiceRegistry.getInstance().getBookRepository(),
+                ServiceRegistry.getInstance().getCategoryRepository());
+        Result result = importer.importBooks(Paths.get(args[0]), Integer.parseInt(args[1]),
+                (processed, total, imported, failed) -> {
+                    if (processed % 100 == 0 || processed == total) {
+                        System.out.printf("%d/%d processed, %d imported, %d failed%n", processed, total, imported, failed);
+                    }
+                }, null);
+        System.out.println("Book import: " + result);
+        DatabaseConnection.getInstance().closeConnection();
+        if (result.getFailed() > 0) {
+            System.exit(1);
+        }
+    }
+
+    /**
+     * One file to import, with whatever the manifest says about it
+     */
+    private static final class Entry {
+        private final Path file;
+        private String title;
+        private String author;
+        private Integer year;
+        private String category;
+        private String description;
+
+        private Entry(Path file) {
+            this.file = file;
+        }
+
+        private String key() {
+            return file.toString();
+        }
+    }
+
+    /**
+     * Worker output for one entry: a book ready to insert, or an error
+     */
+    private static final class Prepared {
+        private final Entry entry;
+        private Book book;
+        private Path copy;
+        private boolean copied;   // copy was created by this run
+        private int pageCount;
+        private String error;
+
+        private Prepared(Entry entry) {
+            this.entry = entry;
+        }
+    }
+
+    /**
+     * Outcome of one import run
+     */
+    public static final class Result {
+        private static final int MAX_ERRORS = 50;
+
+        private final Path reportFile;
+        private int total = 0;
+        private int imported = 0;
+        private int skipped = 0;
+        private int failed = 0;
+        private boolean cancelled = false;
+        private final List<String> errors = new ArrayList<>();
+
+        private Result(Path reportFile) {
+            this.reportFile = reportFile;
+        }
+
+        private void fail(Entry entry, String error) {
+            fail(entry.file.getFileName().toString(), error);
+        }
+
+        private void fail(String source, String error) {
+            failed++;
+            if (errors.size() < MAX_ERRORS) {
+                errors.add(source + ": " + error);
+            }
+        }
+
+        public Path getReportFile() {
+            return reportFile;
+        }
+
+        public int getTotal() {
+            return total;
+        }
+
+        public int getImported() {
+            return imported;
+        }
+
+        /**
+         * @return Files imported by an earlier run or already in the library
+         */
+        public int getSkipped() {
+            return skipped;
+        }
+
+        public int getFailed() {
+            return failed;
+        }
+
+        public boolean isCancelled() {
+            return cancelled;
+        }
+
+        /**
+         * @return The first failures, for display; the report has all of them
+         */
+        public List<String> getErrors() {
+            return errors;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d imported, %d skipped, %d failed of %d%s (report: %s)",
+                    imported, skipped, failed, total, cancelled ? ", cancelled" : "", reportFile);
+        }
+    }
+}
@@ -0,0 +1,688 @@
+package com.elibrary.utils;
+
+import com.elibrary.models.Book;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-memory inverted index over book titles, authors and descriptions
+ * Answers search-as-you-type queries without a database round trip.
+ * Every query word must match (AND); a word matches an indexed term it is a
+ * prefix of, or (from three characters) any term containing it, found through
+ * a trigram index over the term dictionary. Results come back in title order.
+ * A full load builds a new index without holding the lock and swaps it in,
+ * so the UI keeps typing against the old one (or none) meanwhile; so does
+ * compaction once many books have been removed.
+ * Local writes update the index in place. Once started, a background task
+ * reloads it when the catalog version changes (books written from other
+ * kiosks), and retries a load that failed. Uses singleton pattern.
+ */
+public class CatalogSearchIndex {
+    // Refresh interval, overridable with -Delibrary.search.index.refreshSeconds
+    private static final long REFRESH_SECONDS = Long.getLong("elibrary.search.index.refreshSeconds", 30L);
+
+    private static final int NGRAM = 3;
+    private static final int MAX_QUERY_TOKENS = 16;
+    private static final int COMPACT_MIN_DELETED = 1000;
+
+    private static CatalogSearchIndex instance;
+
+    /**
+     * Where the index reads the catalog from
+     */
+    public interface Source {
+        /**
+         * @return Every book, or null if the catalog could not be read (as opposed to an empty catalog)
+         */
+        List<Book> loadCatalog();
+
+        /**
+         * @return Value, compared with equals, that changes with every write to the catalog; null if it could not be read
+         */
+        Object readCatalogVersion();
+    }
+
+    // Replaced whole by a load or compaction; updated in place under the lock
+    private Index index = new Index();
+
+    // Loading state; ready is read without the lock on every keystroke
+    private volatile boolean ready = false;
+    private boolean loading = false;
+    private final List<Runnable> pendingUpdates = new ArrayList<>();
+
+    // Held while a new index is built, so loads and compactions take turns; taken before the index lock
+    private final Object loadLock = new Object();
+    private Object loadedVersion;   // catalog version of the last load from the source, under loadLock
+
+    private ScheduledExecutorService scheduler;
+
+    /**
+     * Package-private so tests can use an empty index; use getInstance()
+     */
+    CatalogSearchIndex() {
+    }
+
+    public static synchronized CatalogSearchIndex getInstance() {
+        if (instance == null) {
+            instance = new CatalogSearchIndex();
+        }
+        return instance;
+    }
+
+    /**
+     * Load the catalog now and refresh it in the background every refresh interval:
+     * a failed load is retried, and a changed catalog version triggers a reload
+     * @param source Catalog to index
+     */
+    public synchronized void start(Source source) {
+        if (scheduler != null) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "elibrary-search-index");
+            thread.setDaemon(true);
+            return thread;
+        });
+        if (REFRESH_SECONDS > 0) {
+            scheduler.scheduleWithFixedDelay(() -> refresh(source), 0, REFRESH_SECONDS, TimeUnit.SECONDS);
+        } else {
+            scheduler.execute(() -> refresh(source));
+        }
+    }
+
+    /**
+     * Stop background refreshes
+     */
+    public synchronized void shutdown() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+
+    /**
+     * Check if the index has been loaded and can answer queries
+     * @return true if ready
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Load the catalog from the source unless the index already holds its current version
+     * @param source Catalog to index
+     * @return false if the catalog could not be read; the index is left as it was
+     */
+    boolean refresh(Source source) {
+        synchronized (loadLock) {
+            // Version first: a change landing during the load is caught by the next refresh
+            Object version = source.readCatalogVersion();
+            if (ready && (version == null || version.equals(loadedVersion))) {
+                return version != null;
+            }
+
+            beginLoad();
+            List<Book> books = source.loadCatalog();
+            if (books == null) {
+                cancelLoad();
+                System.err.println("Could not load the catalog search index; retrying in " + REFRESH_SECONDS + "s");
+                return false;
+            }
+            swapIn(build(books));
+            loadedVersion = version;
+            return true;
+        }
+    }
+
+    /**
+     * Mark the start of a full load. Updates made while the catalog is being
+     * read are replayed after {@link #load(List)} so none are lost.
+     */
+    public synchronized void beginLoad() {
+        loading = true;
+    }
+
+    /**
+     * Replace the index contents with a full catalog
+     * The new index is built without the lock; searches keep using the old
+     * one until it is swapped in.
+     * @param books All books
+     */
+    public void load(List<Book> books) {
+        synchronized (loadLock) {
+            beginLoad();
+            swapIn(build(books));
+        }
+    }
+
+    /**
+     * Add or replace a book after it was saved
+     * @param book Book with category name filled in
+     */
+    public synchronized void put(Book book) {
+        if (loading) {
+            pendingUpdates.add(() -> index.putDocument(book));
+        } else if (ready) {
+            index.putDocument(book);
+        }
+    }
+
+    /**
+     * Remove a book after it was deleted
+     * Once many books are removed, the index is rebuilt without them on this
+     * thread, but without holding the lock searches need.
+     * @param bookId Book ID
+     */
+    public void remove(int bookId) {
+        synchronized (this) {
+            if (loading) {
+                // Replayed without compacting; the next remove compacts if still needed
+                pendingUpdates.add(() -> index.removeDocument(bookId));
+                return;
+            }
+            if (!ready) {
+                return;
+            }
+            index.removeDocument(bookId);
+            if (!index.needsCompaction()) {
+                return;
+            }
+        }
+        compact();
+    }
+
+    /**
+     * Find books matching every word of the query, in title order
+     * @param query Search box text
+     * @param limit Maximum number of books to return
+     * @return Matching books
+     */
+    public synchronized List<Book> search(String query, int limit) {
+        if (!ready) {
+            return new ArrayList<>();
+        }
+        return index.search(query, limit);
+    }
+
+    /**
+     * @return Books removed since the index was last built, still taking space in its postings
+     */
+    synchronized int getDeletedCount() {
+        return index.deletedCount;
+    }
+
+    /**
+     * Rebuild the index from its live books, like a load
+     */
+    private void compact() {
+        synchronized (loadLock) {
+            List<Book> live;
+            synchronized (this) {
+                // A load or another compaction may have rebuilt it meanwhile
+                if (loading || !ready || !index.needsCompaction()) {
+                    return;
+                }
+                loading = true;
+                live = index.liveBooks();
+            }
+            swapIn(build(live));
+        }
+    }
+
+    private static Index build(List<Book> books) {
+        Index fresh = new Index();
+        fresh.bulkLoad(books);
+        return fresh;
+    }
+
+    /**
+     * Install a newly built index and replay the updates made while it was built
+     */
+    private synchronized void swapIn(Index fresh) {
+        index = fresh;
+        ready = true;
+        finishLoad();
+    }
+
+    /**
+     * Keep the current index after a failed load, applying the updates made meanwhile
+     */
+    private synchronized void cancelLoad() {
+        finishLoad();
+    }
+
+    private void finishLoad() {
+        loading = false;
+        for (Runnable update : pendingUpdates) {
+            update.run();
+        }
+        pendingUpdates.clear();
+    }
+
+    /**
+     * One generation of the index; only touched by one thread at a time
+     */
+    private static final class Index {
+        // Documents (internal doc IDs are array positions)
+        private Book[] docs = new Book[1024];
+        private int[][] docTerms = new int[1024][];     // forward index: distinct term IDs per doc
+        private int docCount = 0;
+        private int deletedCount = 0;
+        private final Map<Integer, Integer> docIdByBookId = new HashMap<>();
+        private int[] docsByTitle = new int[1024];
+        private int[] titleRank = new int[1024];        // position of each doc in docsByTitle
+        private int titleCount = 0;
+
+        // Terms (term IDs are stable; sortedTermIds orders them alphabetically)
+        private final Map<String, Integer> termIdByTerm = new HashMap<>();
+        private String[] termsById = new String[1024];
+        private IntList[] postingsByTerm = new IntList[1024];
+        private int[] sortedTermIds = new int[1024];
+        private int termCount = 0;
+        private final Map<String, IntList> termIdsByTrigram = new HashMap<>();
+
+        // Query scratch space, reused so queries allocate little beyond the result list
+        private int[] termStamp = new int[1024];
+        private int[] termMask = new int[1024];
+        private int[] docStamp = new int[1024];
+        private final IntList[] tokenTerms = new IntList[MAX_QUERY_TOKENS];
+        private final int[] tokenPostings = new int[MAX_QUERY_TOKENS];
+        private long[] candidates = new long[256];
+        private int stamp = 0;
+
+        private boolean bulkLoading = false;
+
+        private Index() {
+            for (int i = 0; i < MAX_QUERY_TOKENS; i++) {
+                tokenTerms[i] = new IntList();
+            }
+        }
+
+        /**
+         * Append a whole catalog, then sort the dictionary and title order once
+         */
+        private void bulkLoad(List<Book> books) {
+            bulkLoading = true;
+            for (Book book : books) {
+                addDocument(book);
+            }
+            bulkLoading = false;
+            sortTerms();
+            sortTitles();
+        }
+
+        private boolean needsCompaction() {
+            return deletedCount > COMPACT_MIN_DELETED && deletedCount > docCount / 4;
+        }
+
+        /**
+         * @return Live documents in title order
+         */
+        private List<Book> liveBooks() {
+            List<Book> live = new ArrayList<>(titleCount);
+            for (int t = 0; t < titleCount; t++) {
+                live.add(docs[docsByTitle[t]]);
+            }
+            return live;
+        }
+
+        private List<Book> search(String query, int limit) {
+            List<Book> results = new ArrayList<>();
+            String[] tokens = queryTokens(query);
+            if (tokens.length == 0 || limit <= 0) {
+                return results;
+            }
+
+            nextStamp();
+            int selective = 0;
+            for (int i = 0; i < tokens.length; i++) {
+                tokenPostings[i] = markTerms(tokens[i], i);
+                if (tokenPostings[i] == 0) {
+                    return results;
+                }
+                if (tokenPostings[i] < tokenPostings[selective]) {
+                    selective = i;
+                }
+            }
+            int fullMask = (1 << tokens.length) - 1;
+
+            // A rare word is cheapest to start from; common words fill a page quickly in title order
+            long scanCost = (long) limit * titleCount / tokenPostings[selective];
+            if (tokenPostings[selective] <= scanCost) {
+                collectFromPostings(selective, fullMask, limit, results);
+            } else {
+                for (int t = 0; t < titleCount && results.size() < limit; t++) {
+                    int doc = docsByTitle[t];
+                    if (matchesAll(doc, fullMask)) {
+                        results.add(docs[doc]);
+                    }
+                }
+            }
+            return results;
+        }
+
+        /**
+         * Collect docs from one token's postings that match every token, in title order
+         */
+        private void collectFromPostings(int token, int fullMask, int limit, List<Book> results) {
+            int count = 0;
+            IntList terms = tokenTerms[token];
+            for (int i = 0; i < terms.size; i++) {
+                IntList postings = postingsByTerm[terms.values[i]];
+                for (int p = 0; p < postings.size; p++) {
+                    int doc = postings.values[p];
+                    if (docStamp[doc] == stamp || docs[doc] == null) {
+                        continue;
+                    }
+                    docStamp[doc] = stamp;
+                    if (matchesAll(doc, fullMask)) {
+                        if (count == candidates.length) {
+                            candidates = Arrays.copyOf(candidates, count * 2);
+                        }
+                        candidates[count++] = ((long) titleRank[doc] << 32) | doc;
+                    }
+                }
+            }
+
+            Arrays.sort(candidates, 0, count);
+            for (int i = 0; i < count && results.size() < limit; i++) {
+                results.add(docs[(int) candidates[i]]);
+            }
+        }
+
+        /**
+         * Check a doc's terms against the terms marked for each query token
+         */
+        private boolean matchesAll(int doc, int fullMask) {
+            int mask = 0;
+            for (int term : docTerms[doc]) {
+                if (termStamp[term] == stamp) {
+                    mask |= termMask[term];
+                    if (mask == fullMask) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Mark every dictionary term matching a query token
+         * @return Total postings of the marked terms (selectivity estimate)
+         */
+        private int markTerms(String token, int tokenIndex) {
+            IntList terms = tokenTerms[tokenIndex];
+            terms.size = 0;
+            int bit = 1 << tokenIndex;
+            int postings = 0;
+
+            // Prefix matches: a contiguous range of the sorted dictionary
+            for (int i = lowerBound(token); i < termCount; i++) {
+                int termId = sortedTermIds[i];
+                if (!termsById[termId].startsWith(token)) {
+                    break;
+                }
+                postings += markTerm(termId, bit, terms);
+            }
+
+            // Infix matches through the rarest trigram of the token
+            if (token.length() >= NGRAM) {
+                IntList rarest = null;
+                for (int i = 0; i + NGRAM <= token.length(); i++) {
+                    IntList termIds = termIdsByTrigram.get(token.substring(i, i + NGRAM));
+                    if (termIds == null) {
+                        return postings;
+                    }
+                    if (rarest == null || termIds.size < rarest.size) {
+                        rarest = termIds;
+                    }
+                }
+                for (int i = 0; i < rarest.size; i++) {
+                    int termId = rarest.values[i];
+                    String term = termsById[termId];
+                    if (!term.startsWith(token) && term.contains(token)) {
+                        postings += markTerm(termId, bit, terms);
+                    }
+                }
+            }
+            return postings;
+        }
+
+        private int markTerm(int termId, int bit, IntList terms) {
+            if (termStamp[termId] != stamp) {
+                termStamp[termId] = stamp;
+                termMask[termId] = 0;
+            }
+            if ((termMask[termId] & bit) != 0) {
+                return 0;
+            }
+            termMask[termId] |= bit;
+            terms.add(termId);
+            return postingsByTerm[termId].size;
+        }
+
+        private void nextStamp() {
+            if (++stamp == Integer.MAX_VALUE) {
+                Arrays.fill(termStamp, 0);
+                Arrays.fill(docStamp, 0);
+                stamp = 1;
+            }
+        }
+
+        private void addDocument(Book book) {
+            int doc = docCount++;
+            if (doc == docs.length) {
+                docs = Arrays.copyOf(docs, doc * 2);
+                docTerms = Arrays.copyOf(docTerms, doc * 2);
+                titleRank = Arrays.copyOf(titleRank, doc * 2);
+                docStamp = Arrays.copyOf(docStamp, doc * 2);
+            }
+            docs[doc] = book;
+            docIdByBookId.put(book.getBookId(), doc);
+
+            IntList terms = new IntList();
+            for (String field : new String[] { book.getTitle(), book.getAuthor(), book.getDescription() }) {
+                for (String token : tokenize(field)) {
+                    int termId = termId(token);
+                    IntList postings = postingsByTerm[termId];
+                    // Doc IDs only grow, so a duplicate can only be the last entry
+                    if (postings.size == 0 || postings.values[postings.size - 1] != doc) {
+                        postings.add(doc);
+                        terms.add(termId);
+                    }
+                }
+            }
+            docTerms[doc] = Arrays.copyOf(terms.values, terms.size);
+
+            if (!bulkLoading) {
+                insertByTitle(doc);
+            }
+        }
+
+        private void putDocument(Book book) {
+            removeDocument(book.getBookId());
+            addDocument(book);
+        }
+
+        private void removeDocument(int bookId) {
+            Integer doc = docIdByBookId.remove(bookId);
+            if (doc == null) {
+                return;
+            }
+            int position = titleRank[doc];
+            System.arraycopy(docsByTitle, position + 1, docsByTitle, position, titleCount - position - 1);
+            titleCount--;
+            updateRanks(position);
+
+            // Postings keep the stale doc ID; queries skip null documents
+            docs[doc] = null;
+            docTerms[doc] = null;
+            deletedCount++;
+        }
+
+        private int termId(String term) {
+            Integer existing = termIdByTerm.get(term);
+            if (existing != null) {
+                return existing;
+            }
+
+            int position = bulkLoading ? termCount : lowerBound(term);
+            int id = termCount++;
+            if (id == termsById.length) {
+                termsById = Arrays.copyOf(termsById, id * 2);
+                postingsByTerm = Arrays.copyOf(postingsByTerm, id * 2);
+                sortedTermIds = Arrays.copyOf(sortedTermIds, id * 2);
+                termStamp = Arrays.copyOf(termStamp, id * 2);
+                termMask = Arrays.copyOf(termMask, id * 2);
+            }
+            termsById[id] = term;
+            postingsByTerm[id] = new IntList();
+            termIdByTerm.put(term, id);
+
+            System.arraycopy(sortedTermIds, position, sortedTermIds, position + 1, id - position);
+            sortedTermIds[position] = id;
+
+            for (int i = 0; i + NGRAM <= term.length(); i++) {
+                termIdsByTrigram.computeIfAbsent(term.substring(i, i + NGRAM), k -> new IntList()).add(id);
+            }
+            return id;
+        }
+
+        /**
+         * First position in the sorted dictionary whose term is >= key
+         */
+        private int lowerBound(String key) {
+            int low = 0;
+            int high = termCount;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (termsById[sortedTermIds[mid]].compareTo(key) < 0) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        private void sortTerms() {
+            Integer[] ids = new Integer[termCount];
+            for (int i = 0; i < termCount; i++) {
+                ids[i] = i;
+            }
+            Arrays.sort(ids, (a, b) -> termsById[a].compareTo(termsById[b]));
+            for (int i = 0; i < termCount; i++) {
+                sortedTermIds[i] = ids[i];
+            }
+        }
+
+        private void sortTitles() {
+            Integer[] ids = new Integer[docCount];
+            for (int i = 0; i < docCount; i++) {
+                ids[i] = i;
+            }
+            Arrays.sort(ids, this::compareByTitle);
+            if (docsByTitle.length < docCount) {
+                docsByTitle = new int[docs.length];
+            }
+            for (int i = 0; i < docCount; i++) {
+                docsByTitle[i] = ids[i];
+            }
+            titleCount = docCount;
+            updateRanks(0);
+        }
+
+        private void insertByTitle(int doc) {
+            if (titleCount == docsByTitle.length) {
+                docsByTitle = Arrays.copyOf(docsByTitle, titleCount * 2);
+            }
+            int low = 0;
+            int high = titleCount;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (compareByTitle(docsByTitle[mid], doc) < 0) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            System.arraycopy(docsByTitle, low, docsByTitle, low + 1, titleCount - low);
+            docsByTitle[low] = doc;
+            titleCount++;
+            updateRanks(low);
+        }
+
+        private void updateRanks(int from) {
+            for (int t = from; t < titleCount; t++) {
+                titleRank[docsByTitle[t]] = t;
+            }
+        }
+
+        private int compareByTitle(int docA, int docB) {
+            Book a = docs[docA];
+            Book b = docs[docB];
+            int cmp = String.CASE_INSENSITIVE_ORDER.compare(String.valueOf(a.getTitle()), String.valueOf(b.getTitle()));
+            return cmp != 0 ? cmp : Integer.compare(a.getBookId(), b.getBookId());
+        }
+    }
+
+    /**
+     * Split text into lower-case, accent-free words
+     */
+    static String[] tokenize(String text) {
+        if (text == null || text.isEmpty()) {
+            return new String[0];
+        }
+        String folded = text.toLowerCase();
+        for (int i = 0; i < folded.length(); i++) {
+            if (folded.charAt(i) > 127) {
+                folded = Normalizer.normalize(folded, Normalizer.Form.NFD).replaceAll("\\p{M}+", "");
+                break;
+            }
+        }
+
+        List<String> tokens = new ArrayList<>();
+        int start = -1;
+        for (int i = 0; i <= folded.length(); i++) {
+            boolean wordChar = i < folded.length() && Character.isLetterOrDigit(folded.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                tokens.add(folded.substring(start, i));
+                start = -1;
+            }
+        }
+        return tokens.toArray(new String[0]);
+    }
+
+    /**
+     * Distinct query words (at most MAX_QUERY_TOKENS)
+     */
+    private static String[] queryTokens(String query) {
+        String[] tokens = Arrays.stream(tokenize(query)).distinct().toArray(String[]::new);
+        return tokens.length > MAX_QUERY_TOKENS ? Arrays.copyOf(tokens, MAX_QUERY_TOKENS) : tokens;
+    }
+
+    /**
+     * Growable int array without boxing
+     */
+    private static final class IntList {
+        private int[] values = new int[4];
+        private int size = 0;
+
+        private void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+    }
+}
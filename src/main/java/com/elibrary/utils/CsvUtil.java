@@ -0,0 +1,56 @@
+package com.elibrary.utils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Utility class for reading CSV files (RFC 4180 quoting, one record per line)
+ */
+public class CsvUtil {
+
+    /**
+     * Split one CSV line into fields.
+     * Quoted fields may contain commas and doubled quotes, but not line breaks.
+     * @param line Line without the line terminator
+     * @return Fields in order; an empty line gives one empty field
+     */
+    public static List<String> parseLine(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"') {
+                    if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                        field.append('"');
+                        i++;
+                    } else {
+                        quoted = false;
+                    }
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    /**
+     * Strip a UTF-8 byte order mark that spreadsheet programs put before the header
+     * @param line First line of a file
+     * @return Line without the BOM
+     */
+    public static String stripBom(String line) {
+        return !line.isEmpty() && line.charAt(0) == '\uFEFF' ? line.substring(1) : line;
+    }
+}
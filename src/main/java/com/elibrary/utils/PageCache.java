@@ -0,0 +1,167 @@
+package com.elibrary.utils;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * LRU cache of rendered pages and tiles of one document, keyed by page, DPI and tile
+ * Bounded by the bytes of the cached pixel buffers rather than by page count,
+ * since one page at 3x zoom takes as much memory as nine at 1x. The cache
+ * holds its own reference to each page and releases it on eviction; pages
+ * still shown stay valid until the view releases them too.
+ */
+public class PageCache {
+    // Cache settings, overridable with -Delibrary.pdf.cache.* system properties
+    private static final long DEFAULT_MAX_BYTES = Long.getLong("elibrary.pdf.cache.maxMb", 64L) * 1024 * 1024;
+
+    private final long maxBytes;
+    private final LinkedHashMap<Key, PageImage> pages = new LinkedHashMap<>(16, 0.75f, true);
+    private long bytes = 0;
+
+    // Statistics
+    private long hitCount = 0;
+    private long missCount = 0;
+    private long evictionCount = 0;
+
+    public PageCache() {
+        this(DEFAULT_MAX_BYTES);
+    }
+
+    public PageCache(long maxBytes) {
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Look up a rendered page
+     * @return Page with a reference taken for the caller (release it), or null on a miss
+     */
+    public synchronized PageImage get(int page, float dpi) {
+        PageImage image = pages.get(new Key(page, dpi, PageImage.WHOLE_PAGE));
+        if (image == null) {
+            missCount++;
+            return null;
+        }
+        hitCount++;
+        return image.retain();
+    }
+
+    /**
+     * Look up a rendered page or tile without counting a hit or miss
+     * @param tile Tile index, or PageImage.WHOLE_PAGE
+     * @return Page with a reference taken for the caller (release it), or null if not cached
+     */
+    public synchronized PageImage peek(int page, float dpi, int tile) {
+        PageImage image = pages.get(new Key(page, dpi, tile));
+        return image != null ? image.retain() : null;
+    }
+
+    /**
+     * Check for a page without counting a hit or miss or touching its LRU position
+     */
+    public synchronized boolean contains(int page, float dpi) {
+        return pages.containsKey(new Key(page, dpi, PageImage.WHOLE_PAGE));
+    }
+
+    /**
+     * Add a rendered page, evicting least recently used pages over the budget.
+     * The cache takes its own reference; the caller keeps (and releases) its one.
+     * Pages larger than the whole budget are not cached.
+     */
+    public synchronized void put(PageImage image) {
+        if (image.getByteSize() > maxBytes) {
+            return;
+        }
+        PageImage previous = pages.put(new Key(image.getPage(), image.getDpi(), image.getTile()), image.retain());
+        bytes += image.getByteSize();
+        if (previous != null) {
+            bytes -= previous.getByteSize();
+            previous.release();
+        }
+
+        Iterator<PageImage> eldest = pages.values().iterator();
+        while (bytes > maxBytes && eldest.hasNext()) {
+            PageImage evicted = eldest.next();
+            if (evicted == image) {
+                continue;
+            }
+            eldest.remove();
+            bytes -= evicted.getByteSize();
+            evicted.release();
+            evictionCount++;
+        }
+    }
+
+    /**
+     * Release every cached page
+     */
+    public synchronized void clear() {
+        for (PageImage image : pages.values()) {
+            image.release();
+        }
+        pages.clear();
+        bytes = 0;
+    }
+
+    public synchronized int size() {
+        return pages.size();
+    }
+
+    public synchronized long getBytes() {
+        return bytes;
+    }
+
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+
+    public synchronized long getHitCount() {
+        return hitCount;
+    }
+
+    public synchronized long getMissCount() {
+        return missCount;
+    }
+
+    public synchronized long getEvictionCount() {
+        return evictionCount;
+    }
+
+    public synchronized double getHitRate() {
+        long lookups = hitCount + missCount;
+        return lookups == 0 ? 0 : (double) hitCount / lookups;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format("pages=%d, %.1f/%.1f MB, hits=%d, misses=%d (%.1f%% hit), evictions=%d",
+                pages.size(), bytes / 1048576.0, maxBytes / 1048576.0, hitCount, missCount,
+                getHitRate() * 100, evictionCount);
+    }
+
+    private static final class Key {
+        private final int page;
+        private final float dpi;
+        private final int tile;
+
+        Key(int page, float dpi, int tile) {
+            this.page = page;
+            this.dpi = dpi;
+            this.tile = tile;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return page == other.page && Float.compare(dpi, other.dpi) == 0 && tile == other.tile;
+        }
+
+        @Override
+        public int hashCode() {
+            return (page * 31 + Float.floatToIntBits(dpi)) * 31 + tile;
+        }
+    }
+}
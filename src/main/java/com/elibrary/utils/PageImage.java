@@ -0,0 +1,112 @@
+package com.elibrary.utils;
+
+import javafx.scene.image.Image;
+
+/**
+ * A rendered PDF page, or one tile of it, whose JavaFX image shares its pixel buffer
+ * Created by PageRenderer. Reference counted: whoever keeps the page (the
+ * creator, a cache, the view showing it) holds a reference taken with
+ * retain() and gives it up with release(). Once the last one is released the
+ * buffer is reused for another page, so the image must no longer be shown.
+ */
+public final class PageImage {
+    // Tile index of a whole page
+    public static final int WHOLE_PAGE = -1;
+
+    private final int page;
+    private final float dpi;
+    private final int tile;
+    private final int x;
+    private final int y;
+    private final int[] pixels;
+    private final Image image;
+    private final PageRenderer owner;
+    private int references = 1;   // the creator's
+
+    PageImage(int page, float dpi, int tile, int x, int y, int[] pixels, Image image, PageRenderer owner) {
+        this.page = page;
+        this.dpi = dpi;
+        this.tile = tile;
+        this.x = x;
+        this.y = y;
+        this.pixels = pixels;
+        this.image = image;
+        this.owner = owner;
+    }
+
+    public int getPage() {
+        return page;
+    }
+
+    public float getDpi() {
+        return dpi;
+    }
+
+    /**
+     * @return Tile index within the page, or WHOLE_PAGE
+     */
+    public int getTile() {
+        return tile;
+    }
+
+    /**
+     * @return Left edge in page pixels at this DPI (0 for a whole page)
+     */
+    public int getX() {
+        return x;
+    }
+
+    /**
+     * @return Top edge in page pixels at this DPI (0 for a whole page)
+     */
+    public int getY() {
+        return y;
+    }
+
+    /**
+     * @return Image backed by the pixel buffer; only valid while a reference is held
+     */
+    public Image getImage() {
+        return image;
+    }
+
+    public int getWidth() {
+        return (int) image.getWidth();
+    }
+
+    public int getHeight() {
+        return (int) image.getHeight();
+    }
+
+    /**
+     * @return Bytes held by the pixel buffer
+     */
+    public long getByteSize() {
+        return (long) pixels.length * Integer.BYTES;
+    }
+
+    /**
+     * Take another reference
+     * @throws IllegalStateException if the buffer was already given back
+     */
+    public synchronized PageImage retain() {
+        if (references == 0) {
+            throw new IllegalStateException("Page " + page + " was already released");
+        }
+        references++;
+        return this;
+    }
+
+    /**
+     * Give up a reference; the last one gives the pixel buffer back for reuse
+     */
+    public synchronized void release() {
+        if (references == 0) {
+            return;
+        }
+        references--;
+        if (references == 0) {
+            owner.recycle(pixels);
+        }
+    }
+}
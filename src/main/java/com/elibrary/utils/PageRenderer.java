@@ -0,0 +1,208 @@
+package com.elibrary.utils;
+
+import javafx.scene.image.PixelBuffer;
+import javafx.scene.image.PixelFormat;
+import javafx.scene.image.WritableImage;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.rendering.PDFRenderer;
+
+import java.awt.Color;
+import java.awt.Dimension;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.awt.image.ColorModel;
+import java.awt.image.DataBufferInt;
+import java.awt.image.Raster;
+import java.awt.image.WritableRaster;
+import java.io.IOException;
+import java.nio.IntBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Renders PDF pages straight into JavaFX images
+ * PDFBox draws into an int ARGB (premultiplied) array that is wrapped by a
+ * PixelBuffer, so the page is not encoded, copied or decoded on the way to
+ * the screen. Arrays of released pages are kept and reused for the next
+ * render of a similar size. Pages can also be rendered in square tiles, so
+ * at high zoom only the part on screen is rasterized. Not thread-safe apart
+ * from recycling and page sizes: create and render from one thread, as PDFBox
+ * documents require.
+ */
+public class PageRenderer {
+    // Released buffers kept for reuse, overridable with -Delibrary.pdf.bufferPool
+    private static final int POOL_SIZE = Integer.getInteger("elibrary.pdf.bufferPool", 4);
+    // A free buffer is reused only if it is at most this many times larger than needed
+    private static final int MAX_OVERSIZE = 2;
+    // Tile edge in pixels, overridable with -Delibrary.pdf.tile.size
+    public static final int TILE_SIZE = Integer.getInteger("elibrary.pdf.tile.size", 512);
+
+    private static final ColorModel ARGB_PRE = new BufferedImage(1, 1, BufferedImage.TYPE_INT_ARGB_PRE).getColorModel();
+
+    private final PDFRenderer renderer;
+
+    // Page sizes in points, read once so they can be used from any thread
+    private final float[] pageWidths;
+    private final float[] pageHeights;
+
+    private final List<int[]> freeBuffers = new ArrayList<>();
+    private long allocatedCount = 0;
+    private long reusedCount = 0;
+
+    public PageRenderer(PDDocument document) {
+        this.renderer = new PDFRenderer(document);
+
+        int pageCount = document.getNumberOfPages();
+        pageWidths = new float[pageCount];
+        pageHeights = new float[pageCount];
+        int i = 0;
+        for (PDPage page : document.getPages()) {
+            PDRectangle cropBox = page.getCropBox();
+            boolean rotated = page.getRotation() == 90 || page.getRotation() == 270;
+            pageWidths[i] = rotated ? cropBox.getHeight() : cropBox.getWidth();
+            pageHeights[i] = rotated ? cropBox.getWidth() : cropBox.getHeight();
+            i++;
+        }
+    }
+
+    public int getPageCount() {
+        return pageWidths.length;
+    }
+
+    /**
+     * Pixel size of a page, the same as PDFRenderer.renderImageWithDPI gives
+     * @param pageIndex Page index (0-based)
+     * @param dpi Resolution; 72 is one pixel per point
+     */
+    public Dimension getPageSize(int pageIndex, float dpi) {
+        float scale = dpi / 72f;
+        return new Dimension((int) Math.max(Math.floor(pageWidths[pageIndex] * scale), 1),
+                (int) Math.max(Math.floor(pageHeights[pageIndex] * scale), 1));
+    }
+
+    /**
+     * @return Number of tile columns of a page at this DPI; tile index = row * columns + column
+     */
+    public int getTileColumns(int pageIndex, float dpi) {
+        return (getPageSize(pageIndex, dpi).width + TILE_SIZE - 1) / TILE_SIZE;
+    }
+
+    /**
+     * Render a whole page
+     * @param pageIndex Page index (0-based)
+     * @param dpi Resolution; 72 is one pixel per point
+     * @return Rendered page holding one reference; release it when it is no longer needed
+     * @throws IOException if the page cannot be read
+     */
+    public PageImage render(int pageIndex, float dpi) throws IOException {
+        Dimension size = getPageSize(pageIndex, dpi);
+        return draw(pageIndex, dpi, PageImage.WHOLE_PAGE, 0, 0, size.width, size.height);
+    }
+
+    /**
+     * Render one tile of a page; tiles on the right and bottom edges may be smaller
+     * @param tile Tile index (row * columns + column)
+     * @return Rendered tile holding one reference; release it when it is no longer needed
+     * @throws IOException if the page cannot be read
+     */
+    public PageImage renderTile(int pageIndex, float dpi, int tile) throws IOException {
+        Dimension size = getPageSize(pageIndex, dpi);
+        int columns = getTileColumns(pageIndex, dpi);
+        int x = tile % columns * TILE_SIZE;
+        int y = tile / columns * TILE_SIZE;
+        if (tile < 0 || y >= size.height) {
+            throw new IllegalArgumentException("No tile " + tile + " on page " + (pageIndex + 1));
+        }
+        return draw(pageIndex, dpi, tile, x, y, Math.min(TILE_SIZE, size.width - x), Math.min(TILE_SIZE, size.height - y));
+    }
+
+    /**
+     * Draw the part of a page at (x, y) of the given pixel size into a pooled buffer
+     */
+    private PageImage draw(int pageIndex, float dpi, int tile, int x, int y, int width, int height) throws IOException {
+        float scale = dpi / 72f;
+        int[] pixels = acquire(width * height);
+        BufferedImage target = wrap(pixels, width, height);
+        Graphics2D graphics = target.createGraphics();
+        try {
+            // renderPageToGraphics clears the page area with the background colour
+            graphics.setBackground(Color.WHITE);
+            graphics.clearRect(0, 0, width, height);
+            graphics.translate(-x, -y);
+            renderer.renderPageToGraphics(pageIndex, graphics, scale, scale);
+        } catch (IOException | RuntimeException e) {
+            recycle(pixels);
+            throw e;
+        } finally {
+            graphics.dispose();
+        }
+
+        PixelBuffer<IntBuffer> pixelBuffer = new PixelBuffer<>(width, height,
+                IntBuffer.wrap(pixels, 0, width * height), PixelFormat.getIntArgbPreInstance());
+        return new PageImage(pageIndex, dpi, tile, x, y, pixels, new WritableImage(pixelBuffer), this);
+    }
+
+    /**
+     * Take a free buffer of at least the given length, or allocate one
+     */
+    private synchronized int[] acquire(int length) {
+        int best = -1;
+        for (int i = 0; i < freeBuffers.size(); i++) {
+            int[] candidate = freeBuffers.get(i);
+            if (candidate.length >= length && candidate.length / MAX_OVERSIZE <= length
+                    && (best < 0 || candidate.length < freeBuffers.get(best).length)) {
+                best = i;
+            }
+        }
+        if (best >= 0) {
+            reusedCount++;
+            return freeBuffers.remove(best);
+        }
+        allocatedCount++;
+        return new int[length];
+    }
+
+    /**
+     * Keep a released buffer for reuse, dropping the smallest one if the pool is full
+     */
+    synchronized void recycle(int[] pixels) {
+        freeBuffers.add(pixels);
+        if (freeBuffers.size() > POOL_SIZE) {
+            int smallest = 0;
+            for (int i = 1; i < freeBuffers.size(); i++) {
+                if (freeBuffers.get(i).length < freeBuffers.get(smallest).length) {
+                    smallest = i;
+                }
+            }
+            freeBuffers.remove(smallest);
+        }
+    }
+
+    private static BufferedImage wrap(int[] pixels, int width, int height) {
+        DataBufferInt buffer = new DataBufferInt(pixels, width * height);
+        WritableRaster raster = Raster.createPackedRaster(buffer, width, height, width,
+                new int[] { 0x00ff0000, 0x0000ff00, 0x000000ff, 0xff000000 }, null);
+        return new BufferedImage(ARGB_PRE, raster, true, null);
+    }
+
+    /**
+     * @return Buffers allocated because no free one fitted
+     */
+    public synchronized long getAllocatedCount() {
+        return allocatedCount;
+    }
+
+    /**
+     * @return Renders that reused a released buffer
+     */
+    public synchronized long getReusedCount() {
+        return reusedCount;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format("allocated=%d, reused=%d, free=%d", allocatedCount, reusedCount, freeBuffers.size());
+    }
+}
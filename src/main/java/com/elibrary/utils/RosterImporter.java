@@ -0,0 +1,314 @@
+package com.elibrary.utils;
+
+import com.elibrary.database.DatabaseConnection;
+import com.elibrary.database.ServiceRegistry;
+import com.elibrary.database.StudentRepository;
+import com.elibrary.models.Student;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.BooleanSupplier;
+import java.util.regex.Pattern;
+
+/**
+ * Student roster import from CSV.
+ * Rows are validated, then saved by LRN in batches through
+ * StudentRepository.upsertStudents: new LRNs are inserted and known LRNs get the
+ * roster's name, grade level and section. A batch the database rejects is
+ * split and saved again, so only the rows that fail on their own are rejected.
+ *
+ * Columns (header row required, any order): lrn, first_name, last_name,
+ * grade_level, section.
+ */
+public class RosterImporter {
+    // Rows per upsert statement, overridable with -Delibrary.roster.batchSize
+    private static final int BATCH_SIZE = Integer.getInteger("elibrary.roster.batchSize", 500);
+
+    private static final Pattern LRN_PATTERN = Pattern.compile("\\d{12}");
+    private static final String[] COLUMNS = { "lrn", "first_name", "last_name", "grade_level", "section" };
+    private static final int MAX_NAME_LENGTH = 50;
+    private static final int MAX_SECTION_LENGTH = 20;
+
+    /**
+     * Receives progress while an import runs
+     */
+    public interface ProgressListener {
+        void onProgress(int rowsRead, int inserted, int updated, int rejected);
+    }
+
+    private final StudentRepository studentRepository;
+
+    public RosterImporter(StudentRepository studentRepository) {
+        this.studentRepository = studentRepository;
+    }
+
+    /**
+     * Import a roster file
+     * @param roster CSV file
+     * @param listener Progress listener, or null
+     * @param cancelled Checked between batches, or null
+     * @return Import summary
+     * @throws IOException if the file cannot be read or has no usable header
+     */
+    public Result importRoster(Path roster, ProgressListener listener, BooleanSupplier cancelled) throws IOException {
+        Result result = new Result();
+
+        try (BufferedReader reader = Files.newBufferedReader(roster, StandardCharsets.UTF_8)) {
+            String headerLine = reader.readLine();
+            if (headerLine == null) {
+                return result;
+            }
+            Map<String, Integer> columns = readHeader(headerLine);
+
+            // LRN -> line it was first seen on, to reject repeats within the file
+            Map<String, Integer> seen = new HashMap<>();
+            List<Student> batch = new ArrayList<>();
+            List<Integer> batchLines = new ArrayList<>();
+            String line;
+            int lineNumber = 1;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.trim().isEmpty()) {
+                    continue;
+                }
+                result.rowsRead++;
+
+                Student student = new Student();
+                String error = parseRow(CsvUtil.parseLine(line), columns, student);
+                if (error == null) {
+                    Integer firstLine = seen.putIfAbsent(student.getLrn(), lineNumber);
+                    if (firstLine != null) {
+                        error = "LRN " + student.getLrn() + " already on line " + firstLine;
+                    }
+                }
+                if (error != null) {
+                    result.reject(lineNumber, error);
+                    continue;
+                }
+
+                batch.add(student);
+                batchLines.add(lineNumber);
+                if (batch.size() >= BATCH_SIZE) {
+                    saveBatch(batch, batchLines, result);
+                    if (listener != null) {
+                        listener.onProgress(result.rowsRead, result.inserted, result.updated, result.rejected);
+                    }
+                    if (cancelled != null && cancelled.getAsBoolean()) {
+                        result.cancelled = true;
+                        return result;
+                    }
+                }
+            }
+            saveBatch(batch, batchLines, result);
+        }
+
+        if (listener != null) {
+            listener.onProgress(result.rowsRead, result.inserted, result.updated, result.rejected);
+        }
+        return result;
+    }
+
+    private void saveBatch(List<Student> batch, List<Integer> batchLines, Result result) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        if (!save(batch, result)) {
+            if (databaseReachable()) {
+                // One bad row fails the whole statement; split the batch until it is isolated
+                saveSplit(batch, batchLines, result);
+            } else {
+                for (int lineNumber : batchLines) {
+                    result.reject(lineNumber, "database error");
+                }
+            }
+        }
+        batch.clear();
+        batchLines.clear();
+    }
+
+    /**
+     * Save the halves of a failed batch separately, down to single rows
+     */
+    private void saveSplit(List<Student> students, List<Integer> lines, Result result) {
+        if (students.size() == 1) {
+            result.reject(lines.get(0), "database error");
+            return;
+        }
+        int middle = students.size() / 2;
+        List<Student> firstHalf = students.subList(0, middle);
+        List<Student> secondHalf = students.subList(middle, students.size());
+        if (!save(firstHalf, result)) {
+            saveSplit(firstHalf, lines.subList(0, middle), result);
+        }
+        if (!save(secondHalf, result)) {
+            saveSplit(secondHalf, lines.subList(middle, lines.size()), result);
+        }
+    }
+
+    /**
+     * Upsert students and count them in the result
+     * @return false if the upsert failed
+     */
+    private boolean save(List<Student> students, Result result) {
+        int inserted = studentRepository.upsertStudents(students);
+        if (inserted < 0) {
+            return false;
+        }
+        result.inserted += inserted;
+        result.updated += students.size() - inserted;
+        return true;
+    }
+
+    /**
+     * Splitting a batch only helps if the database is up; otherwise every part waits out the pool timeout
+     */
+    private static boolean databaseReachable() {
+        return ServiceRegistry.getInstance().isInMemory() || DatabaseConnection.getInstance().testConnection();
+    }
+
+    private static Map<String, Integer> readHeader(String headerLine) throws IOException {
+        Map<String, Integer> columns = new HashMap<>();
+        List<String> header = CsvUtil.parseLine(CsvUtil.stripBom(headerLine));
+        for (int i = 0; i < header.size(); i++) {
+            // "First Name", "first-name" and "first_name" are all accepted
+            String name = header.get(i).trim().toLowerCase(Locale.ROOT).replaceAll("[\\s-]+", "_");
+            columns.put(name, i);
+        }
+        for (String column : COLUMNS) {
+            if (!columns.containsKey(column)) {
+                throw new IOException("Roster has no \"" + column + "\" column");
+            }
+        }
+        return columns;
+    }
+
+    /**
+     * Validate one row and copy it into a student
+     * @return Reason the row is rejected, or null if it is valid
+     */
+    private static String parseRow(List<String> fields, Map<String, Integer> columns, Student student) {
+        String lrn = field(fields, columns, "lrn");
+        String firstName = field(fields, columns, "first_name");
+        String lastName = field(fields, columns, "last_name");
+        String gradeLevel = field(fields, columns, "grade_level");
+        String section = field(fields, columns, "section");
+
+        if (!LRN_PATTERN.matcher(lrn).matches()) {
+            return "LRN must be 12 digits: \"" + lrn + "\"";
+        }
+        if (firstName.isEmpty() || lastName.isEmpty()) {
+            return "first and last name are required";
+        }
+        if (firstName.length() > MAX_NAME_LENGTH || lastName.length() > MAX_NAME_LENGTH) {
+            return "name longer than " + MAX_NAME_LENGTH + " characters";
+        }
+        if (section.isEmpty() || section.length() > MAX_SECTION_LENGTH) {
+            return "section must be 1 to " + MAX_SECTION_LENGTH + " characters";
+        }
+        int grade;
+        try {
+            grade = Integer.parseInt(gradeLevel.replaceFirst("(?i)^grade\\s*", ""));
+        } catch (NumberFormatException e) {
+            return "invalid grade level \"" + gradeLevel + "\"";
+        }
+        if (grade < 1 || grade > 12) {
+            return "grade level must be 1 to 12";
+        }
+
+        student.setLrn(lrn);
+        student.setFirstName(firstName);
+        student.setLastName(lastName);
+        student.setGradeLevel(grade);
+        student.setSection(section);
+        return null;
+    }
+
+    private static String field(List<String> fields, Map<String, Integer> columns, String name) {
+        int index = columns.get(name);
+        return index < fields.size() ? fields.get(index).trim() : "";
+    }
+
+    /**
+     * Import a roster from the command line.
+     * Usage: RosterImporter roster.csv
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.err.println("Usage: RosterImporter <roster.csv>");
+            System.exit(2);
+        }
+        long start = System.nanoTime();
+        Result result = new RosterImporter(ServiceRegistry.getInstance().getStudentRepository()).importRoster(Paths.get(args[0]), null, null);
+        System.out.printf("Roster import: %s in %.1f s%n", result, (System.nanoTime() - start) / 1e9);
+        for (String rejection : result.getRejections()) {
+            System.out.println("  " + rejection);
+        }
+        DatabaseConnection.getInstance().closeConnection();
+    }
+
+    /**
+     * Outcome of one roster import
+     */
+    public static final class Result {
+        private static final int MAX_REJECTIONS = 100;
+
+        private int rowsRead = 0;
+        private int inserted = 0;
+        private int updated = 0;
+        private int rejected = 0;
+        private boolean cancelled = false;
+        private final List<String> rejections = new ArrayList<>();
+
+        private void reject(int lineNumber, String reason) {
+            rejected++;
+            if (rejections.size() < MAX_REJECTIONS) {
+                rejections.add("line " + lineNumber + ": " + reason);
+            }
+        }
+
+        public int getRowsRead() {
+            return rowsRead;
+        }
+
+        public int getInserted() {
+            return inserted;
+        }
+
+        /**
+         * @return Rows whose LRN already existed (including ones that did not change)
+         */
+        public int getUpdated() {
+            return updated;
+        }
+
+        public int getRejected() {
+            return rejected;
+        }
+
+        public boolean isCancelled() {
+            return cancelled;
+        }
+
+        /**
+         * @return The first rejected rows with their reasons
+         */
+        public List<String> getRejections() {
+            return rejections;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d inserted, %d updated, %d rejected of %d rows%s",
+                    inserted, updated, rejected, rowsRead, cancelled ? " (cancelled)" : "");
+        }
+    }
+}
@@ -0,0 +1,118 @@
+-- E-Library Database Schema for the embedded (H2) backend
+-- Created automatically by DatabaseConnection on first start with
+-- -Delibrary.db.backend=h2. Mirrors database/schema.sql without the
+-- MySQL-only FULLTEXT index (catalog search uses LIKE instead).
+-- Statements are separated by semicolons at the end of a line.
+
+-- STUDENT Table
+CREATE TABLE IF NOT EXISTS STUDENT (
+    student_id INT AUTO_INCREMENT PRIMARY KEY,
+    lrn VARCHAR(20) NOT NULL UNIQUE,
+    first_name VARCHAR(50) NOT NULL,
+    last_name VARCHAR(50) NOT NULL,
+    grade_level INT NOT NULL,
+    section VARCHAR(20) NOT NULL,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+-- CATEGORY Table
+CREATE TABLE IF NOT EXISTS CATEGORY (
+    category_id INT AUTO_INCREMENT PRIMARY KEY,
+    category_name VARCHAR(100) NOT NULL UNIQUE,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+-- BOOK Table
+CREATE TABLE IF NOT EXISTS BOOK (
+    book_id INT AUTO_INCREMENT PRIMARY KEY,
+    category_id INT NOT NULL,
+    title VARCHAR(255) NOT NULL,
+    author VARCHAR(255) NOT NULL,
+    year_published INT,
+    description TEXT,
+    file_path VARCHAR(500) NOT NULL,
+    cover_image_path VARCHAR(500),
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP(3) DEFAULT CURRENT_TIMESTAMP(3) ON UPDATE CURRENT_TIMESTAMP(3),
+    FOREIGN KEY (category_id) REFERENCES CATEGORY(category_id) ON DELETE RESTRICT
+);
+CREATE INDEX IF NOT EXISTS idx_title ON BOOK (title);
+CREATE INDEX IF NOT EXISTS idx_author ON BOOK (author);
+CREATE INDEX IF NOT EXISTS idx_category ON BOOK (category_id);
+CREATE INDEX IF NOT EXISTS idx_updated_at ON BOOK (updated_at);
+
+-- ACCESS_LOG Table
+CREATE TABLE IF NOT EXISTS ACCESS_LOG (
+    access_id INT AUTO_INCREMENT PRIMARY KEY,
+    student_id INT NOT NULL,
+    book_id INT NOT NULL,
+    access_type ENUM('VIEW', 'DOWNLOAD') NOT NULL,
+    access_date TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    FOREIGN KEY (student_id) REFERENCES STUDENT(student_id) ON DELETE CASCADE,
+    FOREIGN KEY (book_id) REFERENCES BOOK(book_id) ON DELETE CASCADE
+);
+CREATE INDEX IF NOT EXISTS idx_student ON ACCESS_LOG (student_id);
+CREATE INDEX IF NOT EXISTS idx_book ON ACCESS_LOG (book_id);
+CREATE INDEX IF NOT EXISTS idx_access_date ON ACCESS_LOG (access_date);
+
+-- BOOK_STATS Table
+CREATE TABLE IF NOT EXISTS BOOK_STATS (
+    book_id INT PRIMARY KEY,
+    view_count INT NOT NULL DEFAULT 0,
+    download_count INT NOT NULL DEFAULT 0,
+    FOREIGN KEY (book_id) REFERENCES BOOK(book_id) ON DELETE CASCADE
+);
+
+-- BOOK_USAGE_DAILY Table
+CREATE TABLE IF NOT EXISTS BOOK_USAGE_DAILY (
+    usage_date DATE NOT NULL,
+    book_id INT NOT NULL,
+    access_type ENUM('VIEW', 'DOWNLOAD') NOT NULL,
+    access_count INT NOT NULL DEFAULT 0,
+    PRIMARY KEY (usage_date, book_id, access_type),
+    FOREIGN KEY (book_id) REFERENCES BOOK(book_id) ON DELETE CASCADE
+);
+CREATE INDEX IF NOT EXISTS idx_usage_book ON BOOK_USAGE_DAILY (book_id);
+
+-- SECTION_USAGE_DAILY Table
+CREATE TABLE IF NOT EXISTS SECTION_USAGE_DAILY (
+    usage_date DATE NOT NULL,
+    grade_level INT NOT NULL,
+    section VARCHAR(20) NOT NULL,
+    access_type ENUM('VIEW', 'DOWNLOAD') NOT NULL,
+    access_count INT NOT NULL DEFAULT 0,
+    PRIMARY KEY (usage_date, grade_level, section, access_type)
+);
+
+-- ADMIN Table
+CREATE TABLE IF NOT EXISTS ADMIN (
+    admin_id INT AUTO_INCREMENT PRIMARY KEY,
+    first_name VARCHAR(50) NOT NULL,
+    last_name VARCHAR(50) NOT NULL,
+    username VARCHAR(50) NOT NULL UNIQUE,
+    password VARCHAR(255) NOT NULL,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+-- Insert default admin account (password: admin123 - hashed)
+INSERT INTO ADMIN (first_name, last_name, username, password)
+VALUES ('Admin', 'User', 'admin', '240be518fabd2724ddb6f04eeb1da5967448d7e831c08c8fa822809f74c720a9');
+
+-- Insert sample categories
+INSERT INTO CATEGORY (category_name) VALUES
+    ('Fiction'),
+    ('Non-Fiction'),
+    ('Science'),
+    ('Mathematics'),
+    ('History'),
+    ('Literature'),
+    ('Technology'),
+    ('Arts'),
+    ('Biography'),
+    ('Reference');
+
+-- Insert sample students
+INSERT INTO STUDENT (lrn, first_name, last_name, grade_level, section) VALUES
+    ('123456789012', 'Juan', 'Dela Cruz', 11, 'A'),
+    ('123456789013', 'Maria', 'Santos', 11, 'B'),
+    ('123456789014', 'Pedro', 'Reyes', 12, 'A');
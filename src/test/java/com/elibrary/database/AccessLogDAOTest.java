@@ -0,0 +1,180 @@
+package com.elibrary.database;
+
+import com.elibrary.models.AccessLog;
+import com.elibrary.models.Book;
+import com.elibrary.models.Page;
+import com.elibrary.models.SectionUsage;
+import com.elibrary.models.Student;
+import org.junit.Test;
+
+import java.sql.Date;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Batched access logging with its counters and rollups, and keyset paging of the log
+ */
+public class AccessLogDAOTest extends H2DatabaseTest {
+    private static final LocalDate DAY = LocalDate.of(2024, 3, 4);
+
+    private final AccessLogDAO accessLogDAO = new AccessLogDAO();
+
+    @Test
+    public void batchUpdatesBookStatsAndRollups() throws SQLException {
+        Book book = addBook("Alpha", "Author", "");
+        Book other = addBook("Bravo", "Author", "");
+        Student grade11 = addStudent("400000000001", 11, "A");
+        Student grade12 = addStudent("400000000002", 12, "B");
+
+        List<AccessLog> logs = new ArrayList<>();
+        logs.add(log(grade11, book, "VIEW", DAY.atTime(8, 0)));
+        logs.add(log(grade11, book, "VIEW", DAY.atTime(9, 0)));
+        logs.add(log(grade12, book, "DOWNLOAD", DAY.atTime(10, 0)));
+        logs.add(log(grade12, other, "VIEW", DAY.plusDays(1).atTime(8, 0)));
+        assertTrue(accessLogDAO.logAccessBatch(logs));
+        // A second batch adds to the same counters and rollup rows
+        assertTrue(accessLogDAO.logAccessBatch(List.of(log(grade11, book, "VIEW", DAY.atTime(11, 0)))));
+
+        assertEquals(5, queryLong("SELECT COUNT(*) FROM ACCESS_LOG"));
+        assertEquals(3, queryLong("SELECT view_count FROM BOOK_STATS WHERE book_id = ?", book.getBookId()));
+        assertEquals(1, queryLong("SELECT download_count FROM BOOK_STATS WHERE book_id = ?", book.getBookId()));
+        assertEquals(1, queryLong("SELECT view_count FROM BOOK_STATS WHERE book_id = ?", other.getBookId()));
+        Book read = new BookDAO().getBookById(book.getBookId());
+        assertEquals(3, read.getViewCount());
+        assertEquals(1, read.getDownloadCount());
+
+        assertEquals(3, queryLong("SELECT access_count FROM BOOK_USAGE_DAILY " +
+                "WHERE usage_date = ? AND book_id = ? AND access_type = 'VIEW'", Date.valueOf(DAY), book.getBookId()));
+        assertEquals(1, queryLong("SELECT access_count FROM BOOK_USAGE_DAILY " +
+                "WHERE usage_date = ? AND book_id = ? AND access_type = 'VIEW'", Date.valueOf(DAY.plusDays(1)), other.getBookId()));
+
+        UsageRollupDAO rollups = new UsageRollupDAO();
+        Map<String, Long> totals = rollups.getTotalsByType();
+        assertEquals(4L, (long) totals.get("VIEW"));
+        assertEquals(1L, (long) totals.get("DOWNLOAD"));
+        assertEquals(Map.of(DAY, 3L, DAY.plusDays(1), 1L), rollups.getDailyCounts(DAY, DAY.plusDays(2), "VIEW"));
+
+        List<SectionUsage> sections = rollups.getSectionUsage(DAY, DAY.plusDays(1));
+        assertEquals(2, sections.size());
+        assertEquals(11, sections.get(0).getGradeLevel());
+        assertEquals(3, sections.get(0).getViewCount());
+        assertEquals(0, sections.get(0).getDownloadCount());
+        assertEquals(12, sections.get(1).getGradeLevel());
+        assertEquals(0, sections.get(1).getViewCount());
+        assertEquals(1, sections.get(1).getDownloadCount());
+    }
+
+    @Test
+    public void deletesTakeLogsOutOfRollups() throws SQLException {
+        Book book = addBook("Alpha", "Author", "");
+        Book other = addBook("Bravo", "Author", "");
+        Student kept = addStudent("400000000041", 11, "A");
+        Student removed = addStudent("400000000042", 11, "A");
+        assertTrue(accessLogDAO.logAccessBatch(List.of(
+                log(kept, book, "VIEW", DAY.atTime(8, 0)),
+                log(removed, book, "VIEW", DAY.atTime(9, 0)),
+                log(removed, other, "DOWNLOAD", DAY.atTime(10, 0)),
+                log(kept, other, "VIEW", DAY.atTime(11, 0)))));
+
+        assertTrue(new StudentDAO().deleteStudent(removed.getStudentId()));
+        UsageRollupDAO rollups = new UsageRollupDAO();
+        assertEquals(Map.of("VIEW", 2L, "DOWNLOAD", 0L), rollups.getTotalsByType());
+        List<SectionUsage> sections = rollups.getSectionUsage(DAY, DAY.plusDays(1));
+        assertEquals(1, sections.size());
+        assertEquals(2, sections.get(0).getViewCount());
+        assertEquals(0, sections.get(0).getDownloadCount());
+
+        assertTrue(new BookDAO().deleteBook(book.getBookId()));
+        assertEquals(Map.of("VIEW", 1L, "DOWNLOAD", 0L), rollups.getTotalsByType());
+        sections = rollups.getSectionUsage(DAY, DAY.plusDays(1));
+        assertEquals(1, sections.get(0).getViewCount());
+    }
+
+    @Test
+    public void failedBatchWritesNothing() throws SQLException {
+        Book book = addBook("Alpha", "Author", "");
+        Student student = addStudent("400000000011", 11, "A");
+
+        List<AccessLog> logs = new ArrayList<>();
+        logs.add(log(student, book, "VIEW", DAY.atTime(8, 0)));
+        // Unknown book: the foreign key fails the whole batch
+        logs.add(new AccessLog(student.getStudentId(), book.getBookId() + 1000, "VIEW"));
+        logs.get(1).setAccessDate(Timestamp.valueOf(DAY.atTime(9, 0)));
+        assertFalse(accessLogDAO.logAccessBatch(logs));
+
+        assertEquals(0, queryLong("SELECT COUNT(*) FROM ACCESS_LOG"));
+        assertEquals(0, queryLong("SELECT COUNT(*) FROM BOOK_STATS"));
+        assertEquals(0, queryLong("SELECT COUNT(*) FROM BOOK_USAGE_DAILY"));
+        assertEquals(0, queryLong("SELECT COUNT(*) FROM SECTION_USAGE_DAILY"));
+    }
+
+    @Test
+    public void pagesCoverLogOnceNewestFirst() {
+        Book book = addBook("Alpha", "Author", "");
+        Student student = addStudent("400000000021", 11, "A");
+        List<AccessLog> logs = new ArrayList<>();
+        // Several logs share a timestamp, so pages must break ties by access ID
+        for (int i = 0; i < 9; i++) {
+            logs.add(log(student, book, i % 2 == 0 ? "VIEW" : "DOWNLOAD", DAY.atTime(8 + i / 3, 0)));
+        }
+        assertTrue(accessLogDAO.logAccessBatch(logs));
+
+        List<AccessLog> seen = new ArrayList<>();
+        AccessLog after = null;
+        while (true) {
+            Page<AccessLog> page = accessLogDAO.getAccessLogsPage(after, 4);
+            seen.addAll(page.getItems());
+            if (!page.hasMore()) {
+                break;
+            }
+            after = page.getLast();
+        }
+
+        assertEquals(9, seen.size());
+        for (int i = 1; i < seen.size(); i++) {
+            AccessLog newer = seen.get(i - 1);
+            AccessLog older = seen.get(i);
+            int byDate = newer.getAccessDate().compareTo(older.getAccessDate());
+            assertTrue("out of order at " + i, byDate > 0 || (byDate == 0 && newer.getAccessId() > older.getAccessId()));
+        }
+        assertEquals("Alpha", seen.get(0).getBookTitle());
+        assertEquals(student.getFirstName() + " " + student.getLastName(), seen.get(0).getStudentName());
+    }
+
+    @Test
+    public void pagesStayWithinDateRange() {
+        Book book = addBook("Alpha", "Author", "");
+        Student student = addStudent("400000000031", 11, "A");
+        List<AccessLog> logs = new ArrayList<>();
+        for (int day = 0; day < 5; day++) {
+            logs.add(log(student, book, "VIEW", DAY.plusDays(day).atTime(12, 0)));
+            logs.add(log(student, book, "VIEW", DAY.plusDays(day).atTime(12, 0)));
+        }
+        assertTrue(accessLogDAO.logAccessBatch(logs));
+
+        Timestamp from = Timestamp.valueOf(DAY.plusDays(1).atStartOfDay());
+        Timestamp to = Timestamp.valueOf(DAY.plusDays(3).atStartOfDay());
+        Page<AccessLog> first = accessLogDAO.getAccessLogsPage(null, 3, from, to);
+        assertEquals(3, first.getItems().size());
+        assertTrue(first.hasMore());
+        Page<AccessLog> second = accessLogDAO.getAccessLogsPage(first.getLast(), 3, from, to);
+        assertEquals(1, second.getItems().size());
+        assertFalse(second.hasMore());
+        assertEquals(Timestamp.valueOf(DAY.plusDays(1).atTime(12, 0)), second.getItems().get(0).getAccessDate());
+    }
+
+    private static AccessLog log(Student student, Book book, String accessType, LocalDateTime when) {
+        AccessLog log = new AccessLog(student.getStudentId(), book.getBookId(), accessType);
+        log.setAccessDate(Timestamp.valueOf(when));
+        return log;
+    }
+}
@@ -0,0 +1,61 @@
+package com.elibrary.database;
+
+import com.elibrary.models.AccessLog;
+import com.elibrary.models.Book;
+import com.elibrary.models.Student;
+import org.junit.Test;
+
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Queued access logs: bad events fail alone, and only connection errors are retried
+ */
+public class AccessLogWriterTest extends H2DatabaseTest {
+    @Test
+    public void badEventFailsAloneWithoutRetry() throws SQLException {
+        Book book = addBook("Alpha", "Author", "");
+        Student student = addStudent("400000000051", 11, "A");
+        AccessLogWriter writer = AccessLogWriter.getInstance();
+        assertTrue(writer.flush(5_000));
+        AccessLogWriter.Stats before = writer.getStats();
+
+        writer.logAccess(student.getStudentId(), book.getBookId(), "VIEW");
+        writer.logAccess(student.getStudentId(), book.getBookId() + 1000, "VIEW");
+        writer.logAccess(student.getStudentId(), book.getBookId(), "DOWNLOAD");
+        assertTrue(writer.flush(5_000));
+
+        AccessLogWriter.Stats after = writer.getStats();
+        assertEquals(2, after.getWrittenCount() - before.getWrittenCount());
+        assertEquals(1, after.getFailedCount() - before.getFailedCount());
+        assertEquals(0, after.getQueueDepth());
+        assertEquals(2, queryLong("SELECT COUNT(*) FROM ACCESS_LOG"));
+    }
+
+    @Test
+    public void rejectedBatchIsNotConnectionFailure() {
+        AccessLog log = new AccessLog(1, Integer.MAX_VALUE, "VIEW");
+        try {
+            new AccessLogDAO().writeAccessBatch(List.of(log));
+            fail("unknown student and book were written");
+        } catch (SQLException e) {
+            assertFalse(DatabaseConnection.isConnectionFailure(e));
+        }
+    }
+
+    @Test
+    public void connectionErrorsAreRecognized() {
+        assertTrue(DatabaseConnection.isConnectionFailure(new SQLTransientConnectionException("pool timeout")));
+        assertTrue(DatabaseConnection.isConnectionFailure(new SQLException("Communications link failure", "08S01")));
+        assertTrue(DatabaseConnection.isConnectionFailure(
+                new SQLException("wrapped", new SQLException("refused", "08001"))));
+        assertFalse(DatabaseConnection.isConnectionFailure(new SQLException("Duplicate entry", "23000")));
+        assertFalse(DatabaseConnection.isConnectionFailure(new SQLException("no state")));
+    }
+}
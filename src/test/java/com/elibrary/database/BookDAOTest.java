@@ -0,0 +1,120 @@
+package com.elibrary.database;
+
+import com.elibrary.models.Book;
+import com.elibrary.models.Page;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Keyset paging of the catalog and the LIKE search used without a full-text index
+ */
+public class BookDAOTest extends H2DatabaseTest {
+    private final BookDAO bookDAO = new BookDAO();
+
+    @Test
+    public void pagesCoverCatalogOnceInTitleOrder() {
+        // Duplicate titles are ordered by book ID, so a page can end in the middle of them
+        String[] titles = {"Delta", "Alpha", "Charlie", "Bravo", "Bravo", "Bravo", "Echo"};
+        List<Integer> expected = new ArrayList<>();
+        for (String title : titles) {
+            addBook(title, "Author", "");
+        }
+        for (Book book : bookDAO.getAllBooks()) {
+            expected.add(book.getBookId());
+        }
+
+        List<Integer> seen = new ArrayList<>();
+        List<String> seenTitles = new ArrayList<>();
+        Book after = null;
+        int pages = 0;
+        while (true) {
+            Page<Book> page = bookDAO.getBooksPage(after, 2);
+            pages++;
+            for (Book book : page.getItems()) {
+                seen.add(book.getBookId());
+                seenTitles.add(book.getTitle());
+            }
+            if (!page.hasMore()) {
+                break;
+            }
+            assertEquals(2, page.getItems().size());
+            after = page.getLast();
+        }
+
+        assertEquals(4, pages);
+        assertEquals(expected, seen);
+        assertEquals(List.of("Alpha", "Bravo", "Bravo", "Bravo", "Charlie", "Delta", "Echo"), seenTitles);
+    }
+
+    @Test
+    public void pageAfterLastBookIsEmpty() {
+        addBook("Alpha", "Author", "");
+        Book only = addBook("Bravo", "Author", "");
+
+        Page<Book> page = bookDAO.getBooksPage(only, 10);
+        assertTrue(page.getItems().isEmpty());
+        assertFalse(page.hasMore());
+    }
+
+    @Test
+    public void pageContinuesAfterDeletedBook() {
+        addBook("Alpha", "Author", "");
+        Book removed = addBook("Bravo", "Author", "");
+        Book next = addBook("Charlie", "Author", "");
+        assertTrue(bookDAO.deleteBook(removed.getBookId()));
+
+        // The previous page's last book no longer exists; the seek still starts after its title
+        Page<Book> page = bookDAO.getBooksPage(removed, 10);
+        assertEquals(1, page.getItems().size());
+        assertEquals(next.getBookId(), page.getItems().get(0).getBookId());
+    }
+
+    @Test
+    public void catalogVersionChangesWhenBookIsReplaced() {
+        addBook("Alpha", "Author", "");
+        Book removed = addBook("Bravo", "Author", "");
+        CatalogCache.Version before = bookDAO.readCatalogVersion();
+        assertEquals(before, bookDAO.readCatalogVersion());
+
+        // Same count, and possibly the same updated_at: only the highest book ID tells them apart
+        assertTrue(bookDAO.deleteBook(removed.getBookId()));
+        addBook("Charlie", "Author", "");
+        assertNotEquals(before, bookDAO.readCatalogVersion());
+    }
+
+    @Test
+    public void rankedSearchFallsBackToSubstringMatch() {
+        assertFalse(DatabaseConnection.getInstance().getDialect().supportsFullTextSearch());
+        addBook("Introduction to Thermodynamics", "Rivera", "Heat and work");
+        addBook("Organic Chemistry", "Dynamo Santos", "Carbon compounds");
+        addBook("World History", "Garcia", "Empires and dynasties");
+        addBook("Poetry", "Lopez", "Verses");
+
+        // Matches inside words, in the title, author or description, ordered by title
+        List<Book> found = bookDAO.searchBooksRanked("dyna", 10);
+        assertEquals(3, found.size());
+        assertEquals("Introduction to Thermodynamics", found.get(0).getTitle());
+        assertEquals("Organic Chemistry", found.get(1).getTitle());
+        assertEquals("World History", found.get(2).getTitle());
+
+        assertEquals(2, bookDAO.searchBooksRanked("dyna", 2).size());
+        assertTrue(bookDAO.searchBooksRanked("nothing like this", 10).isEmpty());
+    }
+
+    @Test
+    public void rankedSearchTreatsOperatorsAsText() {
+        addBook("C++ Primer", "Lippman", "");
+        addBook("C Programming", "Kernighan", "");
+
+        List<Book> found = bookDAO.searchBooksRanked("C++", 10);
+        assertEquals(1, found.size());
+        assertEquals("C++ Primer", found.get(0).getTitle());
+    }
+}
@@ -0,0 +1,73 @@
+package com.elibrary.database;
+
+import com.elibrary.models.Book;
+import com.elibrary.models.Student;
+import org.junit.Before;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Base for DAO tests against the embedded backend
+ * The build points elibrary.db.* at an in-memory H2 database (see the
+ * surefire configuration in pom.xml); every test starts with no books,
+ * students or access logs.
+ */
+public abstract class H2DatabaseTest {
+    // Tables in delete order; categories and the admin account are kept
+    private static final String[] TABLES = {
+        "ACCESS_LOG", "BOOK_STATS", "BOOK_USAGE_DAILY", "SECTION_USAGE_DAILY", "BOOK", "STUDENT"
+    };
+
+    protected int categoryId;
+
+    @Before
+    public void clearDatabase() throws SQLException {
+        assertEquals("tests need the embedded backend", SqlDialect.H2, DatabaseConnection.getInstance().getDialect());
+        try (Connection connection = DatabaseConnection.getInstance().getConnection();
+             Statement stmt = connection.createStatement()) {
+            for (String table : TABLES) {
+                stmt.executeUpdate("DELETE FROM " + table);
+            }
+            try (ResultSet rs = stmt.executeQuery("SELECT MIN(category_id) FROM CATEGORY")) {
+                rs.next();
+                categoryId = rs.getInt(1);
+            }
+        }
+        CatalogCache.getInstance().invalidate();
+    }
+
+    protected Book addBook(String title, String author, String description) {
+        Book book = new Book(0, categoryId, title, author, 2020, description, "books/" + title + ".pdf", null);
+        assertTrue(new BookDAO().addBook(book));
+        return book;
+    }
+
+    protected Student addStudent(String lrn, int gradeLevel, String section) {
+        Student student = new Student(0, lrn, "First" + lrn, "Last" + lrn, gradeLevel, section);
+        assertTrue(new StudentDAO().addStudent(student));
+        return student;
+    }
+
+    /**
+     * Run a query returning a single number
+     * @return The number, or 0 if there is no row
+     */
+    protected static long queryLong(String query, Object... params) throws SQLException {
+        try (Connection connection = DatabaseConnection.getInstance().getConnection();
+             PreparedStatement stmt = connection.prepareStatement(query)) {
+            for (int i = 0; i < params.length; i++) {
+                stmt.setObject(i + 1, params[i]);
+            }
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? rs.getLong(1) : 0;
+            }
+        }
+    }
+}
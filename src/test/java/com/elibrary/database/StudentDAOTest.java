@@ -0,0 +1,74 @@
+package com.elibrary.database;
+
+import com.elibrary.models.Student;
+import org.junit.Test;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Roster upserts: insert counts, updates by LRN, and the login index
+ */
+public class StudentDAOTest extends H2DatabaseTest {
+    private final StudentDAO studentDAO = new StudentDAO();
+
+    @Test
+    public void upsertInsertsNewStudents() throws SQLException {
+        int inserted = studentDAO.upsertStudents(Arrays.asList(
+                new Student(0, "300000000001", "Ana", "Cruz", 11, "A"),
+                new Student(0, "300000000002", "Ben", "Reyes", 12, "B")));
+
+        assertEquals(2, inserted);
+        assertEquals(2, queryLong("SELECT COUNT(*) FROM STUDENT"));
+        // Saved students are put in the login index, so their first login needs no query
+        Student indexed = StudentLoginIndex.getInstance().get("300000000002");
+        assertEquals("Ben", indexed.getFirstName());
+        assertEquals((int) queryLong("SELECT student_id FROM STUDENT WHERE lrn = '300000000002'"), indexed.getStudentId());
+        Student ana = studentDAO.authenticateStudent("300000000001");
+        assertEquals("Ana", ana.getFirstName());
+        assertEquals(11, ana.getGradeLevel());
+    }
+
+    @Test
+    public void upsertUpdatesExistingStudentsByLrn() throws SQLException {
+        Student existing = addStudent("300000000011", 11, "A");
+        // Cached in the login index before the roster import
+        assertEquals(existing.getFirstName(), studentDAO.authenticateStudent("300000000011").getFirstName());
+
+        int inserted = studentDAO.upsertStudents(Arrays.asList(
+                new Student(0, "300000000011", "Carla", "Lim", 12, "C"),
+                new Student(0, "300000000012", "Dino", "Tan", 12, "C")));
+
+        assertEquals(1, inserted);
+        assertEquals(2, queryLong("SELECT COUNT(*) FROM STUDENT"));
+        Student updated = studentDAO.getStudentById(existing.getStudentId());
+        assertEquals("Carla", updated.getFirstName());
+        assertEquals("Lim", updated.getLastName());
+        assertEquals(12, updated.getGradeLevel());
+        assertEquals("C", updated.getSection());
+        // The stale index entry was replaced, so logins see the new roster
+        assertEquals("Carla", StudentLoginIndex.getInstance().get("300000000011").getFirstName());
+        assertEquals("Dino", StudentLoginIndex.getInstance().get("300000000012").getFirstName());
+    }
+
+    @Test
+    public void upsertOfUnchangedStudentsInsertsNothing() throws SQLException {
+        List<Student> roster = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            roster.add(new Student(0, String.valueOf(300000000100L + i), "First" + i, "Last" + i, 11, "A"));
+        }
+        assertEquals(50, studentDAO.upsertStudents(roster));
+        assertEquals(0, studentDAO.upsertStudents(roster));
+        assertEquals(50, queryLong("SELECT COUNT(*) FROM STUDENT"));
+    }
+
+    @Test
+    public void upsertOfEmptyRosterDoesNothing() {
+        assertEquals(0, studentDAO.upsertStudents(Collections.emptyList()));
+    }
+}
@@ -0,0 +1,150 @@
+package com.elibrary.database;
+
+import com.elibrary.models.Student;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+/**
+ * Lookups after removals from the open-addressing table; removals shift later
+ * entries of a probe run back, and a wrong shift makes them unreachable
+ */
+public class StudentLoginIndexTest {
+    // Table size of an index with fewer than 512 students
+    private static final int MASK = 1023;
+
+    private StudentLoginIndex index;
+    private int nextId = 1;
+
+    @Before
+    public void setUp() {
+        index = new StudentLoginIndex();
+    }
+
+    @Test
+    public void removeKeepsRestOfProbeRunReachable() {
+        List<String> sameHome = lrnsWithHome(100, 3);
+        String nextHome = lrnsWithHome(101, 1).get(0);
+        List<Student> added = new ArrayList<>();
+        for (String lrn : sameHome) {
+            added.add(put(lrn));
+        }
+        // Home 101 is taken by the run from 100, so this one lands after it
+        Student displaced = put(nextHome);
+
+        index.remove(sameHome.get(0));
+        assertNull(index.get(sameHome.get(0)));
+        assertSame(added.get(1), index.get(sameHome.get(1)));
+        assertSame(added.get(2), index.get(sameHome.get(2)));
+        assertSame(displaced, index.get(nextHome));
+
+        index.remove(sameHome.get(2));
+        assertSame(added.get(1), index.get(sameHome.get(1)));
+        assertSame(displaced, index.get(nextHome));
+        assertEquals(2, index.size());
+    }
+
+    @Test
+    public void removeShiftsAcrossEndOfTable() {
+        List<String> lastSlot = lrnsWithHome(MASK, 3);
+        List<String> firstSlot = lrnsWithHome(0, 2);
+
+        // An entry in its own home at slot 0 stays put when the last slot is emptied
+        put(lastSlot.get(0));
+        Student first = put(firstSlot.get(0));
+        index.remove(lastSlot.get(0));
+        assertNull(index.get(lastSlot.get(0)));
+        assertSame(first, index.get(firstSlot.get(0)));
+
+        // A run from the last slot wraps past slot 0; entries behind the gap move back across the end
+        Student wrappedRun = put(lastSlot.get(1));
+        Student wrappedRunNext = put(lastSlot.get(2));
+        Student behind = put(firstSlot.get(1));
+        index.remove(firstSlot.get(0));
+        assertSame(wrappedRun, index.get(lastSlot.get(1)));
+        assertSame(wrappedRunNext, index.get(lastSlot.get(2)));
+        assertSame(behind, index.get(firstSlot.get(1)));
+
+        index.remove(lastSlot.get(1));
+        assertSame(wrappedRunNext, index.get(lastSlot.get(2)));
+        assertSame(behind, index.get(firstSlot.get(1)));
+        assertEquals(2, index.size());
+    }
+
+    @Test
+    public void removingMissingLrnChangesNothing() {
+        Student student = put("123456789012");
+        index.remove("999999999999");
+        index.remove("not-an-lrn");
+        assertSame(student, index.get("123456789012"));
+        assertEquals(1, index.size());
+    }
+
+    @Test
+    public void randomRemovalsMatchMap() {
+        Random random = new Random(7);
+        Map<String, Student> expected = new HashMap<>();
+        List<String> lrns = new ArrayList<>();
+        // Close to the maximum load before the table grows, so probe runs are long
+        while (lrns.size() < 500) {
+            String lrn = String.valueOf(100000000000L + random.nextInt(1_000_000));
+            if (!expected.containsKey(lrn)) {
+                expected.put(lrn, put(lrn));
+                lrns.add(lrn);
+            }
+        }
+
+        Collections.shuffle(lrns, random);
+        for (int i = 0; i < 400; i++) {
+            String removed = lrns.get(i);
+            index.remove(removed);
+            expected.remove(removed);
+            assertNull(index.get(removed));
+            for (Map.Entry<String, Student> entry : expected.entrySet()) {
+                assertSame("after removing " + removed, entry.getValue(), index.get(entry.getKey()));
+            }
+        }
+        assertEquals(expected.size(), index.size());
+    }
+
+    @Test
+    public void lrnsWithLeadingZerosAreDistinct() {
+        Student padded = put("0123");
+        Student plain = put("123");
+        assertSame(plain, index.get("123"));
+
+        index.remove("123");
+        assertSame(padded, index.get("0123"));
+        assertNull(index.get("123"));
+    }
+
+    private Student put(String lrn) {
+        Student student = new Student(nextId++, lrn, "First", "Last", 10, "A");
+        index.put(student);
+        return student;
+    }
+
+    /**
+     * Find LRNs whose home slot in the smallest table is the given slot
+     */
+    private static List<String> lrnsWithHome(int slot, int count) {
+        List<String> lrns = new ArrayList<>();
+        for (long value = 200000000000L; lrns.size() < count; value++) {
+            String lrn = String.valueOf(value);
+            if ((StudentLoginIndex.hash(StudentLoginIndex.keyOf(lrn)) & MASK) == slot) {
+                lrns.add(lrn);
+            }
+        }
+        return lrns;
+    }
+}
@@ -0,0 +1,137 @@
+package com.elibrary.utils;
+
+import com.elibrary.database.memory.InMemoryBookRepository;
+import com.elibrary.database.memory.InMemoryCategoryRepository;
+import com.elibrary.database.memory.InMemoryStore;
+import com.elibrary.models.Book;
+import com.elibrary.models.Category;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * A book the database rejects fails alone, not with the rest of its batch
+ */
+public class BookImporterTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final InMemoryStore store = new InMemoryStore();
+    private final FailingRepository books = new FailingRepository(store);
+    private final InMemoryCategoryRepository categories = new InMemoryCategoryRepository(store);
+    private int categoryId;
+    private Path reportFile;
+
+    /**
+     * Fails every insert that contains the book titled "Rejected", as a statement with a bad row would
+     */
+    private static final class FailingRepository extends InMemoryBookRepository {
+        private int calls = 0;
+
+        FailingRepository(InMemoryStore store) {
+            super(store);
+        }
+
+        @Override
+        public boolean addBooks(List<Book> books) {
+            calls++;
+            for (Book book : books) {
+                if (book.getTitle().equals("Rejected")) {
+                    return false;
+                }
+            }
+            return super.addBooks(books);
+        }
+    }
+
+    @Before
+    public void addCategory() {
+        Category category = new Category();
+        category.setCategoryName("General");
+        assertTrue(categories.addCategory(category));
+        categoryId = categories.getAllCategories().get(0).getCategoryId();
+    }
+
+    @After
+    public void deleteCopies() throws IOException {
+        // Copies go to library/books under the working directory
+        for (Book book : books.getAllBooks()) {
+            Files.deleteIfExists(Paths.get(book.getFilePath()));
+        }
+        if (reportFile != null) {
+            Files.deleteIfExists(reportFile);
+        }
+    }
+
+    @Test
+    public void onlyRejectedBookFails() throws IOException {
+        StringBuilder manifest = new StringBuilder("file,title\n");
+        for (int i = 0; i < 5; i++) {
+            manifest.append(pdf("book" + i)).append(',').append(i == 2 ? "Rejected" : "Book " + i).append('\n');
+        }
+
+        BookImporter.Result result = importManifest(manifest.toString());
+
+        assertEquals(4, result.getImported());
+        assertEquals(1, result.getFailed());
+        assertEquals(List.of("book2.pdf: database insert failed"), result.getErrors());
+        assertEquals(List.of("Book 0", "Book 1", "Book 3", "Book 4"),
+                books.getAllBooks().stream().map(Book::getTitle).collect(Collectors.toList()));
+        // The batch, then one insert per book
+        assertEquals(1 + 5, books.calls);
+        List<String> failed = Files.readAllLines(reportFile, StandardCharsets.UTF_8).stream()
+                .filter(line -> line.startsWith("FAILED"))
+                .collect(Collectors.toList());
+        assertEquals(1, failed.size());
+        assertTrue(failed.get(0).contains("book2.pdf"));
+    }
+
+    @Test
+    public void longMetadataIsCutToColumnSize() throws IOException {
+        String title = "T".repeat(300);
+        String author = "A".repeat(300);
+        BookImporter.Result result = importManifest("file,title,author\n" + pdf("long") + "," + title + "," + author + "\n");
+
+        assertEquals(1, result.getImported());
+        assertEquals(1, books.calls);
+        Book book = books.getAllBooks().get(0);
+        assertEquals(title.substring(0, 255), book.getTitle());
+        assertEquals(author.substring(0, 255), book.getAuthor());
+    }
+
+    private BookImporter.Result importManifest(String csv) throws IOException {
+        Path manifest = folder.newFile("manifest.csv").toPath();
+        Files.write(manifest, csv.getBytes(StandardCharsets.UTF_8));
+        BookImporter.Result result = new BookImporter(books, categories).importBooks(manifest, categoryId, null, null);
+        reportFile = result.getReportFile();
+        return result;
+    }
+
+    /**
+     * Write a one-page PDF; the subject makes every file's content, and so its copy, distinct
+     */
+    private String pdf(String name) throws IOException {
+        Path file = folder.getRoot().toPath().resolve(name + ".pdf");
+        try (PDDocument document = new PDDocument()) {
+            document.addPage(new PDPage());
+            document.getDocumentInformation().setSubject(name + " " + System.nanoTime());
+            document.save(file.toFile());
+        }
+        return file.getFileName().toString();
+    }
+}
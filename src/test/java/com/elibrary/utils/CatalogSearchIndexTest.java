@@ -0,0 +1,161 @@
+package com.elibrary.utils;
+
+import com.elibrary.models.Book;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Prefix and infix matching, in-place updates, compaction and background refreshes
+ */
+public class CatalogSearchIndexTest {
+    private final CatalogSearchIndex index = new CatalogSearchIndex();
+
+    /**
+     * Catalog read by refresh(); a null catalog or version stands for a database error
+     */
+    private static final class FakeSource implements CatalogSearchIndex.Source {
+        List<Book> catalog;
+        Object version;
+        Runnable duringLoad;
+        int loads = 0;
+
+        @Override
+        public List<Book> loadCatalog() {
+            loads++;
+            if (duringLoad != null) {
+                duringLoad.run();
+            }
+            return catalog;
+        }
+
+        @Override
+        public Object readCatalogVersion() {
+            return version;
+        }
+    }
+
+    @Test
+    public void matchesPrefixesAndInfixesOfEveryWord() {
+        index.load(List.of(
+                book(1, "Introduction to Thermodynamics", "Rivera", "Heat and work"),
+                book(2, "Organic Chemistry", "Dynamo Santos", "Carbon compounds"),
+                book(3, "World History", "Garcia", "Empires and dynasties"),
+                book(4, "Café Society", "Lopez", "")));
+
+        // "dyna" starts "dynamo" and "dynasties" and is inside "thermodynamics"; results in title order
+        assertEquals(List.of("Introduction to Thermodynamics", "Organic Chemistry", "World History"),
+                titles(index.search("dyna", 10)));
+        assertEquals(List.of("Introduction to Thermodynamics"), titles(index.search("modyn", 10)));
+        // Every word must match
+        assertEquals(List.of("Organic Chemistry"), titles(index.search("dyna carb", 10)));
+        assertTrue(index.search("dyna poetry", 10).isEmpty());
+        // Infixes need three characters
+        assertTrue(index.search("yn", 10).isEmpty());
+        // Case and accents are ignored
+        assertEquals(List.of("Café Society"), titles(index.search("CAFE", 10)));
+        assertEquals(2, index.search("dyna", 2).size());
+    }
+
+    @Test
+    public void putReplacesAndRemoveDrops() {
+        index.put(book(9, "Ignored", "Nobody", ""));
+        assertFalse(index.isReady());
+
+        index.load(List.of(book(1, "Alpha", "Author", ""), book(2, "Bravo", "Author", "")));
+        assertTrue(index.search("ignored", 10).isEmpty());
+
+        index.put(book(3, "Charlie", "Author", ""));
+        // Renamed: the old title no longer matches
+        index.put(book(1, "Delta", "Author", ""));
+        assertEquals(List.of("Bravo", "Charlie", "Delta"), titles(index.search("author", 10)));
+        assertTrue(index.search("alpha", 10).isEmpty());
+
+        index.remove(2);
+        assertEquals(List.of("Charlie", "Delta"), titles(index.search("author", 10)));
+        assertTrue(index.search("bravo", 10).isEmpty());
+    }
+
+    @Test
+    public void compactsAfterManyRemovals() {
+        List<Book> books = new ArrayList<>();
+        for (int i = 0; i < 3000; i++) {
+            books.add(book(i + 1, String.format("Book %04d", i), i % 2 == 0 ? "Even" : "Odd", ""));
+        }
+        index.load(books);
+
+        // Compaction starts past 1000 removed books and a quarter of the index
+        for (int i = 0; i < 1000; i++) {
+            index.remove(i + 1);
+        }
+        assertEquals(1000, index.getDeletedCount());
+        index.remove(1001);
+        assertEquals(0, index.getDeletedCount());
+
+        List<Book> even = index.search("even", 3000);
+        assertEquals(999, even.size());
+        assertEquals("Book 1002", even.get(0).getTitle());
+        assertEquals(1999, index.search("book", 3000).size());
+        index.put(book(5000, "Book Zero", "Even", ""));
+        assertEquals(1000, index.search("even", 3000).size());
+    }
+
+    @Test
+    public void refreshRetriesFailedLoadAndFollowsVersion() {
+        FakeSource source = new FakeSource();
+        source.version = "v1";
+        // Database error: not mistaken for an empty catalog
+        assertFalse(index.refresh(source));
+        assertFalse(index.isReady());
+
+        source.catalog = List.of(book(1, "Alpha", "Author", ""));
+        assertTrue(index.refresh(source));
+        assertTrue(index.isReady());
+        assertEquals(2, source.loads);
+
+        // Same version: nothing is read
+        assertTrue(index.refresh(source));
+        assertEquals(2, source.loads);
+
+        // Written from another kiosk
+        source.version = "v2";
+        source.catalog = List.of(book(1, "Alpha", "Author", ""), book(2, "Bravo", "Author", ""));
+        assertTrue(index.refresh(source));
+        assertEquals(List.of("Alpha", "Bravo"), titles(index.search("author", 10)));
+
+        // A failed reload keeps serving the loaded catalog
+        source.version = "v3";
+        source.catalog = null;
+        assertFalse(index.refresh(source));
+        assertEquals(List.of("Alpha", "Bravo"), titles(index.search("author", 10)));
+    }
+
+    @Test
+    public void updatesDuringLoadAreReplayed() {
+        FakeSource source = new FakeSource();
+        source.version = "v1";
+        source.catalog = List.of(book(1, "Alpha", "Author", ""), book(2, "Bravo", "Author", ""));
+        // Local writes land after the catalog was read but before the new index is swapped in
+        source.duringLoad = () -> {
+            index.put(book(3, "Charlie", "Author", ""));
+            index.remove(1);
+        };
+        assertTrue(index.refresh(source));
+
+        assertEquals(List.of("Bravo", "Charlie"), titles(index.search("author", 10)));
+    }
+
+    private static Book book(int bookId, String title, String author, String description) {
+        return new Book(bookId, 1, title, author, 2020, description, "books/" + bookId + ".pdf", null);
+    }
+
+    private static List<String> titles(List<Book> books) {
+        return books.stream().map(Book::getTitle).collect(Collectors.toList());
+    }
+}
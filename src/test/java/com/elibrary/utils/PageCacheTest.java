@@ -0,0 +1,139 @@
+package com.elibrary.utils;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Byte-budget LRU eviction and the cache's own page references
+ */
+public class PageCacheTest {
+    // 100 pixels of 4 bytes each
+    private static final int PIXELS = 100;
+    private static final long PAGE_BYTES = PIXELS * Integer.BYTES;
+
+    private final PageImageTest.RecordingRenderer renderer = new PageImageTest.RecordingRenderer();
+
+    @Test
+    public void evictsLeastRecentlyUsedOverBudget() {
+        PageCache cache = new PageCache(3 * PAGE_BYTES);
+        for (int page = 0; page < 3; page++) {
+            putAndRelease(cache, page(page));
+        }
+        assertEquals(3 * PAGE_BYTES, cache.getBytes());
+
+        // Page 0 is used again, so page 1 is now the least recently used
+        cache.get(0, 72).release();
+        putAndRelease(cache, page(3));
+
+        assertEquals(3, cache.size());
+        assertEquals(3 * PAGE_BYTES, cache.getBytes());
+        assertEquals(1, cache.getEvictionCount());
+        assertFalse(cache.contains(1, 72));
+        assertTrue(cache.contains(0, 72));
+        assertTrue(cache.contains(3, 72));
+        // The evicted page had no other reference, so its buffer was recycled
+        assertEquals(1, renderer.recycled.size());
+    }
+
+    @Test
+    public void largerPageEvictsSeveral() {
+        PageCache cache = new PageCache(4 * PAGE_BYTES);
+        for (int page = 0; page < 4; page++) {
+            putAndRelease(cache, page(page));
+        }
+        putAndRelease(cache, PageImageTest.image(renderer, 9, PageImage.WHOLE_PAGE, 3 * PIXELS));
+
+        assertEquals(2, cache.size());
+        assertEquals(4 * PAGE_BYTES, cache.getBytes());
+        assertEquals(3, cache.getEvictionCount());
+        assertTrue(cache.contains(3, 72));
+        assertTrue(cache.contains(9, 72));
+    }
+
+    @Test
+    public void pageOverWholeBudgetIsNotCached() {
+        PageCache cache = new PageCache(PAGE_BYTES);
+        PageImage large = PageImageTest.image(renderer, 0, PageImage.WHOLE_PAGE, 2 * PIXELS);
+        cache.put(large);
+
+        assertEquals(0, cache.size());
+        assertEquals(0, cache.getBytes());
+        large.release();
+        assertEquals(1, renderer.recycled.size());
+    }
+
+    @Test
+    public void evictedPageStaysValidWhileShown() {
+        PageCache cache = new PageCache(PAGE_BYTES);
+        PageImage shown = page(0);
+        cache.put(shown);
+        putAndRelease(cache, page(1));
+
+        assertFalse(cache.contains(0, 72));
+        assertTrue(renderer.recycled.isEmpty());
+        // The view's reference is the last one
+        shown.release();
+        assertEquals(1, renderer.recycled.size());
+    }
+
+    @Test
+    public void replacingPageReleasesPrevious() {
+        PageCache cache = new PageCache(2 * PAGE_BYTES);
+        putAndRelease(cache, page(0));
+        putAndRelease(cache, page(0));
+
+        assertEquals(1, cache.size());
+        assertEquals(PAGE_BYTES, cache.getBytes());
+        assertEquals(1, renderer.recycled.size());
+    }
+
+    @Test
+    public void tilesAreCachedSeparatelyAndNotCounted() {
+        PageCache cache = new PageCache(4 * PAGE_BYTES);
+        putAndRelease(cache, page(0));
+        putAndRelease(cache, PageImageTest.image(renderer, 0, 5, PIXELS));
+
+        PageImage tile = cache.peek(0, 72, 5);
+        assertEquals(5, tile.getTile());
+        tile.release();
+        assertNull(cache.peek(0, 72, 6));
+        assertEquals(0, cache.getHitCount() + cache.getMissCount());
+
+        PageImage whole = cache.get(0, 72);
+        assertEquals(PageImage.WHOLE_PAGE, whole.getTile());
+        whole.release();
+        assertNull(cache.get(1, 72));
+        assertEquals(1, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+        assertEquals(0.5, cache.getHitRate(), 0.0);
+    }
+
+    @Test
+    public void clearReleasesEveryPage() {
+        PageCache cache = new PageCache(4 * PAGE_BYTES);
+        for (int page = 0; page < 3; page++) {
+            putAndRelease(cache, page(page));
+        }
+        cache.clear();
+
+        assertEquals(0, cache.size());
+        assertEquals(0, cache.getBytes());
+        assertEquals(3, renderer.recycled.size());
+    }
+
+    private PageImage page(int page) {
+        return PageImageTest.image(renderer, page, PageImage.WHOLE_PAGE, PIXELS);
+    }
+
+    /**
+     * Cache a freshly rendered page and give up the renderer's reference, as the prefetch does
+     */
+    private static void putAndRelease(PageCache cache, PageImage image) {
+        cache.put(image);
+        image.release();
+    }
+}
@@ -0,0 +1,79 @@
+package com.elibrary.utils;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Reference counting: the pixel buffer goes back to the renderer with the last reference
+ */
+public class PageImageTest {
+    /**
+     * Records recycled buffers instead of pooling them
+     */
+    static final class RecordingRenderer extends PageRenderer {
+        final List<int[]> recycled = new ArrayList<>();
+
+        RecordingRenderer() {
+            super(new PDDocument());
+        }
+
+        @Override
+        synchronized void recycle(int[] pixels) {
+            recycled.add(pixels);
+        }
+    }
+
+    /**
+     * A page whose buffer holds the given number of pixels; no JavaFX image is needed here
+     */
+    static PageImage image(RecordingRenderer renderer, int page, int tile, int pixels) {
+        return new PageImage(page, 72, tile, 0, 0, new int[pixels], null, renderer);
+    }
+
+    @Test
+    public void bufferIsRecycledWithLastReference() {
+        RecordingRenderer renderer = new RecordingRenderer();
+        PageImage image = image(renderer, 0, PageImage.WHOLE_PAGE, 16);
+
+        assertSame(image, image.retain());
+        image.retain();
+        image.release();
+        image.release();
+        assertTrue(renderer.recycled.isEmpty());
+
+        image.release();
+        assertEquals(1, renderer.recycled.size());
+        assertEquals(16 * Integer.BYTES, image.getByteSize());
+    }
+
+    @Test
+    public void extraReleaseIsIgnored() {
+        RecordingRenderer renderer = new RecordingRenderer();
+        PageImage image = image(renderer, 0, PageImage.WHOLE_PAGE, 16);
+        image.release();
+        image.release();
+
+        // Recycled once, so the buffer cannot be handed to two pages
+        assertEquals(1, renderer.recycled.size());
+    }
+
+    @Test
+    public void retainAfterLastReleaseFails() {
+        PageImage image = image(new RecordingRenderer(), 3, PageImage.WHOLE_PAGE, 16);
+        image.release();
+        try {
+            image.retain();
+            fail("retained a recycled buffer");
+        } catch (IllegalStateException e) {
+            assertTrue(e.getMessage(), e.getMessage().contains("Page 3"));
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.elibrary.utils;
+
+import com.elibrary.database.memory.InMemoryStore;
+import com.elibrary.database.memory.InMemoryStudentRepository;
+import com.elibrary.models.Student;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Rows of a batch the database rejects are saved again in smaller parts
+ */
+public class RosterImporterTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    /**
+     * Fails every upsert that contains one of the given LRNs, as a statement with a bad row would
+     */
+    private static final class FailingRepository extends InMemoryStudentRepository {
+        private final Set<String> badLrns;
+        private int calls = 0;
+
+        FailingRepository(Set<String> badLrns) {
+            super(new InMemoryStore());
+            this.badLrns = badLrns;
+        }
+
+        @Override
+        public int upsertStudents(List<Student> students) {
+            calls++;
+            for (Student student : students) {
+                if (badLrns.contains(student.getLrn())) {
+                    return -1;
+                }
+            }
+            return super.upsertStudents(students);
+        }
+    }
+
+    @Test
+    public void onlyFailingRowsAreRejected() throws IOException {
+        // Lines 2..1201; the bad rows are on lines 12 and 902, in different batches of 500
+        FailingRepository repository = new FailingRepository(Set.of(lrn(10), lrn(900)));
+        RosterImporter.Result result = new RosterImporter(repository).importRoster(roster(1200), null, null);
+
+        assertEquals(1200, result.getRowsRead());
+        assertEquals(1198, result.getInserted());
+        assertEquals(2, result.getRejected());
+        assertEquals(List.of("line 12: database error", "line 902: database error"), result.getRejections());
+        assertNull(repository.authenticateStudent(lrn(10)));
+        assertEquals("First11", repository.authenticateStudent(lrn(11)).getFirstName());
+        // 3 batches, then about two upserts per halving for each bad row
+        assertTrue("upserts: " + repository.calls, repository.calls < 3 + 2 * 2 * 10);
+    }
+
+    @Test
+    public void batchesWithoutErrorsAreSavedOnce() throws IOException {
+        FailingRepository repository = new FailingRepository(Set.of());
+        RosterImporter.Result result = new RosterImporter(repository).importRoster(roster(1000), null, null);
+
+        assertEquals(1000, result.getInserted());
+        assertEquals(0, result.getRejected());
+        assertEquals(2, repository.calls);
+    }
+
+    private Path roster(int rows) throws IOException {
+        StringBuilder csv = new StringBuilder("lrn,first_name,last_name,grade_level,section\n");
+        for (int i = 0; i < rows; i++) {
+            csv.append(lrn(i)).append(",First").append(i).append(",Last").append(i).append(",11,A\n");
+        }
+        Path file = folder.newFile("roster.csv").toPath();
+        Files.write(file, csv.toString().getBytes(StandardCharsets.UTF_8));
+        return file;
+    }
+
+    private static String lrn(int i) {
+        return String.valueOf(500000000000L + i);
+    }
+}